@@ -0,0 +1,53 @@
+#!/usr/bin/env python3
+"""Compares two JMH JSON result files (-rf json) benchmark by benchmark.
+
+Usage: python3 src/jmh/compare.py target/jmh/base.json target/jmh/change.json [--threshold 5]
+
+Prints one line per benchmark/params with both scores, the relative change and whether the change is
+outside the combined error margin. "faster"/"slower" take the score unit into account
+(time/op lower is better, ops/time higher is better).
+"""
+import json
+import sys
+
+
+def load(path):
+    with open(path, encoding="utf-8") as handle:
+        results = {}
+        for entry in json.load(handle):
+            params = entry.get("params") or {}
+            key = entry["benchmark"].rsplit(".", 2)[-2] + "." + entry["benchmark"].rsplit(".", 1)[-1]
+            if params:
+                key += " [" + ", ".join(f"{k}={v}" for k, v in sorted(params.items())) + "]"
+            metric = entry["primaryMetric"]
+            error = metric.get("scoreError")
+            results[key] = (metric["score"], 0.0 if error in (None, "NaN") else float(error), metric["scoreUnit"])
+        return results
+
+
+def main(argv):
+    if len(argv) < 3:
+        print(__doc__)
+        return 2
+    threshold = float(argv[argv.index("--threshold") + 1]) if "--threshold" in argv else 5.0
+    base, change = load(argv[1]), load(argv[2])
+    width = max((len(k) for k in base.keys() | change.keys()), default=10)
+    print(f"{'benchmark':<{width}}  {'base':>17}  {'change':>17}  {'delta':>8}  verdict")
+    regressions = 0
+    for key in sorted(base.keys() | change.keys()):
+        if key not in base or key not in change:
+            print(f"{key:<{width}}  {'(only in ' + ('change' if key in change else 'base') + ')':>17}")
+            continue
+        (b, b_err, unit), (c, c_err, _) = base[key], change[key]
+        delta = (c - b) / b * 100 if b else 0.0
+        higher_is_better = unit.startswith("ops/")
+        improved = delta > 0 if higher_is_better else delta < 0
+        significant = abs(c - b) > (b_err + c_err) and abs(delta) >= threshold
+        verdict = "~" if not significant else ("faster" if improved else "SLOWER")
+        regressions += verdict == "SLOWER"
+        print(f"{key:<{width}}  {b:>10.3f} {unit:<6}  {c:>10.3f} {unit:<6}  {delta:>+7.1f}%  {verdict}")
+    return 1 if regressions else 0
+
+
+if __name__ == "__main__":
+    sys.exit(main(sys.argv))
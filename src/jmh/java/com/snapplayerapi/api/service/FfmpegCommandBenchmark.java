@@ -0,0 +1,83 @@
+package com.snapplayerapi.api.service;
+
+import com.snapplayerapi.api.config.ProcessingProperties;
+import com.snapplayerapi.api.dto.ProcessingOverlayRequest;
+import com.snapplayerapi.api.dto.ProcessingSubjectAttributeRequest;
+import com.snapplayerapi.api.dto.ProcessingSubjectRequest;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * FFmpeg argument building and overlay resolution (runs once per processed item).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FfmpegCommandBenchmark {
+
+    private FfmpegService service;
+    private ProcessingOverlayRequest overlayRequest;
+    private ProcessingSubjectRequest subject;
+    private FfmpegService.FfmpegRequest plainRequest;
+    private FfmpegService.FfmpegRequest overlayFramesRequest;
+    private FfmpegService.FfmpegRequest overlaySnapshotRequest;
+
+    @Setup
+    public void setUp() {
+        ProcessingProperties properties = new ProcessingProperties();
+        properties.getFfmpeg().setFontFile("/usr/share/fonts/truetype/dejavu/DejaVuSans-Bold.ttf");
+        service = new FfmpegService(properties);
+
+        overlayRequest = new ProcessingOverlayRequest(true, "SUBJECT_AND_BOTH", "TOP_RIGHT", 40, "black@0.7", "white", 20, 10);
+        subject = new ProcessingSubjectRequest("animal-123", List.of(
+                new ProcessingSubjectAttributeRequest("brinco", "string", "12334234534", null),
+                new ProcessingSubjectAttributeRequest("peso", "number", null, 450.0),
+                new ProcessingSubjectAttributeRequest("raca", "string", "Nelore", null)
+        ));
+        FfmpegService.OverlaySettings overlay = FfmpegService.resolveOverlay(overlayRequest, subject);
+
+        Path outputDir = Path.of("/tmp/bench");
+        plainRequest = new FfmpegService.FfmpegRequest("https://example.com/video.mp4", 12.0, 3.0, 10, 1280, "jpg", 3, outputDir, null);
+        overlayFramesRequest = new FfmpegService.FfmpegRequest("https://example.com/video.mp4", 12.0, 3.0, 10, 1280, "jpg", 3, outputDir, overlay);
+        overlaySnapshotRequest = new FfmpegService.FfmpegRequest("https://example.com/video.mp4", 12.0, 5.0, 10, 1280, "jpg", 3, outputDir, overlay);
+    }
+
+    @Benchmark
+    public List<String> buildFramesCommand() {
+        return service.buildCommand(plainRequest);
+    }
+
+    @Benchmark
+    public List<String> buildFramesCommandWithOverlay() {
+        return service.buildCommand(overlayFramesRequest);
+    }
+
+    @Benchmark
+    public List<String> buildSnapshotCommandWithOverlay() {
+        return service.buildSnapshotCommand(overlaySnapshotRequest);
+    }
+
+    @Benchmark
+    public List<String> buildSinglePassCommandWithOverlay() {
+        return service.buildSinglePassCommand(overlaySnapshotRequest, overlayFramesRequest);
+    }
+
+    @Benchmark
+    public FfmpegService.OverlaySettings resolveOverlay() {
+        return FfmpegService.resolveOverlay(overlayRequest, subject);
+    }
+}
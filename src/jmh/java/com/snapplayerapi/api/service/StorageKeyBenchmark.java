@@ -0,0 +1,70 @@
+package com.snapplayerapi.api.service;
+
+import com.snapplayerapi.api.config.StorageProperties;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Storage key/URL building for one item (artifact id sanitization, key joins, URL joins).
+ *
+ * <p>Both backends are disabled so the passthrough branch runs: every key is still built, but no
+ * filesystem or network I/O is measured.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StorageKeyBenchmark {
+
+    @Param({"10", "50"})
+    public int frameCount;
+
+    private StorageService service;
+    private Path itemDir;
+    private Path snapshotFile;
+    private List<Path> frameFiles;
+
+    @Setup
+    public void setUp() {
+        StorageProperties properties = new StorageProperties();
+        properties.getLocal().setEnabled(false);
+        properties.getS3().setEnabled(false);
+        service = new StorageService(properties, Optional.empty());
+
+        itemDir = Path.of("/tmp/bench/request-1/item-000");
+        snapshotFile = itemDir.resolve("snapshot.mp4");
+        frameFiles = new ArrayList<>(frameCount);
+        for (int i = 1; i <= frameCount; i++) {
+            frameFiles.add(itemDir.resolve("frame_%05d.jpg".formatted(i)));
+        }
+    }
+
+    @Benchmark
+    public StorageService.StoredArtifacts buildArtifactKeys() throws IOException {
+        return service.storeProcessingArtifacts(
+                "req-1",
+                0,
+                "123e4567-e89b-12d3-a456-426614174000",
+                itemDir,
+                snapshotFile,
+                frameFiles
+        );
+    }
+}
@@ -0,0 +1,81 @@
+package com.snapplayerapi.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snapplayerapi.api.config.ProcessingProperties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ffprobe JSON parsing and frame-rate parsing, without spawning ffprobe.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VideoProbeParsingBenchmark {
+
+    /**
+     * Trimmed real-world `ffprobe -show_format -show_streams` output (H.264 video + AAC audio).
+     */
+    private static final String FFPROBE_OUTPUT = """
+            {
+              "streams": [
+                {
+                  "index": 0, "codec_name": "h264", "codec_long_name": "H.264 / AVC / MPEG-4 AVC / MPEG-4 part 10",
+                  "profile": "High", "codec_type": "video", "codec_tag_string": "avc1", "width": 1920, "height": 1080,
+                  "coded_width": 1920, "coded_height": 1080, "has_b_frames": 2, "pix_fmt": "yuv420p", "level": 40,
+                  "r_frame_rate": "30000/1001", "avg_frame_rate": "30000/1001", "time_base": "1/30000",
+                  "start_pts": 0, "start_time": "0.000000", "duration_ts": 18018000, "duration": "600.600000",
+                  "bit_rate": "4996210", "nb_frames": "18000",
+                  "disposition": {"default": 1, "dub": 0, "original": 0, "comment": 0},
+                  "tags": {"language": "und", "handler_name": "VideoHandler", "vendor_id": "[0][0][0][0]"}
+                },
+                {
+                  "index": 1, "codec_name": "aac", "codec_type": "audio", "sample_fmt": "fltp", "sample_rate": "48000",
+                  "channels": 2, "channel_layout": "stereo", "r_frame_rate": "0/0", "avg_frame_rate": "0/0",
+                  "time_base": "1/48000", "duration": "600.576000", "bit_rate": "128000",
+                  "tags": {"language": "und", "handler_name": "SoundHandler"}
+                }
+              ],
+              "format": {
+                "filename": "https://example.com/video.mp4", "nb_streams": 2, "nb_programs": 0,
+                "format_name": "mov,mp4,m4a,3gp,3g2,mj2", "format_long_name": "QuickTime / MOV",
+                "start_time": "0.000000", "duration": "600.600000", "size": "384812345", "bit_rate": "5125684",
+                "probe_score": 100,
+                "tags": {"major_brand": "isom", "minor_version": "512", "compatible_brands": "isomiso2avc1mp41"}
+              }
+            }
+            """;
+
+    @Param({"30000/1001", "25/1", "0/0"})
+    public String frameRate;
+
+    private VideoProbeService service;
+
+    @Setup
+    public void setUp() {
+        service = new VideoProbeService(new ProcessingProperties(), new ObjectMapper());
+    }
+
+    @Benchmark
+    public VideoProbeService.ProbeResult parseProbeOutput() {
+        return service.parseProbeOutput(FFPROBE_OUTPUT);
+    }
+
+    @Benchmark
+    public Double parseFrameRate() {
+        return VideoProbeService.parseFrameRate(frameRate);
+    }
+}
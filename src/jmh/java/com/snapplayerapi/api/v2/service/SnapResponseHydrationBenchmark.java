@@ -0,0 +1,108 @@
+package com.snapplayerapi.api.v2.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snapplayerapi.api.dto.ProcessingFrameResponse;
+import com.snapplayerapi.api.dto.ProcessingSnapshotVideoResponse;
+import com.snapplayerapi.api.dto.ProcessingSubjectAttributeRequest;
+import com.snapplayerapi.api.dto.ProcessingVideoProbeResponse;
+import com.snapplayerapi.api.v2.config.SnapProperties;
+import com.snapplayerapi.api.v2.dto.SnapResponse;
+import com.snapplayerapi.api.v2.dto.V2SubjectRequest;
+import com.snapplayerapi.api.v2.entity.SnapEntity;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * `SnapEntity` -> `SnapResponse` mapping (JSON column hydration, dominated by `frames_json`) and
+ * the HTTP serialization of the hydrated response.
+ *
+ * <p>The service is built with only the collaborators used by {@code toResponse}; repositories are
+ * not touched by this path.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SnapResponseHydrationBenchmark {
+
+    @Param({"10", "50", "150"})
+    public int frameCount;
+
+    private ObjectMapper objectMapper;
+    private SnapV2Service service;
+    private SnapEntity snap;
+    private SnapResponse hydrated;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        service = new SnapV2Service(new SnapProperties(), null, objectMapper, null, null, null, null, null, null, null, null, null, null);
+
+        UUID snapId = UUID.randomUUID();
+        List<ProcessingFrameResponse> frames = new ArrayList<>(frameCount);
+        for (int i = 0; i < frameCount; i++) {
+            String fileName = "frame_%05d.jpg".formatted(i + 1);
+            frames.add(new ProcessingFrameResponse(i, 12.0 + i * 0.1, fileName,
+                    "https://cdn.example.com/snaps/frames/" + snapId + "/" + fileName));
+        }
+
+        snap = new SnapEntity();
+        snap.setId(snapId);
+        snap.setVideoId(UUID.randomUUID());
+        snap.setStatus("COMPLETED");
+        snap.setTipoSnap("FRAMES");
+        snap.setNicknameSnapshot("fazenda-boa-vista");
+        snap.setEmailSnapshot("user@example.com");
+        snap.setDataFilmagem(OffsetDateTime.parse("2026-01-10T08:30:00Z"));
+        snap.setVideoUrl("https://cdn.example.com/videos/video.mp4");
+        snap.setStartSeconds(12.0);
+        snap.setResolvedStartSeconds(12.0);
+        snap.setDurationSeconds(frameCount / 10.0);
+        snap.setSnapshotDurationSeconds(5.0);
+        snap.setFps(10);
+        snap.setMaxWidth(1280);
+        snap.setFormat("jpg");
+        snap.setQuality(3);
+        snap.setSubjectJson(objectMapper.writeValueAsString(new V2SubjectRequest("animal-123", List.of(
+                new ProcessingSubjectAttributeRequest("brinco", "string", "12334234534", null),
+                new ProcessingSubjectAttributeRequest("peso", "number", null, 450.0)
+        ))));
+        snap.setVideoProbeJson(objectMapper.writeValueAsString(new ProcessingVideoProbeResponse(
+                true, "mov,mp4,m4a,3gp,3g2,mj2", "h264", 1920, 1080, 600.6, 29.97, "yuv420p", null)));
+        snap.setSnapshotVideoJson(objectMapper.writeValueAsString(new ProcessingSnapshotVideoResponse(
+                "snapshot.mp4", "https://cdn.example.com/snaps/snapshots/" + snapId + "/snapshot.mp4", 5.0)));
+        snap.setFramesJson(objectMapper.writeValueAsString(frames));
+        snap.setFrameCount(frameCount);
+        snap.setCreatedAt(OffsetDateTime.parse("2026-01-10T08:31:00Z"));
+        snap.setProcessedAt(OffsetDateTime.parse("2026-01-10T08:31:04Z"));
+
+        hydrated = service.toResponse(snap);
+    }
+
+    @Benchmark
+    public SnapResponse hydrateResponse() {
+        return service.toResponse(snap);
+    }
+
+    @Benchmark
+    public String serializeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(hydrated);
+    }
+}
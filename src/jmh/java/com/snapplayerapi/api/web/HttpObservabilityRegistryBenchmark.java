@@ -0,0 +1,67 @@
+package com.snapplayerapi.api.web;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * `HttpObservabilityRegistry.record` under contention: 8 threads hitting a handful of hot routes,
+ * which is what the interceptor does on every request.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class HttpObservabilityRegistryBenchmark {
+
+    private static final String[] METHODS = {"GET", "GET", "POST", "GET"};
+    private static final String[] ROUTES = {
+            "/v2/snaps/{id}",
+            "/v2/snaps/mine",
+            "/v2/snaps",
+            "/public/snaps/{token}"
+    };
+    private static final int[] STATUSES = {200, 200, 201, 200, 404, 200, 500, 200};
+
+    @State(Scope.Benchmark)
+    public static class SharedRegistry {
+        HttpObservabilityRegistry registry;
+
+        @Setup
+        public void setUp() {
+            registry = new HttpObservabilityRegistry();
+            for (int i = 0; i < ROUTES.length; i++) {
+                registry.record(METHODS[i], ROUTES[i], 200, 10L);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class RequestSequence {
+        int next;
+    }
+
+    @Benchmark
+    public void record(SharedRegistry shared, RequestSequence sequence) {
+        int i = sequence.next++;
+        int route = i & (ROUTES.length - 1);
+        shared.registry.record(METHODS[route], ROUTES[route], STATUSES[i & (STATUSES.length - 1)], 5L + (i & 127));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object snapshot(SharedRegistry shared) {
+        return shared.registry.snapshot();
+    }
+}
@@ -0,0 +1,49 @@
+package com.snapplayerapi.api.config;
+
+import com.snapplayerapi.api.service.ProcessThreads;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Shared executor used to run batch items of `ProcessingVideoFrameService` in parallel.
+ *
+ * <p>The pool is sized by `app.processing.maxConcurrentItems` and shared by every request, so the
+ * number of items (and therefore FFmpeg processes) running at once stays bounded no matter how many
+ * batches arrive concurrently. Extra items wait in the queue instead of oversubscribing the cores.</p>
+ */
+@Configuration
+public class ProcessingExecutorConfig {
+
+    public static final String PROCESSING_ITEM_EXECUTOR = "processingItemExecutor";
+
+    private static final Logger log = LoggerFactory.getLogger(ProcessingExecutorConfig.class);
+
+    @Bean(name = PROCESSING_ITEM_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService processingItemExecutor(ProcessingProperties processingProperties) {
+        int threads = Math.max(1, processingProperties.getMaxConcurrentItems());
+        boolean virtualThreads = processingProperties.isVirtualThreads();
+        if (virtualThreads && !ProcessThreads.virtualThreadsAvailable()) {
+            log.warn("processing_threads_mode virtual=requested available=false fallback=platform");
+        } else {
+            log.info("processing_threads_mode virtual={} maxConcurrentFfmpeg={}",
+                    virtualThreads, processingProperties.getFfmpeg().getMaxConcurrentProcesses());
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                60L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                ProcessThreads.factory(virtualThreads, "processing-item-")
+        );
+        // Idle threads are released between bursts; the pool grows back up to the cap on demand.
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -31,14 +31,46 @@ public class ProcessingProperties {
     @Min(320)
     private int maxWidth = 1280;
 
+    /**
+     * Maximum number of items of one batch processed at the same time. `1` keeps the sequential loop.
+     */
+    @Min(1)
+    private int itemParallelism = 1;
+
+    /**
+     * Global cap of batch items running concurrently across all requests (shared executor size).
+     */
+    @Min(1)
+    private int maxConcurrentItems = 4;
+
     private List<String> acceptedContainers = new ArrayList<>(List.of("mp4", "mov", "mkv", "webm"));
 
+    /**
+     * Runs process supervision (output drainers, worker slots, batch item executor) on virtual threads
+     * when the JDK provides them (21+); ignored on older runtimes. Bound to
+     * `spring.threads.virtual.enabled`, which moves Tomcat request handling as well.
+     */
+    private boolean virtualThreads = false;
+
+    /**
+     * Items with identical clip parameters running at the same time share one FFmpeg run and its
+     * stored artifacts (`ProcessingVideoFrameService`). Off by default: without content-addressed
+     * blobs only items with the same artifact id hint (retries of one snap) can share a run.
+     */
+    private boolean coalesceIdenticalItems = false;
+
     @Valid
     private final Ffmpeg ffmpeg = new Ffmpeg();
 
     @Valid
     private final Ffprobe ffprobe = new Ffprobe();
 
+    @Valid
+    private final ProbeCache probeCache = new ProbeCache();
+
+    @Valid
+    private final SourceCache sourceCache = new SourceCache();
+
     public String getTmpBase() {
         return tmpBase;
     }
@@ -87,6 +119,22 @@ public class ProcessingProperties {
         this.maxWidth = maxWidth;
     }
 
+    public int getItemParallelism() {
+        return itemParallelism;
+    }
+
+    public void setItemParallelism(int itemParallelism) {
+        this.itemParallelism = itemParallelism;
+    }
+
+    public int getMaxConcurrentItems() {
+        return maxConcurrentItems;
+    }
+
+    public void setMaxConcurrentItems(int maxConcurrentItems) {
+        this.maxConcurrentItems = maxConcurrentItems;
+    }
+
     public List<String> getAcceptedContainers() {
         return acceptedContainers;
     }
@@ -95,6 +143,22 @@ public class ProcessingProperties {
         this.acceptedContainers = acceptedContainers == null ? new ArrayList<>() : new ArrayList<>(acceptedContainers);
     }
 
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public boolean isCoalesceIdenticalItems() {
+        return coalesceIdenticalItems;
+    }
+
+    public void setCoalesceIdenticalItems(boolean coalesceIdenticalItems) {
+        this.coalesceIdenticalItems = coalesceIdenticalItems;
+    }
+
     public Ffmpeg getFfmpeg() {
         return ffmpeg;
     }
@@ -103,6 +167,14 @@ public class ProcessingProperties {
         return ffprobe;
     }
 
+    public ProbeCache getProbeCache() {
+        return probeCache;
+    }
+
+    public SourceCache getSourceCache() {
+        return sourceCache;
+    }
+
     public static class Ffmpeg {
         @NotBlank
         private String path = "ffmpeg";
@@ -113,6 +185,40 @@ public class ProcessingProperties {
         @NotBlank
         private String fontFile = "/usr/share/fonts/truetype/dejavu/DejaVuSans-Bold.ttf";
 
+        /**
+         * When true, snapshot and frames are produced by one FFmpeg process (single decode, `split`
+         * filter). Set to false to fall back to the original two-command pipeline.
+         */
+        private boolean singlePassEnabled = true;
+
+        /**
+         * How frames leave FFmpeg: numbered files in the temp item dir ({@code FILES}) or an MJPEG stream
+         * on stdout that is split and persisted frame by frame while extraction runs ({@code PIPE}).
+         * PIPE applies only to jpg frames; png requests keep using files.
+         */
+        private FrameOutputMode frameOutputMode = FrameOutputMode.FILES;
+
+        /**
+         * Cap of FFmpeg processes running at once in this JVM, across sync requests, batch items and
+         * worker slots. `0` disables the limiter. Callers over the cap wait up to
+         * {@link #queueTimeoutSeconds} for a slot and then fail the item.
+         */
+        @Min(0)
+        private int maxConcurrentProcesses = 0;
+
+        @Min(1)
+        private long queueTimeoutSeconds = 300;
+
+        /**
+         * Grid of one sprite sheet for `frameLayout=sprite` items: each sheet packs up to
+         * {@code spriteColumns * spriteRows} frames (FFmpeg `tile` filter), row by row.
+         */
+        @Min(1)
+        private int spriteColumns = 5;
+
+        @Min(1)
+        private int spriteRows = 5;
+
         public String getPath() {
             return path;
         }
@@ -136,6 +242,59 @@ public class ProcessingProperties {
         public void setFontFile(String fontFile) {
             this.fontFile = fontFile;
         }
+
+        public boolean isSinglePassEnabled() {
+            return singlePassEnabled;
+        }
+
+        public void setSinglePassEnabled(boolean singlePassEnabled) {
+            this.singlePassEnabled = singlePassEnabled;
+        }
+
+        public FrameOutputMode getFrameOutputMode() {
+            return frameOutputMode;
+        }
+
+        public void setFrameOutputMode(FrameOutputMode frameOutputMode) {
+            this.frameOutputMode = frameOutputMode;
+        }
+
+        public int getMaxConcurrentProcesses() {
+            return maxConcurrentProcesses;
+        }
+
+        public void setMaxConcurrentProcesses(int maxConcurrentProcesses) {
+            this.maxConcurrentProcesses = maxConcurrentProcesses;
+        }
+
+        public long getQueueTimeoutSeconds() {
+            return queueTimeoutSeconds;
+        }
+
+        public void setQueueTimeoutSeconds(long queueTimeoutSeconds) {
+            this.queueTimeoutSeconds = queueTimeoutSeconds;
+        }
+
+        public int getSpriteColumns() {
+            return spriteColumns;
+        }
+
+        public void setSpriteColumns(int spriteColumns) {
+            this.spriteColumns = spriteColumns;
+        }
+
+        public int getSpriteRows() {
+            return spriteRows;
+        }
+
+        public void setSpriteRows(int spriteRows) {
+            this.spriteRows = spriteRows;
+        }
+    }
+
+    public enum FrameOutputMode {
+        FILES,
+        PIPE
     }
 
     public static class Ffprobe {
@@ -161,4 +320,115 @@ public class ProcessingProperties {
             this.timeoutSeconds = timeoutSeconds;
         }
     }
+
+    /**
+     * In-process probe cache (`VideoProbeCache`) keyed by the canonical video URL hash.
+     */
+    public static class ProbeCache {
+        private boolean enabled = true;
+
+        @Min(1)
+        private int maxEntries = 1000;
+
+        @Min(1)
+        private long ttlSeconds = 3600;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getTtlSeconds() {
+            return ttlSeconds;
+        }
+
+        public void setTtlSeconds(long ttlSeconds) {
+            this.ttlSeconds = ttlSeconds;
+        }
+    }
+
+    /**
+     * On-disk chunk cache of source videos (`SourceVideoCache`), keyed by `video.url_hash` and served
+     * to FFmpeg through a loopback HTTP endpoint. Disabled by default.
+     */
+    public static class SourceCache {
+        private boolean enabled = false;
+
+        @NotBlank
+        private String dir = "/data/tmp/video-source-cache";
+
+        /**
+         * Disk quota for cached chunks; least recently read chunks are deleted beyond it.
+         */
+        @Min(1)
+        private long maxBytes = 10L * 1024 * 1024 * 1024;
+
+        @Min(65536)
+        private int chunkSizeBytes = 4 * 1024 * 1024;
+
+        @Min(1)
+        private int maxSources = 1000;
+
+        @Min(1)
+        private long requestTimeoutSeconds = 60;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDir() {
+            return dir;
+        }
+
+        public void setDir(String dir) {
+            this.dir = dir;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public void setMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        public int getChunkSizeBytes() {
+            return chunkSizeBytes;
+        }
+
+        public void setChunkSizeBytes(int chunkSizeBytes) {
+            this.chunkSizeBytes = chunkSizeBytes;
+        }
+
+        public int getMaxSources() {
+            return maxSources;
+        }
+
+        public void setMaxSources(int maxSources) {
+            this.maxSources = maxSources;
+        }
+
+        public long getRequestTimeoutSeconds() {
+            return requestTimeoutSeconds;
+        }
+
+        public void setRequestTimeoutSeconds(long requestTimeoutSeconds) {
+            this.requestTimeoutSeconds = requestTimeoutSeconds;
+        }
+    }
 }
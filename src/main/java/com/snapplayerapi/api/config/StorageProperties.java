@@ -16,6 +16,7 @@ public class StorageProperties {
 
     private final Local local = new Local();
     private final S3 s3 = new S3();
+    private final Blobs blobs = new Blobs();
 
     public Local getLocal() {
         return local;
@@ -25,6 +26,10 @@ public class StorageProperties {
         return s3;
     }
 
+    public Blobs getBlobs() {
+        return blobs;
+    }
+
     /**
      * Local persistent storage settings used as the default development fallback.
      */
@@ -32,6 +37,10 @@ public class StorageProperties {
         private boolean enabled = true;
         private String basePath = "./.data/storage";
         private String publicBaseUrl;
+        /**
+         * How temp artifacts reach {@code basePath}; see {@link TransferMode}.
+         */
+        private TransferMode transferMode = TransferMode.MOVE;
 
         public boolean isEnabled() {
             return enabled;
@@ -56,6 +65,30 @@ public class StorageProperties {
         public void setPublicBaseUrl(String publicBaseUrl) {
             this.publicBaseUrl = publicBaseUrl;
         }
+
+        public TransferMode getTransferMode() {
+            return transferMode;
+        }
+
+        public void setTransferMode(TransferMode transferMode) {
+            this.transferMode = transferMode;
+        }
+    }
+
+    /**
+     * Strategy used to persist temp artifacts into local storage.
+     *
+     * <p>{@code MOVE} and {@code LINK} avoid rewriting every byte when the temp dir and
+     * {@code basePath} share a filesystem; both fall back to {@code COPY} across devices. The temp
+     * originals are deleted right after persistence, so moving them away is safe.</p>
+     */
+    public enum TransferMode {
+        /** Atomic rename of the temp file into storage. */
+        MOVE,
+        /** Hard link to the temp inode; the temp cleanup then only drops the extra link. */
+        LINK,
+        /** Full byte copy (pre-existing behavior). */
+        COPY
     }
 
     /**
@@ -70,6 +103,23 @@ public class StorageProperties {
         private String secretKey;
         private String publicBaseUrl;
         private String prefix;
+        /**
+         * Max object uploads (PUTs and multipart parts) in flight at once, shared by every job.
+         */
+        private int uploadConcurrency = 8;
+        /**
+         * Attempts per object/part before the whole artifact upload fails (1 disables retries).
+         */
+        private int uploadMaxAttempts = 3;
+        private long uploadRetryBackoffMs = 200;
+        /**
+         * Files at or above this size (typically `snapshot.mp4`) use multipart upload.
+         */
+        private long multipartThresholdBytes = 16L * 1024 * 1024;
+        /**
+         * Multipart part size; S3 requires at least 5 MiB for every part except the last.
+         */
+        private long multipartPartSizeBytes = 8L * 1024 * 1024;
 
         public boolean isEnabled() {
             return enabled;
@@ -134,5 +184,107 @@ public class StorageProperties {
         public void setPrefix(String prefix) {
             this.prefix = prefix;
         }
+
+        public int getUploadConcurrency() {
+            return uploadConcurrency;
+        }
+
+        public void setUploadConcurrency(int uploadConcurrency) {
+            this.uploadConcurrency = uploadConcurrency;
+        }
+
+        public int getUploadMaxAttempts() {
+            return uploadMaxAttempts;
+        }
+
+        public void setUploadMaxAttempts(int uploadMaxAttempts) {
+            this.uploadMaxAttempts = uploadMaxAttempts;
+        }
+
+        public long getUploadRetryBackoffMs() {
+            return uploadRetryBackoffMs;
+        }
+
+        public void setUploadRetryBackoffMs(long uploadRetryBackoffMs) {
+            this.uploadRetryBackoffMs = uploadRetryBackoffMs;
+        }
+
+        public long getMultipartThresholdBytes() {
+            return multipartThresholdBytes;
+        }
+
+        public void setMultipartThresholdBytes(long multipartThresholdBytes) {
+            this.multipartThresholdBytes = multipartThresholdBytes;
+        }
+
+        public long getMultipartPartSizeBytes() {
+            return multipartPartSizeBytes;
+        }
+
+        public void setMultipartPartSizeBytes(long multipartPartSizeBytes) {
+            this.multipartPartSizeBytes = multipartPartSizeBytes;
+        }
+    }
+
+    /**
+     * Content-addressed layout for snap artifacts (ADR 0015).
+     *
+     * <p>When enabled, snap frames and snapshots are stored once under {@code blobs/<sha256>} on the
+     * active backend and snaps reference the shared object. Unreferenced blobs are reclaimed by a
+     * periodic sweep over the snap rows.</p>
+     */
+    public static class Blobs {
+        private boolean enabled;
+        private boolean gcEnabled = true;
+        private long gcDelayMs = 3600000L;
+        /**
+         * Blobs younger than this are never swept, which covers jobs that stored artifacts but have
+         * not committed the snap row yet. Reused blobs are refreshed once half of it has elapsed.
+         */
+        private long gcGraceHours = 24;
+        /**
+         * Snap rows read per page while collecting references.
+         */
+        private int gcBatchSize = 500;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isGcEnabled() {
+            return gcEnabled;
+        }
+
+        public void setGcEnabled(boolean gcEnabled) {
+            this.gcEnabled = gcEnabled;
+        }
+
+        public long getGcDelayMs() {
+            return gcDelayMs;
+        }
+
+        public void setGcDelayMs(long gcDelayMs) {
+            this.gcDelayMs = gcDelayMs;
+        }
+
+        public long getGcGraceHours() {
+            return gcGraceHours;
+        }
+
+        public void setGcGraceHours(long gcGraceHours) {
+            this.gcGraceHours = gcGraceHours;
+        }
+
+        public int getGcBatchSize() {
+            return gcBatchSize;
+        }
+
+        public void setGcBatchSize(int gcBatchSize) {
+            this.gcBatchSize = gcBatchSize;
+        }
     }
 }
@@ -13,6 +13,9 @@ import java.time.OffsetDateTime;
  *
  * <p>Unknown fields are ignored on purpose so the MVP can accept the richer payload
  * from the master plan while only implementing the local extraction subset.</p>
+ *
+ * <p>{@code frameLayout} is {@code frames} (default, one image per frame) or {@code sprite} (frames
+ * packed into a few sprite sheets, see `app.processing.ffmpeg.spriteColumns/spriteRows`).</p>
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record ProcessingFilmagemRequest(
@@ -25,6 +28,7 @@ public record ProcessingFilmagemRequest(
         Integer maxWidth,
         String format,
         Integer quality,
+        String frameLayout,
         @NotNull OffsetDateTime dataFilmagem,
         @NotNull @Valid ProcessingSubjectRequest subject,
         @Valid ProcessingOverlayRequest overlay,
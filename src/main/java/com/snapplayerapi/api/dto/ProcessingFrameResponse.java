@@ -1,9 +1,20 @@
 package com.snapplayerapi.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One extracted frame. With `frameLayout=sprite`, {@code fileName}/{@code path} point to the sprite
+ * sheet holding the frame and {@code sprite} gives its crop rectangle; plain frames omit {@code sprite}.
+ */
 public record ProcessingFrameResponse(
         int index,
         double timestampSeconds,
         String fileName,
-        String path
+        String path,
+        @JsonInclude(JsonInclude.Include.NON_NULL) ProcessingFrameSpriteResponse sprite
 ) {
+
+    public ProcessingFrameResponse(int index, double timestampSeconds, String fileName, String path) {
+        this(index, timestampSeconds, fileName, path, null);
+    }
 }
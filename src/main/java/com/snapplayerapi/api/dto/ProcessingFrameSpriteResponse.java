@@ -0,0 +1,13 @@
+package com.snapplayerapi.api.dto;
+
+/**
+ * Position of one frame inside its sprite sheet (`frameLayout=sprite`), in pixels from the top-left
+ * corner of the sheet referenced by {@link ProcessingFrameResponse#path()}.
+ */
+public record ProcessingFrameSpriteResponse(
+        int x,
+        int y,
+        int width,
+        int height
+) {
+}
@@ -0,0 +1,120 @@
+package com.snapplayerapi.api.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Small in-process LRU cache with a per-entry time-to-live.
+ *
+ * <p>Entries are evicted when the cache exceeds {@code maxEntries} (least recently used first) or when
+ * they are read after their TTL expired. The map is guarded by a single monitor: the caches built on top
+ * of it hold a few thousand small entries and the critical sections are O(1), so a plain synchronized
+ * {@link LinkedHashMap} is simpler and cheaper than pulling a caching library for this use.</p>
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final LongAdder evictions = new LongAdder();
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    public BoundedTtlCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, System::nanoTime);
+    }
+
+    BoundedTtlCache(int maxEntries, Duration ttl, LongSupplier nanoClock) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlNanos = Math.max(1L, ttl.toNanos());
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedTtlCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value, or {@code null} when absent or expired.
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (nanoClock.getAsLong() - entry.storedAtNanos() > ttlNanos) {
+            entries.remove(key);
+            evictions.increment();
+            return null;
+        }
+        return entry.value();
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, nanoClock.getAsLong()));
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Drops every entry whose value matches {@code predicate}; used when the key alone does not identify
+     * all entries derived from the same source row. O(n), meant for rare administrative invalidations.
+     *
+     * @return number of entries removed
+     */
+    public synchronized int invalidateMatching(Predicate<? super V> predicate) {
+        int removed = 0;
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (predicate.test(iterator.next().value())) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Drops every expired entry. Optional housekeeping; reads already ignore expired entries.
+     */
+    public synchronized void purgeExpired() {
+        long now = nanoClock.getAsLong();
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().storedAtNanos() > ttlNanos) {
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Total entries removed because of size pressure or TTL expiry (explicit invalidations excluded).
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private record Entry<V>(V value, long storedAtNanos) {
+    }
+}
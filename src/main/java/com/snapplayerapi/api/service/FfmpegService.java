@@ -14,13 +14,18 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 import org.springframework.stereotype.Service;
 
 @Service
 public class FfmpegService {
 
+    static final String FRAME_FILE_PREFIX = "frame_";
+    static final String SPRITE_FILE_PREFIX = "sprite_";
     private static final int STDERR_LIMIT_BYTES = 8192;
     private static final Pattern SAFE_COLOR_PATTERN = Pattern.compile("[A-Za-z0-9@._#-]{1,64}");
     private static final long DRAW_TEXT_CHECK_TIMEOUT_SECONDS = 10;
@@ -29,10 +34,16 @@ public class FfmpegService {
     private static final int OVERLAY_MAX_CARD_VALUE_CHARS = 48;
 
     private final ProcessingProperties properties;
+    /**
+     * Global FFmpeg process limiter; {@code null} when {@code maxConcurrentProcesses=0}.
+     */
+    private final Semaphore processPermits;
     private volatile Boolean drawtextAvailable;
 
     public FfmpegService(ProcessingProperties properties) {
         this.properties = properties;
+        int maxProcesses = properties.getFfmpeg().getMaxConcurrentProcesses();
+        this.processPermits = maxProcesses > 0 ? new Semaphore(maxProcesses, true) : null;
     }
 
     /**
@@ -55,24 +66,112 @@ public class FfmpegService {
         runCommand(buildSnapshotCommand(request));
     }
 
+    /**
+     * Generates {@code snapshot.mp4} and the image frames from a single decode of the clip.
+     *
+     * <p>The two-command path opens the remote URL twice, seeks twice and decodes the same clip twice.
+     * Here one FFmpeg process reads the input once and a {@code split} filter feeds both the libx264
+     * encoder and the {@code fps,scale} image sink. Both requests must describe the same input clip
+     * (URL, start and output directory); only their durations may differ.</p>
+     */
+    public void createSnapshotAndFrames(FfmpegRequest snapshotRequest, FfmpegRequest framesRequest) {
+        if (snapshotRequest.overlay() != null || framesRequest.overlay() != null) {
+            ensureDrawtextAvailable();
+        }
+        runCommand(buildSinglePassCommand(snapshotRequest, framesRequest));
+    }
+
+    /**
+     * Extracts JPEG frames as an MJPEG stream on stdout and hands each frame to {@code sink} as soon as
+     * it is complete, without writing frame files to the temp directory.
+     *
+     * @return number of frames emitted
+     */
+    public int streamFrames(FfmpegRequest request, FrameSink sink) {
+        if (request.overlay() != null) {
+            ensureDrawtextAvailable();
+        }
+        return runPipedCommand(buildCommand(request, true), sink);
+    }
+
+    /**
+     * Single-pass variant of {@link #streamFrames}: {@code snapshot.mp4} is still written to the item
+     * directory (MP4 needs a seekable output for its index) while the frames branch goes to stdout.
+     *
+     * @return number of frames emitted
+     */
+    public int createSnapshotAndStreamFrames(FfmpegRequest snapshotRequest, FfmpegRequest framesRequest, FrameSink sink) {
+        if (snapshotRequest.overlay() != null || framesRequest.overlay() != null) {
+            ensureDrawtextAvailable();
+        }
+        return runPipedCommand(buildSinglePassCommand(snapshotRequest, framesRequest, true), sink);
+    }
+
     List<String> buildCommand(FfmpegRequest request) {
+        return buildCommand(request, false);
+    }
+
+    List<String> buildCommand(FfmpegRequest request, boolean framesToPipe) {
         List<String> args = baseInputArgs(request);
         args.add("-vf");
         args.add(buildFramesFilter(request));
+        addFramesOutput(args, request, framesToPipe);
+        return List.copyOf(args);
+    }
+
+    /**
+     * Appends the frames output: numbered image files (one per frame, or one per sprite sheet), or an
+     * MJPEG {@code image2pipe} stream on stdout.
+     */
+    private static void addFramesOutput(List<String> args, FfmpegRequest request, boolean toPipe) {
+        if (toPipe) {
+            if (!"jpg".equals(request.format())) {
+                throw new IllegalArgumentException("frame streaming (PIPE mode) supports only jpg frames");
+            }
+            if (request.sprite() != null) {
+                throw new IllegalArgumentException("frame streaming (PIPE mode) does not support sprite sheets");
+            }
+            args.add("-f");
+            args.add("image2pipe");
+            args.add("-c:v");
+            args.add("mjpeg");
+            args.add("-q:v");
+            args.add(Integer.toString(request.quality()));
+            args.add("pipe:1");
+            return;
+        }
         if ("jpg".equals(request.format())) {
             args.add("-q:v");
             args.add(Integer.toString(request.quality()));
         }
-        args.add(request.outputDir().resolve("frame_%05d." + request.format()).toString());
-        return List.copyOf(args);
+        String pattern = request.sprite() != null ? SPRITE_FILE_PREFIX + "%03d." : FRAME_FILE_PREFIX + "%05d.";
+        args.add(request.outputDir().resolve(pattern + request.format()).toString());
     }
 
     private String buildFramesFilter(FfmpegRequest request) {
-        String base = "fps=%d,scale=%d:-2".formatted(request.fps(), request.maxWidth());
-        if (request.overlay() == null) {
+        SpriteLayout sprite = request.sprite();
+        String base;
+        if (sprite == null) {
+            base = "fps=%d,scale=%d:-2".formatted(request.fps(), request.maxWidth());
+        } else {
+            // Cells are sized from the coded dimensions. Frames are made square-pixel, fitted into the cell
+            // and padded, so rotated or anamorphic sources get bars instead of being stretched.
+            String cell = sprite.frameWidth() + ":" + sprite.frameHeight();
+            base = "fps=%d,scale=iw*sar:ih,setsar=1,scale=%s:force_original_aspect_ratio=decrease,pad=%s:-1:-1"
+                    .formatted(request.fps(), cell, cell);
+        }
+        if (request.overlay() != null) {
+            base = base + "," + buildDrawtextFilter(request.overlay());
+        }
+        if (sprite == null) {
             return base;
         }
-        return base + "," + buildDrawtextFilter(request.overlay());
+        // Exactly `frameCount` frames reach `tile`: a short tail is padded by cloning the last frame and
+        // any extra frame is trimmed, so the per-frame offsets computed up front always match the sheets.
+        return base
+                + ",tpad=stop_mode=clone:stop=" + sprite.frameCount()
+                + ",trim=end_frame=" + sprite.frameCount()
+                + ",tile=" + sprite.columns() + "x" + sprite.rows();
     }
 
     private String buildSnapshotFilter(FfmpegRequest request) {
@@ -123,22 +222,94 @@ public class FfmpegService {
         return List.copyOf(args);
     }
 
+    /**
+     * Builds the combined snapshot + frames command.
+     *
+     * <p>The input is read with {@code -t} set to the longest of both durations. When durations differ,
+     * each branch gets its own {@code trim}/{@code setpts} so the snapshot and the frames keep exactly the
+     * same length they would have with two separate commands.</p>
+     */
+    List<String> buildSinglePassCommand(FfmpegRequest snapshotRequest, FfmpegRequest framesRequest) {
+        return buildSinglePassCommand(snapshotRequest, framesRequest, false);
+    }
+
+    List<String> buildSinglePassCommand(FfmpegRequest snapshotRequest, FfmpegRequest framesRequest, boolean framesToPipe) {
+        requireSameInputClip(snapshotRequest, framesRequest);
+        double inputDurationSeconds = Math.max(snapshotRequest.durationSeconds(), framesRequest.durationSeconds());
+        boolean trimBranches = Double.compare(snapshotRequest.durationSeconds(), framesRequest.durationSeconds()) != 0;
+
+        String snapshotChain = buildSnapshotFilter(snapshotRequest);
+        String framesChain = buildFramesFilter(framesRequest);
+        if (trimBranches) {
+            snapshotChain = trimFilter(snapshotRequest.durationSeconds()) + "," + snapshotChain;
+            framesChain = trimFilter(framesRequest.durationSeconds()) + "," + framesChain;
+        }
+
+        List<String> args = inputArgs(snapshotRequest.videoUrl(), snapshotRequest.startSeconds(), inputDurationSeconds);
+        args.add("-filter_complex");
+        args.add("[0:v]split=2[snapin][framesin];"
+                + "[snapin]" + snapshotChain + "[snapout];"
+                + "[framesin]" + framesChain + "[framesout]");
+
+        args.add("-map");
+        args.add("[snapout]");
+        args.add("-c:v");
+        args.add("libx264");
+        args.add("-preset");
+        args.add("veryfast");
+        args.add("-crf");
+        args.add("23");
+        args.add("-an");
+        args.add(snapshotRequest.outputDir().resolve("snapshot.mp4").toString());
+
+        args.add("-map");
+        args.add("[framesout]");
+        addFramesOutput(args, framesRequest, framesToPipe);
+        return List.copyOf(args);
+    }
+
+    private static void requireSameInputClip(FfmpegRequest snapshotRequest, FfmpegRequest framesRequest) {
+        if (!Objects.equals(snapshotRequest.videoUrl(), framesRequest.videoUrl())
+                || Double.compare(snapshotRequest.startSeconds(), framesRequest.startSeconds()) != 0
+                || !Objects.equals(snapshotRequest.outputDir(), framesRequest.outputDir())) {
+            throw new IllegalArgumentException("single-pass ffmpeg requires the same videoUrl, start and outputDir");
+        }
+    }
+
+    private static String trimFilter(double durationSeconds) {
+        // `setpts` rebases timestamps so the encoder/image sink see a clip starting at zero after the trim.
+        return "trim=duration=" + doubleArg(durationSeconds) + ",setpts=PTS-STARTPTS";
+    }
+
     private List<String> baseInputArgs(FfmpegRequest request) {
+        return inputArgs(request.videoUrl(), request.startSeconds(), request.durationSeconds());
+    }
+
+    private List<String> inputArgs(String videoUrl, double startSeconds, double durationSeconds) {
         List<String> args = new ArrayList<>();
         args.add(properties.getFfmpeg().getPath());
         args.add("-hide_banner");
         args.add("-loglevel");
         args.add("error");
         args.add("-ss");
-        args.add(doubleArg(request.startSeconds()));
+        args.add(doubleArg(startSeconds));
         args.add("-t");
-        args.add(doubleArg(request.durationSeconds()));
+        args.add(doubleArg(durationSeconds));
         args.add("-i");
-        args.add(request.videoUrl());
+        args.add(videoUrl);
         return args;
     }
 
     private void runCommand(List<String> command) {
+        acquireProcessPermit();
+        try {
+            runCommandWithPermit(command);
+        } finally {
+            releaseProcessPermit();
+        }
+    }
+
+    private void runCommandWithPermit(List<String> command) {
         ProcessBuilder processBuilder = new ProcessBuilder(command);
         processBuilder.redirectErrorStream(true);
 
@@ -150,13 +321,12 @@ public class FfmpegService {
         }
 
         ByteArrayOutputStream capturedOutput = new ByteArrayOutputStream();
-        Thread readerThread = new Thread(() -> drainStream(process.getInputStream(), capturedOutput), "ffmpeg-output-reader");
-        readerThread.setDaemon(true);
-        readerThread.start();
+        Thread readerThread = ProcessThreads.start(properties.isVirtualThreads(), "ffmpeg-output-reader",
+                () -> drainStream(process.getInputStream(), capturedOutput));
 
         boolean finished;
         try {
-            finished = process.waitFor(properties.getFfmpeg().getTimeoutSeconds(), TimeUnit.SECONDS);
+            finished = ProcessThreads.awaitExit(process, properties.getFfmpeg().getTimeoutSeconds(), TimeUnit.SECONDS);
             if (!finished) {
                 process.destroyForcibly();
                 joinQuietly(readerThread);
@@ -176,6 +346,75 @@ public class FfmpegService {
         }
     }
 
+    /**
+     * Runs FFmpeg with frames on stdout, splitting the MJPEG stream on a reader thread.
+     *
+     * <p>stderr is drained separately (stdout carries image bytes). When the sink fails (e.g. storage
+     * rejected a frame) the process is killed right away instead of blocking on a full pipe until the
+     * timeout, and the sink failure is reported as the cause.</p>
+     */
+    private int runPipedCommand(List<String> command, FrameSink sink) {
+        acquireProcessPermit();
+        try {
+            return runPipedCommandWithPermit(command, sink);
+        } finally {
+            releaseProcessPermit();
+        }
+    }
+
+    private int runPipedCommandWithPermit(List<String> command, FrameSink sink) {
+        Process process;
+        try {
+            process = new ProcessBuilder(command).start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start ffmpeg process", e);
+        }
+
+        ByteArrayOutputStream capturedErrors = new ByteArrayOutputStream();
+        Thread stderrThread = ProcessThreads.start(properties.isVirtualThreads(), "ffmpeg-output-reader",
+                () -> drainStream(process.getErrorStream(), capturedErrors));
+
+        AtomicInteger frameCount = new AtomicInteger();
+        AtomicReference<Exception> sinkFailure = new AtomicReference<>();
+        Thread frameThread = ProcessThreads.start(properties.isVirtualThreads(), "ffmpeg-frame-reader", () -> {
+            try (InputStream frames = process.getInputStream()) {
+                frameCount.set(MjpegFrameSplitter.split(frames, sink));
+            } catch (Exception e) {
+                sinkFailure.set(e);
+                process.destroyForcibly();
+            }
+        });
+
+        try {
+            boolean finished = ProcessThreads.awaitExit(process, properties.getFfmpeg().getTimeoutSeconds(), TimeUnit.SECONDS);
+            if (!finished) {
+                process.destroyForcibly();
+                joinQuietly(frameThread);
+                joinQuietly(stderrThread);
+                throw new IllegalStateException("ffmpeg timed out after %d seconds".formatted(properties.getFfmpeg().getTimeoutSeconds()));
+            }
+            // stdout reaches EOF once the process exits, so the reader always completes; wait for the
+            // last frames to be handed to the sink.
+            frameThread.join();
+            joinQuietly(stderrThread);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroyForcibly();
+            throw new IllegalStateException("Interrupted while waiting for ffmpeg", e);
+        }
+
+        Exception failure = sinkFailure.get();
+        if (failure != null) {
+            throw new IllegalStateException("Failed to consume ffmpeg frame stream: " + failure.getMessage(), failure);
+        }
+        int exitCode = process.exitValue();
+        if (exitCode != 0) {
+            String output = capturedErrors.toString(StandardCharsets.UTF_8);
+            throw new IllegalStateException("ffmpeg failed with exit code %d: %s".formatted(exitCode, output));
+        }
+        return frameCount.get();
+    }
+
     private void ensureDrawtextAvailable() {
         Boolean cached = drawtextAvailable;
         if (cached != null) {
@@ -209,10 +448,9 @@ public class FfmpegService {
             ByteArrayOutputStream output = new ByteArrayOutputStream();
             // `ffmpeg -filters` output can exceed the normal capped stderr capture. Do not truncate here,
             // otherwise `drawtext` may be missed and produce a false negative.
-            Thread readerThread = new Thread(() -> drainStreamUnbounded(process.getInputStream(), output), "ffmpeg-filters-reader");
-            readerThread.setDaemon(true);
-            readerThread.start();
-            boolean finished = process.waitFor(DRAW_TEXT_CHECK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            Thread readerThread = ProcessThreads.start(properties.isVirtualThreads(), "ffmpeg-filters-reader",
+                    () -> drainStreamUnbounded(process.getInputStream(), output));
+            boolean finished = ProcessThreads.awaitExit(process, DRAW_TEXT_CHECK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
             if (!finished) {
                 process.destroyForcibly();
                 joinQuietly(readerThread);
@@ -384,6 +622,34 @@ public class FfmpegService {
         return Double.toString(value);
     }
 
+    /**
+     * Waits for a slot of the global FFmpeg limiter (no-op when disabled).
+     *
+     * <p>Fair semaphore: with many callers queued (easy once requests run on virtual threads), slots
+     * are handed out in arrival order. Waiting longer than {@code queueTimeoutSeconds} fails the item
+     * like an FFmpeg error would.</p>
+     */
+    private void acquireProcessPermit() {
+        if (processPermits == null) {
+            return;
+        }
+        long timeoutSeconds = properties.getFfmpeg().getQueueTimeoutSeconds();
+        try {
+            if (!processPermits.tryAcquire(timeoutSeconds, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out after %d seconds waiting for an ffmpeg slot".formatted(timeoutSeconds));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an ffmpeg slot", e);
+        }
+    }
+
+    private void releaseProcessPermit() {
+        if (processPermits != null) {
+            processPermits.release();
+        }
+    }
+
     private static void joinQuietly(Thread readerThread) {
         try {
             readerThread.join(Duration.ofSeconds(2).toMillis());
@@ -421,6 +687,14 @@ public class FfmpegService {
         }
     }
 
+    /**
+     * Receives streamed frames in order; {@code index} is 1-based like {@code frame_%05d}.
+     */
+    @FunctionalInterface
+    public interface FrameSink {
+        void accept(int index, byte[] jpeg) throws IOException;
+    }
+
     public record FfmpegRequest(
             String videoUrl,
             double startSeconds,
@@ -430,8 +704,53 @@ public class FfmpegService {
             String format,
             int quality,
             Path outputDir,
-            OverlaySettings overlay
+            OverlaySettings overlay,
+            SpriteLayout sprite
     ) {
+
+        public FfmpegRequest(
+                String videoUrl,
+                double startSeconds,
+                double durationSeconds,
+                int fps,
+                int maxWidth,
+                String format,
+                int quality,
+                Path outputDir,
+                OverlaySettings overlay
+        ) {
+            this(videoUrl, startSeconds, durationSeconds, fps, maxWidth, format, quality, outputDir, overlay, null);
+        }
+    }
+
+    /**
+     * Sprite sheet grid for the frames output: {@code frameCount} frames of
+     * {@code frameWidth x frameHeight} packed row by row into sheets of {@code columns x rows} cells.
+     */
+    public record SpriteLayout(int columns, int rows, int frameWidth, int frameHeight, int frameCount) {
+
+        public int framesPerSheet() {
+            return columns * rows;
+        }
+
+        public int sheetCount() {
+            return (frameCount + framesPerSheet() - 1) / framesPerSheet();
+        }
+
+        /**
+         * Zero-based sheet holding the zero-based frame {@code frameIndex}.
+         */
+        public int sheetOf(int frameIndex) {
+            return frameIndex / framesPerSheet();
+        }
+
+        public int xOf(int frameIndex) {
+            return (frameIndex % framesPerSheet() % columns) * frameWidth;
+        }
+
+        public int yOf(int frameIndex) {
+            return (frameIndex % framesPerSheet() / columns) * frameHeight;
+        }
     }
 
     public record OverlaySettings(
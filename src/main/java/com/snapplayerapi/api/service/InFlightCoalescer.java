@@ -0,0 +1,52 @@
+package com.snapplayerapi.api.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Runs at most one computation per key at a time; callers arriving while it runs wait for it and
+ * share its outcome (value or failure) instead of starting their own.
+ *
+ * <p>Nothing is cached: once the leader finishes, the key is free and the next caller computes again.</p>
+ */
+final class InFlightCoalescer<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    Outcome<V> run(K key, Callable<V> computation) throws Exception {
+        CompletableFuture<V> leader = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, leader);
+        if (running != null) {
+            try {
+                return new Outcome<>(running.get(), true);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        try {
+            V value = computation.call();
+            leader.complete(value);
+            return new Outcome<>(value, false);
+        } catch (Exception | Error e) {
+            leader.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, leader);
+        }
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * @param shared {@code true} when the value was produced by another caller's computation
+     */
+    record Outcome<V>(V value, boolean shared) {
+    }
+}
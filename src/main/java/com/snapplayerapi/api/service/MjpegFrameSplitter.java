@@ -0,0 +1,73 @@
+package com.snapplayerapi.api.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Splits an FFmpeg {@code image2pipe}/MJPEG byte stream into individual JPEG images.
+ *
+ * <p>Each image starts with the SOI marker ({@code FF D8}) and ends with EOI ({@code FF D9}). Inside
+ * entropy-coded data every {@code FF} byte is stuffed as {@code FF 00}, so a bare {@code FF D9} can only
+ * be a real EOI. FFmpeg's mjpeg encoder writes no embedded thumbnails (which could nest a second
+ * SOI/EOI pair), which keeps a plain marker scan exact for this stream.</p>
+ */
+final class MjpegFrameSplitter {
+
+    private static final int READ_CHUNK_BYTES = 64 * 1024;
+    private static final int INITIAL_FRAME_BYTES = 128 * 1024;
+
+    private MjpegFrameSplitter() {
+    }
+
+    /**
+     * Reads {@code input} until EOF and hands every complete JPEG to {@code consumer} in stream order
+     * (1-based index, matching FFmpeg's {@code frame_%05d} numbering).
+     *
+     * @return number of frames emitted
+     */
+    static int split(InputStream input, FfmpegService.FrameSink consumer) throws IOException {
+        byte[] chunk = new byte[READ_CHUNK_BYTES];
+        byte[] frame = new byte[INITIAL_FRAME_BYTES];
+        int frameLength = 0;
+        boolean inFrame = false;
+        int previous = -1;
+        int emitted = 0;
+
+        int read;
+        while ((read = input.read(chunk)) != -1) {
+            for (int i = 0; i < read; i++) {
+                int current = chunk[i] & 0xFF;
+                if (!inFrame) {
+                    if (previous == 0xFF && current == 0xD8) {
+                        inFrame = true;
+                        frame[0] = (byte) 0xFF;
+                        frame[1] = (byte) 0xD8;
+                        frameLength = 2;
+                        previous = -1;
+                        continue;
+                    }
+                    previous = current;
+                    continue;
+                }
+
+                if (frameLength == frame.length) {
+                    frame = Arrays.copyOf(frame, frame.length * 2);
+                }
+                frame[frameLength++] = (byte) current;
+                if (previous == 0xFF && current == 0xD9) {
+                    consumer.accept(++emitted, Arrays.copyOf(frame, frameLength));
+                    inFrame = false;
+                    frameLength = 0;
+                    previous = -1;
+                    continue;
+                }
+                previous = current;
+            }
+        }
+        if (inFrame) {
+            throw new IOException("MJPEG stream ended in the middle of frame " + (emitted + 1));
+        }
+        return emitted;
+    }
+}
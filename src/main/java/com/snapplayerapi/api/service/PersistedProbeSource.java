@@ -0,0 +1,17 @@
+package com.snapplayerapi.api.service;
+
+import java.util.Optional;
+
+/**
+ * Second tier of the probe cache: probes already persisted for a video URL (e.g. `video.video_probe_json`).
+ *
+ * <p>Defined in the processing layer so `VideoProbeCache` stays independent from the v2 persistence
+ * model; the v2 module provides the implementation.</p>
+ */
+public interface PersistedProbeSource {
+
+    /**
+     * Returns a previously persisted compatible probe for the given `url_hash`, if any.
+     */
+    Optional<VideoProbeService.ProbeResult> findPersistedProbe(String urlHash);
+}
@@ -0,0 +1,98 @@
+package com.snapplayerapi.api.service;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread creation for process supervision (output drainers, worker slots, item executor).
+ *
+ * <p>With {@code app.processing.virtualThreads=true} and a JDK that has virtual threads (21+), the
+ * threads created here are virtual: an FFmpeg run then costs no platform thread while it blocks on
+ * pipes. The project still compiles for Java 17, so the virtual builder is looked up reflectively
+ * once; on older runtimes the flag silently falls back to named daemon platform threads.</p>
+ */
+public final class ProcessThreads {
+
+    private static final ThreadFactory VIRTUAL_FACTORY = lookupVirtualThreadFactory();
+
+    private ProcessThreads() {
+    }
+
+    /**
+     * Whether the running JDK supports virtual threads.
+     */
+    public static boolean virtualThreadsAvailable() {
+        return VIRTUAL_FACTORY != null;
+    }
+
+    /**
+     * Factory of threads named {@code prefix + n}: virtual when requested and available, daemon
+     * platform threads otherwise.
+     */
+    public static ThreadFactory factory(boolean preferVirtual, String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        boolean virtual = preferVirtual && VIRTUAL_FACTORY != null;
+        return runnable -> {
+            Thread thread = virtual ? VIRTUAL_FACTORY.newThread(runnable) : new Thread(runnable);
+            thread.setName(prefix + sequence.incrementAndGet());
+            if (!virtual) {
+                thread.setDaemon(true);
+            }
+            return thread;
+        };
+    }
+
+    /**
+     * Starts a single helper thread (e.g. a pipe drainer) named {@code name}.
+     */
+    public static Thread start(boolean preferVirtual, String name, Runnable task) {
+        Thread thread;
+        if (preferVirtual && VIRTUAL_FACTORY != null) {
+            // Virtual threads are always daemon threads.
+            thread = VIRTUAL_FACTORY.newThread(task);
+        } else {
+            thread = new Thread(task);
+            thread.setDaemon(true);
+        }
+        thread.setName(name);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Waits for {@code process} to exit, like {@link Process#waitFor(long, TimeUnit)}.
+     *
+     * <p>{@code waitFor} blocks in {@code Object.wait}, which pins the carrier of a virtual thread on
+     * JDK 21; {@link Process#onExit()} completes a future from the process reaper and the wait parks
+     * instead. Behaves the same on platform threads.</p>
+     *
+     * @return {@code true} if the process exited before the timeout
+     */
+    public static boolean awaitExit(Process process, long timeout, TimeUnit unit) throws InterruptedException {
+        try {
+            process.onExit().get(timeout, unit);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            // onExit() never completes exceptionally for a started process; fall back to the plain wait.
+            return process.waitFor(timeout, unit);
+        }
+    }
+
+    private static ThreadFactory lookupVirtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            // Resolve `factory()` on the public Thread.Builder interface: the builder's own class is
+            // package-private in java.lang and not reflectively accessible.
+            Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
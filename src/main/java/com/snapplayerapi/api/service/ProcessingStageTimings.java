@@ -0,0 +1,56 @@
+package com.snapplayerapi.api.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-stage wall-clock timings collected while one processing request runs.
+ *
+ * <p>Callers (the async worker) create one instance per job and pass it down through the gateway;
+ * the processing pipeline adds elapsed time per stage. Stages that never ran stay {@code null} so the
+ * job row can distinguish "not measured" from "0 ms". For batches with several items the stage
+ * times are summed, which is why adds are atomic (items may run on the shared item executor).</p>
+ *
+ * <p>Stage semantics:
+ * - {@code PROBE}: video probe lookup (memory/persisted cache or ffprobe against the origin)
+ * - {@code SNAPSHOT_ENCODE}: snapshot.mp4 encode; in single-pass mode the one FFmpeg run that
+ *   produces snapshot and frames is reported here and {@code FRAME_EXTRACT} stays empty
+ * - {@code FRAME_EXTRACT}: separate frame extraction command (two-command mode only)
+ * - {@code UPLOAD}: artifact persistence; in PIPE frame mode only the wait left after FFmpeg exits,
+ *   since frame uploads overlap extraction</p>
+ */
+public final class ProcessingStageTimings {
+
+    public enum Stage {
+        PROBE,
+        SNAPSHOT_ENCODE,
+        FRAME_EXTRACT,
+        UPLOAD
+    }
+
+    private static final long NOT_RECORDED = -1L;
+
+    private final AtomicLongArray nanos = new AtomicLongArray(Stage.values().length);
+
+    public ProcessingStageTimings() {
+        for (int i = 0; i < nanos.length(); i++) {
+            nanos.set(i, NOT_RECORDED);
+        }
+    }
+
+    /**
+     * Adds the time elapsed since {@code startedAtNanos} ({@link System#nanoTime()}) to {@code stage}.
+     */
+    public void recordSince(Stage stage, long startedAtNanos) {
+        long elapsed = Math.max(0L, System.nanoTime() - startedAtNanos);
+        nanos.accumulateAndGet(stage.ordinal(), elapsed, (current, added) -> current == NOT_RECORDED ? added : current + added);
+    }
+
+    /**
+     * Milliseconds spent in {@code stage}, or {@code null} when the stage did not run.
+     */
+    public Long millis(Stage stage) {
+        long value = nanos.get(stage.ordinal());
+        return value == NOT_RECORDED ? null : TimeUnit.NANOSECONDS.toMillis(value);
+    }
+}
@@ -1,10 +1,12 @@
 package com.snapplayerapi.api.service;
 
+import com.snapplayerapi.api.config.ProcessingExecutorConfig;
 import com.snapplayerapi.api.config.ProcessingProperties;
 import com.snapplayerapi.api.dto.ProcessingBatchResponse;
 import com.snapplayerapi.api.dto.ProcessingFilmagemRequest;
 import com.snapplayerapi.api.dto.ProcessingFilmagemResponse;
 import com.snapplayerapi.api.dto.ProcessingFrameResponse;
+import com.snapplayerapi.api.dto.ProcessingFrameSpriteResponse;
 import com.snapplayerapi.api.dto.ProcessingSnapshotVideoResponse;
 import com.snapplayerapi.api.dto.ProcessingSubjectAttributeRequest;
 import com.snapplayerapi.api.dto.ProcessingSubjectRequest;
@@ -18,34 +20,62 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 @Service
 public class ProcessingVideoFrameService {
 
+    private static final Logger log = LoggerFactory.getLogger(ProcessingVideoFrameService.class);
+
     private final ProcessingProperties properties;
     private final TempStorageService tempStorageService;
     private final FfmpegService ffmpegService;
-    private final VideoProbeService videoProbeService;
+    private final VideoProbeCache videoProbeCache;
+    private final SourceVideoCache sourceVideoCache;
     private final StorageService storageService;
+    private final ExecutorService itemExecutor;
+    private final InFlightCoalescer<RenderKey, RenderedItem> inFlightRenders = new InFlightCoalescer<>();
 
     public ProcessingVideoFrameService(
             ProcessingProperties properties,
             TempStorageService tempStorageService,
             FfmpegService ffmpegService,
-            VideoProbeService videoProbeService,
-            StorageService storageService
+            VideoProbeCache videoProbeCache,
+            SourceVideoCache sourceVideoCache,
+            StorageService storageService,
+            @Qualifier(ProcessingExecutorConfig.PROCESSING_ITEM_EXECUTOR) ExecutorService itemExecutor
     ) {
         this.properties = properties;
         this.tempStorageService = tempStorageService;
         this.ffmpegService = ffmpegService;
-        this.videoProbeService = videoProbeService;
+        this.videoProbeCache = videoProbeCache;
+        this.sourceVideoCache = sourceVideoCache;
         this.storageService = storageService;
+        this.itemExecutor = itemExecutor;
     }
 
     public ProcessingBatchResponse process(List<ProcessingFilmagemRequest> requests) {
+        return process(requests, new ProcessingStageTimings());
+    }
+
+    /**
+     * Same as {@link #process(List)}, adding per-stage elapsed time (probe, encode, extract, upload)
+     * to {@code timings}. Used by the async worker to persist a stage breakdown per job.
+     */
+    public ProcessingBatchResponse process(List<ProcessingFilmagemRequest> requests, ProcessingStageTimings timings) {
         validateBatch(requests);
 
         String requestId = UUID.randomUUID().toString();
@@ -56,111 +86,8 @@ public class ProcessingVideoFrameService {
             throw new IllegalStateException("Could not create request temp directory", e);
         }
 
-        List<ProcessingFilmagemResponse> results = new ArrayList<>();
-        int successCount = 0;
-
-        // Process every item and keep per-item failure details, so the caller receives a consolidated result
-        // even when some videos fail probe/extraction.
-        for (int i = 0; i < requests.size(); i++) {
-            ProcessingFilmagemRequest request = requests.get(i);
-            Path expectedItemDir = requestDir.resolve("item-%03d".formatted(i));
-            Path itemDir = null;
-            VideoProbeService.ProbeResult probe = null;
-            try {
-                ResolvedFilmagem resolved = resolveAndValidateItem(request);
-                FfmpegService.OverlaySettings overlay = FfmpegService.resolveOverlay(request.overlay(), request.subject());
-                probe = videoProbeService.probe(request.videoUrl());
-                if (!probe.compatible()) {
-                    throw new IncompatibleVideoException(probe.reason() != null ? probe.reason() : "Video is not compatible for extraction");
-                }
-
-                double resolvedStartSeconds = resolveStartSeconds(request, probe);
-                validateRequestedRange(
-                        probe,
-                        resolvedStartSeconds,
-                        resolved.imageDurationSeconds(),
-                        resolved.snapshotDurationSeconds()
-                );
-
-                itemDir = tempStorageService.createItemDir(requestDir, i);
-                FfmpegService.FfmpegRequest snapshotRequest = new FfmpegService.FfmpegRequest(
-                        request.videoUrl(),
-                        resolvedStartSeconds,
-                        resolved.snapshotDurationSeconds(),
-                        resolved.fps(),
-                        resolved.maxWidth(),
-                        resolved.format(),
-                        resolved.quality(),
-                        itemDir,
-                        overlay
-                );
-                FfmpegService.FfmpegRequest framesRequest = new FfmpegService.FfmpegRequest(
-                        request.videoUrl(),
-                        resolvedStartSeconds,
-                        resolved.imageDurationSeconds(),
-                        resolved.fps(),
-                        resolved.maxWidth(),
-                        resolved.format(),
-                        resolved.quality(),
-                        itemDir,
-                        overlay
-                );
-                ffmpegService.createSnapshotVideo(snapshotRequest);
-                ffmpegService.extractFrames(framesRequest);
-
-                List<Path> files = tempStorageService.listFrameFiles(itemDir, resolved.format());
-                // Persist artifacts before the `finally` cleanup removes the temp item directory.
-                Path snapshotFile = requireSnapshotFile(itemDir);
-                StorageService.StoredArtifacts storedArtifacts = storageService.storeProcessingArtifacts(
-                        requestId,
-                        i,
-                        // The v2 flows pass `snapId` here, producing stable storage keys across retries.
-                        request.clientRequestId(),
-                        itemDir,
-                        snapshotFile,
-                        files
-                );
-                List<ProcessingFrameResponse> frames = buildFrameResponses(
-                        files,
-                        storedArtifacts.framePaths(),
-                        resolvedStartSeconds,
-                        resolved.fps()
-                );
-                ProcessingSnapshotVideoResponse snapshotVideo = buildSnapshotResponse(
-                        snapshotFile.getFileName().toString(),
-                        storedArtifacts.snapshotPath(),
-                        resolved.snapshotDurationSeconds()
-                );
-
-                results.add(new ProcessingFilmagemResponse(
-                        i,
-                        "SUCCEEDED",
-                        request.dataFilmagem().toString(),
-                        request.subject(),
-                        request.videoUrl(),
-                        request.startSeconds(),
-                        request.startFrame(),
-                        resolvedStartSeconds,
-                        toProbeResponse(probe),
-                        storedArtifacts.outputDir(),
-                        snapshotVideo,
-                        frames.size(),
-                        frames,
-                        null
-                ));
-                successCount++;
-            } catch (Exception e) {
-                VideoProbeService.ProbeResult failedProbe = probe;
-                if (failedProbe != null) {
-                    failedProbe = failedProbe.withReason(rootMessage(e));
-                }
-                results.add(failureResponse(i, request, expectedItemDir, failedProbe, rootMessage(e)));
-            } finally {
-                // Always clean up the item temp directory after processing (success or failure).
-                // The scheduled cleanup handles any dirs left behind by JVM crashes.
-                tempStorageService.deleteRecursively(itemDir != null ? itemDir : expectedItemDir);
-            }
-        }
+        List<ProcessingFilmagemResponse> results = processItems(requestId, requestDir, requests, timings);
+        int successCount = (int) results.stream().filter(result -> "SUCCEEDED".equals(result.status())).count();
 
         String status = overallStatus(successCount, results.size());
         return new ProcessingBatchResponse(
@@ -173,6 +100,373 @@ public class ProcessingVideoFrameService {
         );
     }
 
+    /**
+     * Runs all batch items and returns their results in request order.
+     *
+     * <p>With `app.processing.itemParallelism = 1` (or a single item) items run inline on the caller
+     * thread exactly like the original loop. Otherwise up to `itemParallelism` items of this request are
+     * submitted to the shared bounded executor, whose size (`maxConcurrentItems`) caps concurrency across
+     * all batches. Each item keeps its own `item-%03d` dir and failure capture, and results are collected
+     * by index so the response order never depends on completion order.</p>
+     */
+    private List<ProcessingFilmagemResponse> processItems(
+            String requestId,
+            Path requestDir,
+            List<ProcessingFilmagemRequest> requests,
+            ProcessingStageTimings timings
+    ) {
+        int parallelism = Math.min(Math.max(1, properties.getItemParallelism()), requests.size());
+        List<ProcessingFilmagemResponse> results = new ArrayList<>(requests.size());
+        if (parallelism <= 1) {
+            for (int i = 0; i < requests.size(); i++) {
+                results.add(processItem(requestId, requestDir, i, requests.get(i), timings));
+            }
+            return results;
+        }
+
+        // Per-request window: the caller blocks before submitting item N+parallelism until a slot frees up,
+        // so one large batch cannot monopolize the shared queue ahead of other requests.
+        Semaphore window = new Semaphore(parallelism);
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        List<Future<ProcessingFilmagemResponse>> futures = new ArrayList<>(requests.size());
+        try {
+            for (int i = 0; i < requests.size(); i++) {
+                int itemIndex = i;
+                ProcessingFilmagemRequest request = requests.get(i);
+                window.acquire();
+                try {
+                    futures.add(itemExecutor.submit(() -> {
+                        Map<String, String> previous = MDC.getCopyOfContextMap();
+                        restoreMdc(mdc);
+                        try {
+                            return processItem(requestId, requestDir, itemIndex, request, timings);
+                        } finally {
+                            restoreMdc(previous);
+                            window.release();
+                        }
+                    }));
+                } catch (RejectedExecutionException e) {
+                    window.release();
+                    throw new IllegalStateException("Processing executor is not accepting new items", e);
+                }
+            }
+            for (Future<ProcessingFilmagemResponse> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted while waiting for batch items", e);
+        } catch (ExecutionException e) {
+            // `processItem` converts every item failure into a FAILED result; reaching this means a bug.
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Unexpected batch item failure", e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Processes one batch item (probe, FFmpeg, storage) and always returns a result: failures are captured
+     * as a FAILED item instead of aborting the batch.
+     */
+    private ProcessingFilmagemResponse processItem(
+            String requestId,
+            Path requestDir,
+            int i,
+            ProcessingFilmagemRequest request,
+            ProcessingStageTimings timings
+    ) {
+        Path expectedItemDir = requestDir.resolve("item-%03d".formatted(i));
+        Path itemDir = null;
+        VideoProbeService.ProbeResult probe = null;
+        try {
+            ResolvedFilmagem resolved = resolveAndValidateItem(request);
+            FfmpegService.OverlaySettings overlay = FfmpegService.resolveOverlay(request.overlay(), request.subject());
+            // Memory -> persisted probe -> ffprobe; most snaps of a known video never spawn ffprobe.
+            long probeStartedAt = System.nanoTime();
+            probe = videoProbeCache.probe(request.videoUrl());
+            timings.recordSince(ProcessingStageTimings.Stage.PROBE, probeStartedAt);
+            if (!probe.compatible()) {
+                throw new IncompatibleVideoException(probe.reason() != null ? probe.reason() : "Video is not compatible for extraction");
+            }
+
+            double resolvedStartSeconds = resolveStartSeconds(request, probe);
+            validateRequestedRange(
+                    probe,
+                    resolvedStartSeconds,
+                    resolved.imageDurationSeconds(),
+                    resolved.snapshotDurationSeconds()
+            );
+
+            FfmpegService.SpriteLayout sprite = resolved.sprite()
+                    ? spriteLayout(probe, resolved.maxWidth(), resolved.fps(), resolved.imageDurationSeconds())
+                    : null;
+            // Loopback URL of the local source cache when enabled, so overlapping clips of one video
+            // share the downloaded byte ranges.
+            String inputUrl = sourceVideoCache.inputUrl(request.videoUrl());
+            itemDir = tempStorageService.createItemDir(requestDir, i);
+            FfmpegService.FfmpegRequest snapshotRequest = new FfmpegService.FfmpegRequest(
+                    inputUrl,
+                    resolvedStartSeconds,
+                    resolved.snapshotDurationSeconds(),
+                    resolved.fps(),
+                    resolved.maxWidth(),
+                    resolved.format(),
+                    resolved.quality(),
+                    itemDir,
+                    overlay
+            );
+            FfmpegService.FfmpegRequest framesRequest = new FfmpegService.FfmpegRequest(
+                    inputUrl,
+                    resolvedStartSeconds,
+                    resolved.imageDurationSeconds(),
+                    resolved.fps(),
+                    resolved.maxWidth(),
+                    resolved.format(),
+                    resolved.quality(),
+                    itemDir,
+                    overlay,
+                    sprite
+            );
+            Path renderDir = itemDir;
+            Callable<RenderedItem> renderer = () -> usePipedFrames(resolved.format(), sprite)
+                    ? renderWithPipedFrames(requestId, i, request, renderDir, snapshotRequest, framesRequest, timings)
+                    : renderWithFrameFiles(requestId, i, request, renderDir, snapshotRequest, framesRequest, timings);
+            RenderedItem rendered = render(request, resolvedStartSeconds, resolved, overlay, sprite, renderer);
+            StorageService.StoredArtifacts storedArtifacts = rendered.storedArtifacts();
+            Path snapshotFile = rendered.snapshotFile();
+            List<ProcessingFrameResponse> frames = sprite == null
+                    ? buildFrameResponses(
+                            rendered.frameFileNames(),
+                            storedArtifacts.framePaths(),
+                            resolvedStartSeconds,
+                            resolved.fps()
+                    )
+                    : buildSpriteFrameResponses(
+                            sprite,
+                            rendered.frameFileNames(),
+                            storedArtifacts.framePaths(),
+                            resolvedStartSeconds,
+                            resolved.fps()
+                    );
+            ProcessingSnapshotVideoResponse snapshotVideo = buildSnapshotResponse(
+                    snapshotFile.getFileName().toString(),
+                    storedArtifacts.snapshotPath(),
+                    resolved.snapshotDurationSeconds()
+            );
+
+            return new ProcessingFilmagemResponse(
+                    i,
+                    "SUCCEEDED",
+                    request.dataFilmagem().toString(),
+                    request.subject(),
+                    request.videoUrl(),
+                    request.startSeconds(),
+                    request.startFrame(),
+                    resolvedStartSeconds,
+                    toProbeResponse(probe),
+                    storedArtifacts.outputDir(),
+                    snapshotVideo,
+                    frames.size(),
+                    frames,
+                    null
+            );
+        } catch (Exception e) {
+            VideoProbeService.ProbeResult failedProbe = probe;
+            if (failedProbe != null) {
+                failedProbe = failedProbe.withReason(rootMessage(e));
+            }
+            return failureResponse(i, request, expectedItemDir, failedProbe, rootMessage(e));
+        } finally {
+            // Always clean up the item temp directory after processing (success or failure).
+            // The scheduled cleanup handles any dirs left behind by JVM crashes.
+            tempStorageService.deleteRecursively(itemDir != null ? itemDir : expectedItemDir);
+        }
+    }
+
+    /**
+     * Runs FFmpeg + storage for one item, or joins an identical render already running in this JVM.
+     *
+     * <p>Retried or parallel `POST /v2/snaps` calls with the same clip parameters would each run FFmpeg
+     * again. Items with the same {@link RenderKey} (source URL hash, resolved start, durations and
+     * every output setting, including the overlay texts) produce byte-identical artifacts, so followers
+     * wait for the leader and reuse its stored artifacts: their frames and snapshot reference the
+     * leader's storage keys. Followers record no encode/upload timings, since they ran neither.</p>
+     *
+     * <p>Those keys are only the follower's own when storage is content-addressed. Otherwise they sit
+     * under the leader's artifact id ({@code frames/<snapId>/...}), so the key is scoped by the artifact
+     * id hint and items without a hint never coalesce.</p>
+     */
+    private RenderedItem render(
+            ProcessingFilmagemRequest request,
+            double resolvedStartSeconds,
+            ResolvedFilmagem resolved,
+            FfmpegService.OverlaySettings overlay,
+            FfmpegService.SpriteLayout sprite,
+            Callable<RenderedItem> renderer
+    ) throws Exception {
+        if (!properties.isCoalesceIdenticalItems()) {
+            return renderer.call();
+        }
+        String artifactScope = null;
+        if (!storageService.storesByContent(request.clientRequestId())) {
+            if (request.clientRequestId() == null || request.clientRequestId().isBlank()) {
+                return renderer.call();
+            }
+            artifactScope = request.clientRequestId().trim();
+        }
+        RenderKey key = new RenderKey(
+                artifactScope,
+                VideoUrlKeys.urlHash(request.videoUrl()),
+                resolvedStartSeconds,
+                resolved.imageDurationSeconds(),
+                resolved.snapshotDurationSeconds(),
+                resolved.fps(),
+                resolved.maxWidth(),
+                resolved.format(),
+                resolved.quality(),
+                overlay,
+                sprite
+        );
+        InFlightCoalescer.Outcome<RenderedItem> outcome = inFlightRenders.run(key, renderer);
+        if (outcome.shared()) {
+            log.info("processing_item_coalesced urlHash={} startSeconds={} artifactId={}",
+                    key.urlHash(), resolvedStartSeconds, request.clientRequestId());
+        }
+        return outcome.value();
+    }
+
+    private boolean usePipedFrames(String format, FfmpegService.SpriteLayout sprite) {
+        // Sprite items produce a handful of sheets, so they always go through files.
+        return properties.getFfmpeg().getFrameOutputMode() == ProcessingProperties.FrameOutputMode.PIPE
+                && "jpg".equals(format)
+                && sprite == null;
+    }
+
+    /**
+     * Sprite grid for one item. The frame size is fixed up front from the probed dimensions (same
+     * aspect ratio and even-height rounding as {@code scale=maxWidth:-2}) so every cell offset is known
+     * before FFmpeg runs; the frame count is the number of {@code fps} ticks in the clip.
+     *
+     * <p>ffprobe reports coded dimensions, without rotation metadata or sample aspect ratio. For rotated
+     * or non-square-pixel sources the displayed shape differs from the cell, so the FFmpeg sprite filter
+     * letterboxes frames into the cell instead of stretching them (see {@code FfmpegService}).</p>
+     */
+    private FfmpegService.SpriteLayout spriteLayout(
+            VideoProbeService.ProbeResult probe,
+            int maxWidth,
+            int fps,
+            double imageDurationSeconds
+    ) {
+        if (probe.width() == null || probe.height() == null || probe.width() <= 0 || probe.height() <= 0) {
+            throw new IncompatibleVideoException("Could not determine video dimensions for sprite sheets");
+        }
+        int frameHeight = Math.max(2, (int) Math.round((double) maxWidth * probe.height() / probe.width() / 2.0) * 2);
+        int frameCount = Math.max(1, (int) Math.ceil(imageDurationSeconds * fps - 1e-6));
+        return new FfmpegService.SpriteLayout(
+                properties.getFfmpeg().getSpriteColumns(),
+                properties.getFfmpeg().getSpriteRows(),
+                maxWidth,
+                frameHeight,
+                frameCount
+        );
+    }
+
+    /**
+     * Classic path: FFmpeg writes numbered frame files into the item dir, which are then listed and
+     * persisted together with the snapshot.
+     */
+    private RenderedItem renderWithFrameFiles(
+            String requestId,
+            int i,
+            ProcessingFilmagemRequest request,
+            Path itemDir,
+            FfmpegService.FfmpegRequest snapshotRequest,
+            FfmpegService.FfmpegRequest framesRequest,
+            ProcessingStageTimings timings
+    ) throws IOException {
+        long encodeStartedAt = System.nanoTime();
+        if (properties.getFfmpeg().isSinglePassEnabled()) {
+            // One decode of the remote clip feeds both outputs (halves egress/CPU per item).
+            ffmpegService.createSnapshotAndFrames(snapshotRequest, framesRequest);
+            timings.recordSince(ProcessingStageTimings.Stage.SNAPSHOT_ENCODE, encodeStartedAt);
+        } else {
+            ffmpegService.createSnapshotVideo(snapshotRequest);
+            timings.recordSince(ProcessingStageTimings.Stage.SNAPSHOT_ENCODE, encodeStartedAt);
+            long extractStartedAt = System.nanoTime();
+            ffmpegService.extractFrames(framesRequest);
+            timings.recordSince(ProcessingStageTimings.Stage.FRAME_EXTRACT, extractStartedAt);
+        }
+
+        long uploadStartedAt = System.nanoTime();
+        List<Path> files = framesRequest.sprite() == null
+                ? tempStorageService.listFrameFiles(itemDir, framesRequest.format())
+                : tempStorageService.listSpriteSheets(itemDir, framesRequest.format());
+        // Persist artifacts before the `finally` cleanup removes the temp item directory.
+        Path snapshotFile = requireSnapshotFile(itemDir);
+        StorageService.StoredArtifacts storedArtifacts = storageService.storeProcessingArtifacts(
+                requestId,
+                i,
+                // The v2 flows pass `snapId` here, producing stable storage keys across retries.
+                request.clientRequestId(),
+                itemDir,
+                snapshotFile,
+                files
+        );
+        timings.recordSince(ProcessingStageTimings.Stage.UPLOAD, uploadStartedAt);
+        List<String> fileNames = files.stream().map(file -> file.getFileName().toString()).toList();
+        return new RenderedItem(fileNames, snapshotFile, storedArtifacts);
+    }
+
+    /**
+     * PIPE frame mode: FFmpeg streams MJPEG on stdout and every frame is handed to storage as soon as it
+     * is complete, so uploads overlap extraction and frames never hit the temp disk. Only the snapshot
+     * is still written to the item dir.
+     */
+    private RenderedItem renderWithPipedFrames(
+            String requestId,
+            int i,
+            ProcessingFilmagemRequest request,
+            Path itemDir,
+            FfmpegService.FfmpegRequest snapshotRequest,
+            FfmpegService.FfmpegRequest framesRequest,
+            ProcessingStageTimings timings
+    ) throws IOException {
+        try (StorageService.FrameStream frameStream = storageService.openFrameStream(
+                requestId,
+                i,
+                request.clientRequestId(),
+                itemDir
+        )) {
+            FfmpegService.FrameSink sink = (index, jpeg) -> frameStream.addFrame("frame_%05d.jpg".formatted(index), jpeg);
+            long encodeStartedAt = System.nanoTime();
+            if (properties.getFfmpeg().isSinglePassEnabled()) {
+                ffmpegService.createSnapshotAndStreamFrames(snapshotRequest, framesRequest, sink);
+                timings.recordSince(ProcessingStageTimings.Stage.SNAPSHOT_ENCODE, encodeStartedAt);
+            } else {
+                ffmpegService.createSnapshotVideo(snapshotRequest);
+                timings.recordSince(ProcessingStageTimings.Stage.SNAPSHOT_ENCODE, encodeStartedAt);
+                long extractStartedAt = System.nanoTime();
+                ffmpegService.streamFrames(framesRequest, sink);
+                timings.recordSince(ProcessingStageTimings.Stage.FRAME_EXTRACT, extractStartedAt);
+            }
+            // Frame uploads overlapped extraction; only the remaining wait (plus the snapshot) counts here.
+            long uploadStartedAt = System.nanoTime();
+            Path snapshotFile = requireSnapshotFile(itemDir);
+            StorageService.StoredArtifacts storedArtifacts = frameStream.complete(snapshotFile);
+            timings.recordSince(ProcessingStageTimings.Stage.UPLOAD, uploadStartedAt);
+            return new RenderedItem(frameStream.frameFileNames(), snapshotFile, storedArtifacts);
+        }
+    }
+
+    private static void restoreMdc(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+
     private void validateBatch(List<ProcessingFilmagemRequest> requests) {
         if (requests == null || requests.isEmpty()) {
             throw new IllegalArgumentException("Request body must contain at least one item");
@@ -226,8 +520,21 @@ public class ProcessingVideoFrameService {
             throw new IllegalArgumentException("Provide at least one of startSeconds or startFrame");
         }
 
+        String frameLayout = request.frameLayout() == null ? "frames" : request.frameLayout().toLowerCase(Locale.ROOT);
+        if (!frameLayout.equals("frames") && !frameLayout.equals("sprite")) {
+            throw new IllegalArgumentException("frameLayout must be frames or sprite");
+        }
+
         validateVideoUrl(request.videoUrl());
-        return new ResolvedFilmagem(fps, maxWidth, format, quality, imageDurationSeconds, snapshotDurationSeconds);
+        return new ResolvedFilmagem(
+                fps,
+                maxWidth,
+                format,
+                quality,
+                imageDurationSeconds,
+                snapshotDurationSeconds,
+                frameLayout.equals("sprite")
+        );
     }
 
     /**
@@ -354,26 +661,54 @@ public class ProcessingVideoFrameService {
      * and the filenames generated by FFmpeg.
      */
     private static List<ProcessingFrameResponse> buildFrameResponses(
-            List<Path> files,
+            List<String> fileNames,
             List<String> storedPaths,
             double startSeconds,
             int fps
     ) {
-        List<ProcessingFrameResponse> frames = new ArrayList<>(files.size());
-        for (int i = 0; i < files.size(); i++) {
-            Path file = files.get(i);
+        List<ProcessingFrameResponse> frames = new ArrayList<>(fileNames.size());
+        for (int i = 0; i < fileNames.size(); i++) {
             int frameIndex = i + 1;
             double timestamp = startSeconds + ((double) i / fps);
             frames.add(new ProcessingFrameResponse(
                     frameIndex,
                     timestamp,
-                    file.getFileName().toString(),
+                    fileNames.get(i),
                     storedPaths.get(i)
             ));
         }
         return frames;
     }
 
+    /**
+     * Sprite variant of {@link #buildFrameResponses}: one entry per frame (same indexes and timestamps),
+     * each pointing at its sheet plus the cell rectangle inside it.
+     */
+    private static List<ProcessingFrameResponse> buildSpriteFrameResponses(
+            FfmpegService.SpriteLayout sprite,
+            List<String> sheetFileNames,
+            List<String> storedSheetPaths,
+            double startSeconds,
+            int fps
+    ) {
+        if (sheetFileNames.size() != sprite.sheetCount()) {
+            throw new IllegalStateException("Expected %d sprite sheets but ffmpeg generated %d"
+                    .formatted(sprite.sheetCount(), sheetFileNames.size()));
+        }
+        List<ProcessingFrameResponse> frames = new ArrayList<>(sprite.frameCount());
+        for (int i = 0; i < sprite.frameCount(); i++) {
+            int sheet = sprite.sheetOf(i);
+            frames.add(new ProcessingFrameResponse(
+                    i + 1,
+                    startSeconds + ((double) i / fps),
+                    sheetFileNames.get(sheet),
+                    storedSheetPaths.get(sheet),
+                    new ProcessingFrameSpriteResponse(sprite.xOf(i), sprite.yOf(i), sprite.frameWidth(), sprite.frameHeight())
+            ));
+        }
+        return frames;
+    }
+
     /**
      * Validates that FFmpeg generated the snapshot clip before storage persistence starts.
      */
@@ -462,7 +797,40 @@ public class ProcessingVideoFrameService {
             String format,
             int quality,
             double imageDurationSeconds,
-            double snapshotDurationSeconds
+            double snapshotDurationSeconds,
+            boolean sprite
+    ) {
+    }
+
+    /**
+     * Everything that determines the bytes of an item's artifacts. {@code quality} is normalized by
+     * {@link #resolveAndValidateItem} and the overlay holds the resolved card texts, so two requests
+     * that would render differently never share a key. {@code artifactScope} is the artifact id hint
+     * when stored keys depend on it, {@code null} when they only depend on content.
+     */
+    private record RenderKey(
+            String artifactScope,
+            String urlHash,
+            double resolvedStartSeconds,
+            double imageDurationSeconds,
+            double snapshotDurationSeconds,
+            int fps,
+            int maxWidth,
+            String format,
+            int quality,
+            FfmpegService.OverlaySettings overlay,
+            FfmpegService.SpriteLayout sprite
+    ) {
+    }
+
+    /**
+     * Outcome of the FFmpeg + storage step: frame file names in order, the temp snapshot file and the
+     * persisted references.
+     */
+    private record RenderedItem(
+            List<String> frameFileNames,
+            Path snapshotFile,
+            StorageService.StoredArtifacts storedArtifacts
     ) {
     }
 
@@ -0,0 +1,497 @@
+package com.snapplayerapi.api.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.MetadataDirective;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+/**
+ * Concurrent upload engine used by {@link StorageService} to push one artifact set to S3.
+ *
+ * <p>Every object PUT and every multipart part runs on a dedicated pool sized by
+ * `app.storage.s3.uploadConcurrency`. The pool is shared by all jobs of the JVM, so the number of
+ * requests in flight against object storage stays bounded even when several snaps finish at once.
+ * Orchestration (create/complete multipart, waiting for results) stays on the caller thread, which
+ * keeps the pool free of tasks that block on other tasks of the same pool.</p>
+ *
+ * <p>Each PUT/part is retried with exponential backoff on transient failures (network errors, 5xx,
+ * 408/429). When any upload of the set still fails, pending uploads are cancelled, open multipart
+ * uploads are aborted and the original error is propagated, so the job retry policy takes over.</p>
+ *
+ * <p>The content-addressed blob layout (ADR 0015) also goes through here: existence checks run on
+ * the same pool before uploading, and the blob sweep lists/deletes objects with the same client.</p>
+ */
+final class S3ArtifactUploader implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(S3ArtifactUploader.class);
+
+    /**
+     * S3 minimum size for every multipart part except the last one.
+     */
+    static final long MIN_PART_SIZE_BYTES = 5L * 1024 * 1024;
+
+    private final S3Client client;
+    private final ThreadPoolExecutor executor;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long multipartThresholdBytes;
+    private final long partSizeBytes;
+
+    S3ArtifactUploader(
+            S3Client client,
+            int concurrency,
+            int maxAttempts,
+            long retryBackoffMs,
+            long multipartThresholdBytes,
+            long partSizeBytes
+    ) {
+        this.client = client;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = Math.max(0L, retryBackoffMs);
+        this.partSizeBytes = Math.max(MIN_PART_SIZE_BYTES, partSizeBytes);
+        this.multipartThresholdBytes = Math.max(this.partSizeBytes, multipartThresholdBytes);
+
+        int threads = Math.max(1, concurrency);
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                60L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "s3-upload-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Uploads all objects concurrently and returns only after every object is durable in the bucket.
+     *
+     * <p>Uploads are submitted in list order (callers pass the snapshot first, so its parts start
+     * before the small frames), but completion order is irrelevant: public URLs are derived from
+     * the keys, not from upload results.</p>
+     */
+    void uploadAll(String bucket, List<ObjectUpload> uploads) throws IOException {
+        List<Future<?>> pending = new ArrayList<>();
+        List<MultipartUpload> multipartUploads = new ArrayList<>();
+        try {
+            for (ObjectUpload upload : uploads) {
+                long size = Files.size(upload.file());
+                if (size >= multipartThresholdBytes && size > partSizeBytes) {
+                    MultipartUpload multipart = startMultipart(bucket, upload, size);
+                    multipartUploads.add(multipart);
+                    pending.addAll(multipart.parts);
+                } else {
+                    pending.add(executor.submit(() -> putObject(bucket, upload)));
+                }
+            }
+            for (Future<?> future : pending) {
+                await(future);
+            }
+            for (MultipartUpload multipart : multipartUploads) {
+                completeMultipart(bucket, multipart);
+            }
+        } catch (IOException | RuntimeException ex) {
+            pending.forEach(future -> future.cancel(true));
+            multipartUploads.stream()
+                    .filter(multipart -> !multipart.completed)
+                    .forEach(multipart -> abortQuietly(bucket, multipart));
+            throw ex;
+        }
+    }
+
+    /**
+     * Queues one in-memory object (a streamed frame) on the upload pool and returns immediately.
+     *
+     * <p>Callers keep the returned futures and settle them with {@link #awaitAll}; the bytes are
+     * retained until the PUT completes so retries resend the same payload. {@code whenDone} runs on
+     * the pool once the upload succeeded or failed (not when the future is cancelled before starting),
+     * so callers can bound how many frames they hold in memory.</p>
+     */
+    Future<?> submitBytes(String bucket, String key, String contentType, byte[] bytes, Runnable whenDone) {
+        return executor.submit(() -> {
+            try {
+                withRetry("put", key, () -> client.putObject(
+                        PutObjectRequest.builder()
+                                .bucket(bucket)
+                                .key(key)
+                                .contentType(contentType)
+                                .build(),
+                        RequestBody.fromBytes(bytes)
+                ));
+            } finally {
+                whenDone.run();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Waits for every future; on the first failure the remaining ones are cancelled and the error is
+     * rethrown.
+     */
+    static void awaitAll(List<? extends Future<?>> futures) throws IOException {
+        try {
+            for (Future<?> future : futures) {
+                await(future);
+            }
+        } catch (IOException | RuntimeException ex) {
+            futures.forEach(future -> future.cancel(true));
+            throw ex;
+        }
+    }
+
+    /**
+     * Uploads only the objects whose key is not in the bucket yet (content-addressed blobs).
+     *
+     * <p>Existence checks run concurrently on the upload pool. Objects that already exist but were
+     * last written before {@code refreshBefore} are copied onto themselves, which bumps their
+     * {@code LastModified} without resending bytes and keeps the blob sweep grace period meaningful
+     * for blobs a new snap is about to reference.</p>
+     *
+     * @return number of objects actually uploaded
+     */
+    int uploadAbsent(String bucket, List<ObjectUpload> uploads, Instant refreshBefore) throws IOException {
+        List<Future<Boolean>> checks = new ArrayList<>(uploads.size());
+        for (ObjectUpload upload : uploads) {
+            checks.add(executor.submit(() -> reuseExisting(bucket, upload.key(), upload.contentType(), refreshBefore)));
+        }
+        List<ObjectUpload> missing = new ArrayList<>();
+        try {
+            for (int i = 0; i < uploads.size(); i++) {
+                if (!await(checks.get(i))) {
+                    missing.add(uploads.get(i));
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            checks.forEach(future -> future.cancel(true));
+            throw ex;
+        }
+        uploadAll(bucket, missing);
+        return missing.size();
+    }
+
+    /**
+     * In-memory counterpart of {@link #uploadAbsent} for streamed frames; the existence check and
+     * the PUT both run on the pool. {@code whenDone} behaves as in {@link #submitBytes}.
+     */
+    Future<?> submitBytesIfAbsent(
+            String bucket,
+            String key,
+            String contentType,
+            byte[] bytes,
+            Instant refreshBefore,
+            Runnable whenDone
+    ) {
+        return executor.submit(() -> {
+            try {
+                if (!reuseExisting(bucket, key, contentType, refreshBefore)) {
+                    withRetry("put", key, () -> client.putObject(
+                            PutObjectRequest.builder()
+                                    .bucket(bucket)
+                                    .key(key)
+                                    .contentType(contentType)
+                                    .build(),
+                            RequestBody.fromBytes(bytes)
+                    ));
+                }
+            } finally {
+                whenDone.run();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Visits every object under {@code prefix} with its last modification time.
+     */
+    void forEachObject(String bucket, String prefix, BiConsumer<String, Instant> visitor) {
+        ListObjectsV2Request request = ListObjectsV2Request.builder().bucket(bucket).prefix(prefix).build();
+        for (S3Object object : client.listObjectsV2Paginator(request).contents()) {
+            visitor.accept(object.key(), object.lastModified());
+        }
+    }
+
+    /**
+     * Current {@code LastModified} of one object, or {@code null} when it no longer exists.
+     */
+    Instant lastModified(String bucket, String key) {
+        try {
+            return withRetry("head", key, () -> client.headObject(
+                    HeadObjectRequest.builder().bucket(bucket).key(key).build()
+            )).lastModified();
+        } catch (S3Exception ex) {
+            if (ex.statusCode() == 404) {
+                return null;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Deletes the given keys with batched {@code DeleteObjects} calls (1000 keys per request).
+     *
+     * @return number of keys the bucket reported as deleted
+     */
+    int deleteObjects(String bucket, List<String> keys) {
+        int deleted = 0;
+        for (int from = 0; from < keys.size(); from += 1000) {
+            List<ObjectIdentifier> batch = keys.subList(from, Math.min(keys.size(), from + 1000)).stream()
+                    .map(key -> ObjectIdentifier.builder().key(key).build())
+                    .toList();
+            DeleteObjectsRequest request = DeleteObjectsRequest.builder()
+                    .bucket(bucket)
+                    .delete(Delete.builder().objects(batch).quiet(false).build())
+                    .build();
+            deleted += withRetry("delete", batch.get(0).key(), () -> client.deleteObjects(request)).deleted().size();
+        }
+        return deleted;
+    }
+
+    private boolean reuseExisting(String bucket, String key, String contentType, Instant refreshBefore) {
+        Instant lastModified;
+        try {
+            lastModified = withRetry("head", key, () -> client.headObject(
+                    HeadObjectRequest.builder().bucket(bucket).key(key).build()
+            )).lastModified();
+        } catch (S3Exception ex) {
+            if (ex.statusCode() == 404) {
+                return false;
+            }
+            throw ex;
+        }
+        if (lastModified != null && lastModified.isBefore(refreshBefore)) {
+            withRetry("refresh", key, () -> client.copyObject(CopyObjectRequest.builder()
+                    .sourceBucket(bucket)
+                    .sourceKey(key)
+                    .destinationBucket(bucket)
+                    .destinationKey(key)
+                    .metadataDirective(MetadataDirective.REPLACE)
+                    .contentType(contentType)
+                    .build()));
+        }
+        return true;
+    }
+
+    private void putObject(String bucket, ObjectUpload upload) {
+        withRetry("put", upload.key(), () -> client.putObject(
+                PutObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(upload.key())
+                        .contentType(upload.contentType())
+                        .build(),
+                RequestBody.fromFile(upload.file())
+        ));
+    }
+
+    private MultipartUpload startMultipart(String bucket, ObjectUpload upload, long size) {
+        String uploadId = withRetry("create_multipart", upload.key(), () -> client.createMultipartUpload(
+                CreateMultipartUploadRequest.builder()
+                        .bucket(bucket)
+                        .key(upload.key())
+                        .contentType(upload.contentType())
+                        .build()
+        )).uploadId();
+
+        MultipartUpload multipart = new MultipartUpload(upload.key(), uploadId);
+        int partNumber = 1;
+        for (long offset = 0; offset < size; offset += partSizeBytes, partNumber++) {
+            long length = Math.min(partSizeBytes, size - offset);
+            int number = partNumber;
+            long position = offset;
+            multipart.parts.add(executor.submit(() -> uploadPart(bucket, upload, uploadId, number, position, length)));
+        }
+        log.debug("s3_multipart_started key={} sizeBytes={} parts={}", upload.key(), size, multipart.parts.size());
+        return multipart;
+    }
+
+    private CompletedPart uploadPart(
+            String bucket,
+            ObjectUpload upload,
+            String uploadId,
+            int partNumber,
+            long offset,
+            long length
+    ) throws IOException {
+        // Parts are buffered so retries resend the same bytes; memory is bounded by
+        // uploadConcurrency * partSize.
+        byte[] bytes = readRange(upload.file(), offset, (int) length);
+        String eTag = withRetry("upload_part", upload.key(), () -> client.uploadPart(
+                UploadPartRequest.builder()
+                        .bucket(bucket)
+                        .key(upload.key())
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength(length)
+                        .build(),
+                RequestBody.fromBytes(bytes)
+        )).eTag();
+        return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+    }
+
+    private void completeMultipart(String bucket, MultipartUpload multipart) throws IOException {
+        List<CompletedPart> completedParts = new ArrayList<>(multipart.parts.size());
+        for (Future<CompletedPart> part : multipart.parts) {
+            completedParts.add(await(part));
+        }
+        withRetry("complete_multipart", multipart.key, () -> client.completeMultipartUpload(
+                CompleteMultipartUploadRequest.builder()
+                        .bucket(bucket)
+                        .key(multipart.key)
+                        .uploadId(multipart.uploadId)
+                        .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                        .build()
+        ));
+        multipart.completed = true;
+    }
+
+    private void abortQuietly(String bucket, MultipartUpload multipart) {
+        try {
+            client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(multipart.key)
+                    .uploadId(multipart.uploadId)
+                    .build());
+        } catch (RuntimeException ex) {
+            // Orphan parts are also removed by the bucket lifecycle policy; never mask the root cause.
+            log.warn("s3_multipart_abort_failed key={} uploadId={} error={}", multipart.key, multipart.uploadId, ex.getMessage());
+        }
+    }
+
+    private <T> T withRetry(String operation, String key, Supplier<T> call) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.get();
+            } catch (SdkException ex) {
+                if (attempt >= maxAttempts || !isRetryable(ex)) {
+                    throw ex;
+                }
+                log.warn("s3_upload_retry op={} key={} attempt={} maxAttempts={} error={}",
+                        operation, key, attempt, maxAttempts, ex.getMessage());
+                sleepBackoff(attempt);
+            }
+        }
+    }
+
+    private static boolean isRetryable(SdkException ex) {
+        if (ex instanceof AwsServiceException serviceException) {
+            int status = serviceException.statusCode();
+            return status >= 500 || status == 408 || status == 429;
+        }
+        // Client-side failures (connection reset, timeouts) are transient by nature.
+        return true;
+    }
+
+    private void sleepBackoff(int attempt) {
+        long delay = retryBackoffMs * (1L << Math.min(attempt - 1, 10));
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry S3 upload", ex);
+        }
+    }
+
+    private static byte[] readRange(Path file, long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of file while reading multipart range: " + file);
+                }
+            }
+        }
+        return buffer.array();
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while uploading artifacts to S3", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("S3 upload failed", cause);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * One object to upload: local source file, destination key and content type.
+     */
+    record ObjectUpload(Path file, String key, String contentType) {
+    }
+
+    private static final class MultipartUpload {
+        private final String key;
+        private final String uploadId;
+        private final List<Future<CompletedPart>> parts = new ArrayList<>();
+        private boolean completed;
+
+        private MultipartUpload(String key, String uploadId) {
+            this.key = key;
+            this.uploadId = uploadId;
+        }
+    }
+}
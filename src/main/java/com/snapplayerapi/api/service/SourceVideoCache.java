@@ -0,0 +1,575 @@
+package com.snapplayerapi.api.service;
+
+import com.snapplayerapi.api.config.ProcessingProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Local byte-range cache of source videos, shared by every snap cut from the same URL.
+ *
+ * <p>Without it each FFmpeg run reads {@code videoUrl} from the origin again, although clients cut
+ * many overlapping clips from the same long video. With `app.processing.sourceCache.enabled=true`,
+ * FFmpeg receives a loopback URL ({@code http://127.0.0.1:<port>/source/<url_hash>}) instead. The
+ * loopback endpoint answers HTTP range requests from fixed-size chunks kept under
+ * `sourceCache.dir/<url_hash>/`; a missing chunk is fetched from the origin with a single range GET
+ * and concurrent readers of the same chunk wait for that one fetch. The disk usage is bounded by
+ * `maxBytes` with LRU eviction.</p>
+ *
+ * <p>Like the probe cache, this assumes the bytes behind a URL do not change. Origins that ignore
+ * {@code Range} are detected on the first fetch and the loopback then redirects FFmpeg to the origin.</p>
+ */
+@Service
+public class SourceVideoCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SourceVideoCache.class);
+    private static final String LOOPBACK_HOST = "127.0.0.1";
+    private static final String PATH_PREFIX = "/source/";
+    private static final String CHUNK_SUFFIX = ".chunk";
+    private static final String LENGTH_FILE = "length";
+    private static final Pattern RANGE_PATTERN = Pattern.compile("bytes=(\\d*)-(\\d*)");
+    private static final Pattern CONTENT_RANGE_TOTAL = Pattern.compile("/(\\d+)$");
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration SOURCE_TTL = Duration.ofHours(24);
+
+    private final ProcessingProperties.SourceCache config;
+    private final boolean virtualThreads;
+    private final BoundedTtlCache<String, Source> sources;
+    private final ConcurrentHashMap<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+    /**
+     * Chunk key -> size, in access order (eldest = least recently read). Guarded by {@code this}.
+     */
+    private final LinkedHashMap<String, Long> chunks = new LinkedHashMap<>(256, 0.75f, true);
+    private long cachedBytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder originBytes = new LongAdder();
+    private HttpClient httpClient;
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    public SourceVideoCache(ProcessingProperties properties, MeterRegistry meterRegistry) {
+        this.config = properties.getSourceCache();
+        this.virtualThreads = properties.isVirtualThreads();
+        this.sources = new BoundedTtlCache<>(config.getMaxSources(), SOURCE_TTL);
+
+        Gauge.builder("video.source.cache.hits", hits, LongAdder::sum)
+                .description("Source video chunks served from the local disk cache since startup")
+                .register(meterRegistry);
+        Gauge.builder("video.source.cache.misses", misses, LongAdder::sum)
+                .description("Source video chunks fetched from the origin since startup")
+                .register(meterRegistry);
+        Gauge.builder("video.source.cache.deduplicated", deduplicated, LongAdder::sum)
+                .description("Chunk reads that waited for a fetch already in flight since startup")
+                .register(meterRegistry);
+        Gauge.builder("video.source.cache.evictions", evictions, LongAdder::sum)
+                .description("Source video chunks deleted by the disk quota since startup")
+                .register(meterRegistry);
+        Gauge.builder("video.source.cache.bytes", this, SourceVideoCache::cachedBytes)
+                .description("Bytes of source video currently cached on disk")
+                .register(meterRegistry);
+        Gauge.builder("video.source.cache.origin.bytes", originBytes, LongAdder::sum)
+                .description("Bytes downloaded from video origins through the cache since startup")
+                .register(meterRegistry);
+    }
+
+    /**
+     * URL FFmpeg should read {@code videoUrl} from: the loopback cache endpoint when enabled, the
+     * original URL otherwise (or when the loopback server cannot be started).
+     */
+    public String inputUrl(String videoUrl) {
+        if (!config.isEnabled()) {
+            return videoUrl;
+        }
+        int port;
+        try {
+            port = ensureStarted();
+        } catch (IOException e) {
+            log.warn("source_cache_unavailable error={}", e.toString());
+            return videoUrl;
+        }
+        String urlHash = VideoUrlKeys.urlHash(videoUrl);
+        // Re-put on every use so a source being clipped keeps its registration (and learned length).
+        Source source = sources.get(urlHash);
+        sources.put(urlHash, source != null ? source : new Source(VideoUrlKeys.canonicalize(videoUrl)));
+        return "http://" + LOOPBACK_HOST + ":" + port + PATH_PREFIX + urlHash;
+    }
+
+    public Stats stats() {
+        return new Stats(
+                config.isEnabled(),
+                chunkCount(),
+                cachedBytes(),
+                config.getMaxBytes(),
+                hits.sum(),
+                misses.sum(),
+                deduplicated.sum(),
+                evictions.sum(),
+                originBytes.sum()
+        );
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (server != null) {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+            server = null;
+        }
+    }
+
+    /**
+     * Binds the loopback server and indexes chunks left by a previous run, once.
+     */
+    private synchronized int ensureStarted() throws IOException {
+        if (server != null) {
+            return server.getAddress().getPort();
+        }
+        Path dir = Path.of(config.getDir());
+        Files.createDirectories(dir);
+        indexExistingChunks(dir);
+
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(CONNECT_TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        HttpServer created = HttpServer.create(new InetSocketAddress(LOOPBACK_HOST, 0), 0);
+        serverExecutor = Executors.newCachedThreadPool(ProcessThreads.factory(virtualThreads, "source-cache-"));
+        created.setExecutor(serverExecutor);
+        created.createContext(PATH_PREFIX, this::handle);
+        created.start();
+        server = created;
+        log.info("source_cache_started port={} dir={} chunks={} bytes={}",
+                created.getAddress().getPort(), dir, chunkCount(), cachedBytes());
+        return created.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String urlHash = exchange.getRequestURI().getPath().substring(PATH_PREFIX.length());
+            Source source = sources.get(urlHash);
+            boolean head = "HEAD".equals(exchange.getRequestMethod());
+            if (source == null || !(head || "GET".equals(exchange.getRequestMethod()))) {
+                exchange.sendResponseHeaders(source == null ? 404 : 405, -1);
+                return;
+            }
+            if (source.rangeUnsupported) {
+                redirectToOrigin(exchange, source);
+                return;
+            }
+
+            long length;
+            try {
+                length = length(source, urlHash);
+            } catch (RangeUnsupportedException e) {
+                redirectToOrigin(exchange, source);
+                return;
+            } catch (IOException e) {
+                log.warn("source_cache_origin_failed urlHash={} error={}", urlHash, e.toString());
+                exchange.sendResponseHeaders(502, -1);
+                return;
+            }
+
+            long start = 0;
+            long end = length - 1;
+            boolean partial = false;
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            Matcher matcher = range == null ? null : RANGE_PATTERN.matcher(range.strip());
+            if (matcher != null && matcher.matches() && !(matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+                if (matcher.group(1).isEmpty()) {
+                    // Suffix range: the last N bytes.
+                    start = Math.max(0, length - Long.parseLong(matcher.group(2)));
+                } else {
+                    start = Long.parseLong(matcher.group(1));
+                    if (!matcher.group(2).isEmpty()) {
+                        end = Math.min(end, Long.parseLong(matcher.group(2)));
+                    }
+                }
+                if (start >= length || start > end) {
+                    exchange.getResponseHeaders().set("Content-Range", "bytes */" + length);
+                    exchange.sendResponseHeaders(416, -1);
+                    return;
+                }
+                partial = true;
+            }
+
+            exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+            exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+            if (partial) {
+                exchange.getResponseHeaders().set("Content-Range", "bytes %d-%d/%d".formatted(start, end, length));
+            }
+            long count = end - start + 1;
+            exchange.sendResponseHeaders(partial ? 206 : 200, head ? -1 : count);
+            if (!head) {
+                writeRange(exchange.getResponseBody(), source, urlHash, start, end);
+            }
+        }
+    }
+
+    /**
+     * Streams {@code [start, end]} chunk by chunk, fetching each chunk only when the reader gets to
+     * it: FFmpeg closes the connection once it has the clip, so the rest of the file is never fetched.
+     *
+     * <p>A write failure is the client going away and is expected. Any other failure means a chunk could
+     * not be fetched or read after the headers were already sent; it is rethrown so the server drops the
+     * connection and FFmpeg sees a truncated response instead of a clean end of stream.</p>
+     */
+    private void writeRange(OutputStream out, Source source, String urlHash, long start, long end) throws IOException {
+        int chunkSize = config.getChunkSizeBytes();
+        long position = start;
+        try {
+            while (position <= end) {
+                long index = position / chunkSize;
+                long offset = position - (index * chunkSize);
+                long wanted = Math.min(end - position + 1, chunkSize - offset);
+                long written = copyFromChunk(out, source, urlHash, index, offset, wanted);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+            }
+            try {
+                out.flush();
+            } catch (IOException e) {
+                throw new ClientClosedException(e);
+            }
+        } catch (ClientClosedException e) {
+            log.debug("source_cache_stream_closed urlHash={} position={} error={}", urlHash, position, e.getCause().toString());
+        } catch (IOException e) {
+            log.warn("source_cache_chunk_failed urlHash={} chunk={} position={} end={} error={}",
+                    urlHash, position / chunkSize, position, end, e.toString());
+            throw e;
+        }
+    }
+
+    private long copyFromChunk(OutputStream out, Source source, String urlHash, long index, long offset, long count)
+            throws IOException {
+        for (int attempt = 0; ; attempt++) {
+            Path file = chunk(source, urlHash, index);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long available = Math.min(count, channel.size() - offset);
+                if (available <= 0) {
+                    return 0;
+                }
+                InputStream in = Channels.newInputStream(channel.position(offset));
+                byte[] buffer = new byte[64 * 1024];
+                long remaining = available;
+                while (remaining > 0) {
+                    int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (read < 0) {
+                        break;
+                    }
+                    try {
+                        out.write(buffer, 0, read);
+                    } catch (IOException e) {
+                        throw new ClientClosedException(e);
+                    }
+                    remaining -= read;
+                }
+                return available - remaining;
+            } catch (NoSuchFileException e) {
+                // Evicted between lookup and open: forget it and fetch again once.
+                forget(chunkKey(urlHash, index));
+                if (attempt > 0) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the local file of one chunk, fetching it from the origin at most once at a time.
+     */
+    private Path chunk(Source source, String urlHash, long index) throws IOException {
+        String key = chunkKey(urlHash, index);
+        Path file = chunkPath(urlHash, index);
+        if (touch(key)) {
+            hits.increment();
+            return file;
+        }
+        CompletableFuture<Path> fetch = new CompletableFuture<>();
+        CompletableFuture<Path> running = inFlight.putIfAbsent(key, fetch);
+        if (running != null) {
+            deduplicated.increment();
+            return await(running);
+        }
+        try {
+            if (touch(key)) {
+                // Another fetch finished between the first lookup and the registration above.
+                hits.increment();
+            } else {
+                misses.increment();
+                long size = download(source, urlHash, index, file);
+                record(key, size);
+            }
+            fetch.complete(file);
+            return file;
+        } catch (IOException | RuntimeException e) {
+            fetch.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, fetch);
+        }
+    }
+
+    private long length(Source source, String urlHash) throws IOException {
+        if (source.length >= 0) {
+            return source.length;
+        }
+        Path lengthFile = Path.of(config.getDir(), urlHash, LENGTH_FILE);
+        try {
+            source.length = Long.parseLong(Files.readString(lengthFile, StandardCharsets.US_ASCII).strip());
+            return source.length;
+        } catch (NoSuchFileException | NumberFormatException ignored) {
+            // Not known yet: the first chunk's Content-Range carries it.
+        }
+        if (touch(chunkKey(urlHash, 0))) {
+            // Chunk 0 is cached but the length file is gone; refetch it to learn the total size.
+            forget(chunkKey(urlHash, 0));
+        }
+        chunk(source, urlHash, 0);
+        if (source.length < 0) {
+            throw new RangeUnsupportedException();
+        }
+        return source.length;
+    }
+
+    private long download(Source source, String urlHash, long index, Path file) throws IOException {
+        long chunkSize = config.getChunkSizeBytes();
+        long first = index * chunkSize;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(source.originUrl))
+                .timeout(Duration.ofSeconds(config.getRequestTimeoutSeconds()))
+                .header("Range", "bytes=%d-%d".formatted(first, first + chunkSize - 1))
+                .GET()
+                .build();
+        HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching source video chunk", e);
+        }
+        try (InputStream body = response.body()) {
+            if (response.statusCode() == 200) {
+                source.rangeUnsupported = true;
+                throw new RangeUnsupportedException();
+            }
+            if (response.statusCode() != 206) {
+                throw new IOException("Origin returned HTTP %d for source video chunk".formatted(response.statusCode()));
+            }
+            learnLength(source, urlHash, response.headers().firstValue("Content-Range").orElse(""));
+
+            Files.createDirectories(file.getParent());
+            Path partial = file.resolveSibling(file.getFileName() + ".part-" + UUID.randomUUID());
+            try {
+                long size = Files.copy(body, partial, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                originBytes.add(size);
+                return size;
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+        }
+    }
+
+    private void learnLength(Source source, String urlHash, String contentRange) throws IOException {
+        Matcher total = CONTENT_RANGE_TOTAL.matcher(contentRange.strip());
+        if (source.length >= 0 || !total.find()) {
+            return;
+        }
+        source.length = Long.parseLong(total.group(1));
+        Path lengthFile = Path.of(config.getDir(), urlHash, LENGTH_FILE);
+        Files.createDirectories(lengthFile.getParent());
+        Files.writeString(lengthFile, Long.toString(source.length), StandardCharsets.US_ASCII);
+    }
+
+    private static void redirectToOrigin(HttpExchange exchange, Source source) throws IOException {
+        exchange.getResponseHeaders().set("Location", source.originUrl);
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    private static Path await(CompletableFuture<Path> running) throws IOException {
+        try {
+            return running.get(10, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a source video chunk", e);
+        } catch (TimeoutException e) {
+            throw new IOException("Timed out waiting for a source video chunk", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Source video chunk fetch failed", e.getCause());
+        }
+    }
+
+    private synchronized boolean touch(String key) {
+        return chunks.get(key) != null;
+    }
+
+    private synchronized void forget(String key) {
+        Long size = chunks.remove(key);
+        if (size != null) {
+            cachedBytes -= size;
+        }
+    }
+
+    /**
+     * Adds a fetched chunk and deletes least recently read chunks while over the quota. The newest
+     * chunk is never evicted, so a single chunk larger than the quota still gets served.
+     */
+    private synchronized void record(String key, long size) {
+        Long previous = chunks.put(key, size);
+        cachedBytes += size - (previous == null ? 0L : previous);
+        Iterator<Map.Entry<String, Long>> eldest = chunks.entrySet().iterator();
+        while (cachedBytes > config.getMaxBytes() && chunks.size() > 1 && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            if (entry.getKey().equals(key)) {
+                break;
+            }
+            eldest.remove();
+            cachedBytes -= entry.getValue();
+            evictions.increment();
+            deleteChunk(entry.getKey());
+        }
+    }
+
+    private void deleteChunk(String key) {
+        try {
+            Files.deleteIfExists(Path.of(config.getDir()).resolve(key + CHUNK_SUFFIX));
+        } catch (IOException e) {
+            log.warn("source_cache_delete_failed chunk={} error={}", key, e.toString());
+        }
+    }
+
+    /**
+     * Rebuilds the LRU index from disk (oldest modification first) and drops partial downloads.
+     */
+    private void indexExistingChunks(Path dir) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(dir, 2)) {
+            files = walk.filter(Files::isRegularFile).toList();
+        }
+        List<Path> chunkFiles = files.stream()
+                .filter(file -> file.getFileName().toString().endsWith(CHUNK_SUFFIX))
+                .sorted(Comparator.comparingLong(SourceVideoCache::lastModifiedMillis))
+                .toList();
+        for (Path file : files) {
+            if (file.getFileName().toString().contains(".part-")) {
+                Files.deleteIfExists(file);
+            }
+        }
+        for (Path file : chunkFiles) {
+            String name = file.getFileName().toString();
+            String key = file.getParent().getFileName() + "/" + name.substring(0, name.length() - CHUNK_SUFFIX.length());
+            record(key, Files.size(file));
+        }
+    }
+
+    private static long lastModifiedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static String chunkKey(String urlHash, long index) {
+        return urlHash + "/" + index;
+    }
+
+    private Path chunkPath(String urlHash, long index) {
+        return Path.of(config.getDir(), urlHash, index + CHUNK_SUFFIX);
+    }
+
+    private synchronized int chunkCount() {
+        return chunks.size();
+    }
+
+    private synchronized long cachedBytes() {
+        return cachedBytes;
+    }
+
+    /**
+     * Origin of one cached URL; {@code length} is learned from the first ranged response.
+     */
+    private static final class Source {
+        private final String originUrl;
+        private volatile long length = -1;
+        private volatile boolean rangeUnsupported;
+
+        private Source(String originUrl) {
+            this.originUrl = originUrl;
+        }
+    }
+
+    /**
+     * Write to the loopback client failed, i.e. the reader closed the connection.
+     */
+    private static final class ClientClosedException extends IOException {
+        private ClientClosedException(IOException cause) {
+            super(cause);
+        }
+    }
+
+    private static final class RangeUnsupportedException extends IOException {
+        private RangeUnsupportedException() {
+            super("Origin does not support byte ranges");
+        }
+    }
+
+    public record Stats(
+            boolean enabled,
+            int chunks,
+            long bytes,
+            long maxBytes,
+            long hits,
+            long misses,
+            long deduplicated,
+            long evictions,
+            long originBytes
+    ) {
+    }
+}
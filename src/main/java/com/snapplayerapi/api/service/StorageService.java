@@ -1,18 +1,41 @@
 package com.snapplayerapi.api.service;
 
 import com.snapplayerapi.api.config.StorageProperties;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 /**
  * Persists generated processing artifacts (snapshot + frames) outside the temp working directory.
@@ -24,12 +47,43 @@ import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 @Service
 public class StorageService {
 
+    private static final Logger log = LoggerFactory.getLogger(StorageService.class);
+    /**
+     * Matches a content-addressed blob key inside any stored reference (URL, local path or JSON).
+     */
+    private static final Pattern BLOB_REFERENCE = Pattern.compile("blobs/[0-9a-f]{2}/([0-9a-f]{64})");
+    /**
+     * Marks local blobs still being written; they are renamed into place once complete.
+     */
+    private static final String BLOB_STAGING_MARKER = ".staging-";
+
     private final StorageProperties storageProperties;
-    private final Optional<S3Client> s3Client;
+    private final Optional<S3ArtifactUploader> s3Uploader;
+    /**
+     * Set after the first cross-device failure so later artifacts go straight to copy instead of
+     * paying a failing rename/link syscall per file.
+     */
+    private final AtomicBoolean crossDevice = new AtomicBoolean(false);
 
     public StorageService(StorageProperties storageProperties, Optional<S3Client> s3Client) {
         this.storageProperties = storageProperties;
-        this.s3Client = s3Client;
+        StorageProperties.S3 s3 = storageProperties.getS3();
+        this.s3Uploader = s3Client.map(client -> new S3ArtifactUploader(
+                client,
+                s3.getUploadConcurrency(),
+                s3.getUploadMaxAttempts(),
+                s3.getUploadRetryBackoffMs(),
+                s3.getMultipartThresholdBytes(),
+                s3.getMultipartPartSizeBytes()
+        ));
+    }
+
+    /**
+     * Drains in-flight uploads before the S3 client bean is closed.
+     */
+    @PreDestroy
+    public void shutdown() {
+        s3Uploader.ifPresent(S3ArtifactUploader::close);
     }
 
     /**
@@ -42,6 +96,10 @@ public class StorageService {
      *
      * <p>{@code artifactIdHint} is used to keep stable storage keys. In `v2`, callers pass
      * {@code snapId} so retries and worker reprocessing overwrite the same logical object keys.</p>
+     *
+     * <p>With {@code app.storage.blobs.enabled}, artifacts that carry a hint are stored by content
+     * instead (see {@link #usesBlobs}): identical frames/snapshots of different snaps share one
+     * object and only missing blobs are uploaded.</p>
      */
     public StoredArtifacts storeProcessingArtifacts(
             String requestId,
@@ -51,6 +109,9 @@ public class StorageService {
             Path snapshotFile,
             List<Path> frameFiles
     ) throws IOException {
+        if (usesBlobs(artifactIdHint)) {
+            return storeBlobs(itemDir, snapshotFile, frameFiles);
+        }
         String artifactId = resolveArtifactId(requestId, itemIndex, artifactIdHint);
 
         String snapshotKey = key(snapshotDirPrefix(artifactId), snapshotFile.getFileName().toString());
@@ -69,29 +130,288 @@ public class StorageService {
         return passthrough(itemDir, snapshotFile, frameFiles);
     }
 
+    /**
+     * Opens a writer for one item whose frames arrive one at a time (FFmpeg {@code PIPE} frame mode).
+     *
+     * <p>Keys, backend precedence and returned references are identical to
+     * {@link #storeProcessingArtifacts}; the difference is that each frame is persisted while FFmpeg
+     * is still extracting the next ones, and frame bytes never touch the temp directory (except in the
+     * passthrough fallback, which has nowhere else to put them).</p>
+     */
+    public FrameStream openFrameStream(String requestId, int itemIndex, String artifactIdHint, Path itemDir) throws IOException {
+        return new FrameStream(resolveArtifactId(requestId, itemIndex, artifactIdHint), usesBlobs(artifactIdHint), itemDir);
+    }
+
+    /**
+     * Deletes content-addressed blobs that no snap references anymore.
+     *
+     * <p>Only blobs last written (or reused) before {@code cutoff} are eligible, so artifacts of jobs
+     * that have not committed their snap row yet survive the sweep. Leftover staging files of
+     * interrupted local writes older than the cutoff are removed as well.</p>
+     *
+     * @param referencedHashes SHA-256 of every blob still referenced, see {@link #collectBlobHashes}
+     * @return number of deleted objects/files
+     */
+    public int deleteUnreferencedBlobs(Set<String> referencedHashes, Instant cutoff) throws IOException {
+        String blobRoot = blobRootKey();
+        if (storageProperties.getS3().isEnabled()) {
+            String bucket = storageProperties.getS3().getBucket().trim();
+            S3ArtifactUploader uploader = requireS3Uploader();
+            List<String> unreferenced = new ArrayList<>();
+            uploader.forEachObject(bucket, blobRoot + "/", (objectKey, lastModified) -> {
+                if (isSweepable(blobFileName(objectKey), lastModified, referencedHashes, cutoff)) {
+                    unreferenced.add(objectKey);
+                }
+            });
+            // The listing can be minutes old by now: a store may have reused (and refreshed) a candidate
+            // since, so HEAD each one again right before deleting, like the local branch below.
+            List<String> stillUnreferenced = new ArrayList<>(unreferenced.size());
+            for (String objectKey : unreferenced) {
+                Instant lastModified = uploader.lastModified(bucket, objectKey);
+                if (isSweepable(blobFileName(objectKey), lastModified, referencedHashes, cutoff)) {
+                    stillUnreferenced.add(objectKey);
+                }
+            }
+            return stillUnreferenced.isEmpty() ? 0 : uploader.deleteObjects(bucket, stillUnreferenced);
+        }
+        if (!storageProperties.getLocal().isEnabled()) {
+            return 0;
+        }
+        Path root = Path.of(storageProperties.getLocal().getBasePath()).resolve(blobRoot);
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile).toList();
+        }
+        int deleted = 0;
+        for (Path file : files) {
+            try {
+                // Re-read the timestamp right before deleting: a store may have just reused the blob.
+                Instant lastModified = Files.getLastModifiedTime(file).toInstant();
+                if (isSweepable(file.getFileName().toString(), lastModified, referencedHashes, cutoff)
+                        && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            } catch (NoSuchFileException ignored) {
+                // Deleted concurrently (another instance sweeping the same tree).
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Adds the hash of every blob referenced in {@code text} (a stored path/URL or a JSON document
+     * holding them) to {@code into}.
+     */
+    public static void collectBlobHashes(String text, Set<String> into) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        Matcher matcher = BLOB_REFERENCE.matcher(text);
+        while (matcher.find()) {
+            into.add(matcher.group(1));
+        }
+    }
+
+    /**
+     * Whether artifacts stored under {@code artifactIdHint} are keyed by content, i.e. two items that
+     * render identical bytes end up with the same storage keys whatever their hints.
+     */
+    public boolean storesByContent(String artifactIdHint) {
+        return usesBlobs(artifactIdHint);
+    }
+
+    /**
+     * Whether an item's artifacts go to the content-addressed layout.
+     *
+     * <p>Only hinted (snap-owned) artifacts qualify: the blob sweep finds references by reading the
+     * snap rows, and `v1` batch results are not persisted anywhere it could see them.</p>
+     */
+    private boolean usesBlobs(String artifactIdHint) {
+        return storageProperties.getBlobs().isEnabled() && hasText(artifactIdHint);
+    }
+
+    private StoredArtifacts storeBlobs(Path itemDir, Path snapshotFile, List<Path> frameFiles) throws IOException {
+        String snapshotKey = blobKey(sha256(snapshotFile), snapshotFile.getFileName().toString());
+        List<String> frameKeys = new ArrayList<>(frameFiles.size());
+        for (Path frame : frameFiles) {
+            frameKeys.add(blobKey(sha256(frame), frame.getFileName().toString()));
+        }
+        Instant refreshBefore = blobRefreshBefore();
+
+        if (storageProperties.getS3().isEnabled()) {
+            StorageProperties.S3 s3 = storageProperties.getS3();
+            // Identical frames inside one item (static scenes, padded sprite sheets) are checked and
+            // uploaded once.
+            Map<String, S3ArtifactUploader.ObjectUpload> uploads = new LinkedHashMap<>();
+            uploads.put(snapshotKey, new S3ArtifactUploader.ObjectUpload(snapshotFile, snapshotKey, "video/mp4"));
+            for (int i = 0; i < frameFiles.size(); i++) {
+                Path frame = frameFiles.get(i);
+                uploads.putIfAbsent(frameKeys.get(i), new S3ArtifactUploader.ObjectUpload(frame, frameKeys.get(i), contentTypeFor(frame)));
+            }
+            int uploaded = requireS3Uploader().uploadAbsent(s3.getBucket().trim(), List.copyOf(uploads.values()), refreshBefore);
+            log.debug("storage_blobs_stored backend=s3 objects={} uploaded={}", uploads.size(), uploaded);
+
+            List<String> frameUrls = frameKeys.stream().map(key -> joinUrl(s3.getPublicBaseUrl(), key)).toList();
+            String snapshotUrl = joinUrl(s3.getPublicBaseUrl(), snapshotKey);
+            return new StoredArtifacts(joinUrl(s3.getPublicBaseUrl(), blobRootKey()), snapshotUrl, frameUrls);
+        }
+        if (storageProperties.getLocal().isEnabled()) {
+            StorageProperties.Local local = storageProperties.getLocal();
+            Path basePath = Files.createDirectories(Path.of(local.getBasePath()));
+            StorageProperties.TransferMode mode = localTransferMode();
+
+            Path storedSnapshot = storeLocalBlob(basePath, snapshotKey, snapshotFile, mode, refreshBefore);
+            List<String> framePaths = new ArrayList<>(frameFiles.size());
+            for (int i = 0; i < frameFiles.size(); i++) {
+                Path storedFrame = storeLocalBlob(basePath, frameKeys.get(i), frameFiles.get(i), mode, refreshBefore);
+                framePaths.add(resolveLocalPublicPath(local.getPublicBaseUrl(), frameKeys.get(i), storedFrame));
+            }
+            String snapshotPath = resolveLocalPublicPath(local.getPublicBaseUrl(), snapshotKey, storedSnapshot);
+            return new StoredArtifacts(localOutputDir(basePath, blobRootKey()), snapshotPath, framePaths);
+        }
+        return passthrough(itemDir, snapshotFile, frameFiles);
+    }
+
+    /**
+     * Persists one local blob unless an identical one is already stored.
+     *
+     * <p>New blobs are written under a unique staging name and renamed into place, so concurrent
+     * writers of the same content and readers never observe a partially copied file.</p>
+     */
+    private Path storeLocalBlob(
+            Path basePath,
+            String blobKey,
+            Path source,
+            StorageProperties.TransferMode mode,
+            Instant refreshBefore
+    ) throws IOException {
+        Path target = basePath.resolve(blobKey);
+        if (reuseLocalBlob(target, refreshBefore)) {
+            return target;
+        }
+        Path staged = transferToLocal(basePath, blobKey + BLOB_STAGING_MARKER + UUID.randomUUID(), source, mode);
+        publishLocalBlob(staged, target);
+        return target;
+    }
+
+    private static Path writeLocalBlob(Path basePath, String blobKey, byte[] bytes, Instant refreshBefore) throws IOException {
+        Path target = basePath.resolve(blobKey);
+        if (reuseLocalBlob(target, refreshBefore)) {
+            return target;
+        }
+        Path staged = writeToLocal(basePath, blobKey + BLOB_STAGING_MARKER + UUID.randomUUID(), bytes);
+        publishLocalBlob(staged, target);
+        return target;
+    }
+
+    /**
+     * Returns whether {@code target} already exists, bumping its timestamp when it is old enough
+     * that the blob sweep could otherwise reclaim it before the new snap row references it.
+     */
+    private static boolean reuseLocalBlob(Path target, Instant refreshBefore) throws IOException {
+        try {
+            if (Files.getLastModifiedTime(target).toInstant().isBefore(refreshBefore)) {
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            }
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private static void publishLocalBlob(Path staged, Path target) throws IOException {
+        try {
+            // Same directory, so the rename is atomic; an identical blob published meanwhile is
+            // simply replaced.
+            Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(staged, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String blobFileName(String objectKey) {
+        return objectKey.substring(objectKey.lastIndexOf('/') + 1);
+    }
+
+    private static boolean isSweepable(String fileName, Instant lastModified, Set<String> referencedHashes, Instant cutoff) {
+        if (lastModified == null || !lastModified.isBefore(cutoff)) {
+            return false;
+        }
+        if (fileName.contains(BLOB_STAGING_MARKER)) {
+            return true;
+        }
+        int dot = fileName.indexOf('.');
+        String hash = dot < 0 ? fileName : fileName.substring(0, dot);
+        return !referencedHashes.contains(hash);
+    }
+
+    private Instant blobRefreshBefore() {
+        return Instant.now().minus(Duration.ofHours(Math.max(1L, storageProperties.getBlobs().getGcGraceHours())).dividedBy(2));
+    }
+
+    private String blobRootKey() {
+        return key(prefix(), "blobs");
+    }
+
+    private String blobKey(String sha256, String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        String extension = dot < 0 ? "" : fileName.substring(dot).toLowerCase(Locale.ROOT);
+        return key(blobRootKey(), sha256.substring(0, 2), sha256 + extension);
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest = sha256Digest();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String sha256(byte[] bytes) {
+        return HexFormat.of().formatHex(sha256Digest().digest(bytes));
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     private StoredArtifacts storeInS3(
             String artifactId,
             Path snapshotFile,
             String snapshotKey,
             List<Path> frameFiles,
             List<String> frameKeys
-    ) {
-        S3Client client = s3Client.orElseThrow(() -> new IllegalStateException("S3 storage enabled but no S3Client bean is available"));
+    ) throws IOException {
+        S3ArtifactUploader uploader = requireS3Uploader();
         StorageProperties.S3 s3 = storageProperties.getS3();
         String bucket = s3.getBucket().trim();
 
-        // Upload snapshot first, then frames. Ordering is not functionally required but keeps logs
-        // and future retries easier to follow during manual diagnosis.
-        putObject(client, bucket, snapshotKey, snapshotFile, "video/mp4");
+        // Snapshot goes first so its multipart parts start before the (small) frames; the uploads
+        // then run concurrently on the bounded upload pool and this call returns once all are durable.
+        List<S3ArtifactUploader.ObjectUpload> uploads = new ArrayList<>(frameFiles.size() + 1);
+        uploads.add(new S3ArtifactUploader.ObjectUpload(snapshotFile, snapshotKey, "video/mp4"));
         for (int i = 0; i < frameFiles.size(); i++) {
             Path frame = frameFiles.get(i);
-            putObject(client, bucket, frameKeys.get(i), frame, contentTypeFor(frame));
+            uploads.add(new S3ArtifactUploader.ObjectUpload(frame, frameKeys.get(i), contentTypeFor(frame)));
         }
+        uploader.uploadAll(bucket, uploads);
 
+        // URLs derive from the precomputed keys, so frame order is preserved regardless of the order
+        // in which uploads complete.
         List<String> frameUrls = frameKeys.stream().map(key -> joinUrl(s3.getPublicBaseUrl(), key)).toList();
         String snapshotUrl = joinUrl(s3.getPublicBaseUrl(), snapshotKey);
-        String outputDir = joinUrl(s3.getPublicBaseUrl(), frameDirPrefix(artifactId));
-        return new StoredArtifacts(outputDir, snapshotUrl, frameUrls);
+        return new StoredArtifacts(s3OutputDir(artifactId), snapshotUrl, frameUrls);
     }
 
     private StoredArtifacts storeLocally(
@@ -105,19 +425,32 @@ public class StorageService {
         Path basePath = Path.of(local.getBasePath());
         Files.createDirectories(basePath);
 
-        Path storedSnapshot = copyToLocal(basePath, snapshotKey, snapshotFile);
+        StorageProperties.TransferMode mode = localTransferMode();
+        Path storedSnapshot = transferToLocal(basePath, snapshotKey, snapshotFile, mode);
         List<String> framePaths = new ArrayList<>(frameFiles.size());
         for (int i = 0; i < frameFiles.size(); i++) {
-            Path storedFrame = copyToLocal(basePath, frameKeys.get(i), frameFiles.get(i));
+            Path storedFrame = transferToLocal(basePath, frameKeys.get(i), frameFiles.get(i), mode);
             framePaths.add(resolveLocalPublicPath(local.getPublicBaseUrl(), frameKeys.get(i), storedFrame));
         }
 
         String snapshotPath = resolveLocalPublicPath(local.getPublicBaseUrl(), snapshotKey, storedSnapshot);
-        Path localOutputDir = basePath.resolve(frameDirPrefix(artifactId));
-        String outputDir = hasText(local.getPublicBaseUrl())
-                ? joinUrl(local.getPublicBaseUrl(), frameDirPrefix(artifactId))
-                : localOutputDir.toString();
-        return new StoredArtifacts(outputDir, snapshotPath, framePaths);
+        return new StoredArtifacts(localOutputDir(basePath, frameDirPrefix(artifactId)), snapshotPath, framePaths);
+    }
+
+    private String s3OutputDir(String artifactId) {
+        return joinUrl(storageProperties.getS3().getPublicBaseUrl(), frameDirPrefix(artifactId));
+    }
+
+    private String localOutputDir(Path basePath, String dirKey) {
+        String publicBaseUrl = storageProperties.getLocal().getPublicBaseUrl();
+        return hasText(publicBaseUrl)
+                ? joinUrl(publicBaseUrl, dirKey)
+                : basePath.resolve(dirKey).toString();
+    }
+
+    private StorageProperties.TransferMode localTransferMode() {
+        StorageProperties.TransferMode mode = storageProperties.getLocal().getTransferMode();
+        return mode == null ? StorageProperties.TransferMode.MOVE : mode;
     }
 
     /**
@@ -129,26 +462,60 @@ public class StorageService {
     }
 
     /**
-     * Copies a temp artifact to the local persistent storage tree, preserving the logical key path.
+     * Persists a temp artifact into the local storage tree, preserving the logical key path.
+     *
+     * <p>{@code MOVE}/{@code LINK} only touch metadata when temp and storage share a filesystem.
+     * Across devices (rename/link not possible) the artifact is copied, which is the same cost as
+     * the historical behavior. The source may no longer exist after a move; callers only use its
+     * file name afterwards and always delete the temp dir.</p>
      */
-    private static Path copyToLocal(Path basePath, String key, Path source) throws IOException {
+    private Path transferToLocal(Path basePath, String key, Path source, StorageProperties.TransferMode mode)
+            throws IOException {
         Path target = basePath.resolve(key);
         if (target.getParent() != null) {
             Files.createDirectories(target.getParent());
         }
+        if (mode != StorageProperties.TransferMode.COPY && !crossDevice.get()) {
+            try {
+                if (mode == StorageProperties.TransferMode.LINK) {
+                    // createLink refuses existing targets; retries/reprocessing overwrite the same keys.
+                    Files.deleteIfExists(target);
+                    Files.createLink(target, source);
+                } else {
+                    Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+                }
+                return target;
+            } catch (AtomicMoveNotSupportedException | UnsupportedOperationException ex) {
+                markCrossDevice(mode, ex);
+            } catch (FileSystemException ex) {
+                // Hard links across devices fail with a generic FileSystemException (EXDEV); anything
+                // else (permissions, missing source) must still surface.
+                if (mode != StorageProperties.TransferMode.LINK || !Files.exists(source)) {
+                    throw ex;
+                }
+                markCrossDevice(mode, ex);
+            }
+        }
         Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
         return target;
     }
 
-    private static void putObject(S3Client client, String bucket, String key, Path file, String contentType) {
-        client.putObject(
-                PutObjectRequest.builder()
-                        .bucket(bucket)
-                        .key(key)
-                        .contentType(contentType)
-                        .build(),
-                RequestBody.fromFile(file)
-        );
+    private static Path writeToLocal(Path basePath, String key, byte[] bytes) throws IOException {
+        Path target = basePath.resolve(key);
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        return Files.write(target, bytes);
+    }
+
+    private S3ArtifactUploader requireS3Uploader() {
+        return s3Uploader.orElseThrow(() -> new IllegalStateException("S3 storage enabled but no S3Client bean is available"));
+    }
+
+    private void markCrossDevice(StorageProperties.TransferMode mode, Exception ex) {
+        if (crossDevice.compareAndSet(false, true)) {
+            log.warn("local_storage_transfer_fallback mode={} fallback=COPY reason={}", mode, ex.toString());
+        }
     }
 
     private String frameDirPrefix(String artifactId) {
@@ -247,6 +614,126 @@ public class StorageService {
         return value != null && !value.isBlank();
     }
 
+    /**
+     * Streaming counterpart of {@link #storeProcessingArtifacts} for one item.
+     *
+     * <p>Frames must be added in order. In S3 mode {@link #addFrame} only queues the PUT on the shared
+     * upload pool; {@link #complete} stores the snapshot and waits for every queued frame. Closing a
+     * stream that was not completed cancels frame uploads still pending.</p>
+     *
+     * <p>Each stream holds at most `uploadConcurrency` frames that are not uploaded yet: once that many
+     * are queued or in flight, {@link #addFrame} blocks until one finishes. A fast FFmpeg pipe therefore
+     * slows down to the upload rate instead of buffering the whole clip in memory.</p>
+     */
+    public final class FrameStream implements AutoCloseable {
+        private final String artifactId;
+        private final boolean blobs;
+        private final Path itemDir;
+        private final Path localBasePath;
+        private final Instant refreshBefore;
+        private final Set<String> submittedBlobKeys = new HashSet<>();
+        private final List<String> fileNames = new ArrayList<>();
+        private final List<String> framePaths = new ArrayList<>();
+        private final List<Future<?>> pendingUploads = new ArrayList<>();
+        private final Semaphore uploadPermits;
+        private boolean completed;
+
+        private FrameStream(String artifactId, boolean blobs, Path itemDir) throws IOException {
+            this.artifactId = artifactId;
+            this.blobs = blobs;
+            this.itemDir = itemDir;
+            this.refreshBefore = blobs ? blobRefreshBefore() : null;
+            this.uploadPermits = new Semaphore(Math.max(1, storageProperties.getS3().getUploadConcurrency()));
+            if (!storageProperties.getS3().isEnabled() && storageProperties.getLocal().isEnabled()) {
+                this.localBasePath = Files.createDirectories(Path.of(storageProperties.getLocal().getBasePath()));
+            } else {
+                this.localBasePath = null;
+            }
+        }
+
+        public synchronized void addFrame(String fileName, byte[] bytes) throws IOException {
+            String frameKey = blobs ? blobKey(sha256(bytes), fileName) : key(frameDirPrefix(artifactId), fileName);
+            if (storageProperties.getS3().isEnabled()) {
+                S3ArtifactUploader uploader = requireS3Uploader();
+                String bucket = storageProperties.getS3().getBucket().trim();
+                String contentType = contentTypeFor(Path.of(fileName));
+                if (!blobs) {
+                    acquireUploadPermit(fileName);
+                    pendingUploads.add(uploader.submitBytes(bucket, frameKey, contentType, bytes, uploadPermits::release));
+                } else if (submittedBlobKeys.add(frameKey)) {
+                    acquireUploadPermit(fileName);
+                    pendingUploads.add(uploader.submitBytesIfAbsent(
+                            bucket, frameKey, contentType, bytes, refreshBefore, uploadPermits::release));
+                }
+                framePaths.add(joinUrl(storageProperties.getS3().getPublicBaseUrl(), frameKey));
+            } else if (localBasePath != null) {
+                Path target = blobs
+                        ? writeLocalBlob(localBasePath, frameKey, bytes, refreshBefore)
+                        : writeToLocal(localBasePath, frameKey, bytes);
+                framePaths.add(resolveLocalPublicPath(storageProperties.getLocal().getPublicBaseUrl(), frameKey, target));
+            } else {
+                framePaths.add(Files.write(itemDir.resolve(fileName), bytes).toString());
+            }
+            fileNames.add(fileName);
+        }
+
+        private void acquireUploadPermit(String fileName) throws IOException {
+            try {
+                uploadPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to upload frame " + fileName);
+            }
+        }
+
+        /**
+         * File names of the frames added so far, in order (used for API frame payloads).
+         */
+        public synchronized List<String> frameFileNames() {
+            return List.copyOf(fileNames);
+        }
+
+        public synchronized StoredArtifacts complete(Path snapshotFile) throws IOException {
+            String snapshotName = snapshotFile.getFileName().toString();
+            String snapshotKey = blobs
+                    ? blobKey(sha256(snapshotFile), snapshotName)
+                    : key(snapshotDirPrefix(artifactId), snapshotName);
+            String dirKey = blobs ? blobRootKey() : frameDirPrefix(artifactId);
+            StoredArtifacts stored;
+            if (storageProperties.getS3().isEnabled()) {
+                // Frames keep uploading on the pool while the snapshot goes up.
+                String bucket = storageProperties.getS3().getBucket().trim();
+                List<S3ArtifactUploader.ObjectUpload> snapshotUpload =
+                        List.of(new S3ArtifactUploader.ObjectUpload(snapshotFile, snapshotKey, "video/mp4"));
+                if (blobs) {
+                    requireS3Uploader().uploadAbsent(bucket, snapshotUpload, refreshBefore);
+                } else {
+                    requireS3Uploader().uploadAll(bucket, snapshotUpload);
+                }
+                S3ArtifactUploader.awaitAll(pendingUploads);
+                String publicBaseUrl = storageProperties.getS3().getPublicBaseUrl();
+                stored = new StoredArtifacts(joinUrl(publicBaseUrl, dirKey), joinUrl(publicBaseUrl, snapshotKey), List.copyOf(framePaths));
+            } else if (localBasePath != null) {
+                Path storedSnapshot = blobs
+                        ? storeLocalBlob(localBasePath, snapshotKey, snapshotFile, localTransferMode(), refreshBefore)
+                        : transferToLocal(localBasePath, snapshotKey, snapshotFile, localTransferMode());
+                String snapshotPath = resolveLocalPublicPath(storageProperties.getLocal().getPublicBaseUrl(), snapshotKey, storedSnapshot);
+                stored = new StoredArtifacts(localOutputDir(localBasePath, dirKey), snapshotPath, List.copyOf(framePaths));
+            } else {
+                stored = new StoredArtifacts(itemDir.toString(), snapshotFile.toString(), List.copyOf(framePaths));
+            }
+            completed = true;
+            return stored;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!completed) {
+                pendingUploads.forEach(future -> future.cancel(true));
+            }
+        }
+    }
+
     /**
      * Final storage references returned to the processing layer after persistence.
      *
@@ -31,11 +31,22 @@ public class TempStorageService {
     }
 
     public List<Path> listFrameFiles(Path itemDir, String format) throws IOException {
+        return listImages(itemDir, FfmpegService.FRAME_FILE_PREFIX, format);
+    }
+
+    /**
+     * Sprite sheets written for a `frameLayout=sprite` item, in sheet order.
+     */
+    public List<Path> listSpriteSheets(Path itemDir, String format) throws IOException {
+        return listImages(itemDir, FfmpegService.SPRITE_FILE_PREFIX, format);
+    }
+
+    private static List<Path> listImages(Path itemDir, String prefix, String format) throws IOException {
         String suffix = "." + format;
         try (Stream<Path> stream = Files.list(itemDir)) {
             return stream
                     .filter(Files::isRegularFile)
-                    .filter(path -> path.getFileName().toString().startsWith("frame_"))
+                    .filter(path -> path.getFileName().toString().startsWith(prefix))
                     .filter(path -> path.getFileName().toString().endsWith(suffix))
                     .sorted(Comparator.comparing(path -> path.getFileName().toString()))
                     .toList();
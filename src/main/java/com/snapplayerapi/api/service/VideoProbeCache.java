@@ -0,0 +1,130 @@
+package com.snapplayerapi.api.service;
+
+import com.snapplayerapi.api.config.ProcessingProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Probe lookup with three tiers: in-process LRU/TTL map, persisted probe, then `ffprobe`.
+ *
+ * <p>Clients create many snaps for the same video, and every item used to spawn `ffprobe` against the
+ * remote URL. Entries are keyed by the same canonical URL hash used by `video.url_hash`
+ * ({@link VideoUrlKeys}). Only compatible probes are cached: an incompatible result can come from a
+ * transient network failure and must be retried on the next request.</p>
+ */
+@Service
+public class VideoProbeCache {
+
+    private static final Logger log = LoggerFactory.getLogger(VideoProbeCache.class);
+
+    private final ProcessingProperties properties;
+    private final VideoProbeService videoProbeService;
+    private final Optional<PersistedProbeSource> persistedProbeSource;
+    private final BoundedTtlCache<String, VideoProbeService.ProbeResult> memory;
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder persistedHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public VideoProbeCache(
+            ProcessingProperties properties,
+            VideoProbeService videoProbeService,
+            Optional<PersistedProbeSource> persistedProbeSource,
+            MeterRegistry meterRegistry
+    ) {
+        this.properties = properties;
+        this.videoProbeService = videoProbeService;
+        this.persistedProbeSource = persistedProbeSource;
+        ProcessingProperties.ProbeCache config = properties.getProbeCache();
+        this.memory = new BoundedTtlCache<>(config.getMaxEntries(), Duration.ofSeconds(config.getTtlSeconds()));
+
+        Gauge.builder("video.probe.cache.hits.memory", memoryHits, LongAdder::sum)
+                .description("Probe lookups served by the in-process cache since startup")
+                .register(meterRegistry);
+        Gauge.builder("video.probe.cache.hits.persisted", persistedHits, LongAdder::sum)
+                .description("Probe lookups served by the persisted video probe since startup")
+                .register(meterRegistry);
+        Gauge.builder("video.probe.cache.misses", misses, LongAdder::sum)
+                .description("Probe lookups that had to run ffprobe since startup")
+                .register(meterRegistry);
+        Gauge.builder("video.probe.cache.evictions", memory, BoundedTtlCache::evictionCount)
+                .description("In-process probe cache entries evicted by size or TTL since startup")
+                .register(meterRegistry);
+        Gauge.builder("video.probe.cache.size", memory, BoundedTtlCache::size)
+                .description("Current number of entries in the in-process probe cache")
+                .register(meterRegistry);
+    }
+
+    public VideoProbeService.ProbeResult probe(String videoUrl) {
+        if (!properties.getProbeCache().isEnabled()) {
+            return videoProbeService.probe(videoUrl);
+        }
+
+        String urlHash = VideoUrlKeys.urlHash(videoUrl);
+        VideoProbeService.ProbeResult cached = memory.get(urlHash);
+        if (cached != null) {
+            memoryHits.increment();
+            return cached;
+        }
+
+        Optional<VideoProbeService.ProbeResult> persisted = findPersisted(urlHash);
+        if (persisted.isPresent()) {
+            persistedHits.increment();
+            memory.put(urlHash, persisted.get());
+            return persisted.get();
+        }
+
+        misses.increment();
+        VideoProbeService.ProbeResult probe = videoProbeService.probe(videoUrl);
+        if (probe.compatible()) {
+            memory.put(urlHash, probe);
+        }
+        return probe;
+    }
+
+    /**
+     * Drops the cached probe of one URL (e.g. when the source file behind it was replaced).
+     */
+    public void invalidate(String videoUrl) {
+        memory.invalidate(VideoUrlKeys.urlHash(videoUrl));
+    }
+
+    public Stats stats() {
+        return new Stats(
+                properties.getProbeCache().isEnabled(),
+                memory.size(),
+                memoryHits.sum(),
+                persistedHits.sum(),
+                misses.sum(),
+                memory.evictionCount()
+        );
+    }
+
+    private Optional<VideoProbeService.ProbeResult> findPersisted(String urlHash) {
+        if (persistedProbeSource.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return persistedProbeSource.get().findPersistedProbe(urlHash);
+        } catch (RuntimeException e) {
+            // The persisted tier is an optimization only; a DB hiccup must not fail the item.
+            log.warn("video_probe_cache_persisted_lookup_failed urlHash={} error={}", urlHash, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    public record Stats(
+            boolean enabled,
+            int size,
+            long memoryHits,
+            long persistedHits,
+            long misses,
+            long evictions
+    ) {
+    }
+}
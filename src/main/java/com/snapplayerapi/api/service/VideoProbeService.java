@@ -37,8 +37,18 @@ public class VideoProbeService {
                     "ffprobe failed to open video: " + commandResult.output());
         }
 
+        return parseProbeOutput(commandResult.output());
+    }
+
+    /**
+     * Maps raw `ffprobe -print_format json` output to a {@link ProbeResult}.
+     *
+     * <p>Kept separate from process execution so parsing cost can be measured (JMH) and tested
+     * without spawning ffprobe.</p>
+     */
+    ProbeResult parseProbeOutput(String json) {
         try {
-            JsonNode root = objectMapper.readTree(commandResult.output());
+            JsonNode root = objectMapper.readTree(json);
             JsonNode formatNode = root.path("format");
             JsonNode streamsNode = root.path("streams");
 
@@ -129,13 +139,12 @@ public class VideoProbeService {
         }
 
         ByteArrayOutputStream captured = new ByteArrayOutputStream();
-        Thread readerThread = new Thread(() -> drainStream(process.getInputStream(), captured), "ffprobe-output-reader");
-        readerThread.setDaemon(true);
-        readerThread.start();
+        Thread readerThread = ProcessThreads.start(properties.isVirtualThreads(), "ffprobe-output-reader",
+                () -> drainStream(process.getInputStream(), captured));
 
         boolean finished;
         try {
-            finished = process.waitFor(properties.getFfprobe().getTimeoutSeconds(), TimeUnit.SECONDS);
+            finished = ProcessThreads.awaitExit(process, properties.getFfprobe().getTimeoutSeconds(), TimeUnit.SECONDS);
             if (!finished) {
                 process.destroyForcibly();
                 joinQuietly(readerThread);
@@ -0,0 +1,47 @@
+package com.snapplayerapi.api.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Canonical URL + hash helpers shared by `video.url_hash` deduplication and the processing caches.
+ *
+ * <p>Keeping a single implementation guarantees that the probe cache, the persisted probe lookup and
+ * the v2 video deduplication all agree on the key of a given source URL.</p>
+ */
+public final class VideoUrlKeys {
+
+    private VideoUrlKeys() {
+    }
+
+    /**
+     * Placeholder canonicalization function.
+     *
+     * <p>Entrega 1 only trims the URL. Future deliveries may normalize query params or signed URLs,
+     * but changing this requires migration/backfill care because `url_hash` deduplication depends on it.</p>
+     */
+    public static String canonicalize(String videoUrl) {
+        return videoUrl.strip();
+    }
+
+    /**
+     * Computes SHA-256 used by `video.url_hash` deduplication.
+     */
+    public static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Returns the `url_hash` of a raw (not yet canonicalized) video URL.
+     */
+    public static String urlHash(String videoUrl) {
+        return sha256(canonicalize(videoUrl));
+    }
+}
@@ -69,6 +69,22 @@ public class SnapProperties {
      */
     private int workerBatchSize = 1;
 
+    /**
+     * Number of worker slots running jobs concurrently in this JVM.
+     *
+     * <p>`1` keeps the original behavior (jobs run on the scheduler thread). Higher values dispatch
+     * claimed jobs to a dedicated pool so several FFmpeg executions can overlap on multi-core hosts.</p>
+     */
+    private int workerConcurrency = 1;
+
+    /**
+     * Maximum time to wait for in-flight jobs on shutdown before interrupting them (seconds).
+     *
+     * <p>Interrupted jobs go through the normal failure path (retry scheduling); jobs that cannot be
+     * finalized are reclaimed later by stale recovery.</p>
+     */
+    private long workerShutdownTimeoutSeconds = 60L;
+
     /**
      * Maximum retry attempts for a job before final failure.
      */
@@ -134,6 +150,83 @@ public class SnapProperties {
     @NotBlank
     private String workerInstanceId = "local-worker";
 
+    /**
+     * Claims jobs in fair order across assinaturas, interactive lane first (ADR 0016).
+     *
+     * <p>`false` restores the plain `next_run_at, created_at` FIFO claim.</p>
+     */
+    private boolean workerFairClaimEnabled = true;
+
+    /**
+     * Max `RUNNING` jobs per assinatura across all workers (`0` = unlimited). Only enforced by the
+     * fair claim; concurrent claims on different instances may overshoot it by one batch each.
+     */
+    private int workerTenantMaxRunning = 0;
+
+    /**
+     * Interval of the queue depth sampler (per-lane depth, running jobs, oldest queued job).
+     */
+    private long queueMetricsIntervalMs = 15000L;
+
+    /**
+     * Enables PostgreSQL `LISTEN/NOTIFY` wakeups for the worker.
+     *
+     * <p>`POST /v2/snaps` notifies `workerNotifyChannel` after the enqueue commits and the worker claims
+     * immediately instead of waiting for the next poll. Polling stays active as a fallback, so
+     * `workerPollDelayMs` can be raised (e.g. 30s) when this is on. Ignored on non-PostgreSQL databases
+     * (H2 dev/test keeps plain polling).</p>
+     */
+    private boolean workerNotifyEnabled = false;
+
+    /**
+     * PostgreSQL channel used for job wakeups (plain identifier: lowercase letters, digits, `_`).
+     */
+    private String workerNotifyChannel = "snap_job_enqueued";
+
+    /**
+     * Enables the in-process tenant context cache (assinatura by code/token and default template).
+     */
+    private boolean tenantCacheEnabled = true;
+
+    /**
+     * Maximum entries per tenant cache tier (LRU beyond that).
+     */
+    private int tenantCacheMaxEntries = 1000;
+
+    /**
+     * Time-to-live of cached tenant rows. Bounds how long a rotated/revoked API token keeps working
+     * on a node that was not explicitly invalidated.
+     */
+    private long tenantCacheTtlSeconds = 60L;
+
+    /**
+     * `Cache-Control: max-age` (public) sent for terminal snaps on `GET /public/snaps/{token}`.
+     *
+     * <p>`0` sends `no-cache` instead, so clients always revalidate with `If-None-Match`. Non-terminal
+     * snaps are always `no-cache`.</p>
+     */
+    private long publicCacheMaxAgeSeconds = 300L;
+
+    /**
+     * Enables the in-process cache of serialized public snap bodies (terminal snaps only).
+     */
+    private boolean publicResponseCacheEnabled = true;
+
+    private int publicResponseCacheMaxEntries = 1000;
+
+    private long publicResponseCacheTtlSeconds = 300L;
+
+    /**
+     * Stores the rendered `SnapResponse`/`PublicSnapResponse` bodies of completed snaps
+     * (`snap_rendered_response`) and serves reads from them.
+     */
+    private boolean renderedResponsesEnabled = true;
+
+    /**
+     * Gzip the stored bodies. Sent as-is to clients with `Accept-Encoding: gzip`, decompressed otherwise.
+     */
+    private boolean renderedResponsesGzip = true;
+
     public String getDefaultAssinaturaCodigo() {
         return defaultAssinaturaCodigo;
     }
@@ -206,6 +299,46 @@ public class SnapProperties {
         this.workerBatchSize = workerBatchSize;
     }
 
+    public int getWorkerConcurrency() {
+        return workerConcurrency;
+    }
+
+    public void setWorkerConcurrency(int workerConcurrency) {
+        this.workerConcurrency = workerConcurrency;
+    }
+
+    public boolean isWorkerFairClaimEnabled() {
+        return workerFairClaimEnabled;
+    }
+
+    public void setWorkerFairClaimEnabled(boolean workerFairClaimEnabled) {
+        this.workerFairClaimEnabled = workerFairClaimEnabled;
+    }
+
+    public int getWorkerTenantMaxRunning() {
+        return workerTenantMaxRunning;
+    }
+
+    public void setWorkerTenantMaxRunning(int workerTenantMaxRunning) {
+        this.workerTenantMaxRunning = workerTenantMaxRunning;
+    }
+
+    public long getQueueMetricsIntervalMs() {
+        return queueMetricsIntervalMs;
+    }
+
+    public void setQueueMetricsIntervalMs(long queueMetricsIntervalMs) {
+        this.queueMetricsIntervalMs = queueMetricsIntervalMs;
+    }
+
+    public long getWorkerShutdownTimeoutSeconds() {
+        return workerShutdownTimeoutSeconds;
+    }
+
+    public void setWorkerShutdownTimeoutSeconds(long workerShutdownTimeoutSeconds) {
+        this.workerShutdownTimeoutSeconds = workerShutdownTimeoutSeconds;
+    }
+
     public int getWorkerMaxAttempts() {
         return workerMaxAttempts;
     }
@@ -293,4 +426,92 @@ public class SnapProperties {
     public void setWorkerInstanceId(String workerInstanceId) {
         this.workerInstanceId = workerInstanceId;
     }
+
+    public boolean isWorkerNotifyEnabled() {
+        return workerNotifyEnabled;
+    }
+
+    public void setWorkerNotifyEnabled(boolean workerNotifyEnabled) {
+        this.workerNotifyEnabled = workerNotifyEnabled;
+    }
+
+    public String getWorkerNotifyChannel() {
+        return workerNotifyChannel;
+    }
+
+    public void setWorkerNotifyChannel(String workerNotifyChannel) {
+        this.workerNotifyChannel = workerNotifyChannel;
+    }
+
+    public boolean isTenantCacheEnabled() {
+        return tenantCacheEnabled;
+    }
+
+    public void setTenantCacheEnabled(boolean tenantCacheEnabled) {
+        this.tenantCacheEnabled = tenantCacheEnabled;
+    }
+
+    public int getTenantCacheMaxEntries() {
+        return tenantCacheMaxEntries;
+    }
+
+    public void setTenantCacheMaxEntries(int tenantCacheMaxEntries) {
+        this.tenantCacheMaxEntries = tenantCacheMaxEntries;
+    }
+
+    public long getTenantCacheTtlSeconds() {
+        return tenantCacheTtlSeconds;
+    }
+
+    public void setTenantCacheTtlSeconds(long tenantCacheTtlSeconds) {
+        this.tenantCacheTtlSeconds = tenantCacheTtlSeconds;
+    }
+
+    public long getPublicCacheMaxAgeSeconds() {
+        return publicCacheMaxAgeSeconds;
+    }
+
+    public void setPublicCacheMaxAgeSeconds(long publicCacheMaxAgeSeconds) {
+        this.publicCacheMaxAgeSeconds = publicCacheMaxAgeSeconds;
+    }
+
+    public boolean isPublicResponseCacheEnabled() {
+        return publicResponseCacheEnabled;
+    }
+
+    public void setPublicResponseCacheEnabled(boolean publicResponseCacheEnabled) {
+        this.publicResponseCacheEnabled = publicResponseCacheEnabled;
+    }
+
+    public int getPublicResponseCacheMaxEntries() {
+        return publicResponseCacheMaxEntries;
+    }
+
+    public void setPublicResponseCacheMaxEntries(int publicResponseCacheMaxEntries) {
+        this.publicResponseCacheMaxEntries = publicResponseCacheMaxEntries;
+    }
+
+    public long getPublicResponseCacheTtlSeconds() {
+        return publicResponseCacheTtlSeconds;
+    }
+
+    public void setPublicResponseCacheTtlSeconds(long publicResponseCacheTtlSeconds) {
+        this.publicResponseCacheTtlSeconds = publicResponseCacheTtlSeconds;
+    }
+
+    public boolean isRenderedResponsesEnabled() {
+        return renderedResponsesEnabled;
+    }
+
+    public void setRenderedResponsesEnabled(boolean renderedResponsesEnabled) {
+        this.renderedResponsesEnabled = renderedResponsesEnabled;
+    }
+
+    public boolean isRenderedResponsesGzip() {
+        return renderedResponsesGzip;
+    }
+
+    public void setRenderedResponsesGzip(boolean renderedResponsesGzip) {
+        this.renderedResponsesGzip = renderedResponsesGzip;
+    }
 }
@@ -1,10 +1,17 @@
 package com.snapplayerapi.api.v2.controller;
 
+import com.snapplayerapi.api.v2.config.SnapProperties;
 import com.snapplayerapi.api.v2.dto.PublicSnapResponse;
+import com.snapplayerapi.api.v2.service.PublicSnapBody;
 import com.snapplayerapi.api.v2.service.SnapV2Service;
+import java.time.Duration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -19,16 +26,85 @@ import org.springframework.web.bind.annotation.RestController;
 public class PublicSnapController {
 
     private final SnapV2Service snapV2Service;
+    private final SnapProperties snapProperties;
 
-    public PublicSnapController(SnapV2Service snapV2Service) {
+    public PublicSnapController(SnapV2Service snapV2Service, SnapProperties snapProperties) {
         this.snapV2Service = snapV2Service;
+        this.snapProperties = snapProperties;
     }
 
     /**
      * Returns the public representation of a shared snap by share token.
+     *
+     * <p>Answers with a strong ETag and `304 Not Modified` when `If-None-Match` matches. Terminal snaps
+     * are cacheable (`Cache-Control: public, max-age`); snaps still processing use `no-cache` so clients
+     * revalidate until they finish. The body is the {@link PublicSnapResponse} pre-serialized by the
+     * service (stored for completed snaps, possibly gzipped).</p>
      */
     @GetMapping("/snaps/{token}")
-    public ResponseEntity<PublicSnapResponse> getPublicSnap(@PathVariable String token) {
-        return ResponseEntity.ok(snapV2Service.getPublicSnap(token));
+    public ResponseEntity<byte[]> getPublicSnap(
+            @PathVariable String token,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        PublicSnapBody body = snapV2Service.getPublicSnapBody(token);
+        CacheControl cacheControl = cacheControlFor(body);
+        // A strong ETag identifies the bytes, so the gzip variant gets its own tag.
+        String etag = RenderedJsonResponses.sendsGzip(body.body(), acceptEncoding)
+                ? gzipVariant(body.etag())
+                : body.etag();
+        if (matchesIfNoneMatch(ifNoneMatch, body.etag())) {
+            ResponseEntity.BodyBuilder notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl);
+            if (body.body().gzipped()) {
+                notModified.varyBy(HttpHeaders.ACCEPT_ENCODING);
+            }
+            return notModified.build();
+        }
+        return RenderedJsonResponses.write(
+                ResponseEntity.ok().eTag(etag).cacheControl(cacheControl),
+                body.body(),
+                acceptEncoding
+        );
+    }
+
+    private CacheControl cacheControlFor(PublicSnapBody body) {
+        long maxAgeSeconds = snapProperties.getPublicCacheMaxAgeSeconds();
+        if (!body.terminal() || maxAgeSeconds <= 0) {
+            return CacheControl.noCache();
+        }
+        return CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+    }
+
+    /**
+     * `If-None-Match` uses weak comparison (RFC 9110 §13.1.2): `W/` prefixes are ignored and `*`
+     * matches any current representation. Either encoding variant of {@code etag} matches, since both
+     * describe the same snap state.
+     */
+    static boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String opaqueTag = stripWeakPrefix(etag);
+        String gzipTag = gzipVariant(opaqueTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = stripWeakPrefix(candidate.strip());
+            if ("*".equals(tag) || tag.equals(opaqueTag) || tag.equals(gzipTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * `"abc"` -> `"abc-gzip"`.
+     */
+    private static String gzipVariant(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    private static String stripWeakPrefix(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
     }
 }
@@ -0,0 +1,73 @@
+package com.snapplayerapi.api.v2.controller;
+
+import com.snapplayerapi.api.v2.service.RenderedJson;
+import java.util.Locale;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Writes pre-serialized JSON bodies, negotiating gzip against `Accept-Encoding`.
+ *
+ * <p>Gzip-stored bodies go out untouched with `Content-Encoding: gzip` when the client accepts it
+ * and are decompressed otherwise; `Vary: Accept-Encoding` is set in both cases so shared caches keep
+ * the variants apart.</p>
+ */
+final class RenderedJsonResponses {
+
+    private RenderedJsonResponses() {
+    }
+
+    static ResponseEntity<byte[]> write(ResponseEntity.BodyBuilder builder, RenderedJson body, String acceptEncoding) {
+        builder.contentType(MediaType.APPLICATION_JSON);
+        if (!body.gzipped()) {
+            return builder.body(body.bytes());
+        }
+        builder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.bytes());
+        }
+        return builder.body(body.plain());
+    }
+
+    /**
+     * Whether the body would be sent gzip-encoded for this `Accept-Encoding` value.
+     */
+    static boolean sendsGzip(RenderedJson body, String acceptEncoding) {
+        return body.gzipped() && acceptsGzip(acceptEncoding);
+    }
+
+    /**
+     * `gzip` or `*` listed without `q=0`.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].strip().toLowerCase(Locale.ROOT);
+            if (!"gzip".equals(coding) && !"*".equals(coding)) {
+                continue;
+            }
+            if (!hasZeroQuality(tokens)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasZeroQuality(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String parameter = tokens[i].strip().toLowerCase(Locale.ROOT);
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) <= 0.0d;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -4,6 +4,7 @@ import com.snapplayerapi.api.v2.dto.CreateSnapRequest;
 import com.snapplayerapi.api.v2.dto.MineSnapsResponse;
 import com.snapplayerapi.api.v2.dto.MineVideosResponse;
 import com.snapplayerapi.api.v2.dto.ShareSnapResponse;
+import com.snapplayerapi.api.v2.dto.SnapAttributeSearchRequest;
 import com.snapplayerapi.api.v2.dto.SnapResponse;
 import com.snapplayerapi.api.v2.dto.SnapSearchResponse;
 import com.snapplayerapi.api.v2.dto.VideoSnapsResponse;
@@ -11,9 +12,11 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import com.snapplayerapi.api.v2.config.SnapProperties;
+import com.snapplayerapi.api.v2.service.RenderedJson;
 import com.snapplayerapi.api.v2.service.SnapV2Service;
 import jakarta.validation.Valid;
 import java.util.UUID;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -80,14 +83,19 @@ public class SnapV2Controller {
 
     /**
      * Retorna o detalhe completo de um snap já persistido.
+     *
+     * <p>O corpo é um {@link SnapResponse} já serializado: snaps concluídos são servidos a partir do
+     * JSON armazenado na finalização (gzip quando o cliente aceita), sem remontar o DTO.</p>
      */
     @GetMapping("/snaps/{snapId}")
-    public ResponseEntity<SnapResponse> getSnap(
+    public ResponseEntity<byte[]> getSnap(
             @RequestHeader(name = ASSINATURA_HEADER, required = false) String assinaturaCodigo,
             @RequestHeader(name = ASSINATURA_TOKEN_HEADER, required = false) String assinaturaToken,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
             @PathVariable UUID snapId
     ) {
-        return ResponseEntity.ok(snapV2Service.getSnap(assinaturaCodigo, assinaturaToken, snapId));
+        RenderedJson body = snapV2Service.getSnapBody(assinaturaCodigo, assinaturaToken, snapId);
+        return RenderedJsonResponses.write(ResponseEntity.ok(), body, acceptEncoding);
     }
 
     /**
@@ -111,6 +119,10 @@ public class SnapV2Controller {
      * <p>Permite filtro opcional por nickname para suportar listas "mine" básicas
      * antes da autenticação completa. Entrega 3 padroniza paginação/ordenação (`offset`, `limit`,
      * `sortBy`, `sortDir`) para manter consistência com as demais listas.</p>
+     *
+     * <p>Com `sortBy=createdAt`, `page.nextCursor` pode ser enviado de volta como `after` para
+     * paginação por keyset (custo constante em páginas profundas; ADR 0013). `view=summary` retorna
+     * itens compactos (sem frames/probe/subject), lidos por projeção de colunas.</p>
      */
     @GetMapping("/videos/{videoId}/snaps")
     public ResponseEntity<VideoSnapsResponse> listByVideo(
@@ -121,10 +133,12 @@ public class SnapV2Controller {
             @RequestParam(defaultValue = "0") @Min(0) int offset,
             @RequestParam(defaultValue = "50") @Min(1) @Max(100) int limit,
             @RequestParam(required = false) String sortBy,
-            @RequestParam(required = false) String sortDir
+            @RequestParam(required = false) String sortDir,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String view
     ) {
         return ResponseEntity.ok(snapV2Service.listSnapsByVideo(
-                assinaturaCodigo, assinaturaToken, videoId, nickname, offset, limit, sortBy, sortDir
+                assinaturaCodigo, assinaturaToken, videoId, nickname, offset, limit, sortBy, sortDir, after, view
         ));
     }
 
@@ -133,7 +147,8 @@ public class SnapV2Controller {
      *
      * <p>Escopo intencionalmente limitado na Entrega 1: apenas igualdade string
      * (`attrKey` + `attrValue`) e/ou filtro por `subjectId`. Entrega 3 adiciona paginação/ordenação
-     * padronizadas para evitar contratos diferentes entre endpoints de lista.</p>
+     * padronizadas para evitar contratos diferentes entre endpoints de lista. `after` habilita
+     * paginação por keyset (ver `listByVideo`).</p>
      */
     @GetMapping("/snaps/search")
     public ResponseEntity<SnapSearchResponse> search(
@@ -145,18 +160,36 @@ public class SnapV2Controller {
             @RequestParam(defaultValue = "0") @Min(0) int offset,
             @RequestParam(defaultValue = "50") @Min(1) @Max(100) int limit,
             @RequestParam(required = false) String sortBy,
-            @RequestParam(required = false) String sortDir
+            @RequestParam(required = false) String sortDir,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String view
     ) {
         return ResponseEntity.ok(snapV2Service.search(
-                assinaturaCodigo, assinaturaToken, subjectId, attrKey, attrValue, offset, limit, sortBy, sortDir
+                assinaturaCodigo, assinaturaToken, subjectId, attrKey, attrValue, offset, limit, sortBy, sortDir, after, view
         ));
     }
 
+    /**
+     * Busca tipada por vários atributos do subject (faixa numérica, lista `in`, prefixo), com AND.
+     *
+     * <p>Mesmo envelope e paginação da busca `GET`; os filtros vão no corpo para suportar listas de
+     * predicados. Executada inteiramente no banco, escopada pela assinatura ativa.</p>
+     */
+    @PostMapping("/snaps/search")
+    public ResponseEntity<SnapSearchResponse> searchByAttributes(
+            @RequestHeader(name = ASSINATURA_HEADER, required = false) String assinaturaCodigo,
+            @RequestHeader(name = ASSINATURA_TOKEN_HEADER, required = false) String assinaturaToken,
+            @RequestBody @Valid SnapAttributeSearchRequest request
+    ) {
+        return ResponseEntity.ok(snapV2Service.searchByAttributes(assinaturaCodigo, assinaturaToken, request));
+    }
+
     /**
      * Lists snaps created by the user identified by `nickname` in the active assinatura.
      *
      * <p>This is a temporary identity mechanism used until auth/token support is introduced in a
-     * later delivery. Entrega 3 standardizes paging/sorting params to match other list routes.</p>
+     * later delivery. Entrega 3 standardizes paging/sorting params to match other list routes.
+     * `after` switches to keyset paging with the opaque `page.nextCursor` (ADR 0013).</p>
      */
     @GetMapping("/snaps/mine")
     public ResponseEntity<MineSnapsResponse> listMySnaps(
@@ -166,10 +199,12 @@ public class SnapV2Controller {
             @RequestParam(defaultValue = "0") @Min(0) int offset,
             @RequestParam(defaultValue = "50") @Min(1) @Max(100) int limit,
             @RequestParam(required = false) String sortBy,
-            @RequestParam(required = false) String sortDir
+            @RequestParam(required = false) String sortDir,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String view
     ) {
         return ResponseEntity.ok(snapV2Service.listMineSnaps(
-                assinaturaCodigo, assinaturaToken, nickname, offset, limit, sortBy, sortDir
+                assinaturaCodigo, assinaturaToken, nickname, offset, limit, sortBy, sortDir, after, view
         ));
     }
 
@@ -16,6 +16,9 @@ import java.time.OffsetDateTime;
  * <p>O contrato aceita `videoId` <strong>ou</strong> `videoUrl` para suportar dois fluxos:
  * reaproveitamento de vídeo já conhecido e criação/reuso automático por URL. Campos extras são
  * ignorados para manter compatibilidade progressiva com fases futuras do master.</p>
+ *
+ * <p>`priority` (`interactive`, padrão, ou `batch`) escolhe a faixa do job no modo assíncrono;
+ * importações em massa devem usar `batch` para não atrasar snaps interativos.</p>
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record CreateSnapRequest(
@@ -33,6 +36,8 @@ public record CreateSnapRequest(
         Integer maxWidth,
         String format,
         Integer quality,
+        String frameLayout,
+        String priority,
         @NotNull @Valid V2SubjectRequest subject,
         @Valid ProcessingOverlayRequest overlay
 ) {
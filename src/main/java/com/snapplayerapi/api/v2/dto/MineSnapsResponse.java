@@ -7,11 +7,13 @@ import java.util.List;
  *
  * <p>Entrega 2 uses `nickname` as the caller identity placeholder (before auth/token support).
  * The envelope mirrors other list responses to keep the contract stable for future pagination.</p>
+ *
+ * <p>`items` are {@link SnapResponse}, or {@link SnapSummaryResponse} with `view=summary`.</p>
  */
 public record MineSnapsResponse(
         String nickname,
         int total,
         PageMetaResponse page,
-        List<SnapResponse> items
+        List<? extends SnapListItem> items
 ) {
 }
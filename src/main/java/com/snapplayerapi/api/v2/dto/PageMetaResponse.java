@@ -6,6 +6,9 @@ package com.snapplayerapi.api.v2.dto;
  * <p>Entrega 3 introduces this object so all list/search endpoints expose the same paging contract
  * (`offset`/`limit`) and the effective ordering applied (`sortBy`/`sortDir`). The `total` remains
  * in each envelope for backward compatibility with earlier clients.</p>
+ *
+ * <p>`nextCursor` is an opaque keyset cursor for the following page (pass it back as `after`). It is
+ * only emitted for snap lists sorted by `createdAt` and is null on the last page.</p>
  */
 public record PageMetaResponse(
         int offset,
@@ -13,6 +16,7 @@ public record PageMetaResponse(
         int returned,
         boolean hasMore,
         String sortBy,
-        String sortDir
+        String sortDir,
+        String nextCursor
 ) {
 }
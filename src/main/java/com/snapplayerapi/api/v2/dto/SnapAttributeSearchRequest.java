@@ -0,0 +1,49 @@
+package com.snapplayerapi.api.v2.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Payload de `POST /v2/snaps/search`: busca tipada sobre vários atributos do subject.
+ *
+ * <p>Todos os predicados são combinados com AND e avaliados no banco sobre `snap_subject_attr`
+ * (um `exists` por predicado, sem join cartesiano nem `distinct`). Paginação/ordenação seguem o
+ * mesmo contrato das listas `GET` (`offset`/`limit`/`sortBy`/`sortDir`, cursor `after` e
+ * `view=summary`).</p>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SnapAttributeSearchRequest(
+        String subjectId,
+        @NotEmpty @Size(max = 10) List<@Valid AttributePredicate> predicates,
+        Integer offset,
+        Integer limit,
+        String sortBy,
+        String sortDir,
+        String after,
+        String view
+) {
+
+    /**
+     * Um predicado sobre um atributo (`key`, comparada sem diferenciar maiúsculas).
+     *
+     * <p>Operadores:
+     * - `range`: atributo numérico entre `min` e `max` (inclusivos; um dos limites pode faltar)
+     * - `in`: atributo string igual a um dos `values` (até 100)
+     * - `prefix`: atributo string começando com `value`</p>
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record AttributePredicate(
+            @NotBlank String key,
+            @NotBlank String op,
+            BigDecimal min,
+            BigDecimal max,
+            @Size(max = 100) List<String> values,
+            String value
+    ) {
+    }
+}
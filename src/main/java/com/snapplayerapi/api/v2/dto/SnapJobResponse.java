@@ -12,6 +12,7 @@ import java.time.OffsetDateTime;
 public record SnapJobResponse(
         Long jobId,
         String status,
+        String priority,
         Integer attempts,
         Integer maxAttempts,
         OffsetDateTime nextRunAt,
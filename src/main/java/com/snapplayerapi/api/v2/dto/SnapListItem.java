@@ -0,0 +1,17 @@
+package com.snapplayerapi.api.v2.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Item of a snap list envelope: the full {@link SnapResponse} or the compact
+ * {@link SnapSummaryResponse} (`view=summary`).
+ *
+ * <p>Both expose the keyset sort key, which is what the list code needs to build `nextCursor`.</p>
+ */
+public interface SnapListItem {
+
+    UUID snapId();
+
+    OffsetDateTime createdAt();
+}
@@ -42,5 +42,5 @@ public record SnapResponse(
         SnapJobResponse job,
         OffsetDateTime createdAt,
         OffsetDateTime processedAt
-) {
+) implements SnapListItem {
 }
@@ -4,10 +4,12 @@ import java.util.List;
 
 /**
  * Resposta simples de busca da Entrega 1.
+ *
+ * <p>`items` são {@link SnapResponse} ou, com `view=summary`, {@link SnapSummaryResponse}.</p>
  */
 public record SnapSearchResponse(
         int total,
         PageMetaResponse page,
-        List<SnapResponse> items
+        List<? extends SnapListItem> items
 ) {
 }
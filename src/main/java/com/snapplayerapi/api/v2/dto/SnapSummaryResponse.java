@@ -0,0 +1,27 @@
+package com.snapplayerapi.api.v2.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Representação compacta de um snap para listas (`view=summary`), ex.: grade de miniaturas.
+ *
+ * <p>Montada por projeção de colunas no banco: não carrega nem desserializa `frames_json`,
+ * `subject_json`, `video_probe_json` ou `snapshot_video_json`. `thumbnailPath` é o primeiro frame,
+ * gravado quando o processamento conclui (nulo para snaps pendentes/falhos e anteriores à V7); em
+ * `frameLayout=sprite` é a folha com o recorte do frame no fragmento `#xywh=x,y,w,h`.</p>
+ */
+public record SnapSummaryResponse(
+        UUID snapId,
+        UUID videoId,
+        String status,
+        String nickname,
+        String subjectId,
+        Double resolvedStartSeconds,
+        Double durationSeconds,
+        Integer frameCount,
+        String thumbnailPath,
+        OffsetDateTime createdAt,
+        OffsetDateTime processedAt
+) implements SnapListItem {
+}
@@ -8,11 +8,13 @@ import java.util.UUID;
  *
  * <p>The `total` field is included in Entrega 1 even without pagination so clients can adopt a
  * stable shape before pagination is introduced in later deliveries.</p>
+ *
+ * <p>`items` are {@link SnapResponse}, or {@link SnapSummaryResponse} with `view=summary`.</p>
  */
 public record VideoSnapsResponse(
         UUID videoId,
         int total,
         PageMetaResponse page,
-        List<SnapResponse> items
+        List<? extends SnapListItem> items
 ) {
 }
@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import java.time.OffsetDateTime;
+import java.util.Locale;
 import java.util.UUID;
 
 /**
@@ -36,6 +37,13 @@ public class SnapEntity {
     @Column(name = "nickname_snapshot", nullable = false, length = 120)
     private String nicknameSnapshot;
 
+    /**
+     * Lower-cased {@link #nicknameSnapshot}, kept in sync by its setter. Indexed so the "mine"
+     * lookups are equality/range scans instead of {@code lower(...)} over every tenant row.
+     */
+    @Column(name = "nickname_normalized", nullable = false, length = 120)
+    private String nicknameNormalized;
+
     @Column(name = "email_snapshot", nullable = false, length = 320)
     private String emailSnapshot;
 
@@ -84,6 +92,12 @@ public class SnapEntity {
     @Column
     private Integer quality;
 
+    /**
+     * `frames` (one image per frame) or `sprite` (frames packed into sprite sheets).
+     */
+    @Column(name = "frame_layout", nullable = false, length = 10)
+    private String frameLayout;
+
     @Column(name = "subject_id", nullable = false, length = 200)
     private String subjectId;
 
@@ -102,6 +116,12 @@ public class SnapEntity {
     @Column(name = "frames_json", columnDefinition = "text")
     private String framesJson;
 
+    /**
+     * Stored path of the first frame, denormalized from {@link #framesJson} for summary lists.
+     */
+    @Column(name = "thumbnail_path")
+    private String thumbnailPath;
+
     @Column(name = "frame_count", nullable = false)
     private Integer frameCount;
 
@@ -131,7 +151,11 @@ public class SnapEntity {
     public Long getSubjectTemplateId() { return subjectTemplateId; }
     public void setSubjectTemplateId(Long subjectTemplateId) { this.subjectTemplateId = subjectTemplateId; }
     public String getNicknameSnapshot() { return nicknameSnapshot; }
-    public void setNicknameSnapshot(String nicknameSnapshot) { this.nicknameSnapshot = nicknameSnapshot; }
+    public void setNicknameSnapshot(String nicknameSnapshot) {
+        this.nicknameSnapshot = nicknameSnapshot;
+        this.nicknameNormalized = normalizeNickname(nicknameSnapshot);
+    }
+    public String getNicknameNormalized() { return nicknameNormalized; }
     public String getEmailSnapshot() { return emailSnapshot; }
     public void setEmailSnapshot(String emailSnapshot) { this.emailSnapshot = emailSnapshot; }
     public String getTipoSnap() { return tipoSnap; }
@@ -164,6 +188,8 @@ public class SnapEntity {
     public void setFormat(String format) { this.format = format; }
     public Integer getQuality() { return quality; }
     public void setQuality(Integer quality) { this.quality = quality; }
+    public String getFrameLayout() { return frameLayout; }
+    public void setFrameLayout(String frameLayout) { this.frameLayout = frameLayout; }
     public String getSubjectId() { return subjectId; }
     public void setSubjectId(String subjectId) { this.subjectId = subjectId; }
     public String getSubjectJson() { return subjectJson; }
@@ -176,6 +202,8 @@ public class SnapEntity {
     public void setSnapshotVideoJson(String snapshotVideoJson) { this.snapshotVideoJson = snapshotVideoJson; }
     public String getFramesJson() { return framesJson; }
     public void setFramesJson(String framesJson) { this.framesJson = framesJson; }
+    public String getThumbnailPath() { return thumbnailPath; }
+    public void setThumbnailPath(String thumbnailPath) { this.thumbnailPath = thumbnailPath; }
     public Integer getFrameCount() { return frameCount; }
     public void setFrameCount(Integer frameCount) { this.frameCount = frameCount; }
     public String getOutputDir() { return outputDir; }
@@ -188,4 +216,11 @@ public class SnapEntity {
     public void setUpdatedAt(OffsetDateTime updatedAt) { this.updatedAt = updatedAt; }
     public OffsetDateTime getProcessedAt() { return processedAt; }
     public void setProcessedAt(OffsetDateTime processedAt) { this.processedAt = processedAt; }
+
+    /**
+     * Canonical form used for {@code nickname_normalized} and for lookup parameters.
+     */
+    public static String normalizeNickname(String nickname) {
+        return nickname == null ? null : nickname.strip().toLowerCase(Locale.ROOT);
+    }
 }
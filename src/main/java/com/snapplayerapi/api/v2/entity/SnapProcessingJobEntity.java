@@ -20,6 +20,16 @@ import java.util.UUID;
 @Table(name = "snap_processing_job")
 public class SnapProcessingJobEntity {
 
+    /**
+     * Lane of single-snap requests; always claimed before {@link #PRIORITY_BATCH}.
+     */
+    public static final int PRIORITY_INTERACTIVE = 1;
+
+    /**
+     * Lane of bulk imports (`priority=batch` on create).
+     */
+    public static final int PRIORITY_BATCH = 0;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -57,12 +67,39 @@ public class SnapProcessingJobEntity {
     @Column(name = "last_error", columnDefinition = "text")
     private String lastError;
 
+    /**
+     * Claim lane, higher first ({@link #PRIORITY_INTERACTIVE} / {@link #PRIORITY_BATCH}).
+     */
+    @Column(nullable = false)
+    private Integer priority;
+
     @Column(name = "created_at", nullable = false)
     private OffsetDateTime createdAt;
 
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt;
 
+    /**
+     * Stage timings of the latest attempt (milliseconds; null when the stage did not run).
+     */
+    @Column(name = "queue_wait_ms")
+    private Long queueWaitMs;
+
+    @Column(name = "probe_ms")
+    private Long probeMs;
+
+    @Column(name = "encode_ms")
+    private Long encodeMs;
+
+    @Column(name = "extract_ms")
+    private Long extractMs;
+
+    @Column(name = "upload_ms")
+    private Long uploadMs;
+
+    @Column(name = "finalize_ms")
+    private Long finalizeMs;
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     public UUID getSnapId() { return snapId; }
@@ -87,9 +124,23 @@ public class SnapProcessingJobEntity {
     public void setFinishedAt(OffsetDateTime finishedAt) { this.finishedAt = finishedAt; }
     public String getLastError() { return lastError; }
     public void setLastError(String lastError) { this.lastError = lastError; }
+    public Integer getPriority() { return priority; }
+    public void setPriority(Integer priority) { this.priority = priority; }
     public OffsetDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(OffsetDateTime createdAt) { this.createdAt = createdAt; }
     public OffsetDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(OffsetDateTime updatedAt) { this.updatedAt = updatedAt; }
+    public Long getQueueWaitMs() { return queueWaitMs; }
+    public void setQueueWaitMs(Long queueWaitMs) { this.queueWaitMs = queueWaitMs; }
+    public Long getProbeMs() { return probeMs; }
+    public void setProbeMs(Long probeMs) { this.probeMs = probeMs; }
+    public Long getEncodeMs() { return encodeMs; }
+    public void setEncodeMs(Long encodeMs) { this.encodeMs = encodeMs; }
+    public Long getExtractMs() { return extractMs; }
+    public void setExtractMs(Long extractMs) { this.extractMs = extractMs; }
+    public Long getUploadMs() { return uploadMs; }
+    public void setUploadMs(Long uploadMs) { this.uploadMs = uploadMs; }
+    public Long getFinalizeMs() { return finalizeMs; }
+    public void setFinalizeMs(Long finalizeMs) { this.finalizeMs = finalizeMs; }
 }
 
@@ -0,0 +1,70 @@
+package com.snapplayerapi.api.v2.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Stored JSON bodies of a completed snap, served without rebuilding the response DTOs.
+ *
+ * <p>`snapBody` is the rendered `SnapResponse`; `publicBody` the rendered `PublicSnapResponse`,
+ * present only while the snap is shared. Both use the same {@link #contentEncoding}. The row is
+ * a derived copy of `snap`: whoever changes a rendered field of a completed snap must re-render or
+ * delete it.</p>
+ */
+@Entity
+@Table(name = "snap_rendered_response")
+public class SnapRenderedResponseEntity {
+
+    public static final String ENCODING_IDENTITY = "identity";
+    public static final String ENCODING_GZIP = "gzip";
+
+    @Id
+    @Column(name = "snap_id", nullable = false)
+    private UUID snapId;
+
+    @Column(name = "assinatura_id", nullable = false)
+    private Long assinaturaId;
+
+    @Column(name = "public_share_token", length = 200)
+    private String publicShareToken;
+
+    @Column(name = "content_encoding", nullable = false, length = 16)
+    private String contentEncoding;
+
+    @Column(name = "snap_body", nullable = false)
+    private byte[] snapBody;
+
+    @Column(name = "public_body")
+    private byte[] publicBody;
+
+    @Column(name = "source_updated_at", nullable = false)
+    private OffsetDateTime sourceUpdatedAt;
+
+    @Column(name = "rendered_at", nullable = false)
+    private OffsetDateTime renderedAt;
+
+    public UUID getSnapId() { return snapId; }
+    public void setSnapId(UUID snapId) { this.snapId = snapId; }
+    public Long getAssinaturaId() { return assinaturaId; }
+    public void setAssinaturaId(Long assinaturaId) { this.assinaturaId = assinaturaId; }
+    public String getPublicShareToken() { return publicShareToken; }
+    public void setPublicShareToken(String publicShareToken) { this.publicShareToken = publicShareToken; }
+    public String getContentEncoding() { return contentEncoding; }
+    public void setContentEncoding(String contentEncoding) { this.contentEncoding = contentEncoding; }
+    public byte[] getSnapBody() { return snapBody; }
+    public void setSnapBody(byte[] snapBody) { this.snapBody = snapBody; }
+    public byte[] getPublicBody() { return publicBody; }
+    public void setPublicBody(byte[] publicBody) { this.publicBody = publicBody; }
+    public OffsetDateTime getSourceUpdatedAt() { return sourceUpdatedAt; }
+    public void setSourceUpdatedAt(OffsetDateTime sourceUpdatedAt) { this.sourceUpdatedAt = sourceUpdatedAt; }
+    public OffsetDateTime getRenderedAt() { return renderedAt; }
+    public void setRenderedAt(OffsetDateTime renderedAt) { this.renderedAt = renderedAt; }
+
+    public boolean isGzip() {
+        return ENCODING_GZIP.equals(contentEncoding);
+    }
+}
@@ -35,11 +35,12 @@ public interface SnapProcessingJobRepository extends JpaRepository<SnapProcessin
     );
 
     /**
-     * Claims one runnable job using DB row locking (`FOR UPDATE SKIP LOCKED`).
+     * Claims up to {@code limit} runnable jobs using DB row locking (`FOR UPDATE SKIP LOCKED`).
      *
      * <p>This query is intentionally native because JPQL does not provide a portable way to express
-     * `SKIP LOCKED`. The service wraps this call in a short transaction and immediately updates the
-     * row to `RUNNING`, minimizing lock duration.</p>
+     * `SKIP LOCKED`. Rows already locked by another worker are skipped, so concurrent claimers receive
+     * disjoint batches. The service wraps this call and {@link #markClaimed} in one short transaction,
+     * minimizing lock duration.</p>
      */
     @Query(value = """
             select *
@@ -47,10 +48,85 @@ public interface SnapProcessingJobRepository extends JpaRepository<SnapProcessin
             where j.status in ('PENDING', 'RETRY_WAIT')
               and j.next_run_at <= current_timestamp
             order by j.next_run_at asc, j.created_at asc
-            limit 1
+            limit :limit
             for update skip locked
             """, nativeQuery = true)
-    Optional<SnapProcessingJobEntity> findNextClaimableJobForUpdate();
+    List<SnapProcessingJobEntity> findClaimableJobsForUpdate(@Param("limit") int limit);
+
+    /**
+     * Ids of the next claimable jobs in fair order (ADR 0016), without locking anything.
+     *
+     * <p>Claimable jobs are ranked per assinatura (`tenant_rank`, own lane first) and the rank is
+     * offset by the jobs that assinatura already has `RUNNING` on any worker. Ordering by lane and
+     * then by that effective rank serves every tenant's next job before anybody's second one, and
+     * tenants with fewer jobs in flight first, so a bulk import cannot starve other tenants. With
+     * {@code tenantMaxRunning > 0} jobs beyond the tenant cap are left out.</p>
+     *
+     * <p>Window functions cannot be combined with `FOR UPDATE`, so the rows are locked afterwards by
+     * {@link #lockClaimableJobsForUpdate}.</p>
+     */
+    @Query(value = """
+            with running as (
+                select r.assinatura_id, count(*) as running_count
+                from snap_processing_job r
+                where r.status = 'RUNNING'
+                group by r.assinatura_id
+            ),
+            ranked as (
+                select c.id, c.assinatura_id, c.priority, c.next_run_at, c.created_at,
+                       row_number() over (
+                           partition by c.assinatura_id
+                           order by c.priority desc, c.next_run_at asc, c.created_at asc
+                       ) as tenant_rank
+                from snap_processing_job c
+                where c.status in ('PENDING', 'RETRY_WAIT')
+                  and c.next_run_at <= current_timestamp
+            )
+            select k.id
+            from ranked k
+            left join running u on u.assinatura_id = k.assinatura_id
+            where :tenantMaxRunning <= 0
+               or k.tenant_rank + coalesce(u.running_count, 0) <= :tenantMaxRunning
+            order by k.priority desc,
+                     k.tenant_rank + coalesce(u.running_count, 0) asc,
+                     k.next_run_at asc,
+                     k.created_at asc
+            limit :limit
+            """, nativeQuery = true)
+    List<Long> findFairClaimCandidateIds(@Param("tenantMaxRunning") int tenantMaxRunning, @Param("limit") int limit);
+
+    /**
+     * Locks the given candidates with `FOR UPDATE SKIP LOCKED`, re-checking that they are still
+     * claimable. Returned order is unspecified; callers restore the candidate order.
+     */
+    @Query(value = """
+            select *
+            from snap_processing_job j
+            where j.id in (:ids)
+              and j.status in ('PENDING', 'RETRY_WAIT')
+              and j.next_run_at <= current_timestamp
+            for update skip locked
+            """, nativeQuery = true)
+    List<SnapProcessingJobEntity> lockClaimableJobsForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Marks a locked batch as `RUNNING` with one set-based update (one round trip for N jobs).
+     *
+     * <p>`attempts` is incremented in SQL and `started_at` keeps the first-claim timestamp, mirroring the
+     * per-row claim logic.</p>
+     */
+    @Modifying
+    @Query("""
+            update SnapProcessingJobEntity j
+            set j.status = 'RUNNING',
+                j.attempts = coalesce(j.attempts, 0) + 1,
+                j.lockedAt = :now,
+                j.lockOwner = :owner,
+                j.startedAt = coalesce(j.startedAt, :now),
+                j.updatedAt = :now
+            where j.id in :ids
+            """)
+    int markClaimed(@Param("ids") Collection<Long> ids, @Param("owner") String owner, @Param("now") OffsetDateTime now);
 
     /**
      * Renews `locked_at` for all `RUNNING` jobs owned by this worker instance.
@@ -77,6 +153,33 @@ public interface SnapProcessingJobRepository extends JpaRepository<SnapProcessin
             """)
     List<Object[]> countByStatus();
 
+    /**
+     * Queue depth per lane and assinatura for the queue metrics sampler.
+     *
+     * <p>Returns {@code Object[]} rows of {@code [priority, assinaturaId, queued, ready, oldestCreatedAt]}
+     * where {@code ready} counts the jobs already due ({@code nextRunAt <= now}).</p>
+     */
+    @Query("""
+            select j.priority, j.assinaturaId, count(j),
+                   sum(case when j.nextRunAt <= :now then 1 else 0 end),
+                   min(j.createdAt)
+            from SnapProcessingJobEntity j
+            where j.status in ('PENDING', 'RETRY_WAIT')
+            group by j.priority, j.assinaturaId
+            """)
+    List<Object[]> queueDepthByPriorityAndAssinatura(@Param("now") OffsetDateTime now);
+
+    /**
+     * `RUNNING` jobs per assinatura: {@code [assinaturaId, running]}.
+     */
+    @Query("""
+            select j.assinaturaId, count(j)
+            from SnapProcessingJobEntity j
+            where j.status = 'RUNNING'
+            group by j.assinaturaId
+            """)
+    List<Object[]> countRunningByAssinatura();
+
     /**
      * Aggregates terminal jobs count and average completion duration in milliseconds.
      *
@@ -0,0 +1,19 @@
+package com.snapplayerapi.api.v2.repo;
+
+import com.snapplayerapi.api.v2.entity.SnapRenderedResponseEntity;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repository for pre-rendered snap response bodies (`snap_rendered_response`).
+ */
+public interface SnapRenderedResponseRepository extends JpaRepository<SnapRenderedResponseEntity, UUID> {
+
+    /**
+     * Tenant-scoped lookup so the detail endpoint can serve the body with a single query.
+     */
+    Optional<SnapRenderedResponseEntity> findBySnapIdAndAssinaturaId(UUID snapId, Long assinaturaId);
+
+    Optional<SnapRenderedResponseEntity> findByPublicShareToken(String publicShareToken);
+}
@@ -18,8 +18,12 @@ import org.springframework.data.repository.query.Param;
  * scans for large assinaturas. Use {@link OffsetBasedPageRequest} to pass arbitrary offset+limit
  * values from the API layer. {@code Slice.hasNext()} replaces a count query — Spring Data fetches
  * {@code limit + 1} rows internally and trims the extra one from the content.</p>
+ *
+ * <p>Cursor ({@code after}) requests and the typed attribute search do not use these methods: they
+ * compose {@link SnapSpecifications} and run through {@link SnapRepositoryCustom#findSlice}, so deep
+ * pages cost the same as the first one (ADR 0013) and no count query is issued.</p>
  */
-public interface SnapRepository extends JpaRepository<SnapEntity, UUID> {
+public interface SnapRepository extends JpaRepository<SnapEntity, UUID>, SnapRepositoryCustom {
 
     /**
      * Tenant-scoped lookup used by {@code GET /v2/snaps/{snapId}}.
@@ -34,11 +38,13 @@ public interface SnapRepository extends JpaRepository<SnapEntity, UUID> {
 
     /**
      * Same list with case-insensitive nickname filter.
+     *
+     * <p>{@code nicknameNormalized} must come from {@link SnapEntity#normalizeNickname(String)}.</p>
      */
-    Slice<SnapEntity> findByVideoIdAndAssinaturaIdAndNicknameSnapshotIgnoreCase(
+    Slice<SnapEntity> findByVideoIdAndAssinaturaIdAndNicknameNormalized(
             UUID videoId,
             Long assinaturaId,
-            String nicknameSnapshot,
+            String nicknameNormalized,
             Pageable pageable
     );
 
@@ -49,10 +55,13 @@ public interface SnapRepository extends JpaRepository<SnapEntity, UUID> {
 
     /**
      * Lists snaps by nickname for the "mine" view. Paginated.
+     *
+     * <p>Matches the indexed {@code nickname_normalized} column
+     * ({@code idx_snap_ass_nickname_created}); pass {@link SnapEntity#normalizeNickname(String)}.</p>
      */
-    Slice<SnapEntity> findByAssinaturaIdAndNicknameSnapshotIgnoreCase(
+    Slice<SnapEntity> findByAssinaturaIdAndNicknameNormalized(
             Long assinaturaId,
-            String nicknameSnapshot,
+            String nicknameNormalized,
             Pageable pageable
     );
 
@@ -95,12 +104,15 @@ public interface SnapRepository extends JpaRepository<SnapEntity, UUID> {
      *
      * <p>{@code max(s.videoUrl)} is used to select the URL for the group — all snaps for the same
      * video share the same URL so any would be equivalent.</p>
+     *
+     * <p>{@code nickname} must already be normalized ({@link SnapEntity#normalizeNickname(String)})
+     * so the filter is served by {@code idx_snap_ass_nickname_video}.</p>
      */
     @Query("""
             select s.videoId, max(s.videoUrl) as videoUrl, count(s) as snapCount, max(s.createdAt) as latestSnapCreatedAt
             from SnapEntity s
             where s.assinaturaId = :assinaturaId
-              and lower(s.nicknameSnapshot) = lower(:nickname)
+              and s.nicknameNormalized = :nickname
             group by s.videoId
             """)
     Slice<Object[]> findVideoAggregatesForNickname(
@@ -115,20 +127,21 @@ public interface SnapRepository extends JpaRepository<SnapEntity, UUID> {
      * after the paginated group-by query has determined the active page of videos.
      *
      * <p>Returns {@code Object[]} rows of {@code [videoId, snapId]} where {@code snapId} is the
-     * ID of the snap with the maximum {@code createdAt} for that video and nickname.</p>
+     * ID of the snap with the maximum {@code createdAt} for that video and nickname.
+     * {@code nickname} must already be normalized.</p>
      */
     @Query("""
             select s.videoId, s.id
             from SnapEntity s
             where s.assinaturaId = :assinaturaId
-              and lower(s.nicknameSnapshot) = lower(:nickname)
+              and s.nicknameNormalized = :nickname
               and s.videoId in :videoIds
               and s.createdAt = (
                   select max(s2.createdAt)
                   from SnapEntity s2
                   where s2.videoId = s.videoId
                     and s2.assinaturaId = :assinaturaId
-                    and lower(s2.nicknameSnapshot) = lower(:nickname)
+                    and s2.nicknameNormalized = :nickname
               )
             """)
     List<Object[]> findLatestSnapIdPerVideo(
@@ -136,4 +149,19 @@ public interface SnapRepository extends JpaRepository<SnapEntity, UUID> {
             @Param("nickname") String nickname,
             @Param("videoIds") java.util.Collection<UUID> videoIds
     );
+
+    /**
+     * Artifact references of the snaps after {@code afterId}, in id order, for the blob sweep.
+     *
+     * <p>Returns {@code Object[]} rows of {@code [id, snapshotVideoJson, framesJson, thumbnailPath]}.
+     * Keyset on the primary key keeps every page as cheap as the first; start from
+     * {@code new UUID(0, 0)} and pass the last id of each page.</p>
+     */
+    @Query("""
+            select s.id, s.snapshotVideoJson, s.framesJson, s.thumbnailPath
+            from SnapEntity s
+            where s.id > :afterId
+            order by s.id
+            """)
+    List<Object[]> findArtifactReferencesAfter(@Param("afterId") UUID afterId, Pageable pageable);
 }
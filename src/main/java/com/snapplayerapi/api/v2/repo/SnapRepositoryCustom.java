@@ -0,0 +1,28 @@
+package com.snapplayerapi.api.v2.repo;
+
+import com.snapplayerapi.api.v2.dto.SnapSummaryResponse;
+import com.snapplayerapi.api.v2.entity.SnapEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Custom fragment of {@link SnapRepository} for dynamic (specification-based) snap lists.
+ */
+public interface SnapRepositoryCustom {
+
+    /**
+     * Runs {@code spec} with the sort/offset/limit of {@code pageable} and returns a {@link Slice}.
+     *
+     * <p>Unlike {@code JpaSpecificationExecutor.findAll(spec, pageable)} this never issues a
+     * {@code count(*)}: it fetches {@code limit + 1} rows and derives {@code hasNext()} from the
+     * extra row, like the derived {@code Slice} queries (ADR 0006).</p>
+     */
+    Slice<SnapEntity> findSlice(Specification<SnapEntity> spec, Pageable pageable);
+
+    /**
+     * Same as {@link #findSlice} but selects only the columns of {@link SnapSummaryResponse}
+     * (constructor projection), so the large JSON text columns are never read.
+     */
+    Slice<SnapSummaryResponse> findSummarySlice(Specification<SnapEntity> spec, Pageable pageable);
+}
@@ -0,0 +1,85 @@
+package com.snapplayerapi.api.v2.repo;
+
+import com.snapplayerapi.api.v2.dto.SnapSummaryResponse;
+import com.snapplayerapi.api.v2.entity.SnapEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+/**
+ * Criteria implementation of {@link SnapRepositoryCustom}, picked up by Spring Data through the
+ * {@code Impl} naming convention.
+ */
+class SnapRepositoryCustomImpl implements SnapRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    SnapRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Slice<SnapEntity> findSlice(Specification<SnapEntity> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SnapEntity> query = cb.createQuery(SnapEntity.class);
+        Root<SnapEntity> root = query.from(SnapEntity.class);
+        query.select(root);
+        return fetchSlice(query, root, spec, pageable);
+    }
+
+    @Override
+    public Slice<SnapSummaryResponse> findSummarySlice(Specification<SnapEntity> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SnapSummaryResponse> query = cb.createQuery(SnapSummaryResponse.class);
+        Root<SnapEntity> root = query.from(SnapEntity.class);
+        query.select(cb.construct(
+                SnapSummaryResponse.class,
+                root.get("id"),
+                root.get("videoId"),
+                root.get("status"),
+                root.get("nicknameSnapshot"),
+                root.get("subjectId"),
+                root.get("resolvedStartSeconds"),
+                root.get("durationSeconds"),
+                root.get("frameCount"),
+                root.get("thumbnailPath"),
+                root.get("createdAt"),
+                root.get("processedAt")
+        ));
+        return fetchSlice(query, root, spec, pageable);
+    }
+
+    /**
+     * Applies filter, sort and {@code offset}/{@code limit + 1}, then trims the probe row into
+     * {@code hasNext()}.
+     */
+    private <T> Slice<T> fetchSlice(
+            CriteriaQuery<T> query,
+            Root<SnapEntity> root,
+            Specification<SnapEntity> spec,
+            Pageable pageable
+    ) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        int limit = pageable.getPageSize();
+        List<T> rows = entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(pageable.getOffset()))
+                .setMaxResults(limit + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > limit;
+        return new SliceImpl<>(hasNext ? rows.subList(0, limit) : rows, pageable, hasNext);
+    }
+}
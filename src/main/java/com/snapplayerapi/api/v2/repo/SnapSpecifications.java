@@ -0,0 +1,131 @@
+package com.snapplayerapi.api.v2.repo;
+
+import com.snapplayerapi.api.v2.entity.SnapEntity;
+import com.snapplayerapi.api.v2.entity.SnapSubjectAttrEntity;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Composable {@link Specification} building blocks for dynamic snap lists: keyset (seek)
+ * pagination and typed attribute search.
+ *
+ * <p>The derived/JPQL queries in {@link SnapRepository} remain the offset path. Cursor requests
+ * combine the same filters with {@link #afterCreatedAt} instead of an {@code OFFSET}, so each page
+ * is an index range scan on the {@code (assinatura_id, ..., created_at)} indexes no matter how deep
+ * the client has paged (ADR 0013).</p>
+ */
+public final class SnapSpecifications {
+
+    private SnapSpecifications() {
+    }
+
+    public static Specification<SnapEntity> inAssinatura(Long assinaturaId) {
+        return (root, query, cb) -> cb.equal(root.get("assinaturaId"), assinaturaId);
+    }
+
+    public static Specification<SnapEntity> inVideo(UUID videoId) {
+        return (root, query, cb) -> cb.equal(root.get("videoId"), videoId);
+    }
+
+    /**
+     * Case-insensitive nickname match on the indexed {@code nickname_normalized} column.
+     */
+    public static Specification<SnapEntity> nicknameIgnoreCase(String nickname) {
+        String normalized = SnapEntity.normalizeNickname(nickname);
+        return (root, query, cb) -> cb.equal(root.get("nicknameNormalized"), normalized);
+    }
+
+    public static Specification<SnapEntity> subjectId(String subjectId) {
+        return (root, query, cb) -> cb.equal(root.get("subjectId"), subjectId);
+    }
+
+    /**
+     * Exact string attribute match, mirroring {@link SnapRepository#searchByStringAttr}.
+     */
+    public static Specification<SnapEntity> hasStringAttr(Long assinaturaId, String attrKey, String attrValue) {
+        return attrExists(assinaturaId, attrKey, "STRING", (a, cb) -> cb.equal(a.get("stringValue"), attrValue));
+    }
+
+    /**
+     * String attribute equal to any of {@code values}.
+     */
+    public static Specification<SnapEntity> hasStringAttrIn(Long assinaturaId, String attrKey, Collection<String> values) {
+        return attrExists(assinaturaId, attrKey, "STRING", (a, cb) -> a.get("stringValue").in(values));
+    }
+
+    /**
+     * String attribute starting with {@code prefix} ({@code like 'prefix%'}, wildcards escaped).
+     */
+    public static Specification<SnapEntity> hasStringAttrPrefix(Long assinaturaId, String attrKey, String prefix) {
+        String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return attrExists(assinaturaId, attrKey, "STRING", (a, cb) -> cb.like(a.<String>get("stringValue"), pattern, '\\'));
+    }
+
+    /**
+     * Numeric attribute within {@code [min, max]}; a null bound is open.
+     */
+    public static Specification<SnapEntity> hasNumberAttrBetween(Long assinaturaId, String attrKey, BigDecimal min, BigDecimal max) {
+        return attrExists(assinaturaId, attrKey, "NUMBER", (a, cb) -> {
+            Path<BigDecimal> value = a.get("numberValue");
+            if (min != null && max != null) {
+                return cb.between(value, min, max);
+            }
+            return min != null ? cb.greaterThanOrEqualTo(value, min) : cb.lessThanOrEqualTo(value, max);
+        });
+    }
+
+    /**
+     * Correlated {@code exists} over {@code snap_subject_attr} for one attribute predicate.
+     *
+     * <p>Using one {@code exists} per predicate (instead of joins) lets several predicates be ANDed
+     * without a cartesian product or {@code distinct}; each one is a semi-join served by the
+     * {@code (assinatura_id, attr_key, string_value|number_value)} indexes. Keys are stored
+     * lower-cased, so the key comparison is a plain equality.</p>
+     */
+    private static Specification<SnapEntity> attrExists(
+            Long assinaturaId,
+            String attrKey,
+            String valueType,
+            BiFunction<Root<SnapSubjectAttrEntity>, CriteriaBuilder, Predicate> valuePredicate
+    ) {
+        String normalizedKey = attrKey.strip().toLowerCase(Locale.ROOT);
+        return (root, query, cb) -> {
+            Subquery<Long> attr = query.subquery(Long.class);
+            Root<SnapSubjectAttrEntity> a = attr.from(SnapSubjectAttrEntity.class);
+            attr.select(a.<Long>get("id")).where(
+                    cb.equal(a.get("snapId"), root.get("id")),
+                    cb.equal(a.get("assinaturaId"), assinaturaId),
+                    cb.equal(a.get("attrKey"), normalizedKey),
+                    cb.equal(a.get("valueType"), valueType),
+                    valuePredicate.apply(a, cb)
+            );
+            return cb.exists(attr);
+        };
+    }
+
+    /**
+     * Rows strictly after {@code (createdAt, id)} in the {@code createdAt <dir>, id asc} order used by
+     * the list endpoints: {@code created_at <op> :ts or (created_at = :ts and id > :id)}.
+     */
+    public static Specification<SnapEntity> afterCreatedAt(OffsetDateTime createdAt, UUID id, boolean descending) {
+        return (root, query, cb) -> cb.or(
+                descending
+                        ? cb.lessThan(root.<OffsetDateTime>get("createdAt"), createdAt)
+                        : cb.greaterThan(root.<OffsetDateTime>get("createdAt"), createdAt),
+                cb.and(
+                        cb.equal(root.get("createdAt"), createdAt),
+                        cb.greaterThan(root.<UUID>get("id"), id)
+                )
+        );
+    }
+}
@@ -17,4 +17,8 @@ public interface VideoRepository extends JpaRepository<VideoEntity, UUID> {
      * Tenant-safe lookup used when clients reference an existing `videoId`.
      */
     Optional<VideoEntity> findByIdAndAssinaturaId(UUID id, Long assinaturaId);
+    /**
+     * Cross-tenant probe lookup used by the probe cache: the probe describes the URL, not the tenant.
+     */
+    Optional<VideoEntity> findFirstByUrlHashAndVideoProbeJsonIsNotNullOrderByCreatedAtDesc(String urlHash);
 }
@@ -0,0 +1,53 @@
+package com.snapplayerapi.api.v2.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snapplayerapi.api.dto.ProcessingVideoProbeResponse;
+import com.snapplayerapi.api.service.PersistedProbeSource;
+import com.snapplayerapi.api.service.VideoProbeService;
+import com.snapplayerapi.api.v2.repo.VideoRepository;
+import java.util.Optional;
+import org.springframework.stereotype.Component;
+
+/**
+ * Second probe-cache tier backed by `video.video_probe_json`.
+ *
+ * <p>`video_probe_json` is also written for failed snaps, where `compatible=false` describes that snap's
+ * requested range (e.g. "clip exceeds video duration") rather than the video itself. Only compatible
+ * probes are therefore reused.</p>
+ */
+@Component
+public class PersistedVideoProbeSource implements PersistedProbeSource {
+
+    private final VideoRepository videoRepository;
+    private final ObjectMapper objectMapper;
+
+    public PersistedVideoProbeSource(VideoRepository videoRepository, ObjectMapper objectMapper) {
+        this.videoRepository = videoRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Optional<VideoProbeService.ProbeResult> findPersistedProbe(String urlHash) {
+        return videoRepository.findFirstByUrlHashAndVideoProbeJsonIsNotNullOrderByCreatedAtDesc(urlHash)
+                .map(video -> parse(video.getVideoProbeJson()))
+                .filter(probe -> probe != null && probe.compatible())
+                .map(probe -> VideoProbeService.ProbeResult.compatible(
+                        probe.containerFormat(),
+                        probe.codecName(),
+                        probe.width(),
+                        probe.height(),
+                        probe.durationSeconds(),
+                        probe.sourceFps(),
+                        probe.pixelFormat()
+                ));
+    }
+
+    private ProcessingVideoProbeResponse parse(String json) {
+        try {
+            return objectMapper.readValue(json, ProcessingVideoProbeResponse.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.snapplayerapi.api.v2.service;
+
+/**
+ * Serialized `PublicSnapResponse` plus the validators the public controller needs for HTTP caching.
+ *
+ * @param etag strong entity tag (quoted) derived from snap id and `updated_at`, for the identity encoding
+ * @param terminal whether the snap reached a terminal status (`COMPLETED`/`FAILED`) and can be cached
+ *                 by clients and shared caches
+ * @param body JSON body, possibly stored gzip-encoded
+ */
+public record PublicSnapBody(String etag, boolean terminal, RenderedJson body) {
+}
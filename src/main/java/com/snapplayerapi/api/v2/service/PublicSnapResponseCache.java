@@ -0,0 +1,78 @@
+package com.snapplayerapi.api.v2.service;
+
+import com.snapplayerapi.api.service.BoundedTtlCache;
+import com.snapplayerapi.api.v2.config.SnapProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-process cache of serialized `GET /public/snaps/{token}` bodies, keyed by share token.
+ *
+ * <p>Shared snaps receive bursts of identical reads; a hit skips the DB lookup, the parsing of the
+ * JSON columns and the response serialization. Only terminal snaps are stored (see
+ * {@link SnapV2Service#getPublicSnapBody}), because a `PENDING`/`RUNNING` snap is finalized by the
+ * worker without passing through this cache. Entries are immutable and safe to share across threads.</p>
+ */
+@Service
+public class PublicSnapResponseCache {
+
+    private final SnapProperties snapProperties;
+    private final BoundedTtlCache<String, PublicSnapBody> bodies;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public PublicSnapResponseCache(SnapProperties snapProperties, MeterRegistry meterRegistry) {
+        this.snapProperties = snapProperties;
+        this.bodies = new BoundedTtlCache<>(
+                snapProperties.getPublicResponseCacheMaxEntries(),
+                Duration.ofSeconds(Math.max(1L, snapProperties.getPublicResponseCacheTtlSeconds()))
+        );
+
+        Gauge.builder("snap.public.cache.hits", hits, LongAdder::sum)
+                .description("Public snap reads served from the in-process body cache since startup")
+                .register(meterRegistry);
+        Gauge.builder("snap.public.cache.misses", misses, LongAdder::sum)
+                .description("Public snap reads rebuilt from the database since startup")
+                .register(meterRegistry);
+        Gauge.builder("snap.public.cache.evictions", bodies, BoundedTtlCache::evictionCount)
+                .description("Public snap bodies evicted by size or TTL since startup")
+                .register(meterRegistry);
+        Gauge.builder("snap.public.cache.size", bodies, BoundedTtlCache::size)
+                .description("Current number of cached public snap bodies")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached body, or {@code null} when absent, expired or the cache is disabled.
+     */
+    PublicSnapBody get(String token) {
+        if (!snapProperties.isPublicResponseCacheEnabled()) {
+            return null;
+        }
+        PublicSnapBody cached = bodies.get(token);
+        if (cached == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return cached;
+    }
+
+    void put(String token, PublicSnapBody body) {
+        if (snapProperties.isPublicResponseCacheEnabled()) {
+            bodies.put(token, body);
+        }
+    }
+
+    /**
+     * Drops the cached body of one token (called whenever the shared snap row changes).
+     */
+    public void invalidate(String token) {
+        if (token != null) {
+            bodies.invalidate(token);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.snapplayerapi.api.v2.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A JSON response body ready to be written as-is, optionally gzip-encoded.
+ *
+ * <p>Controllers send {@link #bytes()} with `Content-Encoding: gzip` when the client accepts it and
+ * fall back to {@link #plain()} otherwise. The array is never mutated after construction.</p>
+ */
+public record RenderedJson(byte[] bytes, boolean gzipped) {
+
+    static RenderedJson plain(byte[] json) {
+        return new RenderedJson(json, false);
+    }
+
+    static RenderedJson encode(byte[] json, boolean gzip) {
+        return gzip ? new RenderedJson(gzip(json), true) : plain(json);
+    }
+
+    /**
+     * Uncompressed JSON bytes (decompresses on every call when stored gzipped).
+     */
+    public byte[] plain() {
+        return gzipped ? gunzip(bytes) : bytes;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to gzip rendered JSON", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] compressed) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to gunzip rendered JSON", e);
+        }
+    }
+}
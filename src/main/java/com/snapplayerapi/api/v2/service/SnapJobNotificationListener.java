@@ -0,0 +1,139 @@
+package com.snapplayerapi.api.v2.service;
+
+import com.snapplayerapi.api.v2.config.SnapProperties;
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds one dedicated PostgreSQL connection on `LISTEN` and wakes the worker on each notification.
+ *
+ * <p>The connection is opened straight from the `spring.datasource` URL and credentials, outside the
+ * pool: it stays open for the JVM's lifetime, and taking it from the pool would permanently shrink the
+ * pool available to requests and workers by one.</p>
+ *
+ * <p>Started only when {@link SnapJobNotifier#isActive()} (flag on + PostgreSQL). The wakeup is handed
+ * to the Spring task scheduler, so jobs never run on this thread and the scheduler's graceful shutdown
+ * also covers them. Connection errors are retried with a fixed backoff; meanwhile the regular poll keeps
+ * the queue moving.</p>
+ */
+@Component
+public class SnapJobNotificationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapJobNotificationListener.class);
+    private static final int RECEIVE_TIMEOUT_MS = 5000;
+    private static final long RECONNECT_BACKOFF_MS = 5000L;
+
+    private final SnapProperties snapProperties;
+    private final SnapJobNotifier snapJobNotifier;
+    private final DataSourceProperties dataSourceProperties;
+    private final SnapProcessingJobWorker worker;
+    private final TaskScheduler taskScheduler;
+    private volatile boolean running;
+    private volatile Thread listenerThread;
+
+    public SnapJobNotificationListener(
+            SnapProperties snapProperties,
+            SnapJobNotifier snapJobNotifier,
+            DataSourceProperties dataSourceProperties,
+            SnapProcessingJobWorker worker,
+            TaskScheduler taskScheduler
+    ) {
+        this.snapProperties = snapProperties;
+        this.snapJobNotifier = snapJobNotifier;
+        this.dataSourceProperties = dataSourceProperties;
+        this.worker = worker;
+        this.taskScheduler = taskScheduler;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!snapProperties.isWorkerEnabled() || !snapProperties.isAsyncCreateEnabled() || !snapJobNotifier.isActive()) {
+            return;
+        }
+        String channel = snapJobNotifier.channel();
+        running = true;
+        Thread thread = new Thread(() -> listenLoop(channel), "snap-job-listener");
+        thread.setDaemon(true);
+        listenerThread = thread;
+        thread.start();
+        log.info("snap_job_listener_started channel={}", channel);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = listenerThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void listenLoop(String channel) {
+        while (running) {
+            try (Connection connection = openListenConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+                // Jobs enqueued while (re)connecting produced no notification we could see.
+                wakeWorker();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(RECEIVE_TIMEOUT_MS);
+                    if (notifications != null && notifications.length > 0) {
+                        wakeWorker();
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("snap_job_listener_error channel={} error={}", channel, e.toString());
+                sleepQuietly(RECONNECT_BACKOFF_MS);
+            }
+        }
+    }
+
+    /**
+     * Opens the non-pooled connection that holds the `LISTEN` registration.
+     */
+    protected Connection openListenConnection() throws SQLException {
+        return DriverManager.getConnection(
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword()
+        );
+    }
+
+    private void wakeWorker() {
+        try {
+            taskScheduler.schedule(worker::wakeUp, Instant.now());
+        } catch (RuntimeException e) {
+            // Scheduler shutting down; the next startup poll handles pending jobs.
+            log.debug("snap_job_listener_wakeup_rejected error={}", e.toString());
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.snapplayerapi.api.v2.service;
+
+import com.snapplayerapi.api.v2.config.SnapProperties;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Publishes `pg_notify` wakeups for newly enqueued jobs (optional, PostgreSQL only).
+ *
+ * <p>The notification is sent after the enqueue transaction commits, so a woken worker always finds
+ * the job row. It runs in its own short transaction because `NOTIFY` is only delivered on commit and
+ * the original transaction is already finished at that point. Failures are logged and ignored: the
+ * fallback poll still picks the job up.</p>
+ */
+@Component
+public class SnapJobNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapJobNotifier.class);
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+
+    private final SnapProperties snapProperties;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate notifyTransaction;
+    private volatile Boolean postgres;
+
+    public SnapJobNotifier(
+            SnapProperties snapProperties,
+            DataSource dataSource,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.snapProperties = snapProperties;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.notifyTransaction = new TransactionTemplate(transactionManager);
+        this.notifyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * True when notifications are enabled and the datasource is PostgreSQL.
+     */
+    public boolean isActive() {
+        return snapProperties.isWorkerNotifyEnabled() && isPostgres();
+    }
+
+    /**
+     * Validated channel name; safe to embed in `LISTEN` (identifiers cannot be bound as parameters).
+     */
+    public String channel() {
+        String channel = snapProperties.getWorkerNotifyChannel();
+        if (channel == null || !CHANNEL_PATTERN.matcher(channel).matches()) {
+            throw new IllegalStateException("app.snap.workerNotifyChannel must match " + CHANNEL_PATTERN.pattern());
+        }
+        return channel;
+    }
+
+    /**
+     * Notifies listeners once the current transaction commits (immediately when none is active).
+     */
+    public void notifyJobEnqueuedAfterCommit() {
+        if (!isActive()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sendNotify();
+                }
+            });
+        } else {
+            sendNotify();
+        }
+    }
+
+    private void sendNotify() {
+        try {
+            notifyTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.queryForList("select pg_notify(?, ?)", channel(), ""));
+        } catch (RuntimeException e) {
+            log.warn("snap_job_notify_failed channel={} error={}", snapProperties.getWorkerNotifyChannel(), e.toString());
+        }
+    }
+
+    private boolean isPostgres() {
+        Boolean cached = postgres;
+        if (cached != null) {
+            return cached;
+        }
+        boolean detected;
+        try (Connection connection = dataSource.getConnection()) {
+            String product = connection.getMetaData().getDatabaseProductName();
+            detected = product != null && product.toLowerCase(Locale.ROOT).contains("postgresql");
+        } catch (SQLException e) {
+            log.warn("snap_job_notify_db_detection_failed error={}", e.toString());
+            return false;
+        }
+        postgres = detected;
+        return detected;
+    }
+}
@@ -0,0 +1,103 @@
+package com.snapplayerapi.api.v2.service;
+
+import com.snapplayerapi.api.v2.entity.SnapProcessingJobEntity;
+import com.snapplayerapi.api.v2.repo.SnapProcessingJobRepository;
+import com.snapplayerapi.api.web.SnapJobObservabilityRegistry;
+import com.snapplayerapi.api.web.SnapJobQueueDepthResponse;
+import com.snapplayerapi.api.web.SnapJobTenantQueueResponse;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Periodically samples the depth of the async snap queue into {@link SnapJobObservabilityRegistry}.
+ *
+ * <p>Two grouped queries per cycle (queued rows by lane and assinatura, running rows by assinatura),
+ * independent of how often gauges are scraped. Per-tenant numbers stay out of metric tags to keep
+ * cardinality bounded; the deepest backlogs are listed in the internal snapshot instead.</p>
+ */
+@Service
+public class SnapJobQueueMetricsSampler {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapJobQueueMetricsSampler.class);
+    private static final int TOP_TENANTS = 10;
+
+    private final SnapProcessingJobRepository jobRepository;
+    private final SnapJobObservabilityRegistry snapJobObservabilityRegistry;
+
+    public SnapJobQueueMetricsSampler(
+            SnapProcessingJobRepository jobRepository,
+            SnapJobObservabilityRegistry snapJobObservabilityRegistry
+    ) {
+        this.jobRepository = jobRepository;
+        this.snapJobObservabilityRegistry = snapJobObservabilityRegistry;
+    }
+
+    @Scheduled(fixedDelayString = "${app.snap.queueMetricsIntervalMs:15000}")
+    public void sampleScheduled() {
+        try {
+            sampleOnce();
+        } catch (RuntimeException ex) {
+            // Keep the previous sample; gauges simply report slightly older numbers.
+            log.warn("snap_job_queue_sample_failed error={}", ex.toString());
+        }
+    }
+
+    /**
+     * Takes one sample and publishes it. Public so tests/tools can refresh without the scheduler.
+     */
+    public SnapJobQueueDepthResponse sampleOnce() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        Map<Long, long[]> tenants = new HashMap<>();
+        long interactive = 0L;
+        long batch = 0L;
+        long ready = 0L;
+        OffsetDateTime oldest = null;
+        for (Object[] row : jobRepository.queueDepthByPriorityAndAssinatura(now)) {
+            int priority = ((Number) row[0]).intValue();
+            long queued = ((Number) row[2]).longValue();
+            long[] counts = tenants.computeIfAbsent((Long) row[1], ignored -> new long[3]);
+            if (priority == SnapProcessingJobEntity.PRIORITY_BATCH) {
+                batch += queued;
+                counts[1] += queued;
+            } else {
+                interactive += queued;
+                counts[0] += queued;
+            }
+            ready += row[3] == null ? 0L : ((Number) row[3]).longValue();
+            OffsetDateTime createdAt = (OffsetDateTime) row[4];
+            if (createdAt != null && (oldest == null || createdAt.isBefore(oldest))) {
+                oldest = createdAt;
+            }
+        }
+        int tenantsQueued = tenants.size();
+        long running = 0L;
+        for (Object[] row : jobRepository.countRunningByAssinatura()) {
+            long count = ((Number) row[1]).longValue();
+            running += count;
+            tenants.computeIfAbsent((Long) row[0], ignored -> new long[3])[2] += count;
+        }
+
+        List<SnapJobTenantQueueResponse> topTenants = tenants.entrySet().stream()
+                .map(entry -> new SnapJobTenantQueueResponse(
+                        entry.getKey(), entry.getValue()[0], entry.getValue()[1], entry.getValue()[2]))
+                .sorted(Comparator.comparingLong((SnapJobTenantQueueResponse tenant) ->
+                        tenant.interactiveQueued() + tenant.batchQueued()).reversed())
+                .limit(TOP_TENANTS)
+                .toList();
+        long oldestAgeMs = oldest == null ? 0L : Math.max(0L, Duration.between(oldest, now).toMillis());
+
+        SnapJobQueueDepthResponse sample = new SnapJobQueueDepthResponse(
+                now, interactive, batch, ready, running, tenantsQueued, oldestAgeMs, topTenants);
+        snapJobObservabilityRegistry.recordQueueDepth(sample);
+        return sample;
+    }
+}
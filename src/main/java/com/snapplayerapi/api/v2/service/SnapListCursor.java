@@ -0,0 +1,43 @@
+package com.snapplayerapi.api.v2.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset cursor for snap lists ordered by {@code createdAt}.
+ *
+ * <p>Encodes the last row's sort key ({@code createdAt}) and tie-breaker ({@code id}) plus the sort
+ * direction it was issued for, as URL-safe Base64. Clients must treat the value as opaque; the
+ * {@code v1} prefix leaves room to change the layout later.</p>
+ */
+record SnapListCursor(String sortDir, OffsetDateTime createdAt, UUID id) {
+
+    private static final String VERSION = "v1";
+
+    String encode() {
+        String raw = VERSION + "|" + sortDir + "|" + createdAt.toInstant() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the cursor is malformed (mapped to 400 by the API)
+     */
+    static SnapListCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value.strip()), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid after cursor");
+            }
+            OffsetDateTime createdAt = Instant.parse(parts[2]).atOffset(ZoneOffset.UTC);
+            return new SnapListCursor(parts[1], createdAt, UUID.fromString(parts[3]));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid after cursor", e);
+        }
+    }
+}
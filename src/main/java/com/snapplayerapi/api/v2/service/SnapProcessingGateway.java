@@ -2,6 +2,7 @@ package com.snapplayerapi.api.v2.service;
 
 import com.snapplayerapi.api.dto.ProcessingBatchResponse;
 import com.snapplayerapi.api.dto.ProcessingFilmagemRequest;
+import com.snapplayerapi.api.service.ProcessingStageTimings;
 
 /**
  * Indirection layer between the `v2` Snap service and the actual video processing engine.
@@ -14,4 +15,14 @@ public interface SnapProcessingGateway {
      * Processes a single filmagem request and returns the same shape produced by the MVP batch API.
      */
     ProcessingBatchResponse processSingle(ProcessingFilmagemRequest request);
+
+    /**
+     * Variant used by the async worker to collect a per-stage timing breakdown.
+     *
+     * <p>Defaults to {@link #processSingle(ProcessingFilmagemRequest)} without timings, so simple
+     * gateways (e.g. test stubs) leave every stage unmeasured.</p>
+     */
+    default ProcessingBatchResponse processSingle(ProcessingFilmagemRequest request, ProcessingStageTimings timings) {
+        return processSingle(request);
+    }
 }
@@ -1,12 +1,15 @@
 package com.snapplayerapi.api.v2.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snapplayerapi.api.config.ProcessingProperties;
 import com.snapplayerapi.api.dto.ProcessingBatchResponse;
 import com.snapplayerapi.api.dto.ProcessingFilmagemRequest;
 import com.snapplayerapi.api.dto.ProcessingFilmagemResponse;
 import com.snapplayerapi.api.dto.ProcessingOverlayRequest;
 import com.snapplayerapi.api.dto.ProcessingSnapshotVideoResponse;
 import com.snapplayerapi.api.dto.ProcessingSubjectRequest;
+import com.snapplayerapi.api.service.ProcessThreads;
+import com.snapplayerapi.api.service.ProcessingStageTimings;
 import com.snapplayerapi.api.v2.config.SnapProperties;
 import com.snapplayerapi.api.v2.dto.V2SubjectRequest;
 import com.snapplayerapi.api.v2.entity.SnapEntity;
@@ -15,12 +18,23 @@ import com.snapplayerapi.api.v2.repo.SnapProcessingJobRepository;
 import com.snapplayerapi.api.v2.repo.SnapRepository;
 import com.snapplayerapi.api.v2.repo.VideoRepository;
 import com.snapplayerapi.api.web.SnapJobObservabilityRegistry;
+import jakarta.annotation.PreDestroy;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -48,6 +62,16 @@ public class SnapProcessingJobWorker {
     private final ObjectMapper objectMapper;
     private final TransactionTemplate transactionTemplate;
     private final SnapJobObservabilityRegistry snapJobObservabilityRegistry;
+    /**
+     * Only used to render the stored response bodies with the same mappers the read endpoints use.
+     */
+    private final SnapV2Service snapV2Service;
+    private final int workerConcurrency;
+    private final ExecutorService slotExecutor;
+    private final Semaphore freeSlots;
+    private final AtomicBoolean accepting = new AtomicBoolean(true);
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+    private final ReentrantLock cycleLock = new ReentrantLock();
 
     public SnapProcessingJobWorker(
             SnapProperties snapProperties,
@@ -57,7 +81,9 @@ public class SnapProcessingJobWorker {
             SnapProcessingGateway snapProcessingGateway,
             ObjectMapper objectMapper,
             PlatformTransactionManager transactionManager,
-            SnapJobObservabilityRegistry snapJobObservabilityRegistry
+            SnapJobObservabilityRegistry snapJobObservabilityRegistry,
+            SnapV2Service snapV2Service,
+            ProcessingProperties processingProperties
     ) {
         this.snapProperties = snapProperties;
         this.jobRepository = jobRepository;
@@ -67,6 +93,15 @@ public class SnapProcessingJobWorker {
         this.objectMapper = objectMapper;
         this.transactionTemplate = new TransactionTemplate(transactionManager);
         this.snapJobObservabilityRegistry = snapJobObservabilityRegistry;
+        this.snapV2Service = snapV2Service;
+        this.workerConcurrency = Math.max(1, snapProperties.getWorkerConcurrency());
+        this.slotExecutor = workerConcurrency > 1
+                ? Executors.newFixedThreadPool(
+                        workerConcurrency,
+                        ProcessThreads.factory(processingProperties.isVirtualThreads(), "snap-job-slot-")
+                )
+                : null;
+        this.freeSlots = new Semaphore(workerConcurrency);
     }
 
     /**
@@ -76,10 +111,34 @@ public class SnapProcessingJobWorker {
      */
     @Scheduled(fixedDelayString = "${app.snap.workerPollDelayMs:1000}")
     public void pollAndProcess() {
-        if (!snapProperties.isAsyncCreateEnabled() || !snapProperties.isWorkerEnabled()) {
+        if (!snapProperties.isAsyncCreateEnabled() || !snapProperties.isWorkerEnabled() || !accepting.get()) {
             return;
         }
-        processPendingJobsOnce();
+        // Poll and wakeups never run cycles concurrently. A wakeup arriving while a cycle is running sets
+        // `wakeRequested`, and the running thread performs one more cycle before leaving.
+        do {
+            if (!cycleLock.tryLock()) {
+                return;
+            }
+            try {
+                wakeRequested.set(false);
+                if (slotExecutor == null) {
+                    processPendingJobsOnce();
+                } else {
+                    dispatchPendingJobsOnce();
+                }
+            } finally {
+                cycleLock.unlock();
+            }
+        } while (wakeRequested.get() && accepting.get());
+    }
+
+    /**
+     * Immediate poll triggered by a `LISTEN/NOTIFY` wakeup (see {@link SnapJobNotificationListener}).
+     */
+    public void wakeUp() {
+        wakeRequested.set(true);
+        pollAndProcess();
     }
 
     /**
@@ -117,15 +176,100 @@ public class SnapProcessingJobWorker {
         // First recover abandoned RUNNING rows so they become eligible again (or fail terminally).
         recoverStaleRunningJobsOnce();
 
-        int processed = 0;
+        // One claim transaction for the whole batch; jobs waiting their turn stay RUNNING under this
+        // instance's heartbeat.
         int batchSize = Math.max(1, snapProperties.getWorkerBatchSize());
-        while (processed < batchSize) {
-            Optional<ClaimedJob> claimed = claimNextJob();
-            if (claimed.isEmpty()) {
-                break;
+        for (ClaimedJob claimed : claimNextJobs(batchSize)) {
+            processClaimedJob(claimed);
+        }
+    }
+
+    /**
+     * Fills free worker slots with claimed jobs (`workerConcurrency > 1`).
+     *
+     * <p>The scheduler thread only claims and hands off: one batch claim sized to the free slots, so an
+     * idle queue costs one claim query per poll regardless of the slot count. A slot that finishes
+     * keeps claiming (up to `workerBatchSize` jobs) before releasing itself, so busy queues do not wait
+     * for the next poll. The heartbeat renews every `RUNNING` job of this instance by owner, which
+     * covers all slots, and stale recovery still runs once per poll.</p>
+     */
+    void dispatchPendingJobsOnce() {
+        recoverStaleRunningJobsOnce();
+
+        int free = freeSlots.availablePermits();
+        if (!accepting.get() || free <= 0 || !freeSlots.tryAcquire(free)) {
+            return;
+        }
+        // One batch claim fills every free slot; permits without a job are handed back immediately.
+        List<ClaimedJob> claimed;
+        try {
+            claimed = claimNextJobs(free);
+        } catch (RuntimeException e) {
+            freeSlots.release(free);
+            throw e;
+        }
+        freeSlots.release(free - claimed.size());
+        for (ClaimedJob job : claimed) {
+            try {
+                slotExecutor.execute(() -> runSlot(job));
+            } catch (RejectedExecutionException e) {
+                // Shutdown raced with the claim: the row stays RUNNING and stale recovery requeues it.
+                freeSlots.release();
+                log.warn("snap_job_dispatch_rejected jobId={} snapId={}", job.jobId(), job.snapId());
+            }
+        }
+    }
+
+    private void runSlot(ClaimedJob first) {
+        try {
+            ClaimedJob next = first;
+            int processed = 0;
+            int batchSize = Math.max(1, snapProperties.getWorkerBatchSize());
+            while (next != null) {
+                processClaimedJob(next);
+                processed++;
+                if (processed >= batchSize || !accepting.get()) {
+                    break;
+                }
+                next = claimNextJob().orElse(null);
             }
-            processed++;
-            processClaimedJob(claimed.get());
+        } catch (RuntimeException e) {
+            log.error("snap_job_slot_failed error={}", e.toString(), e);
+        } finally {
+            freeSlots.release();
+        }
+    }
+
+    /**
+     * Number of worker slots currently executing a job.
+     */
+    public int activeSlots() {
+        return workerConcurrency - freeSlots.availablePermits();
+    }
+
+    /**
+     * Stops claiming new jobs and waits for in-flight slots to finish (graceful drain).
+     *
+     * <p>Jobs still running after `workerShutdownTimeoutSeconds` are interrupted; the interrupt surfaces
+     * as an FFmpeg failure and goes through the regular retry path.</p>
+     */
+    @PreDestroy
+    public void shutdown() {
+        accepting.set(false);
+        if (slotExecutor == null) {
+            return;
+        }
+        slotExecutor.shutdown();
+        long timeoutSeconds = Math.max(1L, snapProperties.getWorkerShutdownTimeoutSeconds());
+        log.info("snap_job_worker_draining activeSlots={} timeoutSeconds={}", activeSlots(), timeoutSeconds);
+        try {
+            if (!slotExecutor.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) {
+                log.warn("snap_job_worker_drain_timeout activeSlots={}", activeSlots());
+                slotExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            slotExecutor.shutdownNow();
         }
     }
 
@@ -133,25 +277,75 @@ public class SnapProcessingJobWorker {
      * Claims one job in a short transaction to minimize lock duration.
      */
     protected Optional<ClaimedJob> claimNextJob() {
-        return Optional.ofNullable(transactionTemplate.execute(status -> {
-            Optional<SnapProcessingJobEntity> maybeJob = jobRepository.findNextClaimableJobForUpdate();
-            if (maybeJob.isEmpty()) {
-                return null;
+        return claimNextJobs(1).stream().findFirst();
+    }
+
+    /**
+     * Claims up to {@code limit} jobs in one short transaction.
+     *
+     * <p>The rows are locked with a single `FOR UPDATE SKIP LOCKED` select and switched to `RUNNING`
+     * with a single set-based update, instead of N select/update round trips and N transactions.</p>
+     *
+     * <p>With `workerFairClaimEnabled` the rows to lock are chosen by the fair ranking first (see
+     * {@link #lockFairClaimCandidates}); otherwise the queue is claimed in plain FIFO order.</p>
+     */
+    protected List<ClaimedJob> claimNextJobs(int limit) {
+        List<ClaimedJob> claimed = transactionTemplate.execute(status -> {
+            List<SnapProcessingJobEntity> jobs = snapProperties.isWorkerFairClaimEnabled()
+                    ? lockFairClaimCandidates(Math.max(1, limit))
+                    : jobRepository.findClaimableJobsForUpdate(Math.max(1, limit));
+            if (jobs.isEmpty()) {
+                return List.<ClaimedJob>of();
             }
 
             OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-            SnapProcessingJobEntity job = maybeJob.get();
-            job.setStatus("RUNNING");
-            job.setAttempts((job.getAttempts() == null ? 0 : job.getAttempts()) + 1);
-            job.setLockedAt(now);
-            job.setLockOwner(snapProperties.getWorkerInstanceId());
-            job.setStartedAt(job.getStartedAt() == null ? now : job.getStartedAt());
-            job.setUpdatedAt(now);
-            jobRepository.save(job);
-            snapJobObservabilityRegistry.recordClaim();
+            List<Long> ids = jobs.stream().map(SnapProcessingJobEntity::getId).toList();
+            jobRepository.markClaimed(ids, snapProperties.getWorkerInstanceId(), now);
+
+            // The bulk update bypasses the persistence context, so attempts are derived from the locked rows.
+            return jobs.stream()
+                    .map(job -> new ClaimedJob(
+                            job.getId(),
+                            job.getSnapId(),
+                            (job.getAttempts() == null ? 0 : job.getAttempts()) + 1,
+                            job.getMaxAttempts() == null ? 1 : job.getMaxAttempts(),
+                            queueWaitMs(job, now)
+                    ))
+                    .toList();
+        });
+        List<ClaimedJob> result = claimed == null ? List.of() : claimed;
+        if (!result.isEmpty()) {
+            snapJobObservabilityRegistry.recordClaimBatch(result.size());
+        }
+        return result;
+    }
 
-            return new ClaimedJob(job.getId(), job.getSnapId(), job.getAttempts(), job.getMaxAttempts());
-        }));
+    /**
+     * Locks the first {@code limit} jobs of the fair order that no other worker holds.
+     *
+     * <p>Twice the needed candidates are ranked so rows skipped because a concurrent claimer holds
+     * them can be replaced in the same round; surplus locks are released when the claim commits.</p>
+     */
+    private List<SnapProcessingJobEntity> lockFairClaimCandidates(int limit) {
+        List<Long> candidates = jobRepository.findFairClaimCandidateIds(
+                Math.max(0, snapProperties.getWorkerTenantMaxRunning()),
+                limit * 2
+        );
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, SnapProcessingJobEntity> locked = new HashMap<>();
+        for (SnapProcessingJobEntity job : jobRepository.lockClaimableJobsForUpdate(candidates)) {
+            locked.put(job.getId(), job);
+        }
+        List<SnapProcessingJobEntity> jobs = new ArrayList<>(limit);
+        for (Long id : candidates) {
+            SnapProcessingJobEntity job = locked.get(id);
+            if (job != null && jobs.size() < limit) {
+                jobs.add(job);
+            }
+        }
+        return jobs;
     }
 
     /**
@@ -216,27 +410,51 @@ public class SnapProcessingJobWorker {
 
     /**
      * Executes one claimed job and persists success/failure outcome.
+     *
+     * <p>The processing pipeline fills a {@link ProcessingStageTimings} (probe, encode, extract,
+     * upload); queue wait comes from the claim and finalize is measured around the terminal
+     * transaction. The breakdown is stored on the job row and fed to the observability registry.</p>
      */
     protected void processClaimedJob(ClaimedJob claimedJob) {
         long startedAtNanos = System.nanoTime();
+        ProcessingStageTimings timings = new ProcessingStageTimings();
+        long finalizeStartedAtNanos;
         try {
             SnapEntity snap = snapRepository.findById(claimedJob.snapId())
                     .orElseThrow(() -> new NoSuchElementException("Snap not found for job: " + claimedJob.snapId()));
             ProcessingFilmagemRequest request = buildProcessingRequestFromSnap(snap);
-            ProcessingBatchResponse batchResponse = snapProcessingGateway.processSingle(request);
+            ProcessingBatchResponse batchResponse = snapProcessingGateway.processSingle(request, timings);
             ProcessingFilmagemResponse item = batchResponse.filmagens().get(0);
             long durationMs = TimeUnit.NANOSECONDS.toMillis(Math.max(0L, System.nanoTime() - startedAtNanos));
-            finalizeJobSuccess(claimedJob, snap, item, durationMs);
+            finalizeStartedAtNanos = System.nanoTime();
+            finalizeJobSuccess(claimedJob, snap, item, durationMs, timings);
         } catch (Exception e) {
             long durationMs = TimeUnit.NANOSECONDS.toMillis(Math.max(0L, System.nanoTime() - startedAtNanos));
-            finalizeJobFailure(claimedJob, e, durationMs);
+            finalizeStartedAtNanos = System.nanoTime();
+            finalizeJobFailure(claimedJob, e, durationMs, timings);
         }
+        // Registry gets the full finalize time including the commit (the job row cannot contain it).
+        snapJobObservabilityRegistry.recordStageTimings(
+                claimedJob.queueWaitMs(),
+                timings.millis(ProcessingStageTimings.Stage.PROBE),
+                timings.millis(ProcessingStageTimings.Stage.SNAPSHOT_ENCODE),
+                timings.millis(ProcessingStageTimings.Stage.FRAME_EXTRACT),
+                timings.millis(ProcessingStageTimings.Stage.UPLOAD),
+                elapsedMillisSince(finalizeStartedAtNanos)
+        );
     }
 
     /**
      * Persists successful worker execution into both `snap` and `snap_processing_job`.
      */
-    protected void finalizeJobSuccess(ClaimedJob claimedJob, SnapEntity loadedSnap, ProcessingFilmagemResponse item, long durationMs) {
+    protected void finalizeJobSuccess(
+            ClaimedJob claimedJob,
+            SnapEntity loadedSnap,
+            ProcessingFilmagemResponse item,
+            long durationMs,
+            ProcessingStageTimings timings
+    ) {
+        long finalizeStartedAtNanos = System.nanoTime();
         transactionTemplate.executeWithoutResult(status -> {
             OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
             SnapEntity snap = snapRepository.findById(loadedSnap.getId())
@@ -257,6 +475,7 @@ public class SnapProcessingJobWorker {
             snap.setVideoProbeJson(writeJsonOrNull(item.videoProbe()));
             snap.setSnapshotVideoJson(writeJsonOrNull(item.snapshotVideo()));
             snap.setFramesJson(writeJson(item.frames()));
+            snap.setThumbnailPath(SnapV2Service.thumbnailPath(item.frames()));
             snap.setFrameCount(item.frameCount());
             snap.setOutputDir(item.outputDir());
             snap.setErrorMessage(item.error());
@@ -270,7 +489,10 @@ public class SnapProcessingJobWorker {
             job.setFinishedAt(now);
             job.setLastError(null);
             job.setUpdatedAt(now);
+            applyStageTimings(job, claimedJob, timings, finalizeStartedAtNanos);
             jobRepository.save(job);
+            // Same transaction, so a completed snap and its rendered body become visible together.
+            snapV2Service.storeRenderedResponses(snap, job, now);
             snapJobObservabilityRegistry.recordTerminal("COMPLETED", durationMs);
 
             log.info(
@@ -287,7 +509,8 @@ public class SnapProcessingJobWorker {
     /**
      * Persists failure outcome and schedules retry when attempts remain.
      */
-    protected void finalizeJobFailure(ClaimedJob claimedJob, Exception error, long durationMs) {
+    protected void finalizeJobFailure(ClaimedJob claimedJob, Exception error, long durationMs, ProcessingStageTimings timings) {
+        long finalizeStartedAtNanos = System.nanoTime();
         transactionTemplate.executeWithoutResult(status -> {
             OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
             SnapProcessingJobEntity job = jobRepository.findById(claimedJob.jobId())
@@ -315,6 +538,7 @@ public class SnapProcessingJobWorker {
             job.setLockedAt(null);
             job.setLockOwner(null);
             job.setUpdatedAt(now);
+            applyStageTimings(job, claimedJob, timings, finalizeStartedAtNanos);
             jobRepository.save(job);
 
             snap.setUpdatedAt(now);
@@ -355,6 +579,7 @@ public class SnapProcessingJobWorker {
                 snap.getMaxWidth(),
                 snap.getFormat(),
                 snap.getQuality(),
+                snap.getFrameLayout(),
                 snap.getDataFilmagem(),
                 processingSubject,
                 overlay,
@@ -445,6 +670,45 @@ public class SnapProcessingJobWorker {
         return Math.max(1L, Math.min(maxDelay, boundedDelay));
     }
 
+    /**
+     * Copies the attempt's stage breakdown onto the job row (overwriting the previous attempt's).
+     *
+     * <p>{@code finalize_ms} covers the terminal transaction up to this point (reloads, snap/video
+     * writes); the commit itself happens after the row is flushed and is only visible in metrics.</p>
+     */
+    private static void applyStageTimings(
+            SnapProcessingJobEntity job,
+            ClaimedJob claimedJob,
+            ProcessingStageTimings timings,
+            long finalizeStartedAtNanos
+    ) {
+        job.setQueueWaitMs(claimedJob.queueWaitMs());
+        job.setProbeMs(timings.millis(ProcessingStageTimings.Stage.PROBE));
+        job.setEncodeMs(timings.millis(ProcessingStageTimings.Stage.SNAPSHOT_ENCODE));
+        job.setExtractMs(timings.millis(ProcessingStageTimings.Stage.FRAME_EXTRACT));
+        job.setUploadMs(timings.millis(ProcessingStageTimings.Stage.UPLOAD));
+        job.setFinalizeMs(elapsedMillisSince(finalizeStartedAtNanos));
+    }
+
+    /**
+     * Time the job sat runnable before this claim: since {@code created_at} for the first attempt and
+     * since {@code next_run_at} for retries, so retry backoff is not counted as queueing.
+     */
+    private static long queueWaitMs(SnapProcessingJobEntity job, OffsetDateTime claimedAt) {
+        OffsetDateTime runnableSince = job.getCreatedAt();
+        if (job.getNextRunAt() != null && (runnableSince == null || job.getNextRunAt().isAfter(runnableSince))) {
+            runnableSince = job.getNextRunAt();
+        }
+        if (runnableSince == null) {
+            return 0L;
+        }
+        return Math.max(0L, claimedAt.toInstant().toEpochMilli() - runnableSince.toInstant().toEpochMilli());
+    }
+
+    private static long elapsedMillisSince(long startedAtNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(Math.max(0L, System.nanoTime() - startedAtNanos));
+    }
+
     /**
      * Estimates terminal duration from job timestamps for stale-recovery terminal failures.
      */
@@ -461,6 +725,6 @@ public class SnapProcessingJobWorker {
      * Compact immutable projection returned after job claim to avoid leaking managed entities across
      * transaction boundaries.
      */
-    protected record ClaimedJob(Long jobId, UUID snapId, int attempts, int maxAttempts) {
+    protected record ClaimedJob(Long jobId, UUID snapId, int attempts, int maxAttempts, long queueWaitMs) {
     }
 }
@@ -7,11 +7,13 @@ import com.snapplayerapi.api.dto.ProcessingBatchResponse;
 import com.snapplayerapi.api.dto.ProcessingFilmagemRequest;
 import com.snapplayerapi.api.dto.ProcessingFilmagemResponse;
 import com.snapplayerapi.api.dto.ProcessingFrameResponse;
+import com.snapplayerapi.api.dto.ProcessingFrameSpriteResponse;
 import com.snapplayerapi.api.dto.ProcessingOverlayRequest;
 import com.snapplayerapi.api.dto.ProcessingSnapshotVideoResponse;
 import com.snapplayerapi.api.dto.ProcessingSubjectAttributeRequest;
 import com.snapplayerapi.api.dto.ProcessingSubjectRequest;
 import com.snapplayerapi.api.dto.ProcessingVideoProbeResponse;
+import com.snapplayerapi.api.service.VideoUrlKeys;
 import com.snapplayerapi.api.v2.config.SnapProperties;
 import com.snapplayerapi.api.v2.dto.CreateSnapRequest;
 import com.snapplayerapi.api.v2.dto.MineSnapsResponse;
@@ -20,21 +22,25 @@ import com.snapplayerapi.api.v2.dto.MineVideosResponse;
 import com.snapplayerapi.api.v2.dto.PageMetaResponse;
 import com.snapplayerapi.api.v2.dto.PublicSnapResponse;
 import com.snapplayerapi.api.v2.dto.ShareSnapResponse;
+import com.snapplayerapi.api.v2.dto.SnapAttributeSearchRequest;
 import com.snapplayerapi.api.v2.dto.SnapJobResponse;
+import com.snapplayerapi.api.v2.dto.SnapListItem;
 import com.snapplayerapi.api.v2.dto.SnapResponse;
 import com.snapplayerapi.api.v2.dto.SnapSearchResponse;
+import com.snapplayerapi.api.v2.dto.SnapSummaryResponse;
 import com.snapplayerapi.api.v2.dto.V2SubjectRequest;
 import com.snapplayerapi.api.v2.dto.VideoSnapsResponse;
 import com.snapplayerapi.api.v2.entity.AssinaturaEntity;
 import com.snapplayerapi.api.v2.entity.SnapEntity;
 import com.snapplayerapi.api.v2.entity.SnapProcessingJobEntity;
+import com.snapplayerapi.api.v2.entity.SnapRenderedResponseEntity;
 import com.snapplayerapi.api.v2.entity.SnapSubjectAttrEntity;
 import com.snapplayerapi.api.v2.entity.SubjectTemplateEntity;
 import com.snapplayerapi.api.v2.entity.UsuarioEntity;
 import com.snapplayerapi.api.v2.entity.VideoEntity;
-import com.snapplayerapi.api.v2.repo.AssinaturaRepository;
 import com.snapplayerapi.api.v2.repo.SnapRepository;
 import com.snapplayerapi.api.v2.repo.SnapProcessingJobRepository;
+import com.snapplayerapi.api.v2.repo.SnapRenderedResponseRepository;
 import com.snapplayerapi.api.v2.repo.SnapSubjectAttrRepository;
 import com.snapplayerapi.api.v2.repo.SubjectTemplateRepository;
 import com.snapplayerapi.api.v2.repo.UsuarioRepository;
@@ -44,13 +50,11 @@ import jakarta.transaction.Transactional;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HexFormat;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -58,12 +62,16 @@ import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.JpaSort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import com.snapplayerapi.api.v2.repo.OffsetBasedPageRequest;
+import com.snapplayerapi.api.v2.repo.SnapSpecifications;
 
 /**
  * Application service for Entregas 1-2 (`v2`) Snap-first endpoints.
@@ -90,36 +98,45 @@ public class SnapV2Service {
     private final SnapProperties snapProperties;
     private final SnapProcessingGateway snapProcessingGateway;
     private final ObjectMapper objectMapper;
-    private final AssinaturaRepository assinaturaRepository;
+    private final TenantContextCache tenantContextCache;
     private final SubjectTemplateRepository subjectTemplateRepository;
     private final UsuarioRepository usuarioRepository;
     private final VideoRepository videoRepository;
     private final SnapRepository snapRepository;
     private final SnapProcessingJobRepository snapProcessingJobRepository;
     private final SnapSubjectAttrRepository snapSubjectAttrRepository;
+    private final SnapJobNotifier snapJobNotifier;
+    private final PublicSnapResponseCache publicSnapResponseCache;
+    private final SnapRenderedResponseRepository snapRenderedResponseRepository;
 
     public SnapV2Service(
             SnapProperties snapProperties,
             SnapProcessingGateway snapProcessingGateway,
             ObjectMapper objectMapper,
-            AssinaturaRepository assinaturaRepository,
+            TenantContextCache tenantContextCache,
             SubjectTemplateRepository subjectTemplateRepository,
             UsuarioRepository usuarioRepository,
             VideoRepository videoRepository,
             SnapRepository snapRepository,
             SnapProcessingJobRepository snapProcessingJobRepository,
-            SnapSubjectAttrRepository snapSubjectAttrRepository
+            SnapSubjectAttrRepository snapSubjectAttrRepository,
+            SnapJobNotifier snapJobNotifier,
+            PublicSnapResponseCache publicSnapResponseCache,
+            SnapRenderedResponseRepository snapRenderedResponseRepository
     ) {
         this.snapProperties = snapProperties;
         this.snapProcessingGateway = snapProcessingGateway;
         this.objectMapper = objectMapper;
-        this.assinaturaRepository = assinaturaRepository;
+        this.tenantContextCache = tenantContextCache;
         this.subjectTemplateRepository = subjectTemplateRepository;
         this.usuarioRepository = usuarioRepository;
         this.videoRepository = videoRepository;
         this.snapRepository = snapRepository;
         this.snapProcessingJobRepository = snapProcessingJobRepository;
         this.snapSubjectAttrRepository = snapSubjectAttrRepository;
+        this.snapJobNotifier = snapJobNotifier;
+        this.publicSnapResponseCache = publicSnapResponseCache;
+        this.snapRenderedResponseRepository = snapRenderedResponseRepository;
     }
 
     /**
@@ -165,6 +182,7 @@ public class SnapV2Service {
                 request.maxWidth(),
                 request.format(),
                 request.quality(),
+                request.frameLayout(),
                 request.dataFilmagem(),
                 effectiveSubject,
                 request.overlay(),
@@ -206,12 +224,14 @@ public class SnapV2Service {
         snap.setMaxWidth(defaultInt(request.maxWidth(), 1280));
         snap.setFormat(defaultFormat(request.format()));
         snap.setQuality(snap.getFormat().equals("jpg") ? defaultInt(request.quality(), 3) : null);
+        snap.setFrameLayout(defaultFrameLayout(request.frameLayout()));
         snap.setSubjectId(effectiveSubject.id());
         snap.setSubjectJson(writeJson(toV2Subject(effectiveSubject)));
         snap.setOverlayJson(writeJsonOrNull(request.overlay()));
         snap.setVideoProbeJson(writeJsonOrNull(item.videoProbe()));
         snap.setSnapshotVideoJson(writeJsonOrNull(item.snapshotVideo()));
         snap.setFramesJson(writeJson(item.frames()));
+        snap.setThumbnailPath(thumbnailPath(item.frames()));
         snap.setFrameCount(item.frameCount());
         snap.setOutputDir(item.outputDir());
         snap.setErrorMessage(item.error());
@@ -222,6 +242,7 @@ public class SnapV2Service {
 
         // Persist flattened attributes in a search-oriented table for Entrega 1 basic queries.
         persistSubjectAttributes(snap, effectiveSubject, now);
+        storeRenderedResponses(snap, null, now);
         return toResponse(snap);
     }
 
@@ -234,6 +255,7 @@ public class SnapV2Service {
     private SnapResponse createSnapAsync(String assinaturaCodigo, String assinaturaToken, CreateSnapRequest request) {
         OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
         UUID snapId = UUID.randomUUID();
+        int jobPriority = resolveJobPriority(request.priority());
 
         AssinaturaEntity assinatura = loadAssinatura(assinaturaCodigo, assinaturaToken);
         UsuarioEntity usuario = resolveUsuario(request.nickname(), request.email(), now);
@@ -265,6 +287,7 @@ public class SnapV2Service {
         snap.setMaxWidth(defaultInt(request.maxWidth(), 1280));
         snap.setFormat(defaultFormat(request.format()));
         snap.setQuality(snap.getFormat().equals("jpg") ? defaultInt(request.quality(), 3) : null);
+        snap.setFrameLayout(defaultFrameLayout(request.frameLayout()));
         snap.setSubjectId(effectiveSubject.id());
         snap.setSubjectJson(writeJson(toV2Subject(effectiveSubject)));
         snap.setOverlayJson(writeJsonOrNull(request.overlay()));
@@ -281,10 +304,27 @@ public class SnapV2Service {
 
         // Searchability remains available immediately (subject attributes are independent from FFmpeg output).
         persistSubjectAttributes(snap, effectiveSubject, now);
-        enqueueSnapProcessingJob(snap, now);
+        enqueueSnapProcessingJob(snap, jobPriority, now);
         return toResponseWithJob(snap);
     }
 
+    /**
+     * Serialized variant of {@link #getSnap}: completed snaps are answered with the stored rendered
+     * body (one tenant-scoped query, no Jackson work); other snaps are mapped and serialized as usual.
+     */
+    public RenderedJson getSnapBody(String assinaturaCodigo, String assinaturaToken, UUID snapId) {
+        AssinaturaEntity assinatura = loadAssinatura(assinaturaCodigo, assinaturaToken);
+        Optional<SnapRenderedResponseEntity> rendered = snapProperties.isRenderedResponsesEnabled()
+                ? snapRenderedResponseRepository.findBySnapIdAndAssinaturaId(snapId, assinatura.getId())
+                : Optional.empty();
+        if (rendered.isPresent()) {
+            return new RenderedJson(rendered.get().getSnapBody(), rendered.get().isGzip());
+        }
+        SnapEntity snap = snapRepository.findByIdAndAssinaturaId(snapId, assinatura.getId())
+                .orElseThrow(() -> new NoSuchElementException("Snap not found: " + snapId));
+        return RenderedJson.plain(writeJsonBytes(toResponseWithJob(snap)));
+    }
+
     /**
      * Shared request-level validation used by both synchronous and asynchronous create paths.
      */
@@ -306,11 +346,12 @@ public class SnapV2Service {
      * <p>The schema enforces one job per snap (`uk_snap_processing_job_snap`), which matches the
      * current processing model (one snap = one FFmpeg execution unit).</p>
      */
-    private void enqueueSnapProcessingJob(SnapEntity snap, OffsetDateTime now) {
+    private void enqueueSnapProcessingJob(SnapEntity snap, int priority, OffsetDateTime now) {
         SnapProcessingJobEntity job = new SnapProcessingJobEntity();
         job.setSnapId(snap.getId());
         job.setAssinaturaId(snap.getAssinaturaId());
         job.setStatus("PENDING");
+        job.setPriority(priority);
         job.setAttempts(0);
         job.setMaxAttempts(Math.max(1, snapProperties.getWorkerMaxAttempts()));
         job.setNextRunAt(now);
@@ -322,6 +363,8 @@ public class SnapV2Service {
         job.setCreatedAt(now);
         job.setUpdatedAt(now);
         snapProcessingJobRepository.save(job);
+        // No-op unless LISTEN/NOTIFY wakeups are enabled on PostgreSQL; sent only after commit.
+        snapJobNotifier.notifyJobEnqueuedAfterCommit();
     }
 
     /**
@@ -350,8 +393,11 @@ public class SnapV2Service {
             snap.setPublicShareToken(generateShareToken());
         }
         snap.setPublic(true);
-        snap.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        snap.setUpdatedAt(now);
         snapRepository.save(snap);
+        refreshRenderedPublicBody(snap, now);
+        publicSnapResponseCache.invalidate(snap.getPublicShareToken());
 
         return new ShareSnapResponse(
                 snap.getId(),
@@ -373,11 +419,47 @@ public class SnapV2Service {
         return toPublicResponse(snap);
     }
 
+    /**
+     * Serialized public representation plus its HTTP validators, for `GET /public/snaps/{token}`.
+     *
+     * <p>The ETag is derived from snap id and `updated_at` (bumped by every write to the row), so it
+     * changes exactly when the representation can change. Lookup order: {@link PublicSnapResponseCache}
+     * (terminal snaps, no DB round trip), the stored rendered body of completed snaps, then mapping
+     * and serializing the `snap` row.</p>
+     */
+    public PublicSnapBody getPublicSnapBody(String token) {
+        if (!hasText(token)) {
+            throw new IllegalArgumentException("token must be provided");
+        }
+        String key = token.strip();
+        PublicSnapBody cached = publicSnapResponseCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Optional<SnapRenderedResponseEntity> stored = snapProperties.isRenderedResponsesEnabled()
+                ? snapRenderedResponseRepository.findByPublicShareToken(key)
+                : Optional.empty();
+        PublicSnapBody body = stored
+                .filter(rendered -> rendered.getPublicBody() != null)
+                .map(rendered -> new PublicSnapBody(
+                        publicEtag(rendered.getSnapId(), rendered.getSourceUpdatedAt()),
+                        true,
+                        new RenderedJson(rendered.getPublicBody(), rendered.isGzip())
+                ))
+                .orElseGet(() -> renderPublicSnapBody(key, token));
+        if (body.terminal()) {
+            publicSnapResponseCache.put(key, body);
+        }
+        return body;
+    }
+
     /**
      * Lists snaps for a video, optionally filtered by nickname, always scoped to the active assinatura.
      *
      * <p>Uses DB-level LIMIT/OFFSET via {@link OffsetBasedPageRequest} (ADR 0006). Sort is applied
-     * at the database level using Spring Data {@link Sort}.</p>
+     * at the database level using Spring Data {@link Sort}. With {@code after} (requires
+     * {@code sortBy=createdAt}) the page is read with a keyset predicate instead (ADR 0013).
+     * {@code view=summary} returns {@link SnapSummaryResponse} items from a column projection.</p>
      */
     public VideoSnapsResponse listSnapsByVideo(
             String assinaturaCodigo,
@@ -387,7 +469,9 @@ public class SnapV2Service {
             int offset,
             int limit,
             String sortBy,
-            String sortDir
+            String sortDir,
+            String after,
+            String view
     ) {
         AssinaturaEntity assinatura = loadAssinatura(assinaturaCodigo, assinaturaToken);
         ListQuerySpec querySpec = resolveListQuerySpec(
@@ -395,23 +479,25 @@ public class SnapV2Service {
                 "resolvedStartSeconds", "asc",
                 List.of("resolvedStartSeconds", "createdAt")
         );
-        Sort sort = toSnapSort(querySpec);
-        OffsetBasedPageRequest pageable = new OffsetBasedPageRequest(querySpec.offset(), querySpec.limit(), sort);
-        Slice<SnapEntity> slice;
-        if (nickname == null || nickname.isBlank()) {
-            slice = snapRepository.findByVideoIdAndAssinaturaId(videoId, assinatura.getId(), pageable);
-        } else {
-            slice = snapRepository.findByVideoIdAndAssinaturaIdAndNicknameSnapshotIgnoreCase(
-                    videoId, assinatura.getId(), nickname.strip(), pageable);
+        SnapListCursor cursor = resolveCursor(after, querySpec);
+        boolean summary = isSummaryView(view);
+
+        Specification<SnapEntity> filter = SnapSpecifications.inAssinatura(assinatura.getId())
+                .and(SnapSpecifications.inVideo(videoId));
+        if (hasText(nickname)) {
+            filter = filter.and(SnapSpecifications.nicknameIgnoreCase(nickname));
         }
-        List<SnapResponse> items = slice.getContent().stream().map(this::toResponse).toList();
-        return new VideoSnapsResponse(videoId, items.size(), toPageMeta(querySpec, slice), items);
+        SnapPage page = loadSnapPage(querySpec, cursor, summary, filter, pageable -> hasText(nickname)
+                ? snapRepository.findByVideoIdAndAssinaturaIdAndNicknameNormalized(
+                        videoId, assinatura.getId(), SnapEntity.normalizeNickname(nickname), pageable)
+                : snapRepository.findByVideoIdAndAssinaturaId(videoId, assinatura.getId(), pageable));
+        return new VideoSnapsResponse(videoId, page.items().size(), page.meta(), page.items());
     }
 
     /**
      * Basic Entrega 1 search: by {@code subjectId} and/or exact string attribute.
      *
-     * <p>Paginated at the database level (ADR 0006).</p>
+     * <p>Paginated at the database level (ADR 0006); keyset when {@code after} is given (ADR 0013).</p>
      */
     public SnapSearchResponse search(
             String assinaturaCodigo,
@@ -422,7 +508,9 @@ public class SnapV2Service {
             int offset,
             int limit,
             String sortBy,
-            String sortDir
+            String sortDir,
+            String after,
+            String view
     ) {
         AssinaturaEntity assinatura = loadAssinatura(assinaturaCodigo, assinaturaToken);
         String normalizedSubjectId = hasText(subjectId) ? subjectId.strip() : null;
@@ -440,18 +528,93 @@ public class SnapV2Service {
         if (!hasText(subjectId) && !hasAttrKey) {
             throw new IllegalArgumentException("Provide subjectId or attrKey+attrValue");
         }
+        SnapListCursor cursor = resolveCursor(after, querySpec);
+        boolean summary = isSummaryView(view);
 
-        Sort sort = toSnapSort(querySpec);
-        OffsetBasedPageRequest pageable = new OffsetBasedPageRequest(querySpec.offset(), querySpec.limit(), sort);
-        Slice<SnapEntity> slice;
+        Specification<SnapEntity> filter = SnapSpecifications.inAssinatura(assinatura.getId());
+        if (normalizedSubjectId != null) {
+            filter = filter.and(SnapSpecifications.subjectId(normalizedSubjectId));
+        }
         if (hasAttrKey) {
-            slice = snapRepository.searchByStringAttr(
-                    assinatura.getId(), normalizedSubjectId, attrKey.strip(), attrValue.strip(), pageable);
-        } else {
-            slice = snapRepository.findByAssinaturaIdAndSubjectId(assinatura.getId(), normalizedSubjectId, pageable);
+            filter = filter.and(SnapSpecifications.hasStringAttr(assinatura.getId(), attrKey.strip(), attrValue.strip()));
         }
-        List<SnapResponse> items = slice.getContent().stream().map(this::toResponse).toList();
-        return new SnapSearchResponse(items.size(), toPageMeta(querySpec, slice), items);
+        SnapPage page = loadSnapPage(querySpec, cursor, summary, filter, pageable -> hasAttrKey
+                ? snapRepository.searchByStringAttr(
+                        assinatura.getId(), normalizedSubjectId, attrKey.strip(), attrValue.strip(), pageable)
+                : snapRepository.findByAssinaturaIdAndSubjectId(assinatura.getId(), normalizedSubjectId, pageable));
+        return new SnapSearchResponse(page.items().size(), page.meta(), page.items());
+    }
+
+    /**
+     * Typed multi-attribute search ({@code POST /v2/snaps/search}).
+     *
+     * <p>Each predicate (numeric {@code range}, string {@code in}, string {@code prefix}) becomes one
+     * correlated {@code exists} over {@code snap_subject_attr}; predicates are ANDed, so the database
+     * intersects the candidate sets through the attribute indexes. Always tenant-scoped and
+     * paginated like the other lists (offset, or keyset with {@code after}).</p>
+     */
+    public SnapSearchResponse searchByAttributes(
+            String assinaturaCodigo,
+            String assinaturaToken,
+            SnapAttributeSearchRequest request
+    ) {
+        AssinaturaEntity assinatura = loadAssinatura(assinaturaCodigo, assinaturaToken);
+        ListQuerySpec querySpec = resolveListQuerySpec(
+                defaultInt(request.offset(), 0),
+                defaultInt(request.limit(), 50),
+                request.sortBy(),
+                request.sortDir(),
+                "createdAt", "desc",
+                List.of("createdAt", "resolvedStartSeconds")
+        );
+        SnapListCursor cursor = resolveCursor(request.after(), querySpec);
+        boolean summary = isSummaryView(request.view());
+
+        Specification<SnapEntity> filter = SnapSpecifications.inAssinatura(assinatura.getId());
+        if (hasText(request.subjectId())) {
+            filter = filter.and(SnapSpecifications.subjectId(request.subjectId().strip()));
+        }
+        for (SnapAttributeSearchRequest.AttributePredicate predicate : request.predicates()) {
+            filter = filter.and(toAttributeSpecification(assinatura.getId(), predicate));
+        }
+        Specification<SnapEntity> offsetFilter = filter;
+        SnapPage page = loadSnapPage(querySpec, cursor, summary, filter, pageable -> snapRepository.findSlice(offsetFilter, pageable));
+        return new SnapSearchResponse(page.items().size(), page.meta(), page.items());
+    }
+
+    /**
+     * Validates one typed predicate and maps it to its {@link SnapSpecifications} building block.
+     */
+    private static Specification<SnapEntity> toAttributeSpecification(
+            Long assinaturaId,
+            SnapAttributeSearchRequest.AttributePredicate predicate
+    ) {
+        String key = predicate.key().strip();
+        String op = predicate.op().strip().toLowerCase(Locale.ROOT);
+        return switch (op) {
+            case "range" -> {
+                if (predicate.min() == null && predicate.max() == null) {
+                    throw new IllegalArgumentException("range predicate on '" + key + "' requires min and/or max");
+                }
+                if (predicate.min() != null && predicate.max() != null && predicate.min().compareTo(predicate.max()) > 0) {
+                    throw new IllegalArgumentException("range predicate on '" + key + "' has min > max");
+                }
+                yield SnapSpecifications.hasNumberAttrBetween(assinaturaId, key, predicate.min(), predicate.max());
+            }
+            case "in" -> {
+                if (predicate.values() == null || predicate.values().isEmpty()) {
+                    throw new IllegalArgumentException("in predicate on '" + key + "' requires values");
+                }
+                yield SnapSpecifications.hasStringAttrIn(assinaturaId, key, predicate.values());
+            }
+            case "prefix" -> {
+                if (!hasText(predicate.value())) {
+                    throw new IllegalArgumentException("prefix predicate on '" + key + "' requires value");
+                }
+                yield SnapSpecifications.hasStringAttrPrefix(assinaturaId, key, predicate.value());
+            }
+            default -> throw new IllegalArgumentException("Unsupported predicate op: " + predicate.op() + ". Allowed: range, in, prefix");
+        };
     }
 
     /**
@@ -459,7 +622,7 @@ public class SnapV2Service {
      *
      * <p>Entrega 2 uses nickname as a temporary identity input before auth/token support. Matching
      * is case-insensitive to reduce accidental fragmentation in local/manual usage.
-     * Paginated at the database level (ADR 0006).</p>
+     * Paginated at the database level (ADR 0006); keyset when {@code after} is given (ADR 0013).</p>
      */
     public MineSnapsResponse listMineSnaps(
             String assinaturaCodigo,
@@ -468,7 +631,9 @@ public class SnapV2Service {
             int offset,
             int limit,
             String sortBy,
-            String sortDir
+            String sortDir,
+            String after,
+            String view
     ) {
         if (!hasText(nickname)) {
             throw new IllegalArgumentException("nickname must be provided");
@@ -480,12 +645,14 @@ public class SnapV2Service {
                 "createdAt", "desc",
                 List.of("createdAt", "resolvedStartSeconds")
         );
-        Sort sort = toSnapSort(querySpec);
-        OffsetBasedPageRequest pageable = new OffsetBasedPageRequest(querySpec.offset(), querySpec.limit(), sort);
-        Slice<SnapEntity> slice = snapRepository.findByAssinaturaIdAndNicknameSnapshotIgnoreCase(
-                assinatura.getId(), normalizedNickname, pageable);
-        List<SnapResponse> items = slice.getContent().stream().map(this::toResponse).toList();
-        return new MineSnapsResponse(normalizedNickname, items.size(), toPageMeta(querySpec, slice), items);
+        SnapListCursor cursor = resolveCursor(after, querySpec);
+        boolean summary = isSummaryView(view);
+
+        Specification<SnapEntity> filter = SnapSpecifications.inAssinatura(assinatura.getId())
+                .and(SnapSpecifications.nicknameIgnoreCase(normalizedNickname));
+        SnapPage page = loadSnapPage(querySpec, cursor, summary, filter, pageable -> snapRepository
+                .findByAssinaturaIdAndNicknameNormalized(assinatura.getId(), SnapEntity.normalizeNickname(normalizedNickname), pageable));
+        return new MineSnapsResponse(normalizedNickname, page.items().size(), page.meta(), page.items());
     }
 
     /**
@@ -522,8 +689,9 @@ public class SnapV2Service {
 
         Sort sort = toMineVideoSort(querySpec);
         OffsetBasedPageRequest pageable = new OffsetBasedPageRequest(querySpec.offset(), querySpec.limit(), sort);
+        String nicknameKey = SnapEntity.normalizeNickname(normalizedNickname);
         Slice<Object[]> slice = snapRepository.findVideoAggregatesForNickname(
-                assinatura.getId(), normalizedNickname, pageable);
+                assinatura.getId(), nicknameKey, pageable);
 
         List<Object[]> aggregates = slice.getContent();
         List<UUID> videoIds = aggregates.stream().map(row -> (UUID) row[0]).toList();
@@ -531,7 +699,7 @@ public class SnapV2Service {
         // Bounded secondary query: one lookup for all video IDs on the current page (max 100).
         Map<UUID, UUID> latestSnapIdByVideo = new HashMap<>();
         if (!videoIds.isEmpty()) {
-            snapRepository.findLatestSnapIdPerVideo(assinatura.getId(), normalizedNickname, videoIds)
+            snapRepository.findLatestSnapIdPerVideo(assinatura.getId(), nicknameKey, videoIds)
                     .forEach(row -> latestSnapIdByVideo.put((UUID) row[0], (UUID) row[1]));
         }
 
@@ -586,6 +754,79 @@ public class SnapV2Service {
         return new ListQuerySpec(offset, limit, normalizedSortBy, normalizedSortDir);
     }
 
+    /**
+     * Parses the optional {@code after} keyset cursor and checks it fits the requested ordering.
+     *
+     * <p>Keyset mode is limited to {@code sortBy=createdAt}: {@code created_at} is non-null and backed
+     * by the {@code (assinatura_id, ..., created_at)} indexes, whereas {@code resolvedStartSeconds} is
+     * null for pending snaps and cannot be compared reliably. {@code offset} must be 0 (the cursor
+     * already says where the page starts).</p>
+     */
+    private static SnapListCursor resolveCursor(String after, ListQuerySpec querySpec) {
+        if (!hasText(after)) {
+            return null;
+        }
+        if (!"createdAt".equals(querySpec.sortBy())) {
+            throw new IllegalArgumentException("after cursor requires sortBy=createdAt");
+        }
+        if (querySpec.offset() != 0) {
+            throw new IllegalArgumentException("offset and after cannot be combined");
+        }
+        SnapListCursor cursor = SnapListCursor.decode(after);
+        if (!querySpec.sortDir().equals(cursor.sortDir())) {
+            throw new IllegalArgumentException("after cursor was issued for sortDir=" + cursor.sortDir());
+        }
+        return cursor;
+    }
+
+    /**
+     * Resolves the {@code view} list parameter: {@code full} (default) or {@code summary}.
+     */
+    private static boolean isSummaryView(String view) {
+        if (!hasText(view) || "full".equalsIgnoreCase(view.strip())) {
+            return false;
+        }
+        if ("summary".equalsIgnoreCase(view.strip())) {
+            return true;
+        }
+        throw new IllegalArgumentException("Unsupported view: " + view.strip() + ". Allowed: full, summary");
+    }
+
+    /**
+     * Loads one page of a snap list in the requested mode.
+     *
+     * <p>Full view keeps the endpoint's derived/JPQL offset query ({@code offsetQuery}) and maps
+     * entities through {@link #toResponse(SnapEntity)}, which parses the JSON columns. Summary view
+     * runs {@code filter} as a column projection ({@link SnapSummaryResponse}) that never selects
+     * {@code frames_json}, {@code subject_json} or the probe/snapshot blobs. Keyset cursors work in
+     * both views.</p>
+     */
+    private SnapPage loadSnapPage(
+            ListQuerySpec querySpec,
+            SnapListCursor cursor,
+            boolean summary,
+            Specification<SnapEntity> filter,
+            Function<Pageable, Slice<SnapEntity>> offsetQuery
+    ) {
+        Sort sort = toSnapSort(querySpec);
+        Specification<SnapEntity> spec = filter;
+        Pageable pageable = new OffsetBasedPageRequest(querySpec.offset(), querySpec.limit(), sort);
+        if (cursor != null) {
+            spec = filter.and(SnapSpecifications.afterCreatedAt(
+                    cursor.createdAt(), cursor.id(), "desc".equals(querySpec.sortDir())));
+            pageable = new OffsetBasedPageRequest(0, querySpec.limit(), sort);
+        }
+
+        if (summary) {
+            Slice<SnapSummaryResponse> slice = snapRepository.findSummarySlice(spec, pageable);
+            return new SnapPage(toSnapPageMeta(querySpec, slice), slice.getContent());
+        }
+        // Keyset pages need the seek predicate, so they always go through the specification path.
+        Slice<SnapEntity> slice = cursor != null ? snapRepository.findSlice(spec, pageable) : offsetQuery.apply(pageable);
+        List<SnapResponse> items = slice.getContent().stream().map(this::toResponse).toList();
+        return new SnapPage(toSnapPageMeta(querySpec, slice.hasNext(), items), items);
+    }
+
     /**
      * Builds a {@link Sort} for snap-entity list queries from the validated query spec.
      *
@@ -633,7 +874,33 @@ public class SnapV2Service {
                 slice.getContent().size(),
                 slice.hasNext(),
                 querySpec.sortBy(),
-                querySpec.sortDir()
+                querySpec.sortDir(),
+                null
+        );
+    }
+
+    /**
+     * Page metadata for snap lists, adding {@code nextCursor} when another {@code createdAt}-ordered
+     * page exists. Offset pages also get it so clients can switch to keyset after the first page.
+     */
+    private static PageMetaResponse toSnapPageMeta(ListQuerySpec querySpec, Slice<? extends SnapListItem> slice) {
+        return toSnapPageMeta(querySpec, slice.hasNext(), slice.getContent());
+    }
+
+    private static PageMetaResponse toSnapPageMeta(ListQuerySpec querySpec, boolean hasNext, List<? extends SnapListItem> items) {
+        String nextCursor = null;
+        if (hasNext && "createdAt".equals(querySpec.sortBy()) && !items.isEmpty()) {
+            SnapListItem last = items.get(items.size() - 1);
+            nextCursor = new SnapListCursor(querySpec.sortDir(), last.createdAt(), last.snapId()).encode();
+        }
+        return new PageMetaResponse(
+                querySpec.offset(),
+                querySpec.limit(),
+                items.size(),
+                hasNext,
+                querySpec.sortBy(),
+                querySpec.sortDir(),
+                nextCursor
         );
     }
 
@@ -687,19 +954,20 @@ public class SnapV2Service {
      * Resolves the active assinatura from request context, falling back to the configured default.
      *
      * <p>This formalizes tenant context handling for Entrega 3 step 1 while preserving backward
-     * compatibility with Entregas 1-2 clients that do not send any tenant header yet.</p>
+     * compatibility with Entregas 1-2 clients that do not send any tenant header yet. Rows come from
+     * {@link TenantContextCache}, so the common path costs no DB round trip.</p>
      */
     private AssinaturaEntity loadAssinatura(String assinaturaCodigo, String assinaturaToken) {
         // When token auth is enabled, allow token-only resolution as a forward-compatible path for
         // external API clients that may not send `X-Assinatura-Codigo`.
         if (snapProperties.isRequireApiToken() && !hasText(assinaturaCodigo) && hasText(assinaturaToken)) {
             String token = assinaturaToken.strip();
-            return assinaturaRepository.findByApiToken(token)
+            return tenantContextCache.findAssinaturaByApiToken(token)
                     .orElseThrow(() -> new UnauthorizedException("Invalid assinatura API token"));
         }
 
         String resolvedCodigo = resolveAssinaturaCodigo(assinaturaCodigo);
-        AssinaturaEntity assinatura = assinaturaRepository.findByCodigo(resolvedCodigo)
+        AssinaturaEntity assinatura = tenantContextCache.findAssinaturaByCodigo(resolvedCodigo)
                 .orElseThrow(() -> new NoSuchElementException("Assinatura not found: " + resolvedCodigo));
         validateAssinaturaApiTokenIfEnabled(assinatura, assinaturaToken);
         return assinatura;
@@ -782,15 +1050,15 @@ public class SnapV2Service {
     /**
      * Resolves an explicit template inside the active assinatura, or falls back to the default one.
      *
-     * <p>Fallback order follows ADR-0004: `is_default=true`, then `slug=default` for compatibility.</p>
+     * <p>Fallback order follows ADR-0004: `is_default=true`, then `slug=default` for compatibility. The
+     * default lookup goes through {@link TenantContextCache}; explicit ids are rare and hit the DB.</p>
      */
     private SubjectTemplateEntity resolveTemplate(Long assinaturaId, Long subjectTemplateId) {
         if (subjectTemplateId != null) {
             return subjectTemplateRepository.findByAssinaturaIdAndId(assinaturaId, subjectTemplateId)
                     .orElseThrow(() -> new NoSuchElementException("subjectTemplateId not found in assinatura ativa: " + subjectTemplateId));
         }
-        return subjectTemplateRepository.findByAssinaturaIdAndIsDefaultTrue(assinaturaId)
-                .or(() -> subjectTemplateRepository.findByAssinaturaIdAndSlug(assinaturaId, snapProperties.getDefaultTemplateSlug()))
+        return tenantContextCache.findDefaultTemplate(assinaturaId)
                 .orElseThrow(() -> new IllegalStateException("Default subject template not found for assinatura " + assinaturaId));
     }
 
@@ -811,8 +1079,8 @@ public class SnapV2Service {
         }
 
         String videoUrl = requireVideoUrl(videoUrlRaw);
-        String canonicalUrl = canonicalizeUrl(videoUrl);
-        String hash = sha256(canonicalUrl);
+        String canonicalUrl = VideoUrlKeys.canonicalize(videoUrl);
+        String hash = VideoUrlKeys.sha256(canonicalUrl);
         Optional<VideoEntity> existing = videoRepository.findByAssinaturaIdAndUrlHash(assinaturaId, hash);
         if (existing.isPresent()) {
             return existing.get();
@@ -849,8 +1117,10 @@ public class SnapV2Service {
 
     /**
      * Maps the persistence model to the public `v2` response, hydrating structured JSON payloads.
+     *
+     * <p>Package-private so the JMH hydration benchmark can exercise the exact production mapper.</p>
      */
-    private SnapResponse toResponse(SnapEntity snap) {
+    SnapResponse toResponse(SnapEntity snap) {
         return toResponse(snap, null);
     }
 
@@ -901,19 +1171,24 @@ public class SnapV2Service {
      */
     private SnapJobResponse loadSnapJobResponse(UUID snapId) {
         return snapProcessingJobRepository.findBySnapId(snapId)
-                .map(job -> new SnapJobResponse(
-                        job.getId(),
-                        job.getStatus(),
-                        job.getAttempts(),
-                        job.getMaxAttempts(),
-                        job.getNextRunAt(),
-                        job.getStartedAt(),
-                        job.getFinishedAt(),
-                        job.getLastError()
-                ))
+                .map(SnapV2Service::toSnapJobResponse)
                 .orElse(null);
     }
 
+    private static SnapJobResponse toSnapJobResponse(SnapProcessingJobEntity job) {
+        return new SnapJobResponse(
+                job.getId(),
+                job.getStatus(),
+                jobPriorityName(job.getPriority()),
+                job.getAttempts(),
+                job.getMaxAttempts(),
+                job.getNextRunAt(),
+                job.getStartedAt(),
+                job.getFinishedAt(),
+                job.getLastError()
+        );
+    }
+
     /**
      * Maps a shared snap to the public-safe response contract (Entrega 2).
      */
@@ -938,6 +1213,74 @@ public class SnapV2Service {
         );
     }
 
+    private PublicSnapBody renderPublicSnapBody(String key, String token) {
+        SnapEntity snap = snapRepository.findByPublicShareTokenAndIsPublicTrue(key)
+                .orElseThrow(() -> new NoSuchElementException("Public snap not found: " + token));
+        return new PublicSnapBody(
+                publicEtag(snap.getId(), snap.getUpdatedAt() != null ? snap.getUpdatedAt() : snap.getCreatedAt()),
+                isTerminalSnapStatus(snap.getStatus()),
+                RenderedJson.plain(writeJsonBytes(toPublicResponse(snap)))
+        );
+    }
+
+    /**
+     * Renders the final bodies of a completed snap into `snap_rendered_response` (ADR 0014).
+     *
+     * <p>Called by the sync create path and by the worker when a job completes, inside their
+     * transaction. The public body is included only when the snap is already shared. No-op for
+     * non-completed snaps or when `app.snap.renderedResponsesEnabled=false`.</p>
+     */
+    void storeRenderedResponses(SnapEntity snap, SnapProcessingJobEntity job, OffsetDateTime now) {
+        if (!snapProperties.isRenderedResponsesEnabled() || !"COMPLETED".equals(snap.getStatus())) {
+            return;
+        }
+        boolean gzip = snapProperties.isRenderedResponsesGzip();
+        SnapRenderedResponseEntity rendered = snapRenderedResponseRepository.findById(snap.getId())
+                .orElseGet(SnapRenderedResponseEntity::new);
+        rendered.setSnapId(snap.getId());
+        rendered.setAssinaturaId(snap.getAssinaturaId());
+        rendered.setContentEncoding(gzip ? SnapRenderedResponseEntity.ENCODING_GZIP : SnapRenderedResponseEntity.ENCODING_IDENTITY);
+        rendered.setSnapBody(RenderedJson.encode(
+                writeJsonBytes(toResponse(snap, job != null ? toSnapJobResponse(job) : null)), gzip).bytes());
+        applyRenderedPublicBody(rendered, snap, gzip);
+        rendered.setSourceUpdatedAt(snap.getUpdatedAt());
+        rendered.setRenderedAt(now);
+        snapRenderedResponseRepository.save(rendered);
+    }
+
+    /**
+     * Share-state invalidation: re-renders only the public body, keeping the stored `SnapResponse`
+     * (which carries no share fields) as it was rendered at completion.
+     */
+    private void refreshRenderedPublicBody(SnapEntity snap, OffsetDateTime now) {
+        snapRenderedResponseRepository.findById(snap.getId()).ifPresent(rendered -> {
+            applyRenderedPublicBody(rendered, snap, rendered.isGzip());
+            rendered.setSourceUpdatedAt(snap.getUpdatedAt());
+            rendered.setRenderedAt(now);
+            snapRenderedResponseRepository.save(rendered);
+        });
+    }
+
+    private void applyRenderedPublicBody(SnapRenderedResponseEntity rendered, SnapEntity snap, boolean gzip) {
+        boolean shared = snap.isPublic() && hasText(snap.getPublicShareToken());
+        rendered.setPublicShareToken(shared ? snap.getPublicShareToken() : null);
+        rendered.setPublicBody(shared ? RenderedJson.encode(writeJsonBytes(toPublicResponse(snap)), gzip).bytes() : null);
+    }
+
+    /**
+     * Strong validator for the public representation: snap id plus `updated_at` in microseconds.
+     */
+    private static String publicEtag(UUID snapId, OffsetDateTime updatedAt) {
+        long micros = updatedAt == null
+                ? 0L
+                : updatedAt.toEpochSecond() * 1_000_000L + updatedAt.getNano() / 1_000L;
+        return "\"" + snapId + "-" + Long.toHexString(micros) + "\"";
+    }
+
+    private static boolean isTerminalSnapStatus(String status) {
+        return "COMPLETED".equals(status) || "FAILED".equals(status);
+    }
+
     /**
      * Small local helper used throughout the service to keep validation branches readable.
      */
@@ -963,28 +1306,6 @@ public class SnapV2Service {
         return trimmed;
     }
 
-    /**
-     * Placeholder canonicalization function.
-     *
-     * <p>Entrega 1 only trims the URL. Future deliveries may normalize query params or signed URLs,
-     * but changing this requires migration/backfill care because `url_hash` deduplication depends on it.</p>
-     */
-    private static String canonicalizeUrl(String videoUrl) {
-        return videoUrl.strip();
-    }
-
-    /**
-     * Computes SHA-256 used by `video.url_hash` deduplication.
-     */
-    private static String sha256(String value) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("SHA-256 not available", e);
-        }
-    }
-
     /**
      * Generates a public share token.
      *
@@ -1031,6 +1352,25 @@ public class SnapV2Service {
         return Math.max(duration, snapshotDuration) <= 1.0 ? "INSTANT" : "INTERVAL";
     }
 
+    /**
+     * First frame's stored path, denormalized into {@code thumbnail_path} for summary lists.
+     *
+     * <p>With `frameLayout=sprite` the path is the whole sheet, so the first cell is appended as a media
+     * fragment (`#xywh=x,y,width,height`, the form WebVTT thumbnail tracks use) and clients can crop it.
+     * Shared by the sync create path and the async worker.</p>
+     */
+    static String thumbnailPath(List<ProcessingFrameResponse> frames) {
+        if (frames == null || frames.isEmpty()) {
+            return null;
+        }
+        ProcessingFrameResponse first = frames.get(0);
+        ProcessingFrameSpriteResponse cell = first.sprite();
+        if (cell == null || first.path() == null) {
+            return first.path();
+        }
+        return "%s#xywh=%d,%d,%d,%d".formatted(first.path(), cell.x(), cell.y(), cell.width(), cell.height());
+    }
+
     /**
      * Effective snapshot duration mirrors the MVP behavior when the explicit value is omitted.
      */
@@ -1052,6 +1392,34 @@ public class SnapV2Service {
         return format == null ? "jpg" : format.toLowerCase(Locale.ROOT);
     }
 
+    /**
+     * Validated here (not only by the processing pipeline) because the async path stores the value
+     * before any worker sees it.
+     */
+    private static String defaultFrameLayout(String frameLayout) {
+        String normalized = frameLayout == null ? "frames" : frameLayout.toLowerCase(Locale.ROOT);
+        if (!normalized.equals("frames") && !normalized.equals("sprite")) {
+            throw new IllegalArgumentException("frameLayout must be frames or sprite");
+        }
+        return normalized;
+    }
+
+    /**
+     * Maps the `priority` of an async create to the job lane; single snaps default to interactive.
+     */
+    private static int resolveJobPriority(String priority) {
+        String normalized = priority == null ? "interactive" : priority.toLowerCase(Locale.ROOT);
+        return switch (normalized) {
+            case "interactive" -> SnapProcessingJobEntity.PRIORITY_INTERACTIVE;
+            case "batch" -> SnapProcessingJobEntity.PRIORITY_BATCH;
+            default -> throw new IllegalArgumentException("priority must be interactive or batch");
+        };
+    }
+
+    private static String jobPriorityName(Integer priority) {
+        return priority != null && priority == SnapProcessingJobEntity.PRIORITY_BATCH ? "batch" : "interactive";
+    }
+
     /**
      * Converts the internal MVP subject shape back to the public `v2` DTO shape.
      */
@@ -1070,6 +1438,14 @@ public class SnapV2Service {
         }
     }
 
+    private byte[] writeJsonBytes(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize JSON", e);
+        }
+    }
+
     /**
      * Convenience wrapper for nullable JSON columns.
      */
@@ -1111,4 +1487,10 @@ public class SnapV2Service {
      */
     private record ListQuerySpec(int offset, int limit, String sortBy, String sortDir) {
     }
+
+    /**
+     * One loaded snap-list page: metadata plus full or summary items.
+     */
+    private record SnapPage(PageMetaResponse meta, List<? extends SnapListItem> items) {
+    }
 }
@@ -0,0 +1,102 @@
+package com.snapplayerapi.api.v2.service;
+
+import com.snapplayerapi.api.config.StorageProperties;
+import com.snapplayerapi.api.service.StorageService;
+import com.snapplayerapi.api.v2.repo.SnapRepository;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Mark-and-sweep reclamation of content-addressed artifact blobs (ADR 0015).
+ *
+ * <p>Snaps are the only owners of blobs, so the mark phase reads every snap's artifact columns
+ * and the sweep deletes the blobs none of them mention. Nothing is counted at write time: a crash
+ * between storing artifacts and committing the snap row cannot leave a reference count out of sync,
+ * the orphaned blobs are simply collected once they are older than the grace period.</p>
+ */
+@Service
+public class StorageBlobMaintenanceService {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageBlobMaintenanceService.class);
+
+    private final StorageProperties storageProperties;
+    private final StorageService storageService;
+    private final SnapRepository snapRepository;
+
+    public StorageBlobMaintenanceService(
+            StorageProperties storageProperties,
+            StorageService storageService,
+            SnapRepository snapRepository
+    ) {
+        this.storageProperties = storageProperties;
+        this.storageService = storageService;
+        this.snapRepository = snapRepository;
+    }
+
+    /**
+     * Scheduled sweep; runs only when the blob layout and its GC are both enabled.
+     */
+    @Scheduled(
+            fixedDelayString = "${app.storage.blobs.gcDelayMs:3600000}",
+            initialDelayString = "${app.storage.blobs.gcDelayMs:3600000}"
+    )
+    public void sweepScheduled() {
+        StorageProperties.Blobs blobs = storageProperties.getBlobs();
+        if (!blobs.isEnabled() || !blobs.isGcEnabled()) {
+            return;
+        }
+        try {
+            sweepOnce();
+        } catch (IOException | RuntimeException ex) {
+            // Next cycle retries from scratch; a failed sweep never deletes anything referenced.
+            log.warn("storage_blob_gc_failed error={}", ex.toString());
+        }
+    }
+
+    /**
+     * Collects the blob references of every snap, then deletes the unreferenced blobs older than
+     * the grace period.
+     *
+     * <p>Exposed as a public method so tests/tools can trigger a deterministic sweep without
+     * waiting for the scheduler.</p>
+     *
+     * @return number of deleted blobs
+     */
+    public int sweepOnce() throws IOException {
+        StorageProperties.Blobs blobs = storageProperties.getBlobs();
+        // The cutoff is fixed before marking: blobs stored while the mark phase runs are newer than
+        // it and therefore never swept, even though their snap rows may have been missed.
+        Instant cutoff = Instant.now().minus(Duration.ofHours(Math.max(1L, blobs.getGcGraceHours())));
+        int batchSize = Math.max(1, blobs.getGcBatchSize());
+
+        Set<String> referenced = new HashSet<>();
+        UUID afterId = new UUID(0L, 0L);
+        long snaps = 0;
+        List<Object[]> page;
+        do {
+            page = snapRepository.findArtifactReferencesAfter(afterId, PageRequest.of(0, batchSize));
+            for (Object[] row : page) {
+                afterId = (UUID) row[0];
+                for (int i = 1; i < row.length; i++) {
+                    StorageService.collectBlobHashes((String) row[i], referenced);
+                }
+            }
+            snaps += page.size();
+        } while (page.size() == batchSize);
+
+        int deleted = storageService.deleteUnreferencedBlobs(referenced, cutoff);
+        log.info("storage_blob_gc_completed snaps={} referencedBlobs={} deleted={} cutoff={}",
+                snaps, referenced.size(), deleted, cutoff);
+        return deleted;
+    }
+}
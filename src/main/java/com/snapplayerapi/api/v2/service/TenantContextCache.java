@@ -0,0 +1,182 @@
+package com.snapplayerapi.api.v2.service;
+
+import com.snapplayerapi.api.service.BoundedTtlCache;
+import com.snapplayerapi.api.v2.config.SnapProperties;
+import com.snapplayerapi.api.v2.entity.AssinaturaEntity;
+import com.snapplayerapi.api.v2.entity.SubjectTemplateEntity;
+import com.snapplayerapi.api.v2.repo.AssinaturaRepository;
+import com.snapplayerapi.api.v2.repo.SubjectTemplateRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-process cache of the tenant context resolved on every `/v2/*` call.
+ *
+ * <p>Each private request used to load the assinatura row (by `codigo` or by API token) and each
+ * create loaded the default subject template again. These rows change rarely, so three bounded
+ * LRU/TTL tiers ({@link BoundedTtlCache}) sit in front of the repositories: assinatura by code,
+ * assinatura by token and default template by assinatura id. Only found rows are cached; unknown
+ * codes/tokens always reach the DB so a new tenant is visible immediately.</p>
+ *
+ * <p>Cached entities are detached and shared between threads: callers must treat them as read-only.
+ * Token validation stays with the caller (constant-time compare against the cached row), and the TTL
+ * bounds how long a rotated token remains accepted on a node that was not explicitly invalidated.</p>
+ */
+@Service
+public class TenantContextCache {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantContextCache.class);
+
+    private final SnapProperties snapProperties;
+    private final AssinaturaRepository assinaturaRepository;
+    private final SubjectTemplateRepository subjectTemplateRepository;
+    private final Tier<String, AssinaturaEntity> assinaturaByCodigo;
+    private final Tier<String, AssinaturaEntity> assinaturaByToken;
+    private final Tier<Long, SubjectTemplateEntity> defaultTemplateByAssinatura;
+
+    public TenantContextCache(
+            SnapProperties snapProperties,
+            AssinaturaRepository assinaturaRepository,
+            SubjectTemplateRepository subjectTemplateRepository,
+            MeterRegistry meterRegistry
+    ) {
+        this.snapProperties = snapProperties;
+        this.assinaturaRepository = assinaturaRepository;
+        this.subjectTemplateRepository = subjectTemplateRepository;
+        int maxEntries = snapProperties.getTenantCacheMaxEntries();
+        Duration ttl = Duration.ofSeconds(Math.max(1L, snapProperties.getTenantCacheTtlSeconds()));
+        this.assinaturaByCodigo = new Tier<>("assinatura_codigo", maxEntries, ttl, meterRegistry);
+        this.assinaturaByToken = new Tier<>("assinatura_token", maxEntries, ttl, meterRegistry);
+        this.defaultTemplateByAssinatura = new Tier<>("default_template", maxEntries, ttl, meterRegistry);
+    }
+
+    public Optional<AssinaturaEntity> findAssinaturaByCodigo(String codigo) {
+        return lookup(assinaturaByCodigo, codigo, () -> assinaturaRepository.findByCodigo(codigo));
+    }
+
+    public Optional<AssinaturaEntity> findAssinaturaByApiToken(String apiToken) {
+        Optional<AssinaturaEntity> assinatura =
+                lookup(assinaturaByToken, apiToken, () -> assinaturaRepository.findByApiToken(apiToken));
+        // Warm the code tier too: the same row serves clients that also send `X-Assinatura-Codigo`.
+        assinatura.ifPresent(row -> {
+            if (snapProperties.isTenantCacheEnabled()) {
+                assinaturaByCodigo.cache.put(row.getCodigo(), row);
+            }
+        });
+        return assinatura;
+    }
+
+    /**
+     * Default template of one assinatura, following ADR-0004 (`is_default=true`, then the configured
+     * default slug).
+     */
+    public Optional<SubjectTemplateEntity> findDefaultTemplate(Long assinaturaId) {
+        return lookup(defaultTemplateByAssinatura, assinaturaId, () ->
+                subjectTemplateRepository.findByAssinaturaIdAndIsDefaultTrue(assinaturaId)
+                        .or(() -> subjectTemplateRepository.findByAssinaturaIdAndSlug(
+                                assinaturaId, snapProperties.getDefaultTemplateSlug())));
+    }
+
+    /**
+     * Drops every cached row of one assinatura (code, token and default template), e.g. after its
+     * token was rotated or its default template changed.
+     */
+    public void invalidateAssinatura(Long assinaturaId) {
+        int removed = assinaturaByCodigo.cache.invalidateMatching(row -> Objects.equals(row.getId(), assinaturaId))
+                + assinaturaByToken.cache.invalidateMatching(row -> Objects.equals(row.getId(), assinaturaId));
+        defaultTemplateByAssinatura.cache.invalidate(assinaturaId);
+        log.info("tenant_cache_invalidated assinaturaId={} assinaturaEntries={}", assinaturaId, removed);
+    }
+
+    public void invalidateAll() {
+        assinaturaByCodigo.cache.invalidateAll();
+        assinaturaByToken.cache.invalidateAll();
+        defaultTemplateByAssinatura.cache.invalidateAll();
+        log.info("tenant_cache_invalidated_all");
+    }
+
+    public Stats stats() {
+        return new Stats(
+                snapProperties.isTenantCacheEnabled(),
+                assinaturaByCodigo.stats(),
+                assinaturaByToken.stats(),
+                defaultTemplateByAssinatura.stats()
+        );
+    }
+
+    private <K, V> Optional<V> lookup(Tier<K, V> tier, K key, Supplier<Optional<V>> loader) {
+        if (!snapProperties.isTenantCacheEnabled()) {
+            return loader.get();
+        }
+        V cached = tier.cache.get(key);
+        if (cached != null) {
+            tier.hits.increment();
+            return Optional.of(cached);
+        }
+        tier.misses.increment();
+        Optional<V> loaded = loader.get();
+        loaded.ifPresent(value -> tier.cache.put(key, value));
+        return loaded;
+    }
+
+    public record Stats(
+            boolean enabled,
+            TierStats assinaturaByCodigo,
+            TierStats assinaturaByToken,
+            TierStats defaultTemplate
+    ) {
+    }
+
+    public record TierStats(int size, long hits, long misses, double hitRatio, long evictions) {
+    }
+
+    /**
+     * One cache tier plus its hit/miss counters, exported as `snap.tenant.cache.*{cache=<name>}`.
+     */
+    private static final class Tier<K, V> {
+        private final BoundedTtlCache<K, V> cache;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        private Tier(String name, int maxEntries, Duration ttl, MeterRegistry meterRegistry) {
+            this.cache = new BoundedTtlCache<>(maxEntries, ttl);
+            Gauge.builder("snap.tenant.cache.hits", hits, LongAdder::sum)
+                    .tag("cache", name)
+                    .description("Tenant context lookups served from memory since startup")
+                    .register(meterRegistry);
+            Gauge.builder("snap.tenant.cache.misses", misses, LongAdder::sum)
+                    .tag("cache", name)
+                    .description("Tenant context lookups that reached the database since startup")
+                    .register(meterRegistry);
+            Gauge.builder("snap.tenant.cache.evictions", cache, BoundedTtlCache::evictionCount)
+                    .tag("cache", name)
+                    .description("Tenant context entries evicted by size or TTL since startup")
+                    .register(meterRegistry);
+            Gauge.builder("snap.tenant.cache.size", cache, BoundedTtlCache::size)
+                    .tag("cache", name)
+                    .description("Current number of entries in the tenant context cache")
+                    .register(meterRegistry);
+        }
+
+        private TierStats stats() {
+            long hitCount = hits.sum();
+            long missCount = misses.sum();
+            long total = hitCount + missCount;
+            return new TierStats(
+                    cache.size(),
+                    hitCount,
+                    missCount,
+                    total == 0 ? 0.0d : (double) hitCount / total,
+                    cache.evictionCount()
+            );
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.snapplayerapi.api.v2.service;
 
 import com.snapplayerapi.api.dto.ProcessingBatchResponse;
 import com.snapplayerapi.api.dto.ProcessingFilmagemRequest;
+import com.snapplayerapi.api.service.ProcessingStageTimings;
 import com.snapplayerapi.api.service.ProcessingVideoFrameService;
 import java.util.List;
 import org.springframework.stereotype.Service;
@@ -23,4 +24,9 @@ public class VideoFrameSnapProcessingGateway implements SnapProcessingGateway {
         // The shared processing service expects a batch; v2 creates one snap per request.
         return processingVideoFrameService.process(List.of(request));
     }
+
+    @Override
+    public ProcessingBatchResponse processSingle(ProcessingFilmagemRequest request, ProcessingStageTimings timings) {
+        return processingVideoFrameService.process(List.of(request), timings);
+    }
 }
@@ -0,0 +1,18 @@
+package com.snapplayerapi.api.web;
+
+/**
+ * Latency distribution of one route over a recent time window (e.g. last 1 or 5 minutes).
+ *
+ * <p>Percentiles come from a log-linear histogram and are conservative (bucket upper edge, capped
+ * at the observed max), with at most ~6% relative error.</p>
+ */
+public record HttpLatencyWindowResponse(
+        int windowSeconds,
+        long requests,
+        double avgDurationMs,
+        long p50DurationMs,
+        long p95DurationMs,
+        long p99DurationMs,
+        long maxDurationMs
+) {
+}
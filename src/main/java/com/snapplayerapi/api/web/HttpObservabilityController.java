@@ -1,5 +1,8 @@
 package com.snapplayerapi.api.web;
 
+import com.snapplayerapi.api.service.SourceVideoCache;
+import com.snapplayerapi.api.service.VideoProbeCache;
+import com.snapplayerapi.api.v2.service.TenantContextCache;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -18,13 +21,22 @@ public class HttpObservabilityController {
 
     private final HttpObservabilityRegistry registry;
     private final SnapJobObservabilityRegistry snapJobObservabilityRegistry;
+    private final VideoProbeCache videoProbeCache;
+    private final SourceVideoCache sourceVideoCache;
+    private final TenantContextCache tenantContextCache;
 
     public HttpObservabilityController(
             HttpObservabilityRegistry registry,
-            SnapJobObservabilityRegistry snapJobObservabilityRegistry
+            SnapJobObservabilityRegistry snapJobObservabilityRegistry,
+            VideoProbeCache videoProbeCache,
+            SourceVideoCache sourceVideoCache,
+            TenantContextCache tenantContextCache
     ) {
         this.registry = registry;
         this.snapJobObservabilityRegistry = snapJobObservabilityRegistry;
+        this.videoProbeCache = videoProbeCache;
+        this.sourceVideoCache = sourceVideoCache;
+        this.tenantContextCache = tenantContextCache;
     }
 
     /**
@@ -42,4 +54,28 @@ public class HttpObservabilityController {
     public ResponseEntity<SnapJobObservabilitySnapshotResponse> snapJobMetrics() {
         return ResponseEntity.ok(snapJobObservabilityRegistry.snapshot());
     }
+
+    /**
+     * Returns hit/miss/eviction counters of the three-tier video probe cache.
+     */
+    @GetMapping("/probe-cache-metrics")
+    public ResponseEntity<VideoProbeCache.Stats> probeCacheMetrics() {
+        return ResponseEntity.ok(videoProbeCache.stats());
+    }
+
+    /**
+     * Returns disk usage and chunk hit/miss counters of the local source video cache.
+     */
+    @GetMapping("/source-cache-metrics")
+    public ResponseEntity<SourceVideoCache.Stats> sourceCacheMetrics() {
+        return ResponseEntity.ok(sourceVideoCache.stats());
+    }
+
+    /**
+     * Returns size and hit ratio of each tenant context cache tier (assinatura by code/token, default template).
+     */
+    @GetMapping("/tenant-cache-metrics")
+    public ResponseEntity<TenantContextCache.Stats> tenantCacheMetrics() {
+        return ResponseEntity.ok(tenantContextCache.stats());
+    }
 }
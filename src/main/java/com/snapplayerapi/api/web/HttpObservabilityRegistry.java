@@ -18,6 +18,9 @@ import org.springframework.stereotype.Component;
  * <p>This component intentionally avoids external dependencies (Prometheus, Actuator, OTEL) while
  * still giving the team a quick operational view during local development and early deployments:
  * request counts, error counts and latency aggregates grouped by method + route pattern.</p>
+ *
+ * <p>Latency is also tracked per route in a {@link LatencyHistogram}, which exposes p50/p95/p99 since
+ * startup and over the last 1/5 minutes (SLOs are defined on p99; averages hide the FFmpeg tail).</p>
  */
 @Component
 public class HttpObservabilityRegistry {
@@ -86,6 +89,7 @@ public class HttpObservabilityRegistry {
         private final LongAdder status4xx = new LongAdder();
         private final LongAdder status5xx = new LongAdder();
         private final LongAdder statusOther = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
 
         private RouteAggregate(String method, String routePattern) {
             this.method = method;
@@ -113,6 +117,7 @@ public class HttpObservabilityRegistry {
 
             long safeDuration = Math.max(durationMs, 0L);
             maxDurationMs.accumulateAndGet(safeDuration, Math::max);
+            latency.record(safeDuration);
         }
 
         /**
@@ -122,6 +127,7 @@ public class HttpObservabilityRegistry {
             long requestCount = requests.sum();
             long totalMs = totalDurationMs.sum();
             double avgMs = requestCount == 0 ? 0.0 : (double) totalMs / (double) requestCount;
+            LatencyHistogram.Summary sinceStart = latency.cumulative();
 
             return new HttpRouteMetricResponse(
                     method,
@@ -133,7 +139,25 @@ public class HttpObservabilityRegistry {
                     status5xx.sum(),
                     statusOther.sum(),
                     avgMs,
-                    maxDurationMs.get()
+                    maxDurationMs.get(),
+                    sinceStart.p50Ms(),
+                    sinceStart.p95Ms(),
+                    sinceStart.p99Ms(),
+                    toWindowResponse(60),
+                    toWindowResponse(300)
+            );
+        }
+
+        private HttpLatencyWindowResponse toWindowResponse(int seconds) {
+            LatencyHistogram.Summary window = latency.window(seconds);
+            return new HttpLatencyWindowResponse(
+                    seconds,
+                    window.count(),
+                    window.avgMs(),
+                    window.p50Ms(),
+                    window.p95Ms(),
+                    window.p99Ms(),
+                    window.maxMs()
             );
         }
     }
@@ -2,6 +2,9 @@ package com.snapplayerapi.api.web;
 
 /**
  * Aggregated HTTP metrics for one `(method, routePattern)` pair.
+ *
+ * <p>`avg`/`max`/percentiles cover everything since startup; `last1m`/`last5m` are sliding windows
+ * so a recent tail regression is not diluted by hours of healthy traffic.</p>
  */
 public record HttpRouteMetricResponse(
         String method,
@@ -13,6 +16,11 @@ public record HttpRouteMetricResponse(
         long status5xx,
         long statusOther,
         double avgDurationMs,
-        long maxDurationMs
+        long maxDurationMs,
+        long p50DurationMs,
+        long p95DurationMs,
+        long p99DurationMs,
+        HttpLatencyWindowResponse last1m,
+        HttpLatencyWindowResponse last5m
 ) {
 }
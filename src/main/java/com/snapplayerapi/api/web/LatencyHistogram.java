@@ -0,0 +1,190 @@
+package com.snapplayerapi.api.web;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free, log-linear latency histogram (HDR-style) with sliding time windows.
+ *
+ * <p>Bucketing: values below {@value #SUB_BUCKETS} ms get one bucket each; above that every power of
+ * two is split into {@value #SUB_BUCKETS} linear sub-buckets, so the relative error of a reported
+ * percentile is bounded by 1/{@value #SUB_BUCKETS} (~6%) from 1 ms to ~70 min. Counts live in an
+ * {@link AtomicLongArray} (one {@code incrementAndGet} per sample) instead of per-bucket adders, which
+ * keeps a route at a few KB even with the windowed copies.</p>
+ *
+ * <p>Windows: a ring of {@value #SLOT_COUNT} slots of {@value #SLOT_SECONDS}s each. A slot whose epoch
+ * is stale is replaced (CAS) by a fresh one on first write, so old samples decay out of the
+ * {@code last1m}/{@code last5m} views without any background task. Views include the current
+ * partial slot, i.e. they cover between the nominal window and one extra slot.</p>
+ */
+final class LatencyHistogram {
+
+    static final int SUB_BUCKETS = 16;
+    static final int SLOT_SECONDS = 15;
+    static final int SLOT_COUNT = 21;
+
+    private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+    /**
+     * Values above 2^MAX_EXPONENT ms (~70 min) are clamped into the last bucket.
+     */
+    private static final int MAX_EXPONENT = 22;
+    private static final int BUCKET_COUNT = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final long SLOT_MILLIS = SLOT_SECONDS * 1000L;
+
+    private final LongSupplier clockMillis;
+    private final Counts total = new Counts(Long.MIN_VALUE);
+    private final AtomicReferenceArray<Counts> slots = new AtomicReferenceArray<>(SLOT_COUNT);
+
+    LatencyHistogram() {
+        this(System::currentTimeMillis);
+    }
+
+    LatencyHistogram(LongSupplier clockMillis) {
+        this.clockMillis = clockMillis;
+    }
+
+    void record(long durationMs) {
+        long value = Math.max(durationMs, 0L);
+        int bucket = bucketIndex(value);
+        total.add(bucket, value);
+        currentSlot(clockMillis.getAsLong() / SLOT_MILLIS).add(bucket, value);
+    }
+
+    /**
+     * Percentiles over everything recorded since startup.
+     */
+    Summary cumulative() {
+        return total.summarize();
+    }
+
+    /**
+     * Percentiles over the last {@code seconds} (rounded up to whole slots, plus the current one).
+     */
+    Summary window(int seconds) {
+        long nowEpoch = clockMillis.getAsLong() / SLOT_MILLIS;
+        int slotsBack = Math.min(SLOT_COUNT - 1, (int) Math.ceil(seconds / (double) SLOT_SECONDS));
+        Counts merged = new Counts(nowEpoch);
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            Counts slot = slots.get(i);
+            if (slot != null && slot.epoch <= nowEpoch && nowEpoch - slot.epoch <= slotsBack) {
+                merged.merge(slot);
+            }
+        }
+        return merged.summarize();
+    }
+
+    private Counts currentSlot(long epoch) {
+        int index = (int) Math.floorMod(epoch, (long) SLOT_COUNT);
+        while (true) {
+            Counts slot = slots.get(index);
+            if (slot != null && slot.epoch >= epoch) {
+                // A newer epoch only happens for a writer with a stale clock read; dropping it into the
+                // newer slot is harmless.
+                return slot;
+            }
+            Counts fresh = new Counts(epoch);
+            if (slots.compareAndSet(index, slot, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Highest value that maps to {@code bucket}; reporting the upper edge keeps percentiles conservative.
+     */
+    static long bucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Percentile summary for one view. Values are in milliseconds.
+     */
+    record Summary(long count, double avgMs, long p50Ms, long p95Ms, long p99Ms, long maxMs) {
+    }
+
+    private static final class Counts {
+        private final long epoch;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sumMs = new AtomicLong();
+        private final AtomicLong maxMs = new AtomicLong();
+
+        private Counts(long epoch) {
+            this.epoch = epoch;
+        }
+
+        private void add(int bucket, long value) {
+            buckets.incrementAndGet(bucket);
+            count.incrementAndGet();
+            sumMs.addAndGet(value);
+            maxMs.accumulateAndGet(value, Math::max);
+        }
+
+        private void merge(Counts other) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                long bucketCount = other.buckets.get(i);
+                if (bucketCount != 0) {
+                    buckets.addAndGet(i, bucketCount);
+                }
+            }
+            count.addAndGet(other.count.get());
+            sumMs.addAndGet(other.sumMs.get());
+            maxMs.accumulateAndGet(other.maxMs.get(), Math::max);
+        }
+
+        private Summary summarize() {
+            // Bucket counts are read without a global snapshot; totals are recomputed from the buckets
+            // so percentiles stay internally consistent under concurrent writes.
+            long[] snapshot = new long[BUCKET_COUNT];
+            long samples = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                snapshot[i] = buckets.get(i);
+                samples += snapshot[i];
+            }
+            if (samples == 0) {
+                return new Summary(0, 0.0, 0, 0, 0, 0);
+            }
+            long max = maxMs.get();
+            return new Summary(
+                    samples,
+                    (double) sumMs.get() / Math.max(1L, count.get()),
+                    percentile(snapshot, samples, 0.50, max),
+                    percentile(snapshot, samples, 0.95, max),
+                    percentile(snapshot, samples, 0.99, max),
+                    max
+            );
+        }
+
+        private static long percentile(long[] snapshot, long samples, double quantile, long max) {
+            long rank = Math.max(1L, (long) Math.ceil(quantile * samples));
+            long seen = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
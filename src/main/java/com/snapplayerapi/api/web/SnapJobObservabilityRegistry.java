@@ -2,13 +2,18 @@ package com.snapplayerapi.api.web;
 
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.LongAdder;
 import org.springframework.stereotype.Component;
 
@@ -17,11 +22,27 @@ import org.springframework.stereotype.Component;
  *
  * <p>This registry complements the HTTP observability snapshot by tracking worker-specific events
  * and timings: claims, retries, stale recoveries, terminal outcomes and processing durations.</p>
+ *
+ * <p>Each job is also broken down into stages ({@link #STAGES}: queue wait, probe, encode, extract,
+ * upload, finalize). Every stage feeds a local {@link LatencyHistogram} for the internal snapshot and a
+ * Micrometer timer {@code snap.jobs.stage.duration{stage=...}} publishing p50/p95/p99.</p>
+ *
+ * <p>Queue depth comes from the database, so it is sampled periodically by
+ * {@code SnapJobQueueMetricsSampler} and only read here; scrapes never query the queue.</p>
  */
 @Component
 public class SnapJobObservabilityRegistry {
 
+    /**
+     * Stage keys in pipeline order (also the {@code stage} tag values).
+     */
+    public static final List<String> STAGES = List.of("queue_wait", "probe", "encode", "extract", "upload", "finalize");
+
+    private static final int RECENT_WINDOW_SECONDS = 300;
+
     private final LongAdder claimedCount = new LongAdder();
+    private final LongAdder claimBatchCount = new LongAdder();
+    private final AtomicLong maxClaimBatchSize = new AtomicLong();
     private final LongAdder retryScheduledCount = new LongAdder();
     private final LongAdder staleRecoveredCount = new LongAdder();
     private final LongAdder cleanupDeletedCount = new LongAdder();
@@ -30,11 +51,21 @@ public class SnapJobObservabilityRegistry {
     private final LongAdder totalDurationMs = new LongAdder();
     private final AtomicLong maxDurationMs = new AtomicLong();
     private final ConcurrentMap<String, LongAdder> terminalStatusCounts = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> stageHistograms = new LinkedHashMap<>();
+    private final Map<String, Timer> stageTimers = new LinkedHashMap<>();
+    private final AtomicReference<SnapJobQueueDepthResponse> queueDepth =
+            new AtomicReference<>(SnapJobQueueDepthResponse.empty());
 
     public SnapJobObservabilityRegistry(MeterRegistry meterRegistry) {
         Gauge.builder("snap.jobs.claimed", this, SnapJobObservabilityRegistry::claimedCountValue)
                 .description("Total async snap-processing jobs claimed by workers since startup")
                 .register(meterRegistry);
+        Gauge.builder("snap.jobs.claim.batches", this, SnapJobObservabilityRegistry::claimBatchCountValue)
+                .description("Total claim transactions that returned at least one job since startup")
+                .register(meterRegistry);
+        Gauge.builder("snap.jobs.claim.batch.max", this, SnapJobObservabilityRegistry::maxClaimBatchSizeValue)
+                .description("Largest number of jobs claimed in one transaction since startup")
+                .register(meterRegistry);
         Gauge.builder("snap.jobs.retry.scheduled", this, SnapJobObservabilityRegistry::retryScheduledCountValue)
                 .description("Total async job retry schedules since startup")
                 .register(meterRegistry);
@@ -59,13 +90,47 @@ public class SnapJobObservabilityRegistry {
         Gauge.builder("snap.jobs.terminal.max.duration.ms", this, SnapJobObservabilityRegistry::maxTerminalDurationMsValue)
                 .description("Maximum terminal async job duration in milliseconds since startup")
                 .register(meterRegistry);
+        Gauge.builder("snap.jobs.queue.depth", this, SnapJobObservabilityRegistry::queueInteractiveValue)
+                .description("Queued async snap jobs (PENDING/RETRY_WAIT) per priority lane")
+                .tag("lane", "interactive")
+                .register(meterRegistry);
+        Gauge.builder("snap.jobs.queue.depth", this, SnapJobObservabilityRegistry::queueBatchValue)
+                .description("Queued async snap jobs (PENDING/RETRY_WAIT) per priority lane")
+                .tag("lane", "batch")
+                .register(meterRegistry);
+        Gauge.builder("snap.jobs.queue.ready", this, SnapJobObservabilityRegistry::queueReadyValue)
+                .description("Queued async snap jobs already due for claiming")
+                .register(meterRegistry);
+        Gauge.builder("snap.jobs.running", this, SnapJobObservabilityRegistry::runningValue)
+                .description("Async snap jobs RUNNING on any worker")
+                .register(meterRegistry);
+        Gauge.builder("snap.jobs.queue.tenants", this, SnapJobObservabilityRegistry::queueTenantsValue)
+                .description("Assinaturas with at least one queued async snap job")
+                .register(meterRegistry);
+        Gauge.builder("snap.jobs.queue.oldest.age.ms", this, SnapJobObservabilityRegistry::queueOldestAgeMsValue)
+                .description("Age of the oldest queued async snap job in milliseconds")
+                .register(meterRegistry);
+        // Maps are filled once here and only read afterwards, so plain LinkedHashMaps are safe to share.
+        for (String stage : STAGES) {
+            stageHistograms.put(stage, new LatencyHistogram());
+            stageTimers.put(stage, Timer.builder("snap.jobs.stage.duration")
+                    .description("Async snap job duration per stage")
+                    .tag("stage", stage)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+        }
     }
 
     /**
-     * Records that a worker successfully claimed a job row.
+     * Records one claim transaction that locked {@code batchSize} job rows.
      */
-    public void recordClaim() {
-        claimedCount.increment();
+    public void recordClaimBatch(int batchSize) {
+        if (batchSize <= 0) {
+            return;
+        }
+        claimedCount.add(batchSize);
+        claimBatchCount.increment();
+        maxClaimBatchSize.accumulateAndGet(batchSize, Math::max);
     }
 
     /**
@@ -112,6 +177,46 @@ public class SnapJobObservabilityRegistry {
         maxDurationMs.accumulateAndGet(safeDuration, Math::max);
     }
 
+    /**
+     * Records the stage breakdown of one job attempt.
+     *
+     * <p>Stages that did not run (e.g. extract in single-pass mode, or everything after a failed
+     * probe) are passed as {@code null} and skipped, so they do not drag percentiles towards zero.</p>
+     */
+    public void recordStageTimings(
+            Long queueWaitMs,
+            Long probeMs,
+            Long encodeMs,
+            Long extractMs,
+            Long uploadMs,
+            Long finalizeMs
+    ) {
+        recordStage("queue_wait", queueWaitMs);
+        recordStage("probe", probeMs);
+        recordStage("encode", encodeMs);
+        recordStage("extract", extractMs);
+        recordStage("upload", uploadMs);
+        recordStage("finalize", finalizeMs);
+    }
+
+    /**
+     * Publishes the latest queue depth sample (gauges and internal snapshot).
+     */
+    public void recordQueueDepth(SnapJobQueueDepthResponse sample) {
+        if (sample != null) {
+            queueDepth.set(sample);
+        }
+    }
+
+    private void recordStage(String stage, Long durationMs) {
+        if (durationMs == null) {
+            return;
+        }
+        long safeDuration = Math.max(0L, durationMs);
+        stageHistograms.get(stage).record(safeDuration);
+        stageTimers.get(stage).record(Duration.ofMillis(safeDuration));
+    }
+
     /**
      * Returns immutable telemetry snapshot for the internal observability endpoint.
      */
@@ -123,10 +228,15 @@ public class SnapJobObservabilityRegistry {
 
         long terminalTotal = terminalByStatus.values().stream().mapToLong(Long::longValue).sum();
         double avgDuration = terminalTotal == 0 ? 0.0 : (double) totalDurationMs.sum() / (double) terminalTotal;
+        long batches = claimBatchCount.sum();
+        double avgClaimBatchSize = batches == 0 ? 0.0 : (double) claimedCount.sum() / (double) batches;
 
         return new SnapJobObservabilitySnapshotResponse(
                 OffsetDateTime.now(ZoneOffset.UTC),
                 claimedCount.sum(),
+                batches,
+                avgClaimBatchSize,
+                maxClaimBatchSize.get(),
                 retryScheduledCount.sum(),
                 staleRecoveredCount.sum(),
                 cleanupDeletedCount.sum(),
@@ -134,14 +244,50 @@ public class SnapJobObservabilityRegistry {
                 failedCount.sum(),
                 avgDuration,
                 maxDurationMs.get(),
-                terminalByStatus
+                terminalByStatus,
+                stageSnapshot(),
+                queueDepth.get()
         );
     }
 
+    private Map<String, SnapJobStageMetricResponse> stageSnapshot() {
+        Map<String, SnapJobStageMetricResponse> stages = new LinkedHashMap<>();
+        for (Map.Entry<String, LatencyHistogram> entry : stageHistograms.entrySet()) {
+            LatencyHistogram.Summary total = entry.getValue().cumulative();
+            LatencyHistogram.Summary recent = entry.getValue().window(RECENT_WINDOW_SECONDS);
+            stages.put(entry.getKey(), new SnapJobStageMetricResponse(
+                    total.count(),
+                    total.avgMs(),
+                    total.p50Ms(),
+                    total.p95Ms(),
+                    total.p99Ms(),
+                    total.maxMs(),
+                    new HttpLatencyWindowResponse(
+                            RECENT_WINDOW_SECONDS,
+                            recent.count(),
+                            recent.avgMs(),
+                            recent.p50Ms(),
+                            recent.p95Ms(),
+                            recent.p99Ms(),
+                            recent.maxMs()
+                    )
+            ));
+        }
+        return stages;
+    }
+
     long claimedCountValue() {
         return claimedCount.sum();
     }
 
+    long claimBatchCountValue() {
+        return claimBatchCount.sum();
+    }
+
+    long maxClaimBatchSizeValue() {
+        return maxClaimBatchSize.get();
+    }
+
     long retryScheduledCountValue() {
         return retryScheduledCount.sum();
     }
@@ -181,4 +327,28 @@ public class SnapJobObservabilityRegistry {
     private long terminalTotalCountValue() {
         return terminalStatusCounts.values().stream().mapToLong(counter -> counter.sum()).sum();
     }
+
+    long queueInteractiveValue() {
+        return queueDepth.get().interactiveQueued();
+    }
+
+    long queueBatchValue() {
+        return queueDepth.get().batchQueued();
+    }
+
+    long queueReadyValue() {
+        return queueDepth.get().ready();
+    }
+
+    long runningValue() {
+        return queueDepth.get().running();
+    }
+
+    long queueTenantsValue() {
+        return queueDepth.get().tenantsQueued();
+    }
+
+    long queueOldestAgeMsValue() {
+        return queueDepth.get().oldestQueuedAgeMs();
+    }
 }
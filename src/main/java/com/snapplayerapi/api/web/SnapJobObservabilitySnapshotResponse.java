@@ -9,6 +9,9 @@ import java.util.Map;
 public record SnapJobObservabilitySnapshotResponse(
         OffsetDateTime generatedAt,
         long claimedCount,
+        long claimBatchCount,
+        double avgClaimBatchSize,
+        long maxClaimBatchSize,
         long retryScheduledCount,
         long staleRecoveredCount,
         long cleanupDeletedCount,
@@ -16,7 +19,9 @@ public record SnapJobObservabilitySnapshotResponse(
         long failedCount,
         double avgTerminalDurationMs,
         long maxTerminalDurationMs,
-        Map<String, Long> terminalByStatus
+        Map<String, Long> terminalByStatus,
+        Map<String, SnapJobStageMetricResponse> stages,
+        SnapJobQueueDepthResponse queue
 ) {
 }
 
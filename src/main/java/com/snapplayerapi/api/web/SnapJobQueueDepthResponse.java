@@ -0,0 +1,29 @@
+package com.snapplayerapi.api.web;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Latest sample of the async job queue (`PENDING`/`RETRY_WAIT` rows plus `RUNNING` jobs).
+ *
+ * <p>{@code ready} counts queued jobs already due; the rest wait for a retry backoff.
+ * {@code topTenants} lists the assinaturas with the deepest backlog, deepest first.</p>
+ */
+public record SnapJobQueueDepthResponse(
+        OffsetDateTime sampledAt,
+        long interactiveQueued,
+        long batchQueued,
+        long ready,
+        long running,
+        int tenantsQueued,
+        long oldestQueuedAgeMs,
+        List<SnapJobTenantQueueResponse> topTenants
+) {
+
+    /**
+     * Placeholder used until the first sample completes.
+     */
+    public static SnapJobQueueDepthResponse empty() {
+        return new SnapJobQueueDepthResponse(null, 0L, 0L, 0L, 0L, 0, 0L, List.of());
+    }
+}
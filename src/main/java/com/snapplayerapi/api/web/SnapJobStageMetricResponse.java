@@ -0,0 +1,17 @@
+package com.snapplayerapi.api.web;
+
+/**
+ * Latency distribution of one async job stage (queue wait, probe, encode, extract, upload, finalize).
+ *
+ * <p>Top-level fields cover everything since startup; {@code last5m} is the sliding recent window.</p>
+ */
+public record SnapJobStageMetricResponse(
+        long samples,
+        double avgDurationMs,
+        long p50DurationMs,
+        long p95DurationMs,
+        long p99DurationMs,
+        long maxDurationMs,
+        HttpLatencyWindowResponse last5m
+) {
+}
@@ -0,0 +1,12 @@
+package com.snapplayerapi.api.web;
+
+/**
+ * Queue backlog and in-flight jobs of one assinatura.
+ */
+public record SnapJobTenantQueueResponse(
+        Long assinaturaId,
+        long interactiveQueued,
+        long batchQueued,
+        long running
+) {
+}
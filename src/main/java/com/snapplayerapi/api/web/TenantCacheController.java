@@ -0,0 +1,41 @@
+package com.snapplayerapi.api.web;
+
+import com.snapplayerapi.api.v2.service.TenantContextCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Internal invalidation hook for {@link TenantContextCache}.
+ *
+ * <p>Assinatura and template rows are maintained outside this API (migrations/SQL). After changing
+ * one of them, call this endpoint on each node to apply the change before the cache TTL expires.
+ * Guarded by {@link InternalApiTokenInterceptor} like every {@code /internal/**} route.</p>
+ */
+@RestController
+@RequestMapping("/internal/tenant-cache")
+public class TenantCacheController {
+
+    private final TenantContextCache tenantContextCache;
+
+    public TenantCacheController(TenantContextCache tenantContextCache) {
+        this.tenantContextCache = tenantContextCache;
+    }
+
+    /**
+     * Drops the cached rows of one assinatura, or the whole cache when {@code assinaturaId} is absent.
+     */
+    @PostMapping("/invalidate")
+    public ResponseEntity<TenantContextCache.Stats> invalidate(
+            @RequestParam(required = false) Long assinaturaId
+    ) {
+        if (assinaturaId == null) {
+            tenantContextCache.invalidateAll();
+        } else {
+            tenantContextCache.invalidateAssinatura(assinaturaId);
+        }
+        return ResponseEntity.ok(tenantContextCache.stats());
+    }
+}
@@ -0,0 +1,10 @@
+-- Priority lanes for the async snap queue (`1` = interactive, `0` = batch imports).
+--
+-- Existing rows were all created by single-snap requests, so they default to the interactive lane.
+
+alter table snap_processing_job add column priority integer default 1 not null;
+
+-- Fair claim: claimable jobs are ranked per assinatura inside each lane, and running jobs are
+-- counted per assinatura for the tenant cap. Status leads so both scans stay on non-terminal rows.
+create index idx_snap_processing_job_fair_claim
+    on snap_processing_job(status, assinatura_id, priority, next_run_at, created_at);
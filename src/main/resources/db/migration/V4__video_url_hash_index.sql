@@ -0,0 +1,3 @@
+-- Probe cache (second tier): look up a persisted `video_probe_json` by `url_hash` across tenants.
+-- The existing unique index is `(assinatura_id, url_hash)`, which cannot serve a hash-only lookup.
+create index idx_video_url_hash on video(url_hash);
@@ -0,0 +1,12 @@
+-- Per-stage timing breakdown for async snap jobs (latest attempt).
+--
+-- `duration` alone cannot tell a slow origin host (probe), FFmpeg CPU (encode/extract) and object
+-- storage (upload) apart. All columns are nullable: a stage that did not run (e.g. extract in
+-- single-pass mode, or stages after an early failure) stays null.
+
+alter table snap_processing_job add column queue_wait_ms bigint;
+alter table snap_processing_job add column probe_ms bigint;
+alter table snap_processing_job add column encode_ms bigint;
+alter table snap_processing_job add column extract_ms bigint;
+alter table snap_processing_job add column upload_ms bigint;
+alter table snap_processing_job add column finalize_ms bigint;
@@ -0,0 +1,17 @@
+-- Sargable case-insensitive nickname lookups for `/v2/snaps/mine` and `/v2/videos/mine`.
+--
+-- The "mine" queries used `lower(nickname_snapshot) = lower(:nickname)`, which no index covers,
+-- so every call scanned the tenant's snaps. The lower-cased value is now persisted (written by
+-- the application on insert) and indexed, and the queries compare it directly.
+
+alter table snap add column nickname_normalized varchar(120);
+
+update snap set nickname_normalized = lower(nickname_snapshot);
+
+alter table snap alter column nickname_normalized set not null;
+
+-- `/v2/snaps/mine` (offset and keyset): equality on the prefix, range/order on created_at.
+create index idx_snap_ass_nickname_created on snap(assinatura_id, nickname_normalized, created_at desc);
+
+-- `/v2/videos/mine`: group by video_id and the per-video max(created_at) lookup.
+create index idx_snap_ass_nickname_video on snap(assinatura_id, nickname_normalized, video_id, created_at);
@@ -0,0 +1,8 @@
+-- Thumbnail for compact list responses (`view=summary`).
+--
+-- The summary projection must not read `frames_json`, so the first frame's stored path is kept in
+-- its own column, written when processing completes. Existing rows are not backfilled (extracting
+-- it needs JSON functions that differ between PostgreSQL and the H2 test database); they report a
+-- null thumbnail until reprocessed.
+
+alter table snap add column thumbnail_path text;
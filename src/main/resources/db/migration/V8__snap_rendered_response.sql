@@ -0,0 +1,21 @@
+-- Pre-rendered JSON bodies of completed snaps (`GET /v2/snaps/{id}` and `GET /public/snaps/{token}`).
+--
+-- A completed snap never changes except for its share state, yet every read parsed the JSON columns
+-- of `snap` into DTOs and serialized them again. The final bodies are rendered once (sync create,
+-- worker finalize, share) and served as stored bytes. Kept out of `snap` so list queries, which load
+-- whole `snap` rows, do not drag the bodies along. `content_encoding` is `identity` or `gzip`.
+-- `source_updated_at` is `snap.updated_at` at render time and feeds the public ETag.
+
+create table snap_rendered_response (
+    snap_id uuid primary key,
+    assinatura_id bigint not null,
+    public_share_token varchar(200),
+    content_encoding varchar(16) not null,
+    snap_body bytea not null,
+    public_body bytea,
+    source_updated_at timestamp with time zone not null,
+    rendered_at timestamp with time zone not null,
+    constraint fk_snap_rendered_response_snap foreign key (snap_id) references snap(id) on delete cascade
+);
+
+create unique index uk_snap_rendered_public_token on snap_rendered_response(public_share_token);
@@ -0,0 +1,6 @@
+-- Frame output layout requested for a snap (`frames` or `sprite`).
+--
+-- Stored with the rest of the request snapshot so the async worker rebuilds the same processing
+-- request. Existing rows were all produced one image per frame.
+
+alter table snap add column frame_layout varchar(10) default 'frames' not null;
@@ -0,0 +1,54 @@
+package com.snapplayerapi.api.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BoundedTtlCacheTest {
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntryWhenFull() {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(2, Duration.ofMinutes(1));
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+
+        assertEquals(1, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void shouldExpireEntriesAfterTtl() {
+        AtomicLong now = new AtomicLong();
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(10, Duration.ofSeconds(5), now::get);
+        cache.put("a", 1);
+
+        now.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertEquals(1, cache.get("a"));
+
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void shouldInvalidateEntriesMatchingValuePredicate() {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 1);
+
+        assertEquals(2, cache.invalidateMatching(value -> value == 1));
+        assertNull(cache.get("a"));
+        assertEquals(2, cache.get("b"));
+        assertNull(cache.get("c"));
+        assertEquals(0, cache.evictionCount());
+    }
+}
@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class FfmpegServiceTest {
@@ -136,4 +137,111 @@ class FfmpegServiceTest {
         assertTrue(vf.contains(":y=86"));
         assertTrue(vf.contains("boxcolor=black@0.7"));
     }
+
+    @Test
+    void shouldBuildSinglePassCommandWithoutTrimWhenDurationsMatch() {
+        ProcessingProperties properties = new ProcessingProperties();
+        FfmpegService service = new FfmpegService(properties);
+
+        List<String> command = service.buildSinglePassCommand(
+                new FfmpegService.FfmpegRequest("https://example.com/video.mp4", 4.0, 2.0, 5, 800, "jpg", 3, Path.of("/tmp/out"), null),
+                new FfmpegService.FfmpegRequest("https://example.com/video.mp4", 4.0, 2.0, 5, 800, "jpg", 3, Path.of("/tmp/out"), null)
+        );
+
+        assertEquals(1, command.stream().filter("-i"::equals).count());
+        assertEquals("2.0", command.get(command.indexOf("-t") + 1));
+        String graph = command.get(command.indexOf("-filter_complex") + 1);
+        assertTrue(graph.startsWith("[0:v]split=2[snapin][framesin];"));
+        assertTrue(graph.contains("[snapin]scale='min(800,iw)':-2[snapout]"));
+        assertTrue(graph.contains("[framesin]fps=5,scale=800:-2[framesout]"));
+        assertFalse(graph.contains("trim="));
+        assertTrue(command.contains("libx264"));
+        assertEquals("/tmp/out/snapshot.mp4", command.get(command.indexOf("[snapout]") + 8));
+        assertEquals("/tmp/out/frame_%05d.jpg", command.get(command.size() - 1));
+    }
+
+    @Test
+    void shouldTrimEachBranchWhenDurationsDiffer() {
+        ProcessingProperties properties = new ProcessingProperties();
+        FfmpegService service = new FfmpegService(properties);
+
+        List<String> command = service.buildSinglePassCommand(
+                new FfmpegService.FfmpegRequest("https://example.com/video.mp4", 1.0, 3.0, 5, 640, "png", 3, Path.of("/tmp/out"), null),
+                new FfmpegService.FfmpegRequest("https://example.com/video.mp4", 1.0, 1.5, 5, 640, "png", 3, Path.of("/tmp/out"), null)
+        );
+
+        assertEquals("3.0", command.get(command.indexOf("-t") + 1));
+        String graph = command.get(command.indexOf("-filter_complex") + 1);
+        assertTrue(graph.contains("[snapin]trim=duration=3.0,setpts=PTS-STARTPTS,scale='min(640,iw)':-2[snapout]"));
+        assertTrue(graph.contains("[framesin]trim=duration=1.5,setpts=PTS-STARTPTS,fps=5,scale=640:-2[framesout]"));
+        assertFalse(command.contains("-q:v"));
+        assertEquals("/tmp/out/frame_%05d.png", command.get(command.size() - 1));
+    }
+
+    @Test
+    void shouldRejectSinglePassForDifferentClips() {
+        ProcessingProperties properties = new ProcessingProperties();
+        FfmpegService service = new FfmpegService(properties);
+
+        assertThrows(IllegalArgumentException.class, () -> service.buildSinglePassCommand(
+                new FfmpegService.FfmpegRequest("https://example.com/video.mp4", 1.0, 1.0, 5, 640, "jpg", 3, Path.of("/tmp/out"), null),
+                new FfmpegService.FfmpegRequest("https://example.com/video.mp4", 2.0, 1.0, 5, 640, "jpg", 3, Path.of("/tmp/out"), null)
+        ));
+    }
+
+    @Test
+    void shouldStreamFramesToStdoutInPipeMode() {
+        ProcessingProperties properties = new ProcessingProperties();
+        FfmpegService service = new FfmpegService(properties);
+
+        List<String> command = service.buildSinglePassCommand(
+                new FfmpegService.FfmpegRequest("https://example.com/video.mp4", 4.0, 2.0, 5, 800, "jpg", 3, Path.of("/tmp/out"), null),
+                new FfmpegService.FfmpegRequest("https://example.com/video.mp4", 4.0, 2.0, 5, 800, "jpg", 3, Path.of("/tmp/out"), null),
+                true
+        );
+
+        assertEquals("/tmp/out/snapshot.mp4", command.get(command.indexOf("[snapout]") + 8));
+        assertEquals("image2pipe", command.get(command.indexOf("-f") + 1));
+        assertEquals("mjpeg", command.get(command.lastIndexOf("-c:v") + 1));
+        assertEquals("pipe:1", command.get(command.size() - 1));
+        assertFalse(command.stream().anyMatch(arg -> arg.contains("frame_%05d")));
+        assertThrows(IllegalArgumentException.class, () -> service.buildCommand(
+                new FfmpegService.FfmpegRequest("https://example.com/video.mp4", 0.0, 1.0, 2, 640, "png", 3, Path.of("/tmp/out"), null),
+                true
+        ));
+    }
+
+    @Test
+    void shouldTileFramesIntoSpriteSheets() {
+        ProcessingProperties properties = new ProcessingProperties();
+        FfmpegService service = new FfmpegService(properties);
+        FfmpegService.SpriteLayout sprite = new FfmpegService.SpriteLayout(5, 5, 800, 450, 10);
+
+        List<String> command = service.buildCommand(new FfmpegService.FfmpegRequest(
+                "https://example.com/video.mp4", 1.0, 2.0, 5, 800, "jpg", 3, Path.of("/tmp/out"), null, sprite
+        ));
+
+        assertTrue(command.contains(
+                "fps=5,scale=iw*sar:ih,setsar=1,scale=800:450:force_original_aspect_ratio=decrease,pad=800:450:-1:-1"
+                        + ",tpad=stop_mode=clone:stop=10,trim=end_frame=10,tile=5x5"
+        ));
+        assertEquals("/tmp/out/sprite_%03d.jpg", command.get(command.size() - 1));
+        assertThrows(IllegalArgumentException.class, () -> service.buildCommand(
+                new FfmpegService.FfmpegRequest("https://example.com/video.mp4", 1.0, 2.0, 5, 800, "jpg", 3, Path.of("/tmp/out"), null, sprite),
+                true
+        ));
+    }
+
+    @Test
+    void shouldLocateFramesInsideSpriteSheets() {
+        FfmpegService.SpriteLayout sprite = new FfmpegService.SpriteLayout(3, 2, 320, 180, 8);
+
+        assertEquals(2, sprite.sheetCount());
+        assertEquals(0, sprite.sheetOf(5));
+        assertEquals(640, sprite.xOf(5));
+        assertEquals(180, sprite.yOf(5));
+        assertEquals(1, sprite.sheetOf(7));
+        assertEquals(320, sprite.xOf(7));
+        assertEquals(0, sprite.yOf(7));
+    }
 }
@@ -0,0 +1,88 @@
+package com.snapplayerapi.api.service;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InFlightCoalescerTest {
+
+    @Test
+    void shouldShareOneComputationBetweenConcurrentCallers() throws Exception {
+        InFlightCoalescer<String, String> coalescer = new InFlightCoalescer<>();
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<InFlightCoalescer.Outcome<String>> leader = executor.submit(() -> coalescer.run("clip", () -> {
+                computations.incrementAndGet();
+                leaderStarted.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return "artifacts";
+            }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+            AtomicReference<InFlightCoalescer.Outcome<String>> followerOutcome = new AtomicReference<>();
+            Thread follower = new Thread(() -> {
+                try {
+                    followerOutcome.set(coalescer.run("clip", () -> {
+                        computations.incrementAndGet();
+                        return "other";
+                    }));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            follower.start();
+            // The follower parks on the leader's future; only then let the leader finish.
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (follower.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            follower.join(5_000L);
+
+            assertFalse(leader.get(5, TimeUnit.SECONDS).shared());
+            assertEquals("artifacts", followerOutcome.get().value());
+            assertTrue(followerOutcome.get().shared());
+            assertEquals(1, computations.get());
+            assertEquals(0, coalescer.inFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldRunAgainOnceTheLeaderFinished() throws Exception {
+        InFlightCoalescer<String, Integer> coalescer = new InFlightCoalescer<>();
+        AtomicInteger computations = new AtomicInteger();
+
+        coalescer.run("clip", computations::incrementAndGet);
+        InFlightCoalescer.Outcome<Integer> second = coalescer.run("clip", computations::incrementAndGet);
+
+        assertEquals(2, second.value());
+        assertFalse(second.shared());
+    }
+
+    @Test
+    void shouldPropagateLeaderFailureAndReleaseKey() throws Exception {
+        InFlightCoalescer<String, String> coalescer = new InFlightCoalescer<>();
+
+        assertThrows(IOException.class, () -> coalescer.run("clip", () -> {
+            throw new IOException("ffmpeg failed");
+        }));
+
+        assertEquals("ok", coalescer.run("clip", () -> "ok").value());
+    }
+}
@@ -0,0 +1,48 @@
+package com.snapplayerapi.api.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MjpegFrameSplitterTest {
+
+    private static final byte FF = (byte) 0xFF;
+    private static final byte SOI = (byte) 0xD8;
+    private static final byte EOI = (byte) 0xD9;
+
+    @Test
+    void shouldSplitConcatenatedJpegsIgnoringStuffedMarkerBytes() throws Exception {
+        byte[] first = {FF, SOI, 0x01, FF, 0x00, FF, FF, EOI};
+        byte[] second = {FF, SOI, 0x05, FF, EOI};
+        byte[] stream = new byte[first.length + second.length + 1];
+        stream[0] = 0x00; // leading garbage before the first SOI is skipped
+        System.arraycopy(first, 0, stream, 1, first.length);
+        System.arraycopy(second, 0, stream, 1 + first.length, second.length);
+
+        List<Integer> indexes = new ArrayList<>();
+        List<byte[]> frames = new ArrayList<>();
+        int emitted = MjpegFrameSplitter.split(new ByteArrayInputStream(stream), (index, jpeg) -> {
+            indexes.add(index);
+            frames.add(jpeg);
+        });
+
+        assertEquals(2, emitted);
+        assertEquals(List.of(1, 2), indexes);
+        assertArrayEquals(first, frames.get(0));
+        assertArrayEquals(second, frames.get(1));
+    }
+
+    @Test
+    void shouldFailWhenStreamEndsInsideAFrame() {
+        byte[] truncated = {FF, SOI, 0x01, 0x02};
+
+        assertThrows(IOException.class, () -> MjpegFrameSplitter.split(new ByteArrayInputStream(truncated), (index, jpeg) -> {
+        }));
+    }
+}
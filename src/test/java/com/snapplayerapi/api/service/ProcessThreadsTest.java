@@ -0,0 +1,52 @@
+package com.snapplayerapi.api.service;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+class ProcessThreadsTest {
+
+    @Test
+    void shouldCreateNamedDaemonPlatformThreadsWhenVirtualIsNotRequested() {
+        ThreadFactory factory = ProcessThreads.factory(false, "test-slot-");
+
+        Thread first = factory.newThread(() -> { });
+        Thread second = factory.newThread(() -> { });
+
+        assertEquals("test-slot-1", first.getName());
+        assertEquals("test-slot-2", second.getName());
+        assertTrue(first.isDaemon());
+    }
+
+    @Test
+    void shouldFallBackToPlatformThreadsOrCreateDaemonVirtualThreads() throws Exception {
+        Thread thread = ProcessThreads.start(true, "test-drainer", () -> { });
+        thread.join(5_000L);
+
+        // Virtual threads are always daemon; the platform fallback is made daemon explicitly.
+        assertEquals("test-drainer", thread.getName());
+        assertTrue(thread.isDaemon());
+        assertFalse(thread.isAlive());
+    }
+
+    @Test
+    void shouldReportProcessExitAndTimeout() throws Exception {
+        assumeFalse(System.getProperty("os.name", "").toLowerCase().contains("win"));
+
+        Process quick = new ProcessBuilder("true").start();
+        assertTrue(ProcessThreads.awaitExit(quick, 30, TimeUnit.SECONDS));
+
+        Process slow = new ProcessBuilder("sleep", "30").start();
+        try {
+            assertFalse(ProcessThreads.awaitExit(slow, 100, TimeUnit.MILLISECONDS));
+            assertTrue(slow.isAlive());
+        } finally {
+            slow.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.snapplayerapi.api.service;
+
+import com.snapplayerapi.api.config.ProcessingExecutorConfig;
+import com.snapplayerapi.api.config.ProcessingProperties;
+import com.snapplayerapi.api.config.StorageProperties;
+import com.snapplayerapi.api.dto.ProcessingBatchResponse;
+import com.snapplayerapi.api.dto.ProcessingFilmagemRequest;
+import com.snapplayerapi.api.dto.ProcessingFilmagemResponse;
+import com.snapplayerapi.api.dto.ProcessingFrameResponse;
+import com.snapplayerapi.api.dto.ProcessingFrameSpriteResponse;
+import com.snapplayerapi.api.dto.ProcessingSubjectRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for batch item execution, with FFmpeg and ffprobe replaced by in-process stubs.
+ */
+class ProcessingVideoFrameServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ExecutorService itemExecutor;
+    private SourceVideoCache sourceVideoCache;
+
+    @AfterEach
+    void stop() {
+        if (itemExecutor != null) {
+            itemExecutor.shutdownNow();
+        }
+        if (sourceVideoCache != null) {
+            sourceVideoCache.shutdown();
+        }
+    }
+
+    @Test
+    void shouldReturnItemsInRequestOrderWhenTheyCompleteOutOfOrder() {
+        ProcessingProperties properties = properties(3, 3);
+        CountDownLatch lastItemDone = new CountDownLatch(1);
+        StubFfmpegService ffmpeg = new StubFfmpegService(properties) {
+            @Override
+            void render(String videoUrl) throws Exception {
+                if (videoUrl.endsWith("/0.mp4")) {
+                    // The first item only finishes after the last one, so completion order is reversed.
+                    if (!lastItemDone.await(5, TimeUnit.SECONDS)) {
+                        throw new IllegalStateException("items did not run in parallel");
+                    }
+                } else if (videoUrl.endsWith("/2.mp4")) {
+                    lastItemDone.countDown();
+                }
+            }
+        };
+
+        ProcessingBatchResponse response = service(properties, ffmpeg).process(List.of(item(0), item(1), item(2)));
+
+        assertEquals("COMPLETED", response.status());
+        assertEquals(List.of(0, 1, 2), response.filmagens().stream().map(ProcessingFilmagemResponse::itemIndex).toList());
+        assertEquals(
+                List.of(videoUrl(0), videoUrl(1), videoUrl(2)),
+                response.filmagens().stream().map(ProcessingFilmagemResponse::videoUrl).toList()
+        );
+    }
+
+    @Test
+    void shouldKeepOtherItemsWhenOneItemFails() {
+        ProcessingProperties properties = properties(3, 3);
+        StubFfmpegService ffmpeg = new StubFfmpegService(properties) {
+            @Override
+            void render(String videoUrl) {
+                if (videoUrl.endsWith("/1.mp4")) {
+                    throw new IllegalStateException("ffmpeg exited with code 1");
+                }
+            }
+        };
+
+        ProcessingBatchResponse response = service(properties, ffmpeg).process(List.of(item(0), item(1), item(2)));
+
+        assertEquals("PARTIAL", response.status());
+        List<ProcessingFilmagemResponse> items = response.filmagens();
+        assertEquals(List.of("SUCCEEDED", "FAILED", "SUCCEEDED"), items.stream().map(ProcessingFilmagemResponse::status).toList());
+        assertEquals("ffmpeg exited with code 1", items.get(1).error());
+        assertEquals(1, items.get(0).frameCount());
+        assertEquals(1, items.get(2).frameCount());
+        assertNull(items.get(2).error());
+    }
+
+    @Test
+    void shouldCapConcurrentItemsAcrossBatches() throws Exception {
+        ProcessingProperties properties = properties(3, 2);
+        StubFfmpegService ffmpeg = new StubFfmpegService(properties) {
+            @Override
+            void render(String videoUrl) throws Exception {
+                Thread.sleep(100);
+            }
+        };
+        ProcessingVideoFrameService service = service(properties, ffmpeg);
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<ProcessingBatchResponse> first = callers.submit(() -> service.process(List.of(item(0), item(1), item(2))));
+            Future<ProcessingBatchResponse> second = callers.submit(() -> service.process(List.of(item(3), item(4), item(5))));
+
+            assertEquals("COMPLETED", first.get(10, TimeUnit.SECONDS).status());
+            assertEquals("COMPLETED", second.get(10, TimeUnit.SECONDS).status());
+        } finally {
+            callers.shutdownNow();
+        }
+        // Six items were eligible to run at once (3 per batch); the shared executor admits only two.
+        assertEquals(2, ffmpeg.maxRunning.get());
+        assertEquals(6, ffmpeg.renders.get());
+    }
+
+    @Test
+    void shouldNotShareRendersAcrossArtifactIdsWithoutBlobs() {
+        ProcessingProperties properties = properties(2, 2);
+        properties.setCoalesceIdenticalItems(true);
+        CountDownLatch bothRendering = new CountDownLatch(2);
+        StubFfmpegService ffmpeg = new StubFfmpegService(properties) {
+            @Override
+            void render(String videoUrl) throws Exception {
+                // A follower joined to the other item's render would never get here.
+                bothRendering.countDown();
+                if (!bothRendering.await(5, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("identical items with different artifact ids were coalesced");
+                }
+            }
+        };
+
+        ProcessingBatchResponse response = service(properties, ffmpeg)
+                .process(List.of(hintedItem("snap-a"), hintedItem("snap-b")));
+
+        assertEquals("COMPLETED", response.status());
+        assertEquals(2, ffmpeg.renders.get());
+        // Without content-addressed blobs the keys carry the artifact id, so each item keeps its own.
+        assertTrue(response.filmagens().get(0).frames().get(0).path().contains("snap-a"));
+        assertTrue(response.filmagens().get(1).frames().get(0).path().contains("snap-b"));
+    }
+
+    @Test
+    void shouldLaySpriteCellsOutFromProbedAspectRatio() {
+        ProcessingProperties properties = properties(1, 1);
+        properties.getFfmpeg().setSpriteColumns(3);
+        properties.getFfmpeg().setSpriteRows(2);
+        StubFfmpegService ffmpeg = new StubFfmpegService(properties);
+
+        // Portrait 1080x1920 at maxWidth 360: 360 * 1920 / 1080 = 640 (even height, no rounding).
+        // 1.5 s at 5 fps = 8 frames on a 3x2 grid = 2 sheets; frame 7 is the second cell of sheet 2.
+        ProcessingFilmagemRequest request = spriteItem(1.5, 5, 360);
+        ProcessingBatchResponse response = service(properties, ffmpeg, 1080, 1920).process(List.of(request));
+
+        ProcessingFilmagemResponse item = response.filmagens().get(0);
+        assertEquals("SUCCEEDED", item.status(), item.error());
+        assertEquals(8, item.frameCount());
+        List<ProcessingFrameResponse> frames = item.frames();
+        assertEquals(new ProcessingFrameSpriteResponse(0, 0, 360, 640), frames.get(0).sprite());
+        assertEquals(new ProcessingFrameSpriteResponse(720, 0, 360, 640), frames.get(2).sprite());
+        assertEquals(new ProcessingFrameSpriteResponse(0, 640, 360, 640), frames.get(3).sprite());
+        assertEquals(new ProcessingFrameSpriteResponse(360, 0, 360, 640), frames.get(7).sprite());
+        assertEquals("sprite_001.jpg", frames.get(5).fileName());
+        assertEquals("sprite_002.jpg", frames.get(6).fileName());
+        assertEquals(1.4, frames.get(7).timestampSeconds(), 1e-9);
+    }
+
+    @Test
+    void shouldRoundSpriteCellHeightToEvenPixels() {
+        ProcessingProperties properties = properties(1, 1);
+        StubFfmpegService ffmpeg = new StubFfmpegService(properties);
+
+        // 320 * 1080 / 1916 = 180.4 -> 180; 320 * 1080 / 1900 = 181.9 -> 182 (rounded to the nearest even value).
+        ProcessingFrameSpriteResponse rounded = service(properties, ffmpeg, 1916, 1080)
+                .process(List.of(spriteItem(1.0, 1, 320))).filmagens().get(0).frames().get(0).sprite();
+        ProcessingFrameSpriteResponse roundedUp = service(properties, ffmpeg, 1900, 1080)
+                .process(List.of(spriteItem(1.0, 1, 320))).filmagens().get(0).frames().get(0).sprite();
+
+        assertEquals(180, rounded.height());
+        assertEquals(182, roundedUp.height());
+    }
+
+    private ProcessingVideoFrameService service(ProcessingProperties properties, FfmpegService ffmpeg) {
+        return service(properties, ffmpeg, 1920, 1080);
+    }
+
+    private ProcessingVideoFrameService service(ProcessingProperties properties, FfmpegService ffmpeg, int width, int height) {
+        StorageProperties storageProperties = new StorageProperties();
+        storageProperties.getLocal().setBasePath(tempDir.resolve("storage").toString());
+        itemExecutor = new ProcessingExecutorConfig().processingItemExecutor(properties);
+        sourceVideoCache = new SourceVideoCache(properties, new SimpleMeterRegistry());
+        return new ProcessingVideoFrameService(
+                properties,
+                new TempStorageService(properties),
+                ffmpeg,
+                new FixedProbeCache(properties, width, height),
+                sourceVideoCache,
+                new StorageService(storageProperties, Optional.empty()),
+                itemExecutor
+        );
+    }
+
+    private ProcessingProperties properties(int itemParallelism, int maxConcurrentItems) {
+        ProcessingProperties properties = new ProcessingProperties();
+        properties.setTmpBase(tempDir.resolve("tmp").toString());
+        properties.setItemParallelism(itemParallelism);
+        properties.setMaxConcurrentItems(maxConcurrentItems);
+        return properties;
+    }
+
+    private static ProcessingFilmagemRequest item(int index) {
+        return new ProcessingFilmagemRequest(
+                videoUrl(index),
+                0.0,
+                null,
+                1.0,
+                null,
+                1,
+                null,
+                null,
+                null,
+                null,
+                OffsetDateTime.parse("2026-02-24T14:30:00-03:00"),
+                new ProcessingSubjectRequest("animal-" + index, List.of()),
+                null,
+                null
+        );
+    }
+
+    private static ProcessingFilmagemRequest hintedItem(String clientRequestId) {
+        return new ProcessingFilmagemRequest(
+                videoUrl(0),
+                0.0,
+                null,
+                1.0,
+                null,
+                1,
+                null,
+                null,
+                null,
+                null,
+                OffsetDateTime.parse("2026-02-24T14:30:00-03:00"),
+                new ProcessingSubjectRequest("animal-0", List.of()),
+                null,
+                clientRequestId
+        );
+    }
+
+    private static ProcessingFilmagemRequest spriteItem(double durationSeconds, int fps, int maxWidth) {
+        return new ProcessingFilmagemRequest(
+                videoUrl(0),
+                0.0,
+                null,
+                durationSeconds,
+                null,
+                fps,
+                maxWidth,
+                null,
+                null,
+                "sprite",
+                OffsetDateTime.parse("2026-02-24T14:30:00-03:00"),
+                new ProcessingSubjectRequest("animal-sprite", List.of()),
+                null,
+                null
+        );
+    }
+
+    private static String videoUrl(int index) {
+        return "https://cdn.example.com/videos/" + index + ".mp4";
+    }
+
+    /**
+     * Writes the files FFmpeg would produce (one frame per item at 1 fps over one second, or the sprite
+     * sheets of the requested layout) and tracks how many items render at the same time.
+     */
+    private static class StubFfmpegService extends FfmpegService {
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+        private final AtomicInteger renders = new AtomicInteger();
+
+        StubFfmpegService(ProcessingProperties properties) {
+            super(properties);
+        }
+
+        void render(String videoUrl) throws Exception {
+        }
+
+        @Override
+        public void createSnapshotAndFrames(FfmpegRequest snapshotRequest, FfmpegRequest framesRequest) {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                render(snapshotRequest.videoUrl());
+                Files.writeString(snapshotRequest.outputDir().resolve("snapshot.mp4"), snapshotRequest.videoUrl());
+                if (framesRequest.sprite() == null) {
+                    Files.writeString(framesRequest.outputDir().resolve("frame_00001.jpg"), framesRequest.videoUrl());
+                } else {
+                    for (int sheet = 1; sheet <= framesRequest.sprite().sheetCount(); sheet++) {
+                        Files.writeString(framesRequest.outputDir().resolve("sprite_%03d.jpg".formatted(sheet)), framesRequest.videoUrl());
+                    }
+                }
+                renders.incrementAndGet();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+    }
+
+    private static final class FixedProbeCache extends VideoProbeCache {
+        private final int width;
+        private final int height;
+
+        FixedProbeCache(ProcessingProperties properties, int width, int height) {
+            super(properties, null, Optional.empty(), new SimpleMeterRegistry());
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public VideoProbeService.ProbeResult probe(String videoUrl) {
+            return VideoProbeService.ProbeResult.compatible("mp4", "h264", width, height, 60.0, 30.0, "yuv420p");
+        }
+    }
+}
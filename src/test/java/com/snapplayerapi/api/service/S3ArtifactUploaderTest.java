@@ -0,0 +1,157 @@
+package com.snapplayerapi.api.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the concurrent S3 upload engine (retries, multipart and abort on failure).
+ */
+class S3ArtifactUploaderTest {
+
+    private static final long MIB = 1024L * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldRetryTransientFailuresAndUploadEveryObject() throws Exception {
+        Path frame1 = Files.writeString(tempDir.resolve("frame_00001.jpg"), "frame1");
+        Path frame2 = Files.writeString(tempDir.resolve("frame_00002.jpg"), "frame2");
+        RecordingS3Client client = new RecordingS3Client();
+        client.failPutsFor.put("frames/a/frame_00002.jpg", new AtomicInteger(1));
+
+        try (S3ArtifactUploader uploader = new S3ArtifactUploader(client, 4, 3, 0, 16 * MIB, 8 * MIB)) {
+            uploader.uploadAll("bucket", List.of(
+                    new S3ArtifactUploader.ObjectUpload(frame1, "frames/a/frame_00001.jpg", "image/jpeg"),
+                    new S3ArtifactUploader.ObjectUpload(frame2, "frames/a/frame_00002.jpg", "image/jpeg")
+            ));
+        }
+
+        assertEquals(Set.of("frames/a/frame_00001.jpg", "frames/a/frame_00002.jpg"), Set.copyOf(client.putKeys));
+        assertEquals(3, client.putAttempts.get());
+    }
+
+    @Test
+    void shouldUploadLargeFilesAsOrderedMultipartParts() throws Exception {
+        Path snapshot = tempDir.resolve("snapshot.mp4");
+        Files.write(snapshot, new byte[(int) (11 * MIB)]);
+        RecordingS3Client client = new RecordingS3Client();
+
+        try (S3ArtifactUploader uploader = new S3ArtifactUploader(client, 2, 3, 0, 5 * MIB, 5 * MIB)) {
+            uploader.uploadAll("bucket", List.of(
+                    new S3ArtifactUploader.ObjectUpload(snapshot, "snapshots/a/snapshot.mp4", "video/mp4")
+            ));
+        }
+
+        assertTrue(client.putKeys.isEmpty());
+        assertEquals(3, client.uploadedParts.size());
+        assertEquals(List.of(1, 2, 3), client.completedParts.stream().map(CompletedPart::partNumber).toList());
+        assertEquals(0, client.aborts.get());
+    }
+
+    @Test
+    void shouldAbortMultipartAndPropagateNonRetryableFailure() throws Exception {
+        Path snapshot = tempDir.resolve("snapshot.mp4");
+        Files.write(snapshot, new byte[(int) (11 * MIB)]);
+        Path frame = Files.writeString(tempDir.resolve("frame_00001.jpg"), "frame1");
+        RecordingS3Client client = new RecordingS3Client();
+        client.failPutsWith = S3Exception.builder().statusCode(403).message("denied").build();
+
+        try (S3ArtifactUploader uploader = new S3ArtifactUploader(client, 2, 3, 0, 5 * MIB, 5 * MIB)) {
+            assertThrows(S3Exception.class, () -> uploader.uploadAll("bucket", List.of(
+                    new S3ArtifactUploader.ObjectUpload(snapshot, "snapshots/a/snapshot.mp4", "video/mp4"),
+                    new S3ArtifactUploader.ObjectUpload(frame, "frames/a/frame_00001.jpg", "image/jpeg")
+            )));
+        }
+
+        // Forbidden is not transient: exactly one attempt, and the open multipart upload is aborted.
+        assertEquals(1, client.putAttempts.get());
+        assertEquals(1, client.aborts.get());
+        assertTrue(client.completedParts.isEmpty());
+    }
+
+    /**
+     * Minimal in-memory S3 client recording calls made by the uploader.
+     */
+    private static final class RecordingS3Client implements S3Client {
+        private final List<String> putKeys = new CopyOnWriteArrayList<>();
+        private final AtomicInteger putAttempts = new AtomicInteger();
+        private final ConcurrentHashMap<String, AtomicInteger> failPutsFor = new ConcurrentHashMap<>();
+        private final List<Integer> uploadedParts = new CopyOnWriteArrayList<>();
+        private final List<CompletedPart> completedParts = new CopyOnWriteArrayList<>();
+        private final AtomicInteger aborts = new AtomicInteger();
+        private volatile RuntimeException failPutsWith;
+
+        @Override
+        public PutObjectResponse putObject(PutObjectRequest request, RequestBody body) {
+            putAttempts.incrementAndGet();
+            if (failPutsWith != null) {
+                throw failPutsWith;
+            }
+            AtomicInteger remainingFailures = failPutsFor.get(request.key());
+            if (remainingFailures != null && remainingFailures.getAndDecrement() > 0) {
+                throw SdkClientException.create("connection reset");
+            }
+            putKeys.add(request.key());
+            return PutObjectResponse.builder().build();
+        }
+
+        @Override
+        public CreateMultipartUploadResponse createMultipartUpload(CreateMultipartUploadRequest request) {
+            return CreateMultipartUploadResponse.builder().uploadId("upload-1").build();
+        }
+
+        @Override
+        public UploadPartResponse uploadPart(UploadPartRequest request, RequestBody body) {
+            uploadedParts.add(request.partNumber());
+            return UploadPartResponse.builder().eTag("etag-" + request.partNumber()).build();
+        }
+
+        @Override
+        public CompleteMultipartUploadResponse completeMultipartUpload(CompleteMultipartUploadRequest request) {
+            completedParts.addAll(request.multipartUpload().parts());
+            return CompleteMultipartUploadResponse.builder().build();
+        }
+
+        @Override
+        public AbortMultipartUploadResponse abortMultipartUpload(AbortMultipartUploadRequest request) {
+            aborts.incrementAndGet();
+            return AbortMultipartUploadResponse.builder().build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "s3";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.snapplayerapi.api.service;
+
+import com.snapplayerapi.api.config.ProcessingProperties;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SourceVideoCacheTest {
+
+    private static final int CHUNK_SIZE = 65536;
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+    @TempDir
+    Path cacheDir;
+
+    private final byte[] video = new byte[CHUNK_SIZE * 3 + 1000];
+    private final AtomicInteger originRequests = new AtomicInteger();
+    private volatile CountDownLatch originGate = new CountDownLatch(0);
+    private volatile int failingStart = -1;
+    private HttpServer origin;
+    private SourceVideoCache cache;
+
+    @BeforeEach
+    void startOrigin() throws IOException {
+        for (int i = 0; i < video.length; i++) {
+            video[i] = (byte) (i * 31);
+        }
+        origin = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        origin.createContext("/video.mp4", exchange -> {
+            originRequests.incrementAndGet();
+            try {
+                originGate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Matcher range = RANGE.matcher(exchange.getRequestHeaders().getFirst("Range"));
+            assertTrue(range.matches());
+            int start = Integer.parseInt(range.group(1));
+            int end = Math.min(video.length - 1, Integer.parseInt(range.group(2)));
+            if (start == failingStart) {
+                exchange.sendResponseHeaders(500, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Range", "bytes %d-%d/%d".formatted(start, end, video.length));
+            exchange.sendResponseHeaders(206, end - start + 1);
+            exchange.getResponseBody().write(video, start, end - start + 1);
+            exchange.close();
+        });
+        origin.start();
+    }
+
+    @AfterEach
+    void stop() {
+        if (cache != null) {
+            cache.shutdown();
+        }
+        origin.stop(0);
+    }
+
+    @Test
+    void shouldReturnOriginalUrlWhenDisabled() {
+        cache = new SourceVideoCache(new ProcessingProperties(), new SimpleMeterRegistry());
+
+        assertEquals("https://example.com/video.mp4", cache.inputUrl("https://example.com/video.mp4"));
+    }
+
+    @Test
+    void shouldServeRangesFromCachedChunks() throws IOException {
+        cache = new SourceVideoCache(properties(Long.MAX_VALUE), new SimpleMeterRegistry());
+        String localUrl = cache.inputUrl(originUrl());
+
+        byte[] first = read(localUrl, "bytes=70000-140000");
+        byte[] second = read(localUrl, "bytes=70000-140000");
+
+        byte[] expected = Arrays.copyOfRange(video, 70000, 140001);
+        assertArrayEquals(expected, first);
+        assertArrayEquals(expected, second);
+        // Chunks 0 (length discovery), 1 and 2 were fetched once; the second read is served from disk.
+        assertEquals(3, originRequests.get());
+        SourceVideoCache.Stats stats = cache.stats();
+        assertEquals(3, stats.misses());
+        assertEquals(3, stats.chunks());
+    }
+
+    @Test
+    void shouldServeTailWithoutEndOfRange() throws IOException {
+        cache = new SourceVideoCache(properties(Long.MAX_VALUE), new SimpleMeterRegistry());
+
+        byte[] tail = read(cache.inputUrl(originUrl()), "bytes=" + (CHUNK_SIZE * 3) + "-");
+
+        assertArrayEquals(Arrays.copyOfRange(video, CHUNK_SIZE * 3, video.length), tail);
+    }
+
+    @Test
+    void shouldFetchChunkOnceForConcurrentReaders() throws Exception {
+        cache = new SourceVideoCache(properties(Long.MAX_VALUE), new SimpleMeterRegistry());
+        String localUrl = cache.inputUrl(originUrl());
+        originGate = new CountDownLatch(1);
+        ExecutorService readers = Executors.newFixedThreadPool(2);
+        try {
+            Future<byte[]> first = readers.submit(() -> read(localUrl, "bytes=100-1099"));
+            Future<byte[]> second = readers.submit(() -> read(localUrl, "bytes=2000-2999"));
+
+            // Hold the origin until the second reader is parked on the fetch the first one started.
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (cache.stats().deduplicated() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            originGate.countDown();
+
+            assertArrayEquals(Arrays.copyOfRange(video, 100, 1100), first.get(5, TimeUnit.SECONDS));
+            assertArrayEquals(Arrays.copyOfRange(video, 2000, 3000), second.get(5, TimeUnit.SECONDS));
+        } finally {
+            readers.shutdownNow();
+        }
+
+        assertEquals(1, originRequests.get());
+        assertEquals(1, cache.stats().misses());
+        assertEquals(1, cache.stats().deduplicated());
+    }
+
+    @Test
+    void shouldAbortResponseWhenChunkFetchFailsMidStream() throws IOException {
+        cache = new SourceVideoCache(properties(Long.MAX_VALUE), new SimpleMeterRegistry());
+        String localUrl = cache.inputUrl(originUrl());
+        failingStart = CHUNK_SIZE;
+
+        // Headers (206 + Content-Length) go out with chunk 0; chunk 1 then fails at the origin and the
+        // connection is dropped, so the reader gets fewer bytes than announced instead of a padded body.
+        byte[] body = read(localUrl, "bytes=0-" + (CHUNK_SIZE + 999));
+
+        assertArrayEquals(Arrays.copyOfRange(video, 0, CHUNK_SIZE), body);
+        assertEquals(2, originRequests.get());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyReadChunksBeyondQuota() throws IOException {
+        cache = new SourceVideoCache(properties(CHUNK_SIZE * 2L), new SimpleMeterRegistry());
+        String localUrl = cache.inputUrl(originUrl());
+
+        read(localUrl, "bytes=0-" + (video.length - 1));
+
+        SourceVideoCache.Stats stats = cache.stats();
+        assertTrue(stats.bytes() <= CHUNK_SIZE * 2L);
+        assertEquals(2, stats.evictions());
+    }
+
+    private ProcessingProperties properties(long maxBytes) {
+        ProcessingProperties properties = new ProcessingProperties();
+        properties.getSourceCache().setEnabled(true);
+        properties.getSourceCache().setDir(cacheDir.toString());
+        properties.getSourceCache().setChunkSizeBytes(CHUNK_SIZE);
+        properties.getSourceCache().setMaxBytes(maxBytes);
+        return properties;
+    }
+
+    private String originUrl() {
+        return "http://127.0.0.1:" + origin.getAddress().getPort() + "/video.mp4";
+    }
+
+    private static byte[] read(String url, String range) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestProperty("Range", range);
+        assertEquals(206, connection.getResponseCode());
+        try (InputStream in = connection.getInputStream()) {
+            return in.readAllBytes();
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
@@ -3,12 +3,45 @@ package com.snapplayerapi.api.service;
 import com.snapplayerapi.api.config.StorageProperties;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.DeletedObject;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -55,4 +88,297 @@ class StorageServiceTest {
         assertEquals(List.of(expectedFrame1.toString(), expectedFrame2.toString()), stored.framePaths());
         assertTrue(stored.outputDir().endsWith("frames/123e4567-e89b-12d3-a456-426614174000"));
     }
+
+    @Test
+    void shouldMoveArtifactsByDefaultAndOverwriteOnReprocessing() throws Exception {
+        Path itemDir = Files.createDirectories(tempDir.resolve("tmp/request-2/item-000"));
+        Path snapshot = Files.writeString(itemDir.resolve("snapshot.mp4"), "snapshot-v1");
+        Path frame = Files.writeString(itemDir.resolve("frame_00001.jpg"), "frame-v1");
+
+        StorageProperties properties = new StorageProperties();
+        properties.getLocal().setBasePath(tempDir.resolve("storage").toString());
+        StorageService service = new StorageService(properties, Optional.empty());
+
+        StorageService.StoredArtifacts stored = service.storeProcessingArtifacts(
+                "req-2", 0, "snap-1", itemDir, snapshot, List.of(frame));
+
+        // Same filesystem: the temp originals are renamed into storage, not duplicated.
+        assertFalse(Files.exists(snapshot));
+        assertFalse(Files.exists(frame));
+        assertEquals("frame-v1", Files.readString(Path.of(stored.framePaths().get(0))));
+
+        Path retrySnapshot = Files.writeString(itemDir.resolve("snapshot.mp4"), "snapshot-v2");
+        Path retryFrame = Files.writeString(itemDir.resolve("frame_00001.jpg"), "frame-v2");
+        stored = service.storeProcessingArtifacts("req-2", 0, "snap-1", itemDir, retrySnapshot, List.of(retryFrame));
+
+        assertEquals("snapshot-v2", Files.readString(Path.of(stored.snapshotPath())));
+        assertEquals("frame-v2", Files.readString(Path.of(stored.framePaths().get(0))));
+    }
+
+    @Test
+    void shouldKeepTempOriginalsInLinkAndCopyModes() throws Exception {
+        for (StorageProperties.TransferMode mode : List.of(
+                StorageProperties.TransferMode.LINK,
+                StorageProperties.TransferMode.COPY
+        )) {
+            Path itemDir = Files.createDirectories(tempDir.resolve("tmp/" + mode + "/item-000"));
+            Path snapshot = Files.writeString(itemDir.resolve("snapshot.mp4"), "snapshot-" + mode);
+            Path frame = Files.writeString(itemDir.resolve("frame_00001.jpg"), "frame-" + mode);
+
+            StorageProperties properties = new StorageProperties();
+            properties.getLocal().setBasePath(tempDir.resolve("storage-" + mode).toString());
+            properties.getLocal().setTransferMode(mode);
+            StorageService service = new StorageService(properties, Optional.empty());
+
+            StorageService.StoredArtifacts stored = service.storeProcessingArtifacts(
+                    "req-3", 0, "snap-" + mode, itemDir, snapshot, List.of(frame));
+
+            assertTrue(Files.exists(snapshot));
+            assertEquals("snapshot-" + mode, Files.readString(Path.of(stored.snapshotPath())));
+            assertEquals("frame-" + mode, Files.readString(Path.of(stored.framePaths().get(0))));
+        }
+    }
+
+    @Test
+    void shouldPersistStreamedFramesInOrderWithoutTempFrameFiles() throws Exception {
+        Path itemDir = Files.createDirectories(tempDir.resolve("tmp/request-4/item-000"));
+        Path snapshot = Files.writeString(itemDir.resolve("snapshot.mp4"), "snapshot-bytes");
+
+        StorageProperties properties = new StorageProperties();
+        properties.getLocal().setBasePath(tempDir.resolve("storage").toString());
+        StorageService service = new StorageService(properties, Optional.empty());
+
+        StorageService.StoredArtifacts stored;
+        List<String> fileNames;
+        try (StorageService.FrameStream stream = service.openFrameStream("req-4", 0, "snap-4", itemDir)) {
+            stream.addFrame("frame_00001.jpg", "frame1".getBytes());
+            stream.addFrame("frame_00002.jpg", "frame2".getBytes());
+            stored = stream.complete(snapshot);
+            fileNames = stream.frameFileNames();
+        }
+
+        Path base = tempDir.resolve("storage");
+        assertEquals(List.of("frame_00001.jpg", "frame_00002.jpg"), fileNames);
+        assertEquals(List.of(
+                base.resolve("frames/snap-4/frame_00001.jpg").toString(),
+                base.resolve("frames/snap-4/frame_00002.jpg").toString()
+        ), stored.framePaths());
+        assertEquals("frame2", Files.readString(Path.of(stored.framePaths().get(1))));
+        assertEquals(base.resolve("snapshots/snap-4/snapshot.mp4").toString(), stored.snapshotPath());
+        assertFalse(Files.exists(itemDir.resolve("frame_00001.jpg")));
+    }
+
+    @Test
+    void shouldStoreIdenticalArtifactsOfDifferentSnapsOnceWhenBlobsAreEnabled() throws Exception {
+        StorageProperties properties = new StorageProperties();
+        properties.getLocal().setBasePath(tempDir.resolve("storage").toString());
+        properties.getBlobs().setEnabled(true);
+        StorageService service = new StorageService(properties, Optional.empty());
+
+        List<StorageService.StoredArtifacts> results = new ArrayList<>();
+        for (String snapId : List.of("snap-a", "snap-b")) {
+            Path itemDir = Files.createDirectories(tempDir.resolve("tmp/" + snapId));
+            Path snapshot = Files.writeString(itemDir.resolve("snapshot.mp4"), "same-clip");
+            Path frame1 = Files.writeString(itemDir.resolve("frame_00001.jpg"), "same-frame");
+            Path frame2 = Files.writeString(itemDir.resolve("frame_00002.jpg"), "other-frame");
+            results.add(service.storeProcessingArtifacts("req", 0, snapId, itemDir, snapshot, List.of(frame1, frame2)));
+        }
+
+        assertEquals(results.get(0), results.get(1));
+        StorageService.StoredArtifacts stored = results.get(0);
+        assertTrue(stored.snapshotPath().matches(".*/blobs/[0-9a-f]{2}/[0-9a-f]{64}\\.mp4"));
+        assertNotEquals(stored.framePaths().get(0), stored.framePaths().get(1));
+        assertEquals("same-frame", Files.readString(Path.of(stored.framePaths().get(0))));
+        assertEquals("same-clip", Files.readString(Path.of(stored.snapshotPath())));
+        try (Stream<Path> files = Files.walk(tempDir.resolve("storage"))) {
+            assertEquals(3, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void shouldKeepRequestScopedKeysForUnhintedArtifactsWhenBlobsAreEnabled() throws Exception {
+        Path itemDir = Files.createDirectories(tempDir.resolve("tmp/v1"));
+        Path snapshot = Files.writeString(itemDir.resolve("snapshot.mp4"), "clip");
+
+        StorageProperties properties = new StorageProperties();
+        properties.getLocal().setBasePath(tempDir.resolve("storage").toString());
+        properties.getBlobs().setEnabled(true);
+        StorageService service = new StorageService(properties, Optional.empty());
+
+        StorageService.StoredArtifacts stored = service.storeProcessingArtifacts("req-v1", 2, null, itemDir, snapshot, List.of());
+
+        assertEquals(tempDir.resolve("storage/snapshots/req-v1-item-2/snapshot.mp4").toString(), stored.snapshotPath());
+    }
+
+    @Test
+    void shouldSweepOnlyOldUnreferencedBlobs() throws Exception {
+        StorageProperties properties = new StorageProperties();
+        properties.getLocal().setBasePath(tempDir.resolve("storage").toString());
+        properties.getBlobs().setEnabled(true);
+        StorageService service = new StorageService(properties, Optional.empty());
+
+        StorageService.StoredArtifacts kept;
+        StorageService.StoredArtifacts orphan;
+        StorageService.StoredArtifacts recent;
+        try (StorageService.FrameStream stream = service.openFrameStream("req", 0, "snap-kept", tempDir)) {
+            stream.addFrame("frame_00001.jpg", "kept".getBytes());
+            kept = stream.complete(Files.writeString(tempDir.resolve("kept.mp4"), "kept-clip"));
+        }
+        try (StorageService.FrameStream stream = service.openFrameStream("req", 0, "snap-failed", tempDir)) {
+            stream.addFrame("frame_00001.jpg", "orphan".getBytes());
+            orphan = stream.complete(Files.writeString(tempDir.resolve("orphan.mp4"), "orphan-clip"));
+        }
+        try (StorageService.FrameStream stream = service.openFrameStream("req", 0, "snap-running", tempDir)) {
+            stream.addFrame("frame_00001.jpg", "recent".getBytes());
+            recent = stream.complete(Files.writeString(tempDir.resolve("recent.mp4"), "recent-clip"));
+        }
+        FileTime old = FileTime.from(Instant.now().minus(Duration.ofDays(3)));
+        for (StorageService.StoredArtifacts stored : List.of(kept, orphan)) {
+            Files.setLastModifiedTime(Path.of(stored.snapshotPath()), old);
+            Files.setLastModifiedTime(Path.of(stored.framePaths().get(0)), old);
+        }
+
+        Set<String> referenced = new HashSet<>();
+        StorageService.collectBlobHashes("{\"url\":\"" + kept.snapshotPath() + "\"}", referenced);
+        StorageService.collectBlobHashes(kept.framePaths().get(0), referenced);
+        int deleted = service.deleteUnreferencedBlobs(referenced, Instant.now().minus(Duration.ofDays(1)));
+
+        assertEquals(2, deleted);
+        assertTrue(Files.exists(Path.of(kept.snapshotPath())));
+        assertTrue(Files.exists(Path.of(kept.framePaths().get(0))));
+        assertFalse(Files.exists(Path.of(orphan.snapshotPath())));
+        assertFalse(Files.exists(Path.of(orphan.framePaths().get(0))));
+        assertTrue(Files.exists(Path.of(recent.snapshotPath())));
+    }
+
+    @Test
+    void shouldKeepS3BlobsReusedBetweenListingAndDelete() throws Exception {
+        StorageProperties properties = s3Properties();
+        properties.getBlobs().setEnabled(true);
+        StubS3Client client = new StubS3Client();
+        Instant old = Instant.now().minus(Duration.ofDays(3));
+        String orphan = "blobs/aa/" + "a".repeat(64) + ".jpg";
+        String reused = "blobs/bb/" + "b".repeat(64) + ".jpg";
+        String referenced = "blobs/cc/" + "c".repeat(64) + ".mp4";
+        client.objects.putAll(Map.of(orphan, old, reused, old, referenced, old));
+        // A new snap reuses (and refreshes) this blob right after the listing saw its old timestamp.
+        client.afterList = () -> client.objects.put(reused, Instant.now());
+        StorageService service = new StorageService(properties, Optional.of(client));
+        try {
+            int deleted = service.deleteUnreferencedBlobs(Set.of("c".repeat(64)), Instant.now().minus(Duration.ofDays(1)));
+
+            assertEquals(1, deleted);
+            assertEquals(List.of(orphan), client.deletedKeys);
+            assertEquals(Set.of(reused, referenced), client.objects.keySet());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void shouldBlockAddFrameWhileUploadConcurrencyFramesArePending() throws Exception {
+        StorageProperties properties = s3Properties();
+        properties.getS3().setUploadConcurrency(2);
+        StubS3Client client = new StubS3Client();
+        StorageService service = new StorageService(properties, Optional.of(client));
+        ExecutorService producer = Executors.newSingleThreadExecutor();
+        try (StorageService.FrameStream stream = service.openFrameStream("req", 0, "snap-s3", tempDir)) {
+            stream.addFrame("frame_00001.jpg", "frame1".getBytes());
+            stream.addFrame("frame_00002.jpg", "frame2".getBytes());
+
+            // Both permits are held by PUTs stuck in the client, so the third frame has to wait.
+            Future<?> third = producer.submit(() -> {
+                stream.addFrame("frame_00003.jpg", "frame3".getBytes());
+                return null;
+            });
+            assertThrows(TimeoutException.class, () -> third.get(300, TimeUnit.MILLISECONDS));
+
+            client.releasePuts.countDown();
+            third.get(5, TimeUnit.SECONDS);
+            StorageService.StoredArtifacts stored = stream.complete(Files.writeString(tempDir.resolve("snapshot.mp4"), "clip"));
+
+            assertEquals(3, stored.framePaths().size());
+            assertEquals(4, client.putKeys.size());
+        } finally {
+            producer.shutdownNow();
+            service.shutdown();
+        }
+    }
+
+    private static StorageProperties s3Properties() {
+        StorageProperties properties = new StorageProperties();
+        properties.getLocal().setEnabled(false);
+        properties.getS3().setEnabled(true);
+        properties.getS3().setBucket("snaps");
+        properties.getS3().setPublicBaseUrl("https://cdn.example.com");
+        properties.getS3().setUploadRetryBackoffMs(0);
+        return properties;
+    }
+
+    /**
+     * In-memory S3 client; PUTs block until {@link #releasePuts} is counted down. {@link #objects} holds
+     * key -> LastModified for list/HEAD/delete, and {@link #afterList} runs once a listing is taken.
+     */
+    private static class StubS3Client implements S3Client {
+        private final List<String> putKeys = new CopyOnWriteArrayList<>();
+        private final CountDownLatch releasePuts = new CountDownLatch(1);
+        private final Map<String, Instant> objects = new ConcurrentHashMap<>();
+        private final List<String> deletedKeys = new CopyOnWriteArrayList<>();
+        private Runnable afterList = () -> {
+        };
+
+        @Override
+        public PutObjectResponse putObject(PutObjectRequest request, RequestBody body) {
+            try {
+                if (!releasePuts.await(5, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("PUT was never released: " + request.key());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            putKeys.add(request.key());
+            return PutObjectResponse.builder().build();
+        }
+
+        @Override
+        public ListObjectsV2Response listObjectsV2(ListObjectsV2Request request) {
+            List<S3Object> contents = objects.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(request.prefix()))
+                    .map(entry -> S3Object.builder().key(entry.getKey()).lastModified(entry.getValue()).build())
+                    .toList();
+            afterList.run();
+            return ListObjectsV2Response.builder().contents(contents).isTruncated(false).build();
+        }
+
+        @Override
+        public HeadObjectResponse headObject(HeadObjectRequest request) {
+            Instant lastModified = objects.get(request.key());
+            if (lastModified == null) {
+                throw S3Exception.builder().statusCode(404).message("not found").build();
+            }
+            return HeadObjectResponse.builder().lastModified(lastModified).build();
+        }
+
+        @Override
+        public DeleteObjectsResponse deleteObjects(DeleteObjectsRequest request) {
+            List<DeletedObject> deleted = new ArrayList<>();
+            for (ObjectIdentifier object : request.delete().objects()) {
+                if (objects.remove(object.key()) != null) {
+                    deletedKeys.add(object.key());
+                    deleted.add(DeletedObject.builder().key(object.key()).build());
+                }
+            }
+            return DeleteObjectsResponse.builder().deleted(deleted).build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "s3";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
 }
@@ -0,0 +1,94 @@
+package com.snapplayerapi.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snapplayerapi.api.config.ProcessingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VideoProbeCacheTest {
+
+    private static final String URL = "https://example.com/video.mp4";
+
+    @Test
+    void shouldServeRepeatedProbesFromMemory() {
+        CountingProbeService probeService = new CountingProbeService(compatibleProbe());
+        VideoProbeCache cache = new VideoProbeCache(new ProcessingProperties(), probeService, Optional.empty(), new SimpleMeterRegistry());
+
+        cache.probe(URL);
+        cache.probe("  " + URL + " ");
+
+        assertEquals(1, probeService.calls.get());
+        VideoProbeCache.Stats stats = cache.stats();
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.memoryHits());
+        assertEquals(1, stats.size());
+    }
+
+    @Test
+    void shouldUsePersistedProbeBeforeRunningFfprobe() {
+        CountingProbeService probeService = new CountingProbeService(compatibleProbe());
+        PersistedProbeSource persisted = urlHash -> urlHash.equals(VideoUrlKeys.urlHash(URL))
+                ? Optional.of(compatibleProbe())
+                : Optional.empty();
+        VideoProbeCache cache = new VideoProbeCache(new ProcessingProperties(), probeService, Optional.of(persisted), new SimpleMeterRegistry());
+
+        assertTrue(cache.probe(URL).compatible());
+        cache.probe(URL);
+
+        assertEquals(0, probeService.calls.get());
+        assertEquals(1, cache.stats().persistedHits());
+        assertEquals(1, cache.stats().memoryHits());
+    }
+
+    @Test
+    void shouldNotCacheIncompatibleProbes() {
+        CountingProbeService probeService = new CountingProbeService(VideoProbeService.ProbeResult.incompatible(
+                null, null, null, null, null, null, null, "ffprobe failed to open video: timeout"));
+        VideoProbeCache cache = new VideoProbeCache(new ProcessingProperties(), probeService, Optional.empty(), new SimpleMeterRegistry());
+
+        assertFalse(cache.probe(URL).compatible());
+        cache.probe(URL);
+
+        assertEquals(2, probeService.calls.get());
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void shouldBypassCacheWhenDisabled() {
+        ProcessingProperties properties = new ProcessingProperties();
+        properties.getProbeCache().setEnabled(false);
+        CountingProbeService probeService = new CountingProbeService(compatibleProbe());
+        VideoProbeCache cache = new VideoProbeCache(properties, probeService, Optional.empty(), new SimpleMeterRegistry());
+
+        cache.probe(URL);
+        cache.probe(URL);
+
+        assertEquals(2, probeService.calls.get());
+    }
+
+    private static VideoProbeService.ProbeResult compatibleProbe() {
+        return VideoProbeService.ProbeResult.compatible("mov,mp4,m4a,3gp,3g2,mj2", "h264", 1280, 720, 18.4, 29.97, "yuv420p");
+    }
+
+    private static final class CountingProbeService extends VideoProbeService {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final ProbeResult result;
+
+        private CountingProbeService(ProbeResult result) {
+            super(new ProcessingProperties(), new ObjectMapper());
+            this.result = result;
+        }
+
+        @Override
+        public ProbeResult probe(String videoUrl) {
+            calls.incrementAndGet();
+            return result;
+        }
+    }
+}
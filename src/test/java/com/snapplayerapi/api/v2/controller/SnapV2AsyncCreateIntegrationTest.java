@@ -7,15 +7,21 @@ import com.snapplayerapi.api.dto.ProcessingFilmagemResponse;
 import com.snapplayerapi.api.dto.ProcessingFrameResponse;
 import com.snapplayerapi.api.dto.ProcessingSnapshotVideoResponse;
 import com.snapplayerapi.api.dto.ProcessingVideoProbeResponse;
+import com.snapplayerapi.api.v2.config.SnapProperties;
+import com.snapplayerapi.api.v2.entity.AssinaturaEntity;
 import com.snapplayerapi.api.v2.entity.SnapProcessingJobEntity;
+import com.snapplayerapi.api.v2.repo.AssinaturaRepository;
 import com.snapplayerapi.api.v2.repo.SnapProcessingJobRepository;
+import com.snapplayerapi.api.v2.service.SnapJobQueueMetricsSampler;
 import com.snapplayerapi.api.v2.service.SnapProcessingGateway;
 import com.snapplayerapi.api.v2.service.SnapProcessingJobMaintenanceService;
 import com.snapplayerapi.api.v2.service.SnapProcessingJobWorker;
+import com.snapplayerapi.api.web.SnapJobQueueDepthResponse;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.List;
 import java.util.UUID;
@@ -59,6 +65,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
         "app.snap.workerLockTimeoutSeconds=1",
         "app.snap.jobRetentionHours=1",
         "app.snap.jobCleanupBatchSize=10",
+        // Only the explicit sampleOnce() calls may publish queue samples during the tests.
+        "app.snap.queueMetricsIntervalMs=3600000",
         "spring.jpa.hibernate.ddl-auto=none"
 })
 class SnapV2AsyncCreateIntegrationTest {
@@ -78,6 +86,15 @@ class SnapV2AsyncCreateIntegrationTest {
     @Autowired
     private SnapProcessingJobRepository snapProcessingJobRepository;
 
+    @Autowired
+    private SnapJobQueueMetricsSampler snapJobQueueMetricsSampler;
+
+    @Autowired
+    private AssinaturaRepository assinaturaRepository;
+
+    @Autowired
+    private SnapProperties snapProperties;
+
     @Test
     void shouldCreatePendingSnapAndCompleteAfterManualWorkerCycle() throws Exception {
         // Async create should persist a PENDING snap immediately, with processing outputs still empty.
@@ -162,12 +179,21 @@ class SnapV2AsyncCreateIntegrationTest {
                 .andExpect(jsonPath("$.job.status").value("COMPLETED"))
                 .andExpect(jsonPath("$.job.attempts").value(2));
 
+        // The stub gateway reports no pipeline stages; queue wait and finalize are measured by the worker.
+        SnapProcessingJobEntity completedJob = snapProcessingJobRepository.findBySnapId(snapId).orElseThrow();
+        Assertions.assertNotNull(completedJob.getQueueWaitMs());
+        Assertions.assertNotNull(completedJob.getFinalizeMs());
+        Assertions.assertNull(completedJob.getProbeMs());
+
         mockMvc.perform(get("/internal/observability/snap-job-metrics"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.claimedCount").isNumber())
                 .andExpect(jsonPath("$.retryScheduledCount").isNumber())
                 .andExpect(jsonPath("$.completedCount").isNumber())
-                .andExpect(jsonPath("$.terminalByStatus.COMPLETED").isNumber());
+                .andExpect(jsonPath("$.terminalByStatus.COMPLETED").isNumber())
+                .andExpect(jsonPath("$.stages.queue_wait.samples").isNumber())
+                .andExpect(jsonPath("$.stages.finalize.p99DurationMs").isNumber())
+                .andExpect(jsonPath("$.stages.finalize.last5m.windowSeconds").value(300));
     }
 
     @Test
@@ -224,6 +250,153 @@ class SnapV2AsyncCreateIntegrationTest {
                 .andExpect(jsonPath("$.cleanupDeletedCount").isNumber());
     }
 
+    @Test
+    void shouldClaimInteractiveLaneBeforeQueuedBatchJobsAndSampleQueueDepth() throws Exception {
+        UUID firstBatch = createSnap(withPriority(
+                createSnapBody("https://example.com/video-import.mp4", "importador", "import-1", "IMP-001", 400.0), "batch"));
+        UUID secondBatch = createSnap(withPriority(
+                createSnapBody("https://example.com/video-import.mp4", "importador", "import-2", "IMP-002", 401.0), "batch"));
+        UUID interactive = createSnap(
+                createSnapBody("https://example.com/video-live.mp4", "operador-live", "live-1", "LIVE-001", 402.0));
+
+        mockMvc.perform(get("/v2/snaps/{snapId}", firstBatch))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.job.priority").value("batch"));
+
+        SnapJobQueueDepthResponse before = snapJobQueueMetricsSampler.sampleOnce();
+        Assertions.assertEquals(1L, before.interactiveQueued());
+        Assertions.assertEquals(2L, before.batchQueued());
+        Assertions.assertEquals(1, before.tenantsQueued());
+
+        // workerBatchSize=1: the single claim must pick the interactive job enqueued last.
+        snapProcessingJobWorker.processPendingJobsOnce();
+
+        Assertions.assertEquals("COMPLETED", snapProcessingJobRepository.findBySnapId(interactive).orElseThrow().getStatus());
+        Assertions.assertEquals("PENDING", snapProcessingJobRepository.findBySnapId(firstBatch).orElseThrow().getStatus());
+        Assertions.assertEquals("PENDING", snapProcessingJobRepository.findBySnapId(secondBatch).orElseThrow().getStatus());
+
+        snapJobQueueMetricsSampler.sampleOnce();
+        mockMvc.perform(get("/internal/observability/snap-job-metrics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.queue.interactiveQueued").value(0))
+                .andExpect(jsonPath("$.queue.batchQueued").value(2))
+                .andExpect(jsonPath("$.queue.topTenants[0].batchQueued").value(2));
+    }
+
+    @Test
+    void shouldClaimOtherAssinaturaSecondBehindBacklogOfOneTenant() throws Exception {
+        Long tenantB = createAssinatura("fair-b");
+        UUID a1 = createSnap(createSnapBody("https://example.com/video-bulk.mp4", "importador", "bulk-a1", "BULK-A1", 410.0));
+        UUID a2 = createSnap(createSnapBody("https://example.com/video-bulk.mp4", "importador", "bulk-a2", "BULK-A2", 411.0));
+        UUID a3 = createSnap(createSnapBody("https://example.com/video-bulk.mp4", "importador", "bulk-a3", "BULK-A3", 412.0));
+        UUID b1 = createSnap(createSnapBody("https://example.com/video-other.mp4", "operador-b", "other-b1", "OTHER-B1", 413.0));
+        // Tenant A's backlog is older than tenant B's only job, so plain FIFO would serve B last.
+        queueJob(a1, null, 4);
+        queueJob(a2, null, 3);
+        queueJob(a3, null, 2);
+        queueJob(b1, tenantB, 1);
+
+        int batchSize = snapProperties.getWorkerBatchSize();
+        snapProperties.setWorkerBatchSize(4);
+        StubProcessingConfig.PROCESSED_SUBJECTS.clear();
+        try {
+            snapProcessingJobWorker.processPendingJobsOnce();
+        } finally {
+            snapProperties.setWorkerBatchSize(batchSize);
+        }
+
+        // One claim of four: every tenant's first job comes before anybody's second one.
+        Assertions.assertEquals(List.of("bulk-a1", "other-b1", "bulk-a2", "bulk-a3"), StubProcessingConfig.PROCESSED_SUBJECTS);
+    }
+
+    @Test
+    void shouldLeaveJobsBeyondTenantRunningCapQueued() throws Exception {
+        Long tenantB = createAssinatura("cap-b");
+        UUID a1 = createSnap(createSnapBody("https://example.com/video-bulk.mp4", "importador", "cap-a1", "CAP-A1", 420.0));
+        UUID a2 = createSnap(createSnapBody("https://example.com/video-bulk.mp4", "importador", "cap-a2", "CAP-A2", 421.0));
+        UUID a3 = createSnap(createSnapBody("https://example.com/video-bulk.mp4", "importador", "cap-a3", "CAP-A3", 422.0));
+        UUID b1 = createSnap(createSnapBody("https://example.com/video-other.mp4", "operador-b", "cap-b1", "CAP-B1", 423.0));
+        queueJob(a2, null, 3);
+        queueJob(a3, null, 2);
+        queueJob(b1, tenantB, 1);
+
+        // Tenant A already has one job running on another worker. Its lock is ahead of the 1 s stale
+        // timeout of this test context, as if that worker's heartbeat had just renewed it.
+        SnapProcessingJobEntity running = snapProcessingJobRepository.findBySnapId(a1).orElseThrow();
+        running.setStatus("RUNNING");
+        running.setAttempts(1);
+        running.setLockOwner("other-worker");
+        running.setLockedAt(OffsetDateTime.now(ZoneOffset.UTC).plusMinutes(5));
+        running.setStartedAt(OffsetDateTime.now(ZoneOffset.UTC));
+        snapProcessingJobRepository.saveAndFlush(running);
+
+        int batchSize = snapProperties.getWorkerBatchSize();
+        int tenantMaxRunning = snapProperties.getWorkerTenantMaxRunning();
+        snapProperties.setWorkerBatchSize(4);
+        snapProperties.setWorkerTenantMaxRunning(1);
+        StubProcessingConfig.PROCESSED_SUBJECTS.clear();
+        try {
+            snapProcessingJobWorker.processPendingJobsOnce();
+        } finally {
+            snapProperties.setWorkerBatchSize(batchSize);
+            snapProperties.setWorkerTenantMaxRunning(tenantMaxRunning);
+        }
+
+        // Room for four jobs, but tenant A is at its cap of one: only tenant B's job runs.
+        Assertions.assertEquals(List.of("cap-b1"), StubProcessingConfig.PROCESSED_SUBJECTS);
+        Assertions.assertEquals("RUNNING", snapProcessingJobRepository.findBySnapId(a1).orElseThrow().getStatus());
+        Assertions.assertEquals("PENDING", snapProcessingJobRepository.findBySnapId(a2).orElseThrow().getStatus());
+        Assertions.assertEquals("PENDING", snapProcessingJobRepository.findBySnapId(a3).orElseThrow().getStatus());
+        Assertions.assertEquals("COMPLETED", snapProcessingJobRepository.findBySnapId(b1).orElseThrow().getStatus());
+    }
+
+    @Test
+    void shouldRejectUnknownPriority() throws Exception {
+        mockMvc.perform(post("/v2/snaps")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(withPriority(
+                                createSnapBody("https://example.com/video-async.mp4", "operador-async", "async-2", "ASYNC-002", 455.0),
+                                "urgent")))
+                .andExpect(status().isBadRequest());
+    }
+
+    private UUID createSnap(String body) throws Exception {
+        String response = mockMvc.perform(post("/v2/snaps")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isAccepted())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return UUID.fromString(objectMapper.readTree(response).path("snapId").asText());
+    }
+
+    private Long createAssinatura(String codigo) {
+        AssinaturaEntity assinatura = new AssinaturaEntity();
+        assinatura.setCodigo(codigo);
+        assinatura.setNome(codigo);
+        assinatura.setStatus("ACTIVE");
+        assinatura.setCreatedAt(OffsetDateTime.now(ZoneOffset.UTC));
+        return assinaturaRepository.saveAndFlush(assinatura).getId();
+    }
+
+    /**
+     * Pins a queued job's due time (and optionally moves it to another assinatura) so claim order
+     * does not depend on creation timestamps that may tie.
+     */
+    private void queueJob(UUID snapId, Long assinaturaId, int dueMinutesAgo) {
+        SnapProcessingJobEntity job = snapProcessingJobRepository.findBySnapId(snapId).orElseThrow();
+        if (assinaturaId != null) {
+            job.setAssinaturaId(assinaturaId);
+        }
+        job.setNextRunAt(OffsetDateTime.now(ZoneOffset.UTC).minusMinutes(dueMinutesAgo));
+        snapProcessingJobRepository.saveAndFlush(job);
+    }
+
+    private static String withPriority(String body, String priority) {
+        return body.replaceFirst("\\{", "{\n  \"priority\": \"" + priority + "\",");
+    }
+
     private static String createSnapBody(String videoUrl, String nickname, String subjectId, String brinco, double peso) {
         // Local JSON fixture helper keeps the test focused on async state transitions.
         return """
@@ -258,12 +431,18 @@ class SnapV2AsyncCreateIntegrationTest {
          */
         private static final Map<String, AtomicInteger> SUBJECT_ATTEMPTS = new ConcurrentHashMap<>();
 
+        /**
+         * `subject.id` of every processed request, in processing order.
+         */
+        private static final List<String> PROCESSED_SUBJECTS = new CopyOnWriteArrayList<>();
+
         @Bean
         @Primary
         SnapProcessingGateway snapProcessingGateway() {
             return request -> {
                 OffsetDateTime now = OffsetDateTime.parse("2026-02-25T00:00:00Z");
                 String subjectId = request.subject().id();
+                PROCESSED_SUBJECTS.add(subjectId);
                 if (subjectId != null && subjectId.startsWith("fail-once-")) {
                     int call = SUBJECT_ATTEMPTS.computeIfAbsent(subjectId, ignored -> new AtomicInteger()).incrementAndGet();
                     if (call == 1) {
@@ -28,6 +28,8 @@ import org.springframework.transaction.annotation.Transactional;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -109,6 +111,38 @@ class SnapV2ControllerIntegrationTest {
                 .andExpect(jsonPath("$.videoProbe.compatible").value(true));
     }
 
+    @Test
+    void shouldServeStoredGzipBodyForCompletedSnap() throws Exception {
+        String createResponse = mockMvc.perform(post("/v2/snaps")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(createSnapBody("https://example.com/video-rendered.mp4", "operador-rendered", "r-1", "R-1", 12.0)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String snapId = objectMapper.readTree(createResponse).path("snapId").asText();
+
+        // Completed snaps are stored gzip-rendered at creation and sent untouched to gzip-capable clients.
+        byte[] gzipped = mockMvc.perform(get("/v2/snaps/{snapId}", UUID.fromString(snapId))
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+        try (java.util.zip.GZIPInputStream gzip = new java.util.zip.GZIPInputStream(new java.io.ByteArrayInputStream(gzipped))) {
+            JsonNode stored = objectMapper.readTree(gzip.readAllBytes());
+            Assertions.assertEquals(objectMapper.readTree(createResponse), stored);
+        }
+
+        mockMvc.perform(get("/v2/snaps/{snapId}", UUID.fromString(snapId)).header("Accept-Encoding", "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$.snapId").value(snapId))
+                .andExpect(jsonPath("$.nickname").value("operador-rendered"));
+    }
+
     @Test
     void shouldAcceptExplicitAssinaturaHeaderWithDefaultCodigo() throws Exception {
         // Entrega 3 (step 1): tenant context is formalized via optional header, while `default` remains valid.
@@ -212,6 +246,20 @@ class SnapV2ControllerIntegrationTest {
                 .andExpect(jsonPath("$.frames[0].fileName").value("frame_00001.jpg"))
                 .andExpect(jsonPath("$.email").doesNotExist())
                 .andExpect(jsonPath("$.outputDir").doesNotExist());
+
+        // Terminal snap: strong ETag + public max-age, then a conditional read answers 304 without a body.
+        String etag = mockMvc.perform(get("/public/snaps/{token}", token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", org.hamcrest.Matchers.containsString("max-age=300")))
+                .andExpect(header().string("ETag", org.hamcrest.Matchers.startsWith("\"" + snapId)))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/public/snaps/{token}", token).header("If-None-Match", "\"other\", W/" + etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
     }
 
     @Test
@@ -240,6 +288,27 @@ class SnapV2ControllerIntegrationTest {
                 .andExpect(jsonPath("$.total").value(3))
                 .andExpect(jsonPath("$.items.length()").value(3));
 
+        // Compact view: projected columns only, thumbnail taken from the first frame at completion.
+        mockMvc.perform(get("/v2/snaps/mine")
+                        .queryParam("nickname", "operador-mine")
+                        .queryParam("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.items[0].thumbnailPath").value(org.hamcrest.Matchers.endsWith("frame_00001.jpg")))
+                .andExpect(jsonPath("$.items[0].frameCount").value(2))
+                .andExpect(jsonPath("$.items[0].frames").doesNotExist())
+                .andExpect(jsonPath("$.items[0].subject").doesNotExist());
+
+        mockMvc.perform(get("/v2/snaps/mine")
+                        .queryParam("nickname", "operador-mine")
+                        .queryParam("view", "compact"))
+                .andExpect(status().isBadRequest());
+
+        // Lookups go through the normalized column, so casing/padding of the input does not matter.
+        mockMvc.perform(get("/v2/snaps/mine").queryParam("nickname", " Operador-MINE "))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3));
+
         String mineVideosResponse = mockMvc.perform(get("/v2/videos/mine").queryParam("nickname", "operador-mine"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.nickname").value("operador-mine"))
@@ -314,6 +383,107 @@ class SnapV2ControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value(org.hamcrest.Matchers.startsWith("Unsupported sortBy: invalido")));
     }
 
+    @Test
+    void shouldWalkMineSnapsWithKeysetCursorAndRejectInvalidCursorUsage() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            mockMvc.perform(post("/v2/snaps")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(createSnapBody("https://example.com/video-cursor.mp4", "operador-cursor", "c-" + i, "C-00" + i, 440.0)))
+                    .andExpect(status().isCreated());
+        }
+
+        // Follow `page.nextCursor` one row at a time: every snap appears exactly once, then the cursor ends.
+        List<String> seen = new java.util.ArrayList<>();
+        String after = null;
+        for (int page = 0; page < 3; page++) {
+            var request = get("/v2/snaps/mine")
+                    .queryParam("nickname", "operador-cursor")
+                    .queryParam("limit", "1")
+                    .queryParam("sortBy", "createdAt")
+                    .queryParam("sortDir", "desc");
+            if (after != null) {
+                request.queryParam("after", after);
+            }
+            JsonNode body = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.page.returned").value(1))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString());
+            seen.add(body.path("items").get(0).path("snapId").asText());
+            after = body.path("page").path("nextCursor").isNull() ? null : body.path("page").path("nextCursor").asText();
+            Assertions.assertEquals(page < 2, body.path("page").path("hasMore").asBoolean());
+        }
+        Assertions.assertNull(after);
+        Assertions.assertEquals(3, seen.stream().distinct().count());
+
+        mockMvc.perform(get("/v2/snaps/mine")
+                        .queryParam("nickname", "operador-cursor")
+                        .queryParam("sortBy", "resolvedStartSeconds")
+                        .queryParam("after", "djF8ZGVzY3wyMDI2LTAxLTAxVDAwOjAwOjAwWnwwMDAwMDAwMC0wMDAwLTAwMDAtMDAwMC0wMDAwMDAwMDAwMDA"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("after cursor requires sortBy=createdAt"));
+
+        mockMvc.perform(get("/v2/snaps/mine")
+                        .queryParam("nickname", "operador-cursor")
+                        .queryParam("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldSearchByTypedAttributePredicatesCombinedWithAnd() throws Exception {
+        mockMvc.perform(post("/v2/snaps")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(createSnapBody("https://example.com/video-typed.mp4", "operador-typed", "t-1", "TY-001", 430.5)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/v2/snaps")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(createSnapBody("https://example.com/video-typed.mp4", "operador-typed", "t-2", "TY-002", 480.0)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/v2/snaps")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(createSnapBody("https://example.com/video-typed.mp4", "operador-typed", "t-3", "TZ-003", 431.0)))
+                .andExpect(status().isCreated());
+
+        // range(peso) matches t-1 and t-3; prefix(brinco) matches t-1 and t-2; AND leaves only t-1.
+        mockMvc.perform(post("/v2/snaps/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "predicates": [
+                                    { "key": "peso", "op": "range", "min": 430, "max": 440 },
+                                    { "key": "Brinco", "op": "prefix", "value": "TY-" }
+                                  ]
+                                }
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.items[0].subject.id").value("t-1"))
+                .andExpect(jsonPath("$.page.hasMore").value(false));
+
+        mockMvc.perform(post("/v2/snaps/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "predicates": [ { "key": "brinco", "op": "in", "values": ["TY-002", "TZ-003", "nope"] } ],
+                                  "limit": 1,
+                                  "sortBy": "createdAt"
+                                }
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.page.hasMore").value(true))
+                .andExpect(jsonPath("$.page.nextCursor").isString());
+
+        mockMvc.perform(post("/v2/snaps/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                { "predicates": [ { "key": "peso", "op": "range" } ] }
+                                """))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("range predicate on 'peso' requires min and/or max"));
+    }
+
     @Test
     void shouldExposeRequestIdHeaderAndInternalHttpMetrics() throws Exception {
         // Any API call should return a correlation header even when the client does not provide one.
@@ -424,6 +594,27 @@ class SnapV2ControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value("Assinatura not found: assinatura-inexistente"));
     }
 
+    @Test
+    void shouldServeRepeatedTenantLookupsFromCacheUntilInvalidated() throws Exception {
+        JsonNode before = objectMapper.readTree(mockMvc.perform(post("/internal/tenant-cache/invalidate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.assinaturaByCodigo.size").value(0))
+                .andReturn().getResponse().getContentAsString()).path("assinaturaByCodigo");
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/v2/snaps/search").queryParam("subjectId", "qualquer"))
+                    .andExpect(status().isOk());
+        }
+
+        // First lookup loads the row from the DB, the second one is served from memory.
+        mockMvc.perform(get("/internal/observability/tenant-cache-metrics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enabled").value(true))
+                .andExpect(jsonPath("$.assinaturaByCodigo.size").value(1))
+                .andExpect(jsonPath("$.assinaturaByCodigo.misses").value(before.path("misses").asLong() + 1))
+                .andExpect(jsonPath("$.assinaturaByCodigo.hits").value(before.path("hits").asLong() + 1));
+    }
+
     @Test
     void shouldReturn404WhenPublicTokenDoesNotExist() throws Exception {
         mockMvc.perform(get("/public/snaps/{token}", "token-inexistente"))
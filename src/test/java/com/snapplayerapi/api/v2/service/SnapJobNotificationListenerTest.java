@@ -0,0 +1,160 @@
+package com.snapplayerapi.api.v2.service;
+
+import com.snapplayerapi.api.config.ProcessingProperties;
+import com.snapplayerapi.api.v2.config.SnapProperties;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link SnapJobNotificationListener} with the PostgreSQL connection replaced by a proxy
+ * whose `getNotifications` returns whatever the test pushes.
+ */
+class SnapJobNotificationListenerTest {
+
+    private final ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+    private SnapJobNotificationListener listener;
+
+    @AfterEach
+    void stop() {
+        if (listener != null) {
+            listener.stop();
+        }
+        taskScheduler.shutdown();
+    }
+
+    @Test
+    void shouldRunClaimCycleWhenNotificationArrives() throws Exception {
+        SnapProperties properties = new SnapProperties();
+        properties.setAsyncCreateEnabled(true);
+        properties.setWorkerEnabled(true);
+        properties.setWorkerNotifyEnabled(true);
+        CountingWorker worker = new CountingWorker(properties);
+        FakeListenConnection connection = new FakeListenConnection();
+        taskScheduler.initialize();
+
+        listener = new SnapJobNotificationListener(properties, new ActiveNotifier(properties), null, worker, taskScheduler) {
+            @Override
+            protected Connection openListenConnection() {
+                return connection.proxy;
+            }
+        };
+        listener.start();
+
+        // Connecting runs one catch-up cycle for jobs enqueued while nobody was listening.
+        assertTrue(worker.claimCycles.tryAcquire(5, TimeUnit.SECONDS), "no catch-up cycle after LISTEN");
+        assertEquals(List.of("LISTEN " + properties.getWorkerNotifyChannel()), connection.executed);
+        assertFalse(worker.claimCycles.tryAcquire(200, TimeUnit.MILLISECONDS), "cycle without a notification");
+
+        connection.notifications.add(notification(properties.getWorkerNotifyChannel()));
+
+        assertTrue(worker.claimCycles.tryAcquire(5, TimeUnit.SECONDS), "notification did not trigger a claim cycle");
+    }
+
+    private static PGNotification notification(String channel) {
+        return (PGNotification) Proxy.newProxyInstance(
+                PGNotification.class.getClassLoader(),
+                new Class<?>[] {PGNotification.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getName" -> channel;
+                    case "getParameter" -> "";
+                    case "getPID" -> 1;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    /**
+     * `Connection` + `PGConnection` proxy: records executed statements and hands out queued notifications.
+     */
+    private static final class FakeListenConnection {
+        private final List<String> executed = new CopyOnWriteArrayList<>();
+        private final BlockingQueue<PGNotification> notifications = new LinkedBlockingQueue<>();
+        private final Connection proxy = (Connection) Proxy.newProxyInstance(
+                SnapJobNotificationListenerTest.class.getClassLoader(),
+                new Class<?>[] {Connection.class, PGConnection.class},
+                (self, method, args) -> switch (method.getName()) {
+                    case "unwrap" -> self;
+                    case "createStatement" -> statement();
+                    case "getAutoCommit" -> true;
+                    case "close" -> null;
+                    case "getNotifications" -> poll((Integer) args[0]);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+
+        private PGNotification[] poll(int timeoutMs) {
+            try {
+                PGNotification notification = notifications.poll(timeoutMs, TimeUnit.MILLISECONDS);
+                return notification == null ? new PGNotification[0] : new PGNotification[] {notification};
+            } catch (InterruptedException e) {
+                // stop() interrupts the listener thread; the loop then sees `running == false`.
+                Thread.currentThread().interrupt();
+                return new PGNotification[0];
+            }
+        }
+
+        private Statement statement() {
+            return (Statement) Proxy.newProxyInstance(
+                    Statement.class.getClassLoader(),
+                    new Class<?>[] {Statement.class},
+                    (self, method, args) -> switch (method.getName()) {
+                        case "execute" -> executed.add((String) args[0]);
+                        case "close" -> null;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    }
+            );
+        }
+    }
+
+    /**
+     * Notifier that reports PostgreSQL without a datasource.
+     */
+    private static final class ActiveNotifier extends SnapJobNotifier {
+        ActiveNotifier(SnapProperties properties) {
+            super(properties, null, null, null);
+        }
+
+        @Override
+        public boolean isActive() {
+            return true;
+        }
+    }
+
+    /**
+     * Single-slot worker whose claim only counts cycles; stale recovery is skipped.
+     */
+    private static final class CountingWorker extends SnapProcessingJobWorker {
+        private final Semaphore claimCycles = new Semaphore(0);
+
+        CountingWorker(SnapProperties properties) {
+            super(properties, null, null, null, null, null, null, null, null, new ProcessingProperties());
+        }
+
+        @Override
+        public int recoverStaleRunningJobsOnce() {
+            return 0;
+        }
+
+        @Override
+        protected List<ClaimedJob> claimNextJobs(int limit) {
+            claimCycles.release();
+            return List.of();
+        }
+    }
+}
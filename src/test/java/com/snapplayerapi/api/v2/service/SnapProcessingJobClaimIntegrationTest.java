@@ -0,0 +1,135 @@
+package com.snapplayerapi.api.v2.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snapplayerapi.api.v2.entity.SnapProcessingJobEntity;
+import com.snapplayerapi.api.v2.repo.SnapProcessingJobRepository;
+import com.snapplayerapi.api.web.SnapJobObservabilityRegistry;
+import com.snapplayerapi.api.web.SnapJobObservabilitySnapshotResponse;
+import jakarta.persistence.EntityManager;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test for the batch claim (`findClaimableJobsForUpdate` + `markClaimed`) on H2.
+ *
+ * <p>Fair claiming is disabled so the plain FIFO lock query is the one exercised. The claim runs
+ * inside the test transaction, so the persistence context is cleared before reading the rows back
+ * to observe what the set-based update actually wrote.</p>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:snapv2claim;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "app.snap.asyncCreateEnabled=true",
+        "app.snap.workerEnabled=false",
+        "app.snap.workerFairClaimEnabled=false",
+        "app.snap.queueMetricsIntervalMs=3600000",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+class SnapProcessingJobClaimIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SnapProcessingJobWorker snapProcessingJobWorker;
+
+    @Autowired
+    private SnapProcessingJobRepository snapProcessingJobRepository;
+
+    @Autowired
+    private SnapJobObservabilityRegistry snapJobObservabilityRegistry;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void shouldLockAndMarkWholeBatchInOneClaimWithAttemptsPerRow() throws Exception {
+        UUID retried = createSnap("claim-1");
+        UUID second = createSnap("claim-2");
+        UUID third = createSnap("claim-3");
+
+        // One job already failed once and is due for its second attempt.
+        SnapProcessingJobEntity retryJob = snapProcessingJobRepository.findBySnapId(retried).orElseThrow();
+        retryJob.setStatus("RETRY_WAIT");
+        retryJob.setAttempts(1);
+        retryJob.setNextRunAt(OffsetDateTime.now(ZoneOffset.UTC).minusMinutes(1));
+        snapProcessingJobRepository.save(retryJob);
+        entityManager.flush();
+
+        SnapJobObservabilitySnapshotResponse before = snapJobObservabilityRegistry.snapshot();
+        List<SnapProcessingJobWorker.ClaimedJob> claimed = snapProcessingJobWorker.claimNextJobs(3);
+        SnapJobObservabilitySnapshotResponse after = snapJobObservabilityRegistry.snapshot();
+
+        Assertions.assertEquals(3, claimed.size());
+        Assertions.assertEquals(1L, after.claimBatchCount() - before.claimBatchCount());
+        Assertions.assertEquals(3L, after.claimedCount() - before.claimedCount());
+
+        // Attempts come from each locked row (+1), not from a shared counter.
+        Map<UUID, Integer> attemptsBySnap = claimed.stream()
+                .collect(Collectors.toMap(SnapProcessingJobWorker.ClaimedJob::snapId, SnapProcessingJobWorker.ClaimedJob::attempts));
+        Assertions.assertEquals(Map.of(retried, 2, second, 1, third, 1), attemptsBySnap);
+
+        entityManager.flush();
+        entityManager.clear();
+        for (UUID snapId : List.of(retried, second, third)) {
+            SnapProcessingJobEntity job = snapProcessingJobRepository.findBySnapId(snapId).orElseThrow();
+            Assertions.assertEquals("RUNNING", job.getStatus());
+            Assertions.assertEquals("local-worker", job.getLockOwner());
+            Assertions.assertNotNull(job.getLockedAt());
+            Assertions.assertNotNull(job.getStartedAt());
+            Assertions.assertEquals(attemptsBySnap.get(snapId), job.getAttempts());
+        }
+
+        // Nothing is left to claim once the batch is RUNNING.
+        Assertions.assertTrue(snapProcessingJobWorker.claimNextJobs(3).isEmpty());
+    }
+
+    private UUID createSnap(String subjectId) throws Exception {
+        String response = mockMvc.perform(post("/v2/snaps")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "videoUrl": "https://example.com/video-claim.mp4",
+                                  "nickname": "operador-claim",
+                                  "email": "operador-claim@example.com",
+                                  "dataFilmagem": "2026-02-24T14:30:00-03:00",
+                                  "startSeconds": 12.0,
+                                  "durationSeconds": 1.0,
+                                  "fps": 5,
+                                  "subject": {
+                                    "id": "%s",
+                                    "attributes": [
+                                      { "key": "brinco", "type": "string", "stringValue": "CLAIM-001" }
+                                    ]
+                                  }
+                                }
+                                """.formatted(subjectId)))
+                .andExpect(status().isAccepted())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return UUID.fromString(objectMapper.readTree(response).path("snapId").asText());
+    }
+}
@@ -0,0 +1,207 @@
+package com.snapplayerapi.api.v2.service;
+
+import com.snapplayerapi.api.config.ProcessingProperties;
+import com.snapplayerapi.api.v2.config.SnapProperties;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the multi-slot dispatch path of {@link SnapProcessingJobWorker}.
+ *
+ * <p>The claim transaction is replaced by an in-memory queue and job execution by a gateway stub that
+ * blocks until the test releases it, so slot occupancy can be observed deterministically.</p>
+ */
+class SnapProcessingJobWorkerTest {
+
+    private TestWorker worker;
+
+    @AfterEach
+    void stop() {
+        if (worker != null) {
+            worker.gateway.releaseAll();
+            worker.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRunOneJobPerSlotConcurrently() throws Exception {
+        worker = new TestWorker(3, 1);
+        worker.enqueue(5);
+
+        worker.dispatchPendingJobsOnce();
+
+        worker.gateway.awaitRunning(3);
+        assertEquals(3, worker.activeSlots());
+        assertEquals(List.of(3), worker.claimLimits);
+
+        // Every slot is busy, so the next poll must not even issue a claim.
+        worker.dispatchPendingJobsOnce();
+        assertEquals(List.of(3), worker.claimLimits);
+
+        worker.gateway.releaseAll();
+        awaitCondition(() -> worker.activeSlots() == 0);
+        assertEquals(3, worker.gateway.completed.size());
+        assertEquals(2, worker.queued());
+    }
+
+    @Test
+    void shouldReturnPermitsWhenClaimComesBackShort() throws Exception {
+        worker = new TestWorker(4, 1);
+        worker.enqueue(1);
+
+        worker.dispatchPendingJobsOnce();
+
+        worker.gateway.awaitRunning(1);
+        assertEquals(1, worker.activeSlots());
+        assertEquals(List.of(4), worker.claimLimits);
+
+        // The three permits the short claim did not use are free again for the next poll.
+        worker.enqueue(2);
+        worker.dispatchPendingJobsOnce();
+
+        worker.gateway.awaitRunning(3);
+        assertEquals(3, worker.activeSlots());
+        assertEquals(List.of(4, 3), worker.claimLimits);
+
+        worker.gateway.releaseAll();
+        awaitCondition(() -> worker.activeSlots() == 0);
+        assertEquals(3, worker.gateway.completed.size());
+    }
+
+    @Test
+    void shouldDrainInFlightSlotsOnShutdown() throws Exception {
+        worker = new TestWorker(2, 5);
+        worker.enqueue(4);
+
+        worker.dispatchPendingJobsOnce();
+        worker.gateway.awaitRunning(2);
+
+        Thread shutdown = new Thread(worker::shutdown);
+        shutdown.start();
+        shutdown.join(200);
+        assertTrue(shutdown.isAlive(), "shutdown must wait for running slots");
+
+        // Draining: polls are ignored and finished slots stop claiming follow-up jobs.
+        worker.dispatchPendingJobsOnce();
+        worker.gateway.releaseAll();
+        shutdown.join(5_000);
+
+        assertFalse(shutdown.isAlive(), "shutdown did not finish after the slots drained");
+        assertEquals(0, worker.activeSlots());
+        assertEquals(2, worker.gateway.completed.size());
+        assertEquals(List.of(2), worker.claimLimits);
+        assertEquals(2, worker.queued());
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not met within 5 seconds");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Stands in for the processing gateway: every job blocks until {@link #releaseAll()} is called.
+     */
+    private static final class BlockingGateway {
+        private final Semaphore started = new Semaphore(0);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<Long> completed = new CopyOnWriteArrayList<>();
+
+        void process(SnapProcessingJobWorker.ClaimedJob job) {
+            started.release();
+            try {
+                if (!release.await(5, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("job was never released: " + job.jobId());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            completed.add(job.jobId());
+        }
+
+        void awaitRunning(int jobs) throws InterruptedException {
+            if (!started.tryAcquire(jobs, 5, TimeUnit.SECONDS)) {
+                throw new AssertionError("expected " + jobs + " running jobs");
+            }
+            started.release(jobs);
+        }
+
+        void releaseAll() {
+            release.countDown();
+        }
+    }
+
+    /**
+     * Worker whose claim and job execution run in memory. Repositories, the transaction manager and the
+     * snap service are never reached through the overridden methods.
+     */
+    private static final class TestWorker extends SnapProcessingJobWorker {
+        private final BlockingGateway gateway = new BlockingGateway();
+        private final Deque<ClaimedJob> queue = new ArrayDeque<>();
+        private final List<Integer> claimLimits = new CopyOnWriteArrayList<>();
+        private long nextJobId = 1;
+
+        TestWorker(int concurrency, int batchSize) {
+            super(snapProperties(concurrency, batchSize), null, null, null, null, null, null, null, null, new ProcessingProperties());
+        }
+
+        private static SnapProperties snapProperties(int concurrency, int batchSize) {
+            SnapProperties properties = new SnapProperties();
+            properties.setAsyncCreateEnabled(true);
+            properties.setWorkerEnabled(true);
+            properties.setWorkerConcurrency(concurrency);
+            properties.setWorkerBatchSize(batchSize);
+            properties.setWorkerShutdownTimeoutSeconds(10);
+            return properties;
+        }
+
+        synchronized void enqueue(int jobs) {
+            for (int i = 0; i < jobs; i++) {
+                queue.add(new ClaimedJob(nextJobId++, UUID.randomUUID(), 1, 3, 0L));
+            }
+        }
+
+        synchronized int queued() {
+            return queue.size();
+        }
+
+        @Override
+        public int recoverStaleRunningJobsOnce() {
+            return 0;
+        }
+
+        @Override
+        protected synchronized List<ClaimedJob> claimNextJobs(int limit) {
+            claimLimits.add(limit);
+            List<ClaimedJob> claimed = new ArrayList<>();
+            while (claimed.size() < limit && !queue.isEmpty()) {
+                claimed.add(queue.poll());
+            }
+            return claimed;
+        }
+
+        @Override
+        protected void processClaimedJob(ClaimedJob claimedJob) {
+            gateway.process(claimedJob);
+        }
+    }
+}
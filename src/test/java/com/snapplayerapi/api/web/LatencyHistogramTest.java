@@ -0,0 +1,58 @@
+package com.snapplayerapi.api.web;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void shouldMapEveryValueIntoABucketWhoseUpperBoundCoversIt() {
+        for (long value = 0; value < 100_000; value += 7) {
+            int bucket = LatencyHistogram.bucketIndex(value);
+            long upper = LatencyHistogram.bucketUpperBound(bucket);
+            assertTrue(upper >= value, "upper bound below value " + value);
+            assertTrue(upper - value <= Math.max(1, value / LatencyHistogram.SUB_BUCKETS), "bucket too wide at " + value);
+        }
+    }
+
+    @Test
+    void shouldReportTailPercentilesThatAveragesHide() {
+        LatencyHistogram histogram = new LatencyHistogram(() -> 0L);
+        for (int i = 0; i < 980; i++) {
+            histogram.record(20);
+        }
+        for (int i = 0; i < 20; i++) {
+            histogram.record(4_000);
+        }
+
+        LatencyHistogram.Summary summary = histogram.cumulative();
+
+        assertEquals(1000, summary.count());
+        assertEquals(20, summary.p50Ms(), 1);
+        assertEquals(20, summary.p95Ms(), 1);
+        assertEquals(4_000, summary.p99Ms(), 4_000 / LatencyHistogram.SUB_BUCKETS);
+        assertEquals(4_000, summary.maxMs());
+    }
+
+    @Test
+    void shouldDropOldSamplesFromTimeWindowsButKeepThemCumulative() {
+        AtomicLong now = new AtomicLong(1_000_000L);
+        LatencyHistogram histogram = new LatencyHistogram(now::get);
+        histogram.record(5_000);
+
+        now.addAndGet(120_000L);
+        histogram.record(10);
+
+        assertEquals(1, histogram.window(60).count());
+        assertEquals(10, histogram.window(60).p99Ms());
+        assertEquals(2, histogram.window(300).count());
+        assertEquals(5_000, histogram.window(300).maxMs());
+
+        now.addAndGet(600_000L);
+        assertEquals(0, histogram.window(300).count());
+        assertEquals(2, histogram.cumulative().count());
+    }
+}